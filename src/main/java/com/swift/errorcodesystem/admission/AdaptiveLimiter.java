@@ -0,0 +1,105 @@
+package com.swift.errorcodesystem.admission;
+
+import com.swift.errorcodesystem.config.AdmissionControlProperties;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit of one endpoint class, adjusted from the latency of the requests it admitted. Requests over the
+ * limit wait in a bounded queue for a bounded time.
+ */
+final class AdaptiveLimiter {
+
+    enum Outcome {
+        ADMITTED, ADMITTED_AFTER_QUEUEING, QUEUE_FULL, TIMED_OUT;
+
+        boolean isAdmitted() {
+            return this == ADMITTED || this == ADMITTED_AFTER_QUEUEING;
+        }
+    }
+
+    private final AdmissionControlProperties.Limit settings;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotFreed = lock.newCondition();
+
+    // Written under the lock, volatile for the metric gauges
+    private volatile double limit;
+    private volatile int inFlight;
+    private volatile int queued;
+    private long lastBackoffNanos;
+    private boolean backedOff;
+
+    AdaptiveLimiter(AdmissionControlProperties.Limit settings) {
+        this.settings = settings;
+        this.limit = settings.getInitialLimit();
+    }
+
+    Outcome acquire() {
+        lock.lock();
+        try {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                return Outcome.ADMITTED;
+            }
+            if (queued >= settings.getMaxQueue()) {
+                return Outcome.QUEUE_FULL;
+            }
+            queued++;
+            try {
+                long remaining = settings.getMaxWait().toNanos();
+                while (inFlight >= (int) limit) {
+                    if (remaining <= 0) {
+                        return Outcome.TIMED_OUT;
+                    }
+                    remaining = slotFreed.awaitNanos(remaining);
+                }
+                inFlight++;
+                return Outcome.ADMITTED_AFTER_QUEUEING;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Outcome.TIMED_OUT;
+            } finally {
+                queued--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void release(long latencyNanos, boolean failed) {
+        lock.lock();
+        try {
+            // Only grow while the limit is actually in use, not while traffic is light
+            boolean saturated = inFlight * 2 >= limit;
+            inFlight--;
+            if (failed || latencyNanos > settings.getLatencyTarget().toNanos()) {
+                long now = System.nanoTime();
+                if (!backedOff || now - lastBackoffNanos >= settings.getMeasurementWindow().toNanos()) {
+                    limit = Math.max(settings.getMinLimit(), limit * settings.getBackoffRatio());
+                    lastBackoffNanos = now;
+                    backedOff = true;
+                }
+            } else if (saturated) {
+                limit = Math.min(settings.getMaxLimit(), limit + 1.0 / limit);
+            }
+            for (int free = (int) limit - inFlight; free > 0 && lock.hasWaiters(slotFreed); free--) {
+                slotFreed.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    double getLimit() {
+        return limit;
+    }
+
+    int getInFlight() {
+        return inFlight;
+    }
+
+    int getQueued() {
+        return queued;
+    }
+}
@@ -0,0 +1,207 @@
+package com.swift.errorcodesystem.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swift.errorcodesystem.catalog.ErrorCodeCatalog;
+import com.swift.errorcodesystem.config.AdmissionControlProperties;
+import com.swift.errorcodesystem.dto.ErrorCodeDto;
+import com.swift.errorcodesystem.exception.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Admits API requests per {@link EndpointClass} through an adaptive concurrency limit, so a flood of heavy reads
+ * can hold at most its own share of the request threads and database connections while lookups keep flowing.
+ * Requests over the limit queue briefly and are then shed: with 429 when the queue is full, with 503 when no slot
+ * freed up in time. Both carry an {@link ErrorResponse}, worded from the catalog's own error codes when configured.
+ */
+@Slf4j
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final AdmissionControlProperties properties;
+    private final ErrorCodeCatalog errorCodeCatalog;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<EndpointClass, AdaptiveLimiter> limiters = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> delayed = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> rejectedQueueFull = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> rejectedTimedOut = new EnumMap<>(EndpointClass.class);
+
+    public AdmissionControlFilter(AdmissionControlProperties properties, ErrorCodeCatalog errorCodeCatalog,
+                                  ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.errorCodeCatalog = errorCodeCatalog;
+        this.objectMapper = objectMapper;
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            AdaptiveLimiter limiter = new AdaptiveLimiter(properties.limitFor(endpointClass));
+            String tag = endpointClass.name().toLowerCase(Locale.ROOT);
+            limiters.put(endpointClass, limiter);
+            Gauge.builder("errorcode.admission.limit", limiter, AdaptiveLimiter::getLimit)
+                    .tag("class", tag).register(meterRegistry);
+            Gauge.builder("errorcode.admission.in.flight", limiter, AdaptiveLimiter::getInFlight)
+                    .tag("class", tag).register(meterRegistry);
+            Gauge.builder("errorcode.admission.queued", limiter, AdaptiveLimiter::getQueued)
+                    .tag("class", tag).register(meterRegistry);
+            delayed.put(endpointClass, Counter.builder("errorcode.admission.delayed")
+                    .description("Requests admitted after waiting in the queue")
+                    .tag("class", tag).register(meterRegistry));
+            rejectedQueueFull.put(endpointClass, Counter.builder("errorcode.admission.shed")
+                    .tag("class", tag).tag("reason", "queue-full").register(meterRegistry));
+            rejectedTimedOut.put(endpointClass, Counter.builder("errorcode.admission.shed")
+                    .tag("class", tag).tag("reason", "timeout").register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !pathMatcher.match(properties.getPathPattern(), pathOf(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = classify(request);
+        AdaptiveLimiter limiter = limiters.get(endpointClass);
+        AdaptiveLimiter.Outcome outcome = limiter.acquire();
+        if (!outcome.isAdmitted()) {
+            reject(response, endpointClass, outcome);
+            return;
+        }
+        if (outcome == AdaptiveLimiter.Outcome.ADMITTED_AFTER_QUEUEING) {
+            delayed.get(endpointClass).increment();
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            if (request.isAsyncStarted()) {
+                // Streaming responses hold their slot until they complete
+                request.getAsyncContext().addListener(new ReleaseOnComplete(limiter, start));
+            } else {
+                limiter.release(System.nanoTime() - start, failed);
+            }
+        }
+    }
+
+    EndpointClass classify(HttpServletRequest request) {
+        String path = pathOf(request);
+        if (properties.getHeavyPaths().stream().anyMatch(pattern -> matchesHeavyPath(pattern, path, request))) {
+            return EndpointClass.HEAVY;
+        }
+        boolean read = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod())
+                || properties.getLookupPaths().stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+        return read ? EndpointClass.LOOKUP : EndpointClass.WRITE;
+    }
+
+    private boolean matchesHeavyPath(String pattern, String path, HttpServletRequest request) {
+        int query = pattern.indexOf('?');
+        if (query < 0) {
+            return pathMatcher.match(pattern, path);
+        }
+        String[] parameter = pattern.substring(query + 1).split("=", 2);
+        String value = request.getParameter(parameter[0]);
+        return pathMatcher.match(pattern.substring(0, query), path)
+                && value != null && (parameter.length == 1 || parameter[1].equalsIgnoreCase(value));
+    }
+
+    private void reject(HttpServletResponse response, EndpointClass endpointClass, AdaptiveLimiter.Outcome outcome)
+            throws IOException {
+        boolean queueFull = outcome == AdaptiveLimiter.Outcome.QUEUE_FULL;
+        (queueFull ? rejectedQueueFull : rejectedTimedOut).get(endpointClass).increment();
+        HttpStatus status = queueFull ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.SERVICE_UNAVAILABLE;
+        Optional<ErrorCodeDto.ErrorCodeResponse> errorCode = catalogEntry(
+                queueFull ? properties.getTooManyRequestsCode() : properties.getOverloadedCode());
+
+        Map<String, String> details = new LinkedHashMap<>();
+        details.put("endpointClass", endpointClass.name().toLowerCase(Locale.ROOT));
+        errorCode.ifPresent(ec -> {
+            details.put("errorCode", ec.getCode());
+            if (ec.getSuggestedAction() != null) {
+                details.put("suggestedAction", ec.getSuggestedAction());
+            }
+        });
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(status.value())
+                .error(status.getReasonPhrase())
+                .message(errorCode.map(ErrorCodeDto.ErrorCodeResponse::getMessage).orElse(queueFull
+                        ? "Too many concurrent requests, please retry later"
+                        : "Service is overloaded, please retry later"))
+                .details(details)
+                .build();
+
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, properties.getRetryAfter().toSeconds())));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+
+    // Only from an already loaded catalog: an overloaded instance must not start a full catalog load to reject
+    private Optional<ErrorCodeDto.ErrorCodeResponse> catalogEntry(String code) {
+        if (code == null || !errorCodeCatalog.isLoaded()) {
+            return Optional.empty();
+        }
+        return errorCodeCatalog.findByCode(code);
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static final class ReleaseOnComplete implements AsyncListener {
+        private final AdaptiveLimiter limiter;
+        private final long start;
+        private volatile boolean failed;
+
+        private ReleaseOnComplete(AdaptiveLimiter limiter, long start) {
+            this.limiter = limiter;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            boolean errorStatus = event.getSuppliedResponse() instanceof HttpServletResponse response
+                    && response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+            limiter.release(System.nanoTime() - start, failed || errorStatus);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            failed = true;
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            failed = true;
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
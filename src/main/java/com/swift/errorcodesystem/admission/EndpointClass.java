@@ -0,0 +1,12 @@
+package com.swift.errorcodesystem.admission;
+
+/**
+ * Groups of endpoints that share one concurrency limit, so that each group is a bulkhead for the others.
+ */
+public enum EndpointClass {
+    // Single code or id lookups, served from caches or by primary key
+    LOOKUP,
+    // Scans and fan-outs over the whole catalog: search, statistics, full lists and trees
+    HEAVY,
+    WRITE
+}
@@ -0,0 +1,86 @@
+package com.swift.errorcodesystem.cache;
+
+import com.swift.errorcodesystem.config.CacheConfig;
+import com.swift.errorcodesystem.entity.ErrorCode;
+import com.swift.errorcodesystem.entity.Module;
+import com.swift.errorcodesystem.event.CatalogChangeEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Evicts the service-level result caches after a catalog write commits.
+ * Only the entries of the written project, category or module are dropped; lists owned by a module or
+ * category are matched on the hierarchy of their cached elements when the write affects a whole subtree.
+ * Cached values are {@link DetachedCopies}, never the entities of the request that loaded them.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogCacheEvictor {
+
+    private final CacheManager cacheManager;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        boolean created = event.getChangeType() == CatalogChangeEvent.ChangeType.CREATED;
+        Long projectId = event.getProjectId();
+
+        switch (event.getEntityType()) {
+            case PROJECT -> {
+                evict(CacheConfig.PROJECTS, CacheConfig.ALL_PROJECTS_KEY);
+                if (!created) {
+                    evict(CacheConfig.CATEGORIES_BY_PROJECT, projectId);
+                    evict(CacheConfig.ERROR_CODES_BY_PROJECT, projectId);
+                    evictMatching(CacheConfig.MODULES_BY_CATEGORY, Module.class,
+                            module -> projectId.equals(module.getCategory().getProject().getId()));
+                    evictMatching(CacheConfig.ERROR_CODES_BY_MODULE, ErrorCode.class,
+                            errorCode -> projectId.equals(errorCode.getModule().getCategory().getProject().getId()));
+                }
+            }
+            case CATEGORY -> {
+                evict(CacheConfig.CATEGORIES_BY_PROJECT, projectId);
+                if (!created) {
+                    evict(CacheConfig.MODULES_BY_CATEGORY, event.getCategoryId());
+                    evict(CacheConfig.ERROR_CODES_BY_PROJECT, projectId);
+                    evictMatching(CacheConfig.ERROR_CODES_BY_MODULE, ErrorCode.class,
+                            errorCode -> event.getCategoryId().equals(errorCode.getModule().getCategory().getId()));
+                }
+            }
+            case MODULE -> {
+                evict(CacheConfig.MODULES_BY_CATEGORY, event.getCategoryId());
+                if (!created) {
+                    evict(CacheConfig.ERROR_CODES_BY_MODULE, event.getModuleId());
+                    evict(CacheConfig.ERROR_CODES_BY_PROJECT, projectId);
+                }
+            }
+            case ERROR_CODE -> {
+                evict(CacheConfig.ERROR_CODES_BY_MODULE, event.getModuleId());
+                evict(CacheConfig.ERROR_CODES_BY_PROJECT, projectId);
+            }
+        }
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+
+    // Cached lists are fetched with their hierarchy, so the first element tells which subtree the entry belongs to.
+    // An empty list tells nothing and may belong to the subtree, so it is dropped as well.
+    private <T> void evictMatching(String cacheName, Class<T> elementType, Predicate<T> inScope) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null && cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache) {
+            nativeCache.asMap().values().removeIf(value -> value instanceof List<?> list && (list.isEmpty()
+                    || elementType.isInstance(list.get(0)) && inScope.test(elementType.cast(list.get(0)))));
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.swift.errorcodesystem.cache;
+
+import com.swift.errorcodesystem.entity.Category;
+import com.swift.errorcodesystem.entity.ErrorCode;
+import com.swift.errorcodesystem.entity.Module;
+import com.swift.errorcodesystem.entity.Project;
+
+import java.util.List;
+
+/**
+ * Copies of catalog entities that belong to no persistence context, for the service-level result caches.
+ * A cached list is shared by every later request and thread, so it must not hold the managed instances of the
+ * request that loaded it. Each copy carries its parents (copied the same way) but none of its child collections.
+ */
+public final class DetachedCopies {
+
+    private DetachedCopies() {
+    }
+
+    public static List<Project> ofProjects(List<Project> projects) {
+        return projects.stream().map(DetachedCopies::of).toList();
+    }
+
+    public static List<Category> ofCategories(List<Category> categories) {
+        return categories.stream().map(DetachedCopies::of).toList();
+    }
+
+    public static List<Module> ofModules(List<Module> modules) {
+        return modules.stream().map(DetachedCopies::of).toList();
+    }
+
+    public static List<ErrorCode> ofErrorCodes(List<ErrorCode> errorCodes) {
+        return errorCodes.stream().map(DetachedCopies::of).toList();
+    }
+
+    static Project of(Project project) {
+        if (project == null) {
+            return null;
+        }
+        return Project.builder()
+                .id(project.getId())
+                .name(project.getName())
+                .description(project.getDescription())
+                .code(project.getCode())
+                .owner(project.getOwner())
+                .status(project.getStatus())
+                .createdAt(project.getCreatedAt())
+                .updatedAt(project.getUpdatedAt())
+                .version(project.getVersion())
+                .build();
+    }
+
+    static Category of(Category category) {
+        if (category == null) {
+            return null;
+        }
+        return Category.builder()
+                .id(category.getId())
+                .name(category.getName())
+                .description(category.getDescription())
+                .code(category.getCode())
+                .project(of(category.getProject()))
+                .createdAt(category.getCreatedAt())
+                .updatedAt(category.getUpdatedAt())
+                .version(category.getVersion())
+                .build();
+    }
+
+    static Module of(Module module) {
+        if (module == null) {
+            return null;
+        }
+        return Module.builder()
+                .id(module.getId())
+                .name(module.getName())
+                .description(module.getDescription())
+                .code(module.getCode())
+                .category(of(module.getCategory()))
+                .purpose(module.getPurpose())
+                .createdAt(module.getCreatedAt())
+                .updatedAt(module.getUpdatedAt())
+                .version(module.getVersion())
+                .build();
+    }
+
+    static ErrorCode of(ErrorCode errorCode) {
+        if (errorCode == null) {
+            return null;
+        }
+        return ErrorCode.builder()
+                .id(errorCode.getId())
+                .code(errorCode.getCode())
+                .message(errorCode.getMessage())
+                .description(errorCode.getDescription())
+                .suggestedAction(errorCode.getSuggestedAction())
+                .severity(errorCode.getSeverity())
+                .httpStatus(errorCode.getHttpStatus())
+                .httpStatusCode(errorCode.getHttpStatusCode())
+                .isRetryable(errorCode.getIsRetryable())
+                .module(of(errorCode.getModule()))
+                .createdAt(errorCode.getCreatedAt())
+                .updatedAt(errorCode.getUpdatedAt())
+                .version(errorCode.getVersion())
+                .build();
+    }
+}
@@ -0,0 +1,146 @@
+package com.swift.errorcodesystem.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.swift.errorcodesystem.dto.ErrorCodeDto;
+import com.swift.errorcodesystem.entity.ErrorCode;
+import com.swift.errorcodesystem.event.CatalogChangeEvent;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Caches the UTF-8 JSON of each {@link ErrorCodeDto.ErrorCodeResponse} by error code id and version, so hot codes
+ * are neither mapped to a DTO nor re-serialized on every request. Entries embed project, category and module names,
+ * so they are also dropped when anything above them is renamed or deleted; the version of the error code itself
+ * does not tell, so a fragment mapped while such a drop ran is not stored.
+ */
+@Component
+@Slf4j
+public class ErrorCodeJsonCache {
+
+    private static final long MAX_CACHED_BYTES = 32L * 1024 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final GenerationGuard stores = new GenerationGuard();
+    private final Cache<Long, Entry> entries = Caffeine.newBuilder()
+            .maximumWeight(MAX_CACHED_BYTES)
+            .weigher((Long id, Entry entry) -> entry.getJson().length)
+            .build();
+
+    public ErrorCodeJsonCache(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public byte[] toJson(ErrorCode errorCode) {
+        Entry entry = entries.getIfPresent(errorCode.getId());
+        if (entry != null && Objects.equals(entry.getVersion(), errorCode.getVersion())) {
+            return entry.getJson();
+        }
+        long generation = stores.current();
+        return store(ErrorCodeDto.ErrorCodeResponse.fromEntity(errorCode), generation);
+    }
+
+    /**
+     * Same JSON as {@link #toJson(ErrorCode)}, for an error code already mapped to its plain response, e.g. by the
+     * in-memory catalog. The response must not carry per-request fields such as distinct callers.
+     */
+    public byte[] toJson(ErrorCodeDto.ErrorCodeResponse errorCode) {
+        Entry entry = entries.getIfPresent(errorCode.getId());
+        if (entry != null && Objects.equals(entry.getVersion(), errorCode.getVersion())) {
+            return entry.getJson();
+        }
+        return store(errorCode, stores.current());
+    }
+
+    /**
+     * Writes the cached JSON of an error code with one more field, whose value is serialized for this call only.
+     */
+    public void writeWithField(ErrorCode errorCode, String name, Object value, OutputStream outputStream)
+            throws IOException {
+        byte[] json = toJson(errorCode);
+        // The cached object always has fields, so the extra one goes after a comma before its closing brace
+        outputStream.write(json, 0, json.length - 1);
+        outputStream.write(',');
+        outputStream.write(objectMapper.writeValueAsBytes(name));
+        outputStream.write(':');
+        outputStream.write(objectMapper.writeValueAsBytes(value));
+        outputStream.write('}');
+    }
+
+    public void writeArray(Collection<ErrorCode> errorCodes, OutputStream outputStream) throws IOException {
+        writeArray(errorCodes, this::toJson, outputStream);
+    }
+
+    public void writeResponseArray(Collection<ErrorCodeDto.ErrorCodeResponse> errorCodes, OutputStream outputStream)
+            throws IOException {
+        writeArray(errorCodes, this::toJson, outputStream);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        switch (event.getEntityType()) {
+            case ERROR_CODE -> stores.invalidate(() -> entries.invalidate(event.getEntityId()));
+            case PROJECT -> invalidateMatching(event, entry -> event.getProjectId().equals(entry.getProjectId()));
+            case CATEGORY -> invalidateMatching(event, entry -> event.getCategoryId().equals(entry.getCategoryId()));
+            case MODULE -> invalidateMatching(event, entry -> event.getModuleId().equals(entry.getModuleId()));
+        }
+    }
+
+    private void invalidateMatching(CatalogChangeEvent event, Predicate<Entry> inScope) {
+        // A new project, category or module has no error codes cached below it yet
+        if (event.getChangeType() != CatalogChangeEvent.ChangeType.CREATED) {
+            stores.invalidate(() -> entries.asMap().values().removeIf(inScope));
+        }
+    }
+
+    private <T> void writeArray(Collection<T> errorCodes, Function<T, byte[]> toJson, OutputStream outputStream)
+            throws IOException {
+        outputStream.write('[');
+        boolean first = true;
+        for (T errorCode : errorCodes) {
+            if (!first) {
+                outputStream.write(',');
+            }
+            outputStream.write(toJson.apply(errorCode));
+            first = false;
+        }
+        outputStream.write(']');
+    }
+
+    // Serves the JSON either way, but only caches it if no invalidation ran since the generation was taken
+    private byte[] store(ErrorCodeDto.ErrorCodeResponse errorCode, long generation) {
+        Entry serialized = new Entry(errorCode.getVersion(), serialize(errorCode),
+                errorCode.getProjectId(), errorCode.getCategoryId(), errorCode.getModuleId());
+        stores.publishIfCurrent(generation, () -> entries.put(errorCode.getId(), serialized));
+        return serialized.getJson();
+    }
+
+    private byte[] serialize(ErrorCodeDto.ErrorCodeResponse errorCode) {
+        try {
+            return objectMapper.writeValueAsBytes(errorCode);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Value
+    private static class Entry {
+        Long version;
+        byte[] json;
+        Long projectId;
+        Long categoryId;
+        Long moduleId;
+    }
+}
@@ -0,0 +1,41 @@
+package com.swift.errorcodesystem.cache;
+
+/**
+ * Keeps a cache that loads outside any lock from publishing a value read before a write committed. A loader takes
+ * the {@link #current()} generation before reading and publishes through {@link #publishIfCurrent}, which does
+ * nothing once an {@link #invalidate} has run in between.
+ */
+public final class GenerationGuard {
+
+    private long generation;
+
+    public synchronized long current() {
+        return generation;
+    }
+
+    /**
+     * Runs {@code publish} unless the generation moved past {@code loadedGeneration}.
+     *
+     * @return whether it ran
+     */
+    public synchronized boolean publishIfCurrent(long loadedGeneration, Runnable publish) {
+        if (loadedGeneration != generation) {
+            return false;
+        }
+        publish.run();
+        return true;
+    }
+
+    public void invalidate() {
+        invalidate(() -> {
+        });
+    }
+
+    /**
+     * Moves to the next generation and runs {@code eviction} before any load can publish again.
+     */
+    public synchronized void invalidate(Runnable eviction) {
+        generation++;
+        eviction.run();
+    }
+}
@@ -0,0 +1,69 @@
+package com.swift.errorcodesystem.cache;
+
+import com.swift.errorcodesystem.entity.Category;
+import com.swift.errorcodesystem.entity.ErrorCode;
+import com.swift.errorcodesystem.entity.Module;
+import com.swift.errorcodesystem.entity.Project;
+import com.swift.errorcodesystem.event.CatalogChangeEvent;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts Hibernate's second-level cache for writes made by other instances. Hibernate keeps its cache consistent
+ * with this instance's own writes, but never sees the others', so each remote change drops the written entity,
+ * the parent collection it belongs to and the query cache. Deleting a project or category also removed its
+ * subtree, so the lower levels are dropped whole.
+ */
+@Component
+@RequiredArgsConstructor
+public class RemoteSecondLevelCacheEvictor {
+
+    private static final String PROJECT_CATEGORIES = Project.class.getName() + ".categories";
+    private static final String CATEGORY_MODULES = Category.class.getName() + ".modules";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (!event.isRemote()) {
+            return;
+        }
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        boolean deleted = event.getChangeType() == CatalogChangeEvent.ChangeType.DELETED;
+
+        switch (event.getEntityType()) {
+            case PROJECT -> {
+                cache.evictEntityData(Project.class, event.getEntityId());
+                cache.evictCollectionData(PROJECT_CATEGORIES, event.getEntityId());
+                if (deleted) {
+                    cache.evictEntityData(Category.class);
+                    cache.evictEntityData(Module.class);
+                    cache.evictEntityData(ErrorCode.class);
+                    cache.evictCollectionData(CATEGORY_MODULES);
+                }
+            }
+            case CATEGORY -> {
+                cache.evictEntityData(Category.class, event.getEntityId());
+                cache.evictCollectionData(PROJECT_CATEGORIES, event.getProjectId());
+                cache.evictCollectionData(CATEGORY_MODULES, event.getEntityId());
+                if (deleted) {
+                    cache.evictEntityData(Module.class);
+                    cache.evictEntityData(ErrorCode.class);
+                }
+            }
+            case MODULE -> {
+                cache.evictEntityData(Module.class, event.getEntityId());
+                cache.evictCollectionData(CATEGORY_MODULES, event.getCategoryId());
+                if (deleted) {
+                    cache.evictEntityData(ErrorCode.class);
+                }
+            }
+            case ERROR_CODE -> cache.evictEntityData(ErrorCode.class, event.getEntityId());
+        }
+        cache.evictDefaultQueryRegion();
+    }
+}
@@ -0,0 +1,57 @@
+package com.swift.errorcodesystem.cache;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.swift.errorcodesystem.dto.ErrorCodeDto;
+import com.swift.errorcodesystem.entity.ErrorCode;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Response body for one or many error codes. JSON responses are written from the cached fragments of
+ * {@link ErrorCodeJsonCache}; any other representation falls back to the regular {@link ErrorCodeDto.ErrorCodeResponse}.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class SerializedErrorCodes {
+    private final List<ErrorCode> errorCodes;
+    // Set instead of the entities for error codes served already mapped, e.g. from the in-memory catalog
+    private final List<ErrorCodeDto.ErrorCodeResponse> responses;
+    private final boolean single;
+    // Set per response for a single error code, never cached with it
+    private final ErrorCodeDto.DistinctCallers distinctCallers;
+
+    public static SerializedErrorCodes of(ErrorCode errorCode) {
+        return of(errorCode, null);
+    }
+
+    public static SerializedErrorCodes of(ErrorCode errorCode, ErrorCodeDto.DistinctCallers distinctCallers) {
+        return new SerializedErrorCodes(List.of(errorCode), null, true, distinctCallers);
+    }
+
+    public static SerializedErrorCodes of(List<ErrorCode> errorCodes) {
+        return new SerializedErrorCodes(errorCodes, null, false, null);
+    }
+
+    public static SerializedErrorCodes ofResponses(List<ErrorCodeDto.ErrorCodeResponse> responses) {
+        return new SerializedErrorCodes(null, responses, false, null);
+    }
+
+    @JsonValue
+    public Object toResponse() {
+        if (responses != null) {
+            return responses;
+        }
+        if (single) {
+            ErrorCodeDto.ErrorCodeResponse response = ErrorCodeDto.ErrorCodeResponse.fromEntity(errorCodes.get(0));
+            response.setDistinctCallers(distinctCallers);
+            return response;
+        }
+        return errorCodes.stream()
+                .map(ErrorCodeDto.ErrorCodeResponse::fromEntity)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,197 @@
+package com.swift.errorcodesystem.catalog;
+
+import com.swift.errorcodesystem.dto.ErrorCodeDto;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Bitmap index over the low-cardinality attributes of the catalog's error codes. Every error code gets a dense slot
+ * number, reused after deletes, and every attribute value a bitset of the slots holding it. A filter is then the AND
+ * across attributes of the OR of each attribute's wanted values, and counts are bit counts, so the cost depends on
+ * the number of slots divided by 64 rather than on the entries themselves. A condition the bitmaps cannot express,
+ * such as a text match, is passed as a residual predicate and only tested on the entries the bitmaps left over.
+ */
+final class BitmapIndex {
+
+    enum Attribute {
+        SEVERITY(ErrorCodeDto.ErrorCodeResponse::getSeverity),
+        HTTP_STATUS(ErrorCodeDto.ErrorCodeResponse::getHttpStatus),
+        RETRYABLE(ErrorCodeDto.ErrorCodeResponse::getIsRetryable),
+        PROJECT_CODE(ErrorCodeDto.ErrorCodeResponse::getProjectCode),
+        CATEGORY_CODE(ErrorCodeDto.ErrorCodeResponse::getCategoryCode),
+        MODULE_CODE(ErrorCodeDto.ErrorCodeResponse::getModuleCode);
+
+        private final Function<ErrorCodeDto.ErrorCodeResponse, Object> value;
+
+        Attribute(Function<ErrorCodeDto.ErrorCodeResponse, Object> value) {
+            this.value = value;
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    private final List<ErrorCodeDto.ErrorCodeResponse> entries = new ArrayList<>();
+    private final BitSet live = new BitSet();
+    private final Map<Attribute, Map<Object, BitSet>> bitmaps = new EnumMap<>(Attribute.class);
+
+    BitmapIndex() {
+        for (Attribute attribute : Attribute.values()) {
+            bitmaps.put(attribute, new HashMap<>());
+        }
+    }
+
+    void put(ErrorCodeDto.ErrorCodeResponse errorCode) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(errorCode.getId());
+            int slot = live.nextClearBit(0);
+            if (slot == entries.size()) {
+                entries.add(errorCode);
+            } else {
+                entries.set(slot, errorCode);
+            }
+            live.set(slot);
+            slotsById.put(errorCode.getId(), slot);
+            for (Attribute attribute : Attribute.values()) {
+                Object value = attribute.value.apply(errorCode);
+                if (value != null) {
+                    bitmaps.get(attribute).computeIfAbsent(value, key -> new BitSet()).set(slot);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Entries matching every attribute's conditions, in slot order. An attribute without conditions matches all.
+     */
+    List<ErrorCodeDto.ErrorCodeResponse> select(Map<Attribute, ? extends Collection<?>> conditions) {
+        return select(conditions, null);
+    }
+
+    /**
+     * Entries matching every attribute's conditions and the residual predicate, if any, in slot order.
+     */
+    List<ErrorCodeDto.ErrorCodeResponse> select(Map<Attribute, ? extends Collection<?>> conditions,
+                                                Predicate<ErrorCodeDto.ErrorCodeResponse> residual) {
+        lock.readLock().lock();
+        try {
+            BitSet matched = evaluate(conditions, residual);
+            List<ErrorCodeDto.ErrorCodeResponse> selected = new ArrayList<>(matched.cardinality());
+            matched.stream().forEach(slot -> selected.add(entries.get(slot)));
+            return selected;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int count(Map<Attribute, ? extends Collection<?>> conditions) {
+        lock.readLock().lock();
+        try {
+            return evaluate(conditions, null).cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    Map<Attribute, Map<Object, Long>> facetCounts(Map<Attribute, ? extends Collection<?>> conditions) {
+        return facetCounts(conditions, null);
+    }
+
+    /**
+     * Number of entries matching the conditions and the residual predicate, if any, per value of every attribute,
+     * leaving out values without any.
+     */
+    Map<Attribute, Map<Object, Long>> facetCounts(Map<Attribute, ? extends Collection<?>> conditions,
+                                                  Predicate<ErrorCodeDto.ErrorCodeResponse> residual) {
+        lock.readLock().lock();
+        try {
+            BitSet matched = evaluate(conditions, residual);
+            // One scratch bitmap for every intersection instead of a copy per value
+            BitSet intersection = new BitSet(matched.length());
+            Map<Attribute, Map<Object, Long>> counts = new EnumMap<>(Attribute.class);
+            bitmaps.forEach((attribute, values) -> {
+                Map<Object, Long> valueCounts = new LinkedHashMap<>();
+                values.forEach((value, bitmap) -> {
+                    intersection.clear();
+                    intersection.or(bitmap);
+                    intersection.and(matched);
+                    int count = intersection.cardinality();
+                    if (count > 0) {
+                        valueCounts.put(value, (long) count);
+                    }
+                });
+                counts.put(attribute, valueCounts);
+            });
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private BitSet evaluate(Map<Attribute, ? extends Collection<?>> conditions,
+                            Predicate<ErrorCodeDto.ErrorCodeResponse> residual) {
+        BitSet matched = (BitSet) live.clone();
+        conditions.forEach((attribute, wanted) -> {
+            if (wanted == null || wanted.isEmpty()) {
+                return;
+            }
+            BitSet anyOf = new BitSet();
+            for (Object value : wanted) {
+                BitSet bitmap = bitmaps.get(attribute).get(value);
+                if (bitmap != null) {
+                    anyOf.or(bitmap);
+                }
+            }
+            matched.and(anyOf);
+        });
+        if (residual != null) {
+            for (int slot = matched.nextSetBit(0); slot >= 0; slot = matched.nextSetBit(slot + 1)) {
+                if (!residual.test(entries.get(slot))) {
+                    matched.clear(slot);
+                }
+            }
+        }
+        return matched;
+    }
+
+    private void removeLocked(Long id) {
+        Integer slot = slotsById.remove(id);
+        if (slot == null) {
+            return;
+        }
+        ErrorCodeDto.ErrorCodeResponse removed = entries.set(slot, null);
+        live.clear(slot);
+        for (Attribute attribute : Attribute.values()) {
+            Object value = attribute.value.apply(removed);
+            BitSet bitmap = value == null ? null : bitmaps.get(attribute).get(value);
+            if (bitmap != null) {
+                bitmap.clear(slot);
+                if (bitmap.isEmpty()) {
+                    bitmaps.get(attribute).remove(value);
+                }
+            }
+        }
+    }
+}
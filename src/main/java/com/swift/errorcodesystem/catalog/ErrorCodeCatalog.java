@@ -0,0 +1,372 @@
+package com.swift.errorcodesystem.catalog;
+
+import com.swift.errorcodesystem.cache.GenerationGuard;
+import com.swift.errorcodesystem.dto.ErrorCodeDto;
+import com.swift.errorcodesystem.entity.ErrorCode;
+import com.swift.errorcodesystem.event.CatalogChangeEvent;
+import com.swift.errorcodesystem.repository.ErrorCodeRepository;
+import com.swift.errorcodesystem.repository.ModuleRepository;
+import com.swift.errorcodesystem.sharding.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory, read-only view of the whole error code catalog, used by the non-blocking read API.
+ * The view is loaded on first access, patched in place for error code writes and reloaded
+ * lazily after any change to the project/category/module hierarchy.
+ * <p>
+ * Message and description texts are also kept in a {@link MinHashIndex} for near-duplicate lookups. Hierarchy
+ * changes do not alter any text, so the index outlives snapshot reloads and is only reconciled with them.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ErrorCodeCatalog {
+
+    public static final double DEFAULT_MIN_SIMILARITY = 0.5;
+    public static final int DEFAULT_SIMILAR_LIMIT = 5;
+    public static final int MAX_AUTOCOMPLETE_LIMIT = 50;
+
+    private final ErrorCodeRepository errorCodeRepository;
+    private final ModuleRepository moduleRepository;
+    private final ShardRouter shardRouter;
+
+    private final GenerationGuard loads = new GenerationGuard();
+    private final MinHashIndex similarityIndex = new MinHashIndex();
+    private volatile Snapshot snapshot;
+
+    public boolean isLoaded() {
+        return snapshot != null;
+    }
+
+    public Optional<ErrorCodeDto.ErrorCodeResponse> findByCode(String code) {
+        return Optional.ofNullable(snapshot().byCode.get(code));
+    }
+
+    public Optional<ErrorCodeDto.ErrorCodeResponse> findById(Long id) {
+        return Optional.ofNullable(snapshot().byId.get(id));
+    }
+
+    public Collection<ErrorCodeDto.ErrorCodeResponse> getAllErrorCodes() {
+        return snapshot().byCode.values();
+    }
+
+    public List<ErrorCodeDto.ModuleResponse> getModules(Long categoryId) {
+        return snapshot().modules.values().stream()
+                .filter(module -> categoryId == null || categoryId.equals(module.getCategoryId()))
+                .toList();
+    }
+
+    public Collection<ErrorCodeDto.ErrorCodeResponse> getErrorCodesByModuleId(Long moduleId) {
+        Snapshot current = snapshot();
+        ErrorCodeDto.ModuleResponse module = current.modules.get(moduleId);
+        if (module == null) {
+            return List.of();
+        }
+        String prefix = module.getProjectCode() + "-" + module.getCategoryCode() + "-" + module.getCode() + "-";
+        return byCodePrefix(current.byCode, prefix).values();
+    }
+
+    /**
+     * Error codes starting with {@code prefix}, e.g. "01-05" for everything under project 01 / category 05, in code
+     * order and at most {@code limit} of them.
+     */
+    public List<ErrorCodeDto.ErrorCodeResponse> findByCodePrefix(String prefix, int limit) {
+        return byCodePrefix(snapshot().byCode, prefix).values().stream()
+                .limit(Math.max(limit, 1))
+                .toList();
+    }
+
+    /**
+     * The first codes and message words, both in sorted order, that start with {@code prefix}. Words are matched
+     * ignoring case.
+     */
+    public ErrorCodeDto.AutocompleteResponse autocomplete(String prefix, int limit) {
+        Snapshot current = snapshot();
+        int topK = Math.max(1, Math.min(limit, MAX_AUTOCOMPLETE_LIMIT));
+        String wordPrefix = prefix.toLowerCase(Locale.ROOT);
+        return ErrorCodeDto.AutocompleteResponse.builder()
+                .prefix(prefix)
+                .codes(byCodePrefix(current.byCode, prefix).values().stream()
+                        .limit(topK)
+                        .map(errorCode -> ErrorCodeDto.CodeSuggestion.builder()
+                                .code(errorCode.getCode())
+                                .message(errorCode.getMessage())
+                                .build())
+                        .toList())
+                .words(current.words.subMap(wordPrefix, true, wordPrefix + Character.MAX_VALUE, false)
+                        .entrySet().stream()
+                        .limit(topK)
+                        .map(word -> ErrorCodeDto.WordSuggestion.builder()
+                                .word(word.getKey())
+                                .errorCodeCount(word.getValue().size())
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    /**
+     * Error codes matching every given filter, where a filter matches any of its values, in code order.
+     */
+    public List<ErrorCodeDto.ErrorCodeResponse> filter(ErrorCodeDto.FilterRequest request) {
+        return inCodeOrder(snapshot().attributes.select(conditionsOf(request)));
+    }
+
+    /**
+     * Number of error codes matching the filters, in total and per value of every filterable attribute.
+     */
+    public ErrorCodeDto.FacetedSearchResponse countFacets(ErrorCodeDto.FilterRequest request) {
+        Snapshot current = snapshot();
+        Map<BitmapIndex.Attribute, ? extends Collection<?>> conditions = conditionsOf(request);
+        return ErrorCodeDto.FacetedSearchResponse.builder()
+                .total(current.attributes.count(conditions))
+                .facets(facetsOf(current.attributes.facetCounts(conditions)))
+                .build();
+    }
+
+    public List<ErrorCodeDto.ErrorCodeResponse> search(String searchTerm) {
+        return search(ErrorCodeDto.SearchRequest.builder().searchTerm(searchTerm).build());
+    }
+
+    /**
+     * Error codes matching the search term, if any, in their code, message or description ignoring case, and every
+     * given filter, in code order. The filters are evaluated on the bitmap index and the term only on what they leave.
+     */
+    public List<ErrorCodeDto.ErrorCodeResponse> search(ErrorCodeDto.SearchRequest request) {
+        return inCodeOrder(snapshot().attributes.select(conditionsOf(request), termMatcher(request.getSearchTerm())));
+    }
+
+    /**
+     * Same matches as {@link #search(ErrorCodeDto.SearchRequest)}, with their counts per value of every filterable
+     * attribute.
+     */
+    public ErrorCodeDto.FacetedSearchResponse searchFaceted(ErrorCodeDto.SearchRequest request) {
+        Snapshot current = snapshot();
+        Map<BitmapIndex.Attribute, ? extends Collection<?>> conditions = conditionsOf(request);
+        Predicate<ErrorCodeDto.ErrorCodeResponse> term = termMatcher(request.getSearchTerm());
+        List<ErrorCodeDto.ErrorCodeResponse> results = inCodeOrder(current.attributes.select(conditions, term));
+        return ErrorCodeDto.FacetedSearchResponse.builder()
+                .total(results.size())
+                .results(results)
+                .facets(facetsOf(current.attributes.facetCounts(conditions, term)))
+                .build();
+    }
+
+    /**
+     * Error codes whose message and description most likely duplicate the given texts, most similar first.
+     * Similarity estimates the Jaccard similarity of the texts' character trigrams, from 0 to 1. Only pairs sharing a
+     * band of the {@link MinHashIndex} are scored, so thresholds below about 0.3 return less than they promise.
+     */
+    public List<ErrorCodeDto.SimilarErrorCode> findSimilar(String message, String description,
+                                                            double minSimilarity, int limit) {
+        Snapshot current = snapshot();
+        return similarityIndex.query(minSimilarity, message, description).stream()
+                .map(match -> {
+                    ErrorCodeDto.ErrorCodeResponse errorCode = current.byId.get(match.id());
+                    return errorCode == null ? null : ErrorCodeDto.SimilarErrorCode.builder()
+                            .similarity(match.similarity())
+                            .errorCode(errorCode)
+                            .build();
+                })
+                .filter(Objects::nonNull)
+                .limit(limit)
+                .toList();
+    }
+
+    // Ahead of the other listeners, so that caches filled from the catalog after their eviction see this write
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (!event.isErrorCodeChange()) {
+            // Renames and deletes ripple through every denormalized entry below them
+            loads.invalidate(() -> snapshot = null);
+            return;
+        }
+        // Before patching, so that a load racing with this write is discarded rather than published
+        loads.invalidate();
+        synchronized (this) {
+            // Without a snapshot the entry is dropped and indexed again by the next load
+            similarityIndex.remove(event.getEntityId());
+            Snapshot current = snapshot;
+            if (current == null) {
+                return;
+            }
+            current.remove(event.getEntityId());
+            if (event.getChangeType() != CatalogChangeEvent.ChangeType.DELETED) {
+                shardRouter.onShard(shardRouter.shardForId(event.getEntityId()),
+                                () -> errorCodeRepository.findByIdWithHierarchy(event.getEntityId()))
+                        .map(ErrorCodeDto.ErrorCodeResponse::fromEntity)
+                        .ifPresent(errorCode -> {
+                            current.put(errorCode);
+                            similarityIndex.put(errorCode.getId(), errorCode.getMessage(), errorCode.getDescription());
+                        });
+            }
+        }
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot != null) {
+                return snapshot;
+            }
+            long loadedGeneration = loads.current();
+            Snapshot loaded = load();
+            loads.publishIfCurrent(loadedGeneration, () -> {
+                reconcileSimilarityIndex(loaded);
+                snapshot = loaded;
+            });
+            return loaded;
+        }
+    }
+
+    private Snapshot load() {
+        Snapshot loaded = new Snapshot();
+        shardRouter.fanOut(moduleRepository::findAllWithHierarchy).stream()
+                .map(ErrorCodeDto.ModuleResponse::fromEntityWithoutErrorCodes)
+                .forEach(module -> loaded.modules.put(module.getId(), module));
+        shardRouter.fanOut(errorCodeRepository::findAllWithHierarchy).stream()
+                .map(ErrorCodeDto.ErrorCodeResponse::fromEntity)
+                .forEach(loaded::put);
+        log.debug("Loaded error code catalog with {} modules and {} error codes",
+                loaded.modules.size(), loaded.byId.size());
+        return loaded;
+    }
+
+    // Drops entries deleted since the last load and indexes the ones not seen yet, leaving the rest untouched
+    private void reconcileSimilarityIndex(Snapshot loaded) {
+        similarityIndex.retainAll(loaded.byId.keySet());
+        loaded.byId.values().stream()
+                .filter(errorCode -> !similarityIndex.contains(errorCode.getId()))
+                .forEach(errorCode -> similarityIndex.put(
+                        errorCode.getId(), errorCode.getMessage(), errorCode.getDescription()));
+        log.debug("Similarity index holds {} error codes", similarityIndex.size());
+    }
+
+    private static Map<BitmapIndex.Attribute, ? extends Collection<?>> conditionsOf(ErrorCodeDto.FilterRequest request) {
+        Map<BitmapIndex.Attribute, Collection<?>> conditions = new EnumMap<>(BitmapIndex.Attribute.class);
+        conditions.put(BitmapIndex.Attribute.SEVERITY, request.getSeverity());
+        conditions.put(BitmapIndex.Attribute.HTTP_STATUS, request.getHttpStatus());
+        conditions.put(BitmapIndex.Attribute.RETRYABLE,
+                request.getIsRetryable() != null ? List.of(request.getIsRetryable()) : null);
+        conditions.put(BitmapIndex.Attribute.PROJECT_CODE, request.getProjectCode());
+        conditions.put(BitmapIndex.Attribute.CATEGORY_CODE, request.getCategoryCode());
+        conditions.put(BitmapIndex.Attribute.MODULE_CODE, request.getModuleCode());
+        return conditions;
+    }
+
+    private static Map<BitmapIndex.Attribute, ? extends Collection<?>> conditionsOf(ErrorCodeDto.SearchRequest request) {
+        Map<BitmapIndex.Attribute, Collection<?>> conditions = new EnumMap<>(BitmapIndex.Attribute.class);
+        conditions.put(BitmapIndex.Attribute.SEVERITY, singletonOrNull(request.getSeverity()));
+        conditions.put(BitmapIndex.Attribute.HTTP_STATUS, singletonOrNull(request.getHttpStatus()));
+        conditions.put(BitmapIndex.Attribute.RETRYABLE, singletonOrNull(request.getIsRetryable()));
+        conditions.put(BitmapIndex.Attribute.PROJECT_CODE, singletonOrNull(request.getProjectCode()));
+        conditions.put(BitmapIndex.Attribute.CATEGORY_CODE, singletonOrNull(request.getCategoryCode()));
+        conditions.put(BitmapIndex.Attribute.MODULE_CODE, singletonOrNull(request.getModuleCode()));
+        return conditions;
+    }
+
+    private static List<?> singletonOrNull(Object value) {
+        return value != null ? List.of(value) : null;
+    }
+
+    // Codes have no letters, so lower-casing the term only matters for the texts
+    private static Predicate<ErrorCodeDto.ErrorCodeResponse> termMatcher(String searchTerm) {
+        if (searchTerm == null || searchTerm.isEmpty()) {
+            return null;
+        }
+        String term = searchTerm.toLowerCase(Locale.ROOT);
+        return ec -> ec.getCode().contains(term) ||
+                containsIgnoreCase(ec.getMessage(), term) ||
+                containsIgnoreCase(ec.getDescription(), term);
+    }
+
+    private static ErrorCodeDto.SearchFacets facetsOf(Map<BitmapIndex.Attribute, Map<Object, Long>> counts) {
+        ErrorCodeDto.SearchFacets facets = ErrorCodeDto.SearchFacets.empty();
+        copyCounts(counts.get(BitmapIndex.Attribute.SEVERITY), facets.getSeverity(), ErrorCode.ErrorSeverity.class);
+        copyCounts(counts.get(BitmapIndex.Attribute.HTTP_STATUS), facets.getHttpStatus(), ErrorCode.HttpStatus.class);
+        copyCounts(counts.get(BitmapIndex.Attribute.RETRYABLE), facets.getIsRetryable(), Boolean.class);
+        copyCounts(counts.get(BitmapIndex.Attribute.PROJECT_CODE), facets.getProjectCode(), String.class);
+        copyCounts(counts.get(BitmapIndex.Attribute.CATEGORY_CODE), facets.getCategoryCode(), String.class);
+        copyCounts(counts.get(BitmapIndex.Attribute.MODULE_CODE), facets.getModuleCode(), String.class);
+        return facets;
+    }
+
+    private static <K> void copyCounts(Map<Object, Long> counts, Map<K, Long> target, Class<K> keyType) {
+        counts.forEach((value, count) -> target.put(keyType.cast(value), count));
+    }
+
+    private static List<ErrorCodeDto.ErrorCodeResponse> inCodeOrder(List<ErrorCodeDto.ErrorCodeResponse> selected) {
+        return selected.stream()
+                .sorted(Comparator.comparing(ErrorCodeDto.ErrorCodeResponse::getCode))
+                .toList();
+    }
+
+    private static NavigableMap<String, ErrorCodeDto.ErrorCodeResponse> byCodePrefix(
+            NavigableMap<String, ErrorCodeDto.ErrorCodeResponse> byCode, String prefix) {
+        return byCode.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private static boolean containsIgnoreCase(String value, String lowerCaseTerm) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains(lowerCaseTerm);
+    }
+
+    private static final class Snapshot {
+        private final ConcurrentSkipListMap<String, ErrorCodeDto.ErrorCodeResponse> byCode = new ConcurrentSkipListMap<>();
+        private final Map<Long, ErrorCodeDto.ErrorCodeResponse> byId = new ConcurrentHashMap<>();
+        private final Map<Long, ErrorCodeDto.ModuleResponse> modules = new ConcurrentHashMap<>();
+        // Lower case message word -> codes of the error codes using it
+        private final ConcurrentSkipListMap<String, Set<String>> words = new ConcurrentSkipListMap<>();
+        private final BitmapIndex attributes = new BitmapIndex();
+
+        private void put(ErrorCodeDto.ErrorCodeResponse errorCode) {
+            byId.put(errorCode.getId(), errorCode);
+            byCode.put(errorCode.getCode(), errorCode);
+            attributes.put(errorCode);
+            wordsOf(errorCode.getMessage()).forEach(word ->
+                    words.computeIfAbsent(word, key -> ConcurrentHashMap.newKeySet()).add(errorCode.getCode()));
+        }
+
+        private void remove(Long id) {
+            ErrorCodeDto.ErrorCodeResponse removed = byId.remove(id);
+            if (removed != null) {
+                byCode.remove(removed.getCode());
+                attributes.remove(id);
+                wordsOf(removed.getMessage()).forEach(word -> words.computeIfPresent(word,
+                        (key, codes) -> codes.remove(removed.getCode()) && codes.isEmpty() ? null : codes));
+            }
+        }
+
+        private static Set<String> wordsOf(String message) {
+            if (message == null) {
+                return Set.of();
+            }
+            return Arrays.stream(message.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                    .filter(word -> word.length() > 1)
+                    .collect(Collectors.toSet());
+        }
+    }
+}
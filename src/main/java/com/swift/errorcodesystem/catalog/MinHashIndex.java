@@ -0,0 +1,182 @@
+package com.swift.errorcodesystem.catalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Near-duplicate index over error code texts. Every text is reduced to its set of character trigrams and summarized
+ * by a MinHash signature, whose agreement with another signature estimates the Jaccard similarity of the two sets.
+ * Signatures are split into bands that are hashed into buckets (locality-sensitive hashing), so a query only scores
+ * the entries sharing at least one band instead of the whole catalog. With 16 bands of 4 rows, pairs above about
+ * 0.5 similarity are found with high probability and pairs below 0.3 rarely become candidates at all.
+ */
+final class MinHashIndex {
+
+    static final int BANDS = 16;
+    static final int ROWS = 4;
+    static final int SIGNATURE_SIZE = BANDS * ROWS;
+
+    private static final int SHINGLE_LENGTH = 3;
+
+    // Multiply-shift hash family: h(x) = (a * x + b) >>> 33 with odd a, a non-negative int
+    private final long[] multipliers = new long[SIGNATURE_SIZE];
+    private final long[] offsets = new long[SIGNATURE_SIZE];
+    private final Map<Long, int[]> signatures = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> buckets = new ConcurrentHashMap<>();
+
+    MinHashIndex() {
+        // Fixed seed: signatures only have to be comparable within one process
+        SplittableRandom random = new SplittableRandom(0x5EEDL);
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            multipliers[i] = random.nextLong() | 1L;
+            offsets[i] = random.nextLong();
+        }
+    }
+
+    void put(Long id, String... texts) {
+        remove(id);
+        int[] signature = signature(texts);
+        if (signature == null) {
+            return;
+        }
+        signatures.put(id, signature);
+        for (int band = 0; band < BANDS; band++) {
+            buckets.computeIfAbsent(bandKey(signature, band), key -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    void remove(Long id) {
+        int[] signature = signatures.remove(id);
+        if (signature == null) {
+            return;
+        }
+        for (int band = 0; band < BANDS; band++) {
+            buckets.computeIfPresent(bandKey(signature, band), (key, ids) -> ids.remove(id) && ids.isEmpty() ? null : ids);
+        }
+    }
+
+    boolean contains(Long id) {
+        return signatures.containsKey(id);
+    }
+
+    void retainAll(Set<Long> ids) {
+        new ArrayList<>(signatures.keySet()).stream()
+                .filter(id -> !ids.contains(id))
+                .forEach(this::remove);
+    }
+
+    int size() {
+        return signatures.size();
+    }
+
+    /**
+     * Entries whose estimated similarity to the texts is at least {@code minSimilarity}, most similar first.
+     */
+    List<Match> query(double minSimilarity, String... texts) {
+        int[] signature = signature(texts);
+        if (signature == null) {
+            return List.of();
+        }
+        Set<Long> candidates = new HashSet<>();
+        for (int band = 0; band < BANDS; band++) {
+            Set<Long> bucket = buckets.get(bandKey(signature, band));
+            if (bucket != null) {
+                candidates.addAll(bucket);
+            }
+        }
+        List<Match> matches = new ArrayList<>();
+        for (Long id : candidates) {
+            int[] candidate = signatures.get(id);
+            if (candidate != null) {
+                double similarity = similarity(signature, candidate);
+                if (similarity >= minSimilarity) {
+                    matches.add(new Match(id, similarity));
+                }
+            }
+        }
+        matches.sort(Comparator.comparingDouble(Match::similarity).reversed().thenComparing(Match::id));
+        return matches;
+    }
+
+    private int[] signature(String... texts) {
+        Set<Integer> shingles = new HashSet<>();
+        for (String text : texts) {
+            addShingles(normalize(text), shingles);
+        }
+        if (shingles.isEmpty()) {
+            return null;
+        }
+        int[] signature = new int[SIGNATURE_SIZE];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (int shingle : shingles) {
+            for (int i = 0; i < SIGNATURE_SIZE; i++) {
+                int hash = (int) ((multipliers[i] * shingle + offsets[i]) >>> 33);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    private static double similarity(int[] first, int[] second) {
+        int agreeing = 0;
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            if (first[i] == second[i]) {
+                agreeing++;
+            }
+        }
+        return (double) agreeing / SIGNATURE_SIZE;
+    }
+
+    private static long bandKey(int[] signature, int band) {
+        long key = band;
+        for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+            key = key * 0x9E3779B97F4A7C15L + signature[row];
+        }
+        return key;
+    }
+
+    // Lower case words separated by single spaces, padded so that word boundaries become part of the trigrams
+    private static String normalize(String text) {
+        if (text == null || text.isBlank()) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(text.length() + 2).append(' ');
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(c);
+            } else if (normalized.charAt(normalized.length() - 1) != ' ') {
+                normalized.append(' ');
+            }
+        }
+        if (normalized.charAt(normalized.length() - 1) != ' ') {
+            normalized.append(' ');
+        }
+        return normalized.length() > 1 ? normalized.toString() : "";
+    }
+
+    private static void addShingles(String normalized, Set<Integer> shingles) {
+        if (normalized.isEmpty()) {
+            return;
+        }
+        if (normalized.length() <= SHINGLE_LENGTH) {
+            shingles.add(normalized.hashCode());
+            return;
+        }
+        for (int i = 0; i + SHINGLE_LENGTH <= normalized.length(); i++) {
+            shingles.add(normalized.substring(i, i + SHINGLE_LENGTH).hashCode());
+        }
+    }
+
+    record Match(Long id, double similarity) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.swift.errorcodesystem.coalescing;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Lets concurrent calls of a method with equal arguments share one load: the first caller runs it, the others wait
+ * for its result. Meant for reads whose misses come in bursts, such as a popular code right after an invalidation.
+ * A returned entity is read again by id in each waiting caller's own persistence context; any other result, lists
+ * included, is handed over as is, so only methods whose results may be shared between requests belong here.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Coalesced {
+}
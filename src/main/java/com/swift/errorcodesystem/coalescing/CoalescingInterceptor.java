@@ -0,0 +1,172 @@
+package com.swift.errorcodesystem.coalescing;
+
+import com.swift.errorcodesystem.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Advice behind {@link Coalesced}. Sits inside the cache advice, so only misses get here, and outside the shard
+ * routing and transaction advice, so the callers that wait hold neither a shard nor a connection.
+ * <p>
+ * The first caller for a method and argument list registers a flight and runs the load; callers arriving while it is
+ * in flight wait on it and get its result, or its exception. A caller that has waited longer than the timeout gives
+ * up on the flight and runs the load itself. Calls inside a transaction are never coalesced: they have to see their
+ * own writes.
+ */
+@Slf4j
+public class CoalescingInterceptor implements MethodInterceptor {
+
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+    private final ObjectProvider<ShardRouter> shardRouter;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Duration timeout;
+    private final Map<FlightKey, CompletableFuture<Object>> flights = new ConcurrentHashMap<>();
+    private final Map<Method, Meters> meters = new ConcurrentHashMap<>();
+    private volatile EntityManager entityManager;
+
+    public CoalescingInterceptor(ObjectProvider<EntityManagerFactory> entityManagerFactory,
+                                 ObjectProvider<ShardRouter> shardRouter,
+                                 ObjectProvider<MeterRegistry> meterRegistry, Duration timeout) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.shardRouter = shardRouter;
+        this.meterRegistry = meterRegistry;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return invocation.proceed();
+        }
+        Method method = invocation.getMethod();
+        FlightKey key = new FlightKey(method, Arrays.asList(invocation.getArguments()));
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = flights.putIfAbsent(key, flight);
+        Meters methodMeters = meters(method);
+        if (inFlight == null) {
+            return lead(invocation, key, flight, methodMeters);
+        }
+        try {
+            Object result = inFlight.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            methodMeters.saved();
+            return share(result);
+        } catch (ExecutionException e) {
+            methodMeters.saved();
+            throw e.getCause();
+        } catch (TimeoutException e) {
+            methodMeters.timedOut();
+            log.debug("Gave up waiting {} on the load of {}, loading separately", timeout, method.getName());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        methodMeters.loaded();
+        return invocation.proceed();
+    }
+
+    private Object lead(MethodInvocation invocation, FlightKey key, CompletableFuture<Object> flight,
+                        Meters methodMeters) throws Throwable {
+        methodMeters.loaded();
+        try {
+            Object result = invocation.proceed();
+            flight.complete(result);
+            return result;
+        } catch (Throwable e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    // Entities stay tied to the persistence context that loaded them, so a waiting caller gets its own copy by id,
+    // which the load just put in the second-level cache
+    private Object share(Object result) {
+        if (result instanceof Optional<?> optional && optional.isPresent() && isEntity(optional.get())) {
+            return Optional.ofNullable(reload(optional.get()));
+        }
+        return isEntity(result) ? reload(result) : result;
+    }
+
+    private static boolean isEntity(Object result) {
+        return result != null && Hibernate.getClass(result).isAnnotationPresent(Entity.class);
+    }
+
+    private Object reload(Object entity) {
+        EntityManagerFactory factory = entityManagerFactory.getObject();
+        Object id = factory.getPersistenceUnitUtil().getIdentifier(entity);
+        String shard = shardRouter.getObject().shardForId(id instanceof Long longId ? longId : null);
+        return shardRouter.getObject().onShard(shard, () -> entityManager(factory).find(Hibernate.getClass(entity), id));
+    }
+
+    private EntityManager entityManager(EntityManagerFactory factory) {
+        EntityManager shared = entityManager;
+        if (shared == null) {
+            shared = SharedEntityManagerCreator.createSharedEntityManager(factory);
+            entityManager = shared;
+        }
+        return shared;
+    }
+
+    private Meters meters(Method method) {
+        return meters.computeIfAbsent(method, key -> new Meters(meterRegistry.getIfAvailable(), key.getName()));
+    }
+
+    private record FlightKey(Method method, List<Object> arguments) {
+    }
+
+    private static final class Meters {
+        private final Counter loads;
+        private final Counter saved;
+        private final Counter timeouts;
+
+        private Meters(MeterRegistry registry, String method) {
+            loads = registry == null ? null : Counter.builder("errorcode.coalescing.loads")
+                    .description("Loads run by coalesced methods").tag("method", method).register(registry);
+            saved = registry == null ? null : Counter.builder("errorcode.coalescing.saved")
+                    .description("Calls served by another caller's load").tag("method", method).register(registry);
+            timeouts = registry == null ? null : Counter.builder("errorcode.coalescing.timeouts")
+                    .description("Calls that gave up waiting and loaded separately").tag("method", method)
+                    .register(registry);
+        }
+
+        private void loaded() {
+            increment(loads);
+        }
+
+        private void saved() {
+            increment(saved);
+        }
+
+        private void timedOut() {
+            increment(timeouts);
+        }
+
+        private static void increment(Counter counter) {
+            if (counter != null) {
+                counter.increment();
+            }
+        }
+    }
+}
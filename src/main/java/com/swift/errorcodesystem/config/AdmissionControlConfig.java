@@ -0,0 +1,31 @@
+package com.swift.errorcodesystem.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swift.errorcodesystem.admission.AdmissionControlFilter;
+import com.swift.errorcodesystem.catalog.ErrorCodeCatalog;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Opt-in admission control: lookups, heavy reads and writes each get an adaptive concurrency limit, and requests
+ * beyond it are shed early instead of piling up on the request threads and connection pool.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "errorcode.admission", name = "enabled", havingValue = "true")
+public class AdmissionControlConfig {
+
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(
+            AdmissionControlProperties properties, ErrorCodeCatalog errorCodeCatalog, ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(
+                new AdmissionControlFilter(properties, errorCodeCatalog, objectMapper, meterRegistry));
+        // Ahead of everything else, so a shed request costs as little as possible
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,86 @@
+package com.swift.errorcodesystem.config;
+
+import com.swift.errorcodesystem.admission.EndpointClass;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings of the opt-in admission control, see {@link AdmissionControlConfig}. Paths are Ant patterns relative to
+ * the context path; requests not matching {@code pathPattern} are never limited. A heavy path may end in
+ * {@code ?name=value} to only match requests carrying that query parameter value, or in {@code ?name} for any value.
+ */
+@Data
+@ConfigurationProperties(prefix = "errorcode.admission")
+public class AdmissionControlProperties {
+    private boolean enabled = false;
+    private String pathPattern = "/api/**";
+    private List<String> heavyPaths = new ArrayList<>(List.of(
+            "/api/v1/error-codes/search/**",
+            "/api/v1/error-codes/statistics/**",
+            "/api/v1/error-codes/error-codes",
+            "/api/v1/error-codes/tree",
+            "/api/v1/error-codes/projects?withCategories=true",
+            "/api/v1/error-codes/projects/*/error-codes",
+            "/api/v1/error-codes/categories/*/error-codes",
+            "/api/v1/reactive/error-codes/search",
+            "/api/v1/reactive/error-codes/filter/**",
+            "/api/v1/reactive/error-codes/code-prefix/**"));
+    // Non-GET endpoints that do not write to the database, every other non-GET request is a write
+    private List<String> lookupPaths = new ArrayList<>(List.of(
+            "/api/v1/error-codes/error-codes/batch",
+            "/api/v1/error-codes/error-codes/similar",
+            "/api/v1/error-codes/error-codes/code/*/render",
+            "/api/v1/error-codes/occurrences",
+            "/api/v1/error-codes/occurrences/callers/merge"));
+    // Catalog codes whose message is returned for shed requests; a built-in message is used when unset or unknown
+    private String tooManyRequestsCode;
+    private String overloadedCode;
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    private Limit lookup = new Limit(100, 10, 200, 200, Duration.ofMillis(50), Duration.ofMillis(50));
+    private Limit heavy = new Limit(8, 1, 32, 16, Duration.ofMillis(500), Duration.ofSeconds(1));
+    private Limit write = new Limit(16, 2, 64, 64, Duration.ofMillis(200), Duration.ofMillis(500));
+
+    public Limit limitFor(EndpointClass endpointClass) {
+        return switch (endpointClass) {
+            case LOOKUP -> lookup;
+            case HEAVY -> heavy;
+            case WRITE -> write;
+        };
+    }
+
+    /**
+     * Additive-increase/multiplicative-decrease limit: grows by one per limit's worth of requests finishing within
+     * {@code latencyTarget}, and shrinks by {@code backoffRatio} when one is slower or fails. It shrinks at most once
+     * per {@code measurementWindow}, since the requests in flight during a slowdown would otherwise each cut again.
+     */
+    @Data
+    public static class Limit {
+        private int initialLimit;
+        private int minLimit;
+        private int maxLimit;
+        // Requests waiting for a slot beyond this many are rejected with 429 right away
+        private int maxQueue;
+        // Queued requests still without a slot after this long are rejected with 503
+        private Duration maxWait;
+        private Duration latencyTarget;
+        private double backoffRatio = 0.9;
+        private Duration measurementWindow = Duration.ofSeconds(1);
+
+        public Limit() {
+        }
+
+        Limit(int initialLimit, int minLimit, int maxLimit, int maxQueue, Duration maxWait, Duration latencyTarget) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.maxQueue = maxQueue;
+            this.maxWait = maxWait;
+            this.latencyTarget = latencyTarget;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.swift.errorcodesystem.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+// Outermost, ahead of the coalescing, shard routing and transaction advice, so a cache hit touches none of them
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 3)
+public class CacheConfig {
+
+    // Cache names, sized and listed under spring.cache in application.yml
+    public static final String PROJECTS = "projects";
+    public static final String CATEGORIES_BY_PROJECT = "categories-by-project";
+    public static final String MODULES_BY_CATEGORY = "modules-by-category";
+    public static final String ERROR_CODES_BY_MODULE = "error-codes-by-module";
+    public static final String ERROR_CODES_BY_PROJECT = "error-codes-by-project";
+
+    public static final String ALL_PROJECTS_KEY = "all";
+}
@@ -0,0 +1,42 @@
+package com.swift.errorcodesystem.config;
+
+import com.swift.errorcodesystem.coalescing.Coalesced;
+import com.swift.errorcodesystem.coalescing.CoalescingInterceptor;
+import com.swift.errorcodesystem.sharding.ShardRouter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+
+/**
+ * Single-flight coalescing of {@link Coalesced} reads: a burst of identical cache misses runs one load instead of one
+ * per caller. Opt-in with {@code errorcode.coalescing.enabled}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "errorcode.coalescing", name = "enabled", havingValue = "true")
+public class CoalescingConfig {
+
+    // Between the cache advice and the shard routing advice, see CacheConfig
+    public static final int COALESCING_ORDER = Ordered.LOWEST_PRECEDENCE - 2;
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor coalescingAdvisor(CoalescingProperties properties,
+                                            ObjectProvider<EntityManagerFactory> entityManagerFactory,
+                                            ObjectProvider<ShardRouter> shardRouter,
+                                            ObjectProvider<MeterRegistry> meterRegistry) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                AnnotationMatchingPointcut.forMethodAnnotation(Coalesced.class),
+                new CoalescingInterceptor(entityManagerFactory, shardRouter, meterRegistry, properties.getTimeout()));
+        advisor.setOrder(COALESCING_ORDER);
+        return advisor;
+    }
+}
@@ -0,0 +1,17 @@
+package com.swift.errorcodesystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Single-flight coalescing of concurrent identical reads, see {@link com.swift.errorcodesystem.coalescing.Coalesced}.
+ */
+@Data
+@ConfigurationProperties(prefix = "errorcode.coalescing")
+public class CoalescingProperties {
+    private boolean enabled = false;
+    // How long a caller waits on another caller's load before running its own
+    private Duration timeout = Duration.ofSeconds(2);
+}
@@ -0,0 +1,43 @@
+package com.swift.errorcodesystem.config;
+
+import com.swift.errorcodesystem.invalidation.CatalogInvalidationBus;
+import com.swift.errorcodesystem.invalidation.CatalogInvalidationRelay;
+import com.swift.errorcodesystem.invalidation.DatabaseCatalogInvalidationBus;
+import com.swift.errorcodesystem.repository.CatalogInvalidationRepository;
+import com.swift.errorcodesystem.sharding.ShardRouter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+
+/**
+ * Opt-in invalidation bus for running several instances against one catalog database. Every instance records its
+ * writes and polls for the others', so the in-process caches can stay enabled in a cluster.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "errorcode.invalidation", name = "enabled", havingValue = "true")
+public class InvalidationBusConfig {
+
+    @Bean
+    public DatabaseCatalogInvalidationBus catalogInvalidationBus(CatalogInvalidationRepository invalidationRepository,
+                                                                 ApplicationEventPublisher eventPublisher,
+                                                                 InvalidationBusProperties properties,
+                                                                 ShardRouter shardRouter) {
+        return new DatabaseCatalogInvalidationBus(invalidationRepository, eventPublisher, properties, shardRouter);
+    }
+
+    // Scheduled here rather than with @Scheduled, whose placeholders only take ISO-8601 or milliseconds
+    @Bean
+    public SchedulingConfigurer catalogInvalidationPolling(DatabaseCatalogInvalidationBus invalidationBus,
+                                                           InvalidationBusProperties properties) {
+        return registrar -> registrar.addFixedDelayTask(invalidationBus::poll, properties.getPollInterval());
+    }
+
+    @Bean
+    public CatalogInvalidationRelay catalogInvalidationRelay(CatalogInvalidationBus invalidationBus) {
+        return new CatalogInvalidationRelay(invalidationBus);
+    }
+}
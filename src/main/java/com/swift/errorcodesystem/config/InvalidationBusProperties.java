@@ -0,0 +1,22 @@
+package com.swift.errorcodesystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Settings of the opt-in cross-instance invalidation bus, see {@link InvalidationBusConfig}.
+ */
+@Data
+@ConfigurationProperties(prefix = "errorcode.invalidation")
+public class InvalidationBusProperties {
+    private boolean enabled = false;
+    // Must differ per instance; a random id is fine since it only has to tell this instance's own writes apart
+    private String nodeId = UUID.randomUUID().toString();
+    private Duration pollInterval = Duration.ofSeconds(1);
+    // Longest expected gap between a row's createdAt and its commit
+    private Duration overlap = Duration.ofSeconds(30);
+    private Duration retention = Duration.ofMinutes(10);
+}
@@ -0,0 +1,34 @@
+package com.swift.errorcodesystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the error occurrence ingestion, see {@link com.swift.errorcodesystem.occurrence.OccurrenceIngestor}, and
+ * of its in-memory rollups, see {@link com.swift.errorcodesystem.occurrence.OccurrenceRollups}.
+ */
+@Data
+@ConfigurationProperties(prefix = "errorcode.occurrences")
+public class OccurrenceProperties {
+    private boolean enabled = false;
+    private Duration flushInterval = Duration.ofSeconds(10);
+    // Reports for codes missing from the loaded catalog are rejected; before it is loaded only the format is checked
+    private boolean requireKnownCode = true;
+    // Distinct reporting services, at most 1024
+    private int maxServices = 1024;
+    // Distinct code and service pairs counted at once; pairs idle for two flushes are dropped
+    private int maxTrackedKeys = 100_000;
+    // Accepted distance of a reported occurrence time from the clock, into the past and the future. Stored counts go
+    // to the window a report arrived in regardless; only the rollups and lastOccurredAt use the occurrence time
+    private Duration maxAge = Duration.ofHours(24);
+    private Duration maxClockSkew = Duration.ofMinutes(5);
+    // Codes monitored per project and per module for the top lists, and the most a top list returns
+    private int topCapacity = 100;
+    // Caller sketches have 2^precision registers, for a relative standard error of 1.04 / sqrt(2^precision)
+    private int callerPrecision = 12;
+    // Codes keeping caller sketches at once. A code holds up to 24 hourly sketches of 2^precision bytes each, 96 KiB
+    // at precision 12, so the default bounds them to about 94 MiB; further codes are counted without callers
+    private int maxCallerCodes = 1_000;
+}
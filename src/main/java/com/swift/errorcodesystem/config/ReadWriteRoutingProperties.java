@@ -0,0 +1,29 @@
+package com.swift.errorcodesystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replica pools for the opt-in read/write routing, see {@link ReadWriteDataSourceConfig}.
+ * The primary keeps using the regular {@code spring.datasource} settings.
+ */
+@Data
+@ConfigurationProperties(prefix = "errorcode.datasource.routing")
+public class ReadWriteRoutingProperties {
+    private boolean enabled = false;
+    private List<Replica> replicas = new ArrayList<>();
+    // How long a caller's reads stay on the primary after it wrote
+    private Duration stickiness = Duration.ofSeconds(5);
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
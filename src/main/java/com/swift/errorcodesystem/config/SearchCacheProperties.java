@@ -0,0 +1,17 @@
+package com.swift.errorcodesystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Bounds of the search result cache of {@link com.swift.errorcodesystem.service.ErrorCodeSearchService}.
+ */
+@Data
+@ConfigurationProperties(prefix = "errorcode.search-cache")
+public class SearchCacheProperties {
+    // Total number of cached result rows, each entry weighing its row count plus one
+    private long maximumWeight = 100_000;
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+}
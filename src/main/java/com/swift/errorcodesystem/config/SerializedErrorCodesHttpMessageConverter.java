@@ -0,0 +1,55 @@
+package com.swift.errorcodesystem.config;
+
+import com.swift.errorcodesystem.cache.ErrorCodeJsonCache;
+import com.swift.errorcodesystem.cache.SerializedErrorCodes;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes {@link SerializedErrorCodes} as JSON by copying the cached per-code fragments into the response.
+ */
+public class SerializedErrorCodesHttpMessageConverter extends AbstractHttpMessageConverter<SerializedErrorCodes> {
+
+    private final ErrorCodeJsonCache errorCodeJsonCache;
+
+    public SerializedErrorCodesHttpMessageConverter(ErrorCodeJsonCache errorCodeJsonCache) {
+        super(MediaType.APPLICATION_JSON);
+        this.errorCodeJsonCache = errorCodeJsonCache;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return SerializedErrorCodes.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected SerializedErrorCodes readInternal(Class<? extends SerializedErrorCodes> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Serialized error codes are write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(SerializedErrorCodes body, HttpOutputMessage outputMessage) throws IOException {
+        OutputStream outputStream = outputMessage.getBody();
+        if (body.getResponses() != null) {
+            errorCodeJsonCache.writeResponseArray(body.getResponses(), outputStream);
+        } else if (body.isSingle() && body.getDistinctCallers() != null) {
+            errorCodeJsonCache.writeWithField(body.getErrorCodes().get(0), "distinctCallers", body.getDistinctCallers(),
+                    outputStream);
+        } else if (body.isSingle()) {
+            outputStream.write(errorCodeJsonCache.toJson(body.getErrorCodes().get(0)));
+        } else {
+            errorCodeJsonCache.writeArray(body.getErrorCodes(), outputStream);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.swift.errorcodesystem.config;
+
+import com.swift.errorcodesystem.datasource.ShardRoutingDataSource;
+import com.swift.errorcodesystem.sharding.ShardInitializer;
+import com.swift.errorcodesystem.sharding.ShardRouted;
+import com.swift.errorcodesystem.sharding.ShardRouter;
+import com.swift.errorcodesystem.sharding.ShardRoutingInterceptor;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opt-in project-level sharding: each project, with everything below it, lives on one shard picked by its code,
+ * so a heavy tenant can be given a database of its own. Keyed service calls go to their shard, list calls fan out
+ * to all of them. Cannot be combined with the read/write split of {@link ReadWriteDataSourceConfig}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "errorcode.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    // Between the coalescing advice and the transaction advice, see CacheConfig
+    public static final int SHARD_ROUTING_ORDER = Ordered.LOWEST_PRECEDENCE - 1;
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties dataSourceProperties, ShardingProperties properties,
+                                 ReadWriteRoutingProperties readWriteRoutingProperties) {
+        if (readWriteRoutingProperties.isEnabled()) {
+            throw new IllegalStateException("errorcode.sharding and errorcode.datasource.routing cannot both be enabled");
+        }
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        shards.put(ShardingProperties.DEFAULT_SHARD, dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build());
+        properties.getShards().forEach((name, shard) -> shards.put(name, shard(shard)));
+
+        ShardRoutingDataSource routingDataSource = new ShardRoutingDataSource(shards, ShardingProperties.DEFAULT_SHARD);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor shardRoutingAdvisor(ObjectProvider<ShardRouter> shardRouter) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                new AnnotationMatchingPointcut(ShardRouted.class, true), new ShardRoutingInterceptor(shardRouter));
+        advisor.setOrder(SHARD_ROUTING_ORDER);
+        return advisor;
+    }
+
+    // Cached query results are keyed by SQL and parameters only, which would mix up the shards' answers.
+    // Entity and collection caches stay on: ids are unique across shards.
+    @Bean
+    public HibernatePropertiesCustomizer shardSafeQueryCache() {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, false);
+    }
+
+    @Bean
+    public ShardInitializer shardInitializer(ShardRouter shardRouter, ShardingProperties properties,
+                                             EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate) {
+        return new ShardInitializer(shardRouter, properties, entityManagerFactory, jdbcTemplate);
+    }
+
+    private static DataSource shard(ShardingProperties.Shard shard) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(shard.getUrl())
+                .username(shard.getUsername())
+                .password(shard.getPassword())
+                .build();
+        dataSource.setMaximumPoolSize(shard.getMaximumPoolSize());
+        return dataSource;
+    }
+}
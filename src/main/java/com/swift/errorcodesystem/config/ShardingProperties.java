@@ -0,0 +1,35 @@
+package com.swift.errorcodesystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Shards for the opt-in project-level sharding, see {@link ShardingConfig}. The default shard keeps using the
+ * regular {@code spring.datasource} settings.
+ */
+@Data
+@ConfigurationProperties(prefix = "errorcode.sharding")
+public class ShardingProperties {
+    public static final String DEFAULT_SHARD = "default";
+
+    private boolean enabled = false;
+    // In id allocation order after the default shard, each one owning the next id range: only ever append
+    private Map<String, Shard> shards = new LinkedHashMap<>();
+    // Project code to shard name; projects not listed here, nor moved since, live on the default shard
+    private Map<String, String> assignments = new HashMap<>();
+    private long idRangeSize = 1_000_000_000_000L;
+    // Creates the mapped tables on the extra shards at startup, the counterpart of ddl-auto on the default one
+    private boolean initializeSchema = true;
+
+    @Data
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
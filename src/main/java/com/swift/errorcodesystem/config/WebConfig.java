@@ -0,0 +1,22 @@
+package com.swift.errorcodesystem.config;
+
+import com.swift.errorcodesystem.cache.ErrorCodeJsonCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ErrorCodeJsonCache errorCodeJsonCache;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Ahead of Jackson, which would otherwise claim the body through its @JsonValue
+        converters.add(0, new SerializedErrorCodesHttpMessageConverter(errorCodeJsonCache));
+    }
+}
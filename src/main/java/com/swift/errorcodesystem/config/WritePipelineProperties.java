@@ -0,0 +1,22 @@
+package com.swift.errorcodesystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the opt-in group-commit write mode, see {@link com.swift.errorcodesystem.service.GroupCommitWritePipeline}.
+ */
+@Data
+@ConfigurationProperties(prefix = "errorcode.write-pipeline")
+public class WritePipelineProperties {
+    private boolean enabled = false;
+    // Writes for the same module always land on the same partition, which runs its batches one at a time
+    private int partitions = 1;
+    private int queueCapacity = 1000;
+    private int maxBatchSize = 50;
+    private Duration maxWait = Duration.ofMillis(5);
+    // How long a request waits for its write before answering 503; a write that has not started by then is skipped
+    private Duration responseTimeout = Duration.ofSeconds(30);
+}
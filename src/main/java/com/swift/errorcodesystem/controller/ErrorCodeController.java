@@ -1,19 +1,43 @@
 package com.swift.errorcodesystem.controller;
 
+import com.swift.errorcodesystem.cache.SerializedErrorCodes;
+import com.swift.errorcodesystem.catalog.ErrorCodeCatalog;
 import com.swift.errorcodesystem.dto.ErrorCodeDto;
 import com.swift.errorcodesystem.entity.Category;
 import com.swift.errorcodesystem.entity.ErrorCode;
+import com.swift.errorcodesystem.entity.ErrorCodeTranslation;
 import com.swift.errorcodesystem.entity.Module;
 import com.swift.errorcodesystem.entity.Project;
+import com.swift.errorcodesystem.exception.WriteTimeoutException;
+import com.swift.errorcodesystem.occurrence.OccurrenceIngestor;
+import com.swift.errorcodesystem.occurrence.OccurrenceRollups;
+import com.swift.errorcodesystem.service.CatalogHierarchy;
+import com.swift.errorcodesystem.service.ErrorCodeSearchService;
 import com.swift.errorcodesystem.service.ErrorCodeService;
+import com.swift.errorcodesystem.service.ErrorCodeTemplateService;
+import com.swift.errorcodesystem.service.GroupCommitWritePipeline;
+import com.swift.errorcodesystem.sharding.ProjectShardMover;
+import com.swift.errorcodesystem.template.LocaleFallback;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @RestController
@@ -23,6 +47,13 @@ import java.util.stream.Collectors;
 public class ErrorCodeController {
 
     private final ErrorCodeService errorCodeService;
+    private final ErrorCodeSearchService errorCodeSearchService;
+    private final GroupCommitWritePipeline writePipeline;
+    private final ProjectShardMover projectShardMover;
+    private final ErrorCodeCatalog errorCodeCatalog;
+    private final ErrorCodeTemplateService errorCodeTemplateService;
+    private final OccurrenceIngestor occurrenceIngestor;
+    private final OccurrenceRollups occurrenceRollups;
 
     // Project endpoints
     @PostMapping("/projects")
@@ -46,9 +77,7 @@ public class ErrorCodeController {
         List<ErrorCodeDto.ProjectResponse> projects;
 
         if (withCategories) {
-            projects = errorCodeService.getAllProjects().stream()
-                    .map(ErrorCodeDto.ProjectResponse::fromEntity)
-                    .collect(Collectors.toList());
+            projects = toTree(errorCodeService.getCatalogHierarchy(true));
         } else {
             projects = errorCodeService.getAllProjects().stream()
                     .map(ErrorCodeDto.ProjectResponse::fromEntityWithoutCategories)
@@ -58,6 +87,12 @@ public class ErrorCodeController {
         return ResponseEntity.ok(projects);
     }
 
+    @GetMapping("/tree")
+    public ResponseEntity<List<ErrorCodeDto.ProjectResponse>> getCatalogTree(
+            @RequestParam(defaultValue = "false") boolean includeErrorCodes) {
+        return ResponseEntity.ok(toTree(errorCodeService.getCatalogHierarchy(includeErrorCodes)));
+    }
+
     @GetMapping("/projects/{id}")
     public ResponseEntity<ErrorCodeDto.ProjectResponse> getProject(@PathVariable Long id) {
         return errorCodeService.getProjectByIdWithCategories(id)
@@ -68,6 +103,7 @@ public class ErrorCodeController {
     @PutMapping("/projects/{id}")
     public ResponseEntity<ErrorCodeDto.ProjectResponse> updateProject(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody ErrorCodeDto.CreateProjectRequest request) {
         Project project = Project.builder()
                 .name(request.getName())
@@ -77,14 +113,22 @@ public class ErrorCodeController {
                 .status(request.getStatus())
                 .build();
 
-        Project updatedProject = errorCodeService.updateProject(id, project);
-        return ResponseEntity.ok(ErrorCodeDto.ProjectResponse.fromEntityWithoutCategories(updatedProject));
+        Project updatedProject = errorCodeService.updateProject(id, project, parseIfMatch(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(updatedProject.getVersion()))
+                .body(ErrorCodeDto.ProjectResponse.fromEntityWithoutCategories(updatedProject));
     }
 
     @DeleteMapping("/projects/{id}")
-    public ResponseEntity<Void> deleteProject(@PathVariable Long id) {
-        errorCodeService.deleteProject(id);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<ErrorCodeDto.DeleteResponse> deleteProject(@PathVariable Long id) {
+        return ResponseEntity.ok(ErrorCodeDto.DeleteResponse.fromDeletion(errorCodeService.deleteProject(id)));
+    }
+
+    // The project gets new ids on the target shard, its codes stay the same
+    @PostMapping("/projects/{id}/move")
+    public ResponseEntity<ErrorCodeDto.ProjectResponse> moveProject(@PathVariable Long id, @RequestParam String shard) {
+        Project movedProject = projectShardMover.moveProject(id, shard);
+        return ResponseEntity.ok(ErrorCodeDto.ProjectResponse.fromEntityWithoutCategories(movedProject));
     }
 
     // Category endpoints
@@ -117,20 +161,18 @@ public class ErrorCodeController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @DeleteMapping("/categories/{id}")
+    public ResponseEntity<ErrorCodeDto.DeleteResponse> deleteCategory(@PathVariable Long id) {
+        return ResponseEntity.ok(ErrorCodeDto.DeleteResponse.fromDeletion(errorCodeService.deleteCategory(id)));
+    }
+
     // Module endpoints
     @PostMapping("/categories/{categoryId}/modules")
     public ResponseEntity<ErrorCodeDto.ModuleResponse> createModule(
             @PathVariable Long categoryId,
             @Valid @RequestBody ErrorCodeDto.CreateModuleRequest request) {
-        Module module = Module.builder()
-                .name(request.getName())
-                .description(request.getDescription())
-                .code(request.getCode())
-                .purpose(request.getPurpose())
-                .build();
-
-        Module savedModule = errorCodeService.createModule(categoryId, module);
-        return ResponseEntity.ok(ErrorCodeDto.ModuleResponse.fromEntityWithoutErrorCodes(savedModule));
+        return ResponseEntity.ok(write(categoryId, () -> ErrorCodeDto.ModuleResponse.fromEntityWithoutErrorCodes(
+                errorCodeService.createModule(categoryId, toModule(request)))));
     }
 
     @GetMapping("/categories/{categoryId}/modules")
@@ -148,85 +190,117 @@ public class ErrorCodeController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @DeleteMapping("/modules/{id}")
+    public ResponseEntity<ErrorCodeDto.DeleteResponse> deleteModule(@PathVariable Long id) {
+        return ResponseEntity.ok(ErrorCodeDto.DeleteResponse.fromDeletion(errorCodeService.deleteModule(id)));
+    }
+
     // Error Code endpoints
     @PostMapping("/modules/{moduleId}/error-codes")
     public ResponseEntity<ErrorCodeDto.ErrorCodeResponse> createErrorCode(
             @PathVariable Long moduleId,
             @Valid @RequestBody ErrorCodeDto.CreateErrorCodeRequest request) {
-        ErrorCode errorCode = ErrorCode.builder()
-                .message(request.getMessage())
-                .description(request.getDescription())
-                .suggestedAction(request.getSuggestedAction())
-                .severity(request.getSeverity())
-                .httpStatus(request.getHttpStatus())
-                .isRetryable(request.getIsRetryable())
-                .build();
-
-        ErrorCode savedErrorCode = errorCodeService.createErrorCode(moduleId, errorCode);
-        return ResponseEntity.ok(ErrorCodeDto.ErrorCodeResponse.fromEntity(savedErrorCode));
+        ErrorCodeDto.ErrorCodeResponse created = write(moduleId, () -> ErrorCodeDto.ErrorCodeResponse.fromEntity(
+                errorCodeService.createErrorCode(moduleId, toErrorCode(request))));
+        // Only from an already loaded catalog: a write on a cold instance must not start a full catalog load
+        if (!errorCodeCatalog.isLoaded()) {
+            return ResponseEntity.ok(created);
+        }
+        created.setPossibleDuplicates(errorCodeCatalog.findSimilar(created.getMessage(), created.getDescription(),
+                        ErrorCodeCatalog.DEFAULT_MIN_SIMILARITY, ErrorCodeCatalog.DEFAULT_SIMILAR_LIMIT + 1).stream()
+                .filter(similar -> !similar.getErrorCode().getId().equals(created.getId()))
+                .limit(ErrorCodeCatalog.DEFAULT_SIMILAR_LIMIT)
+                .toList());
+        return ResponseEntity.ok(created);
     }
 
     @GetMapping("/modules/{moduleId}/error-codes")
-    public ResponseEntity<List<ErrorCodeDto.ErrorCodeResponse>> getModuleErrorCodes(@PathVariable Long moduleId) {
-        List<ErrorCodeDto.ErrorCodeResponse> errorCodes = errorCodeService.getErrorCodesByModuleId(moduleId).stream()
-                .map(ErrorCodeDto.ErrorCodeResponse::fromEntity)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(errorCodes);
+    public ResponseEntity<SerializedErrorCodes> getModuleErrorCodes(@PathVariable Long moduleId) {
+        return ResponseEntity.ok(SerializedErrorCodes.of(errorCodeService.getErrorCodesByModuleId(moduleId)));
     }
 
     @GetMapping("/projects/{projectId}/error-codes")
-    public ResponseEntity<List<ErrorCodeDto.ErrorCodeResponse>> getProjectErrorCodes(@PathVariable Long projectId) {
-        List<ErrorCodeDto.ErrorCodeResponse> errorCodes = errorCodeService.getErrorCodesByProjectId(projectId).stream()
-                .map(ErrorCodeDto.ErrorCodeResponse::fromEntity)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(errorCodes);
+    public ResponseEntity<SerializedErrorCodes> getProjectErrorCodes(@PathVariable Long projectId) {
+        return ResponseEntity.ok(SerializedErrorCodes.of(errorCodeService.getErrorCodesByProjectId(projectId)));
     }
 
     @GetMapping("/categories/{categoryId}/error-codes")
-    public ResponseEntity<List<ErrorCodeDto.ErrorCodeResponse>> getCategoryErrorCodes(@PathVariable Long categoryId) {
-        List<ErrorCodeDto.ErrorCodeResponse> errorCodes = errorCodeService.getErrorCodesByCategoryId(categoryId).stream()
-                .map(ErrorCodeDto.ErrorCodeResponse::fromEntity)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(errorCodes);
+    public ResponseEntity<SerializedErrorCodes> getCategoryErrorCodes(@PathVariable Long categoryId) {
+        return ResponseEntity.ok(SerializedErrorCodes.of(errorCodeService.getErrorCodesByCategoryId(categoryId)));
     }
 
     @GetMapping("/error-codes")
-    public ResponseEntity<List<ErrorCodeDto.ErrorCodeResponse>> getAllErrorCodes() {
-        List<ErrorCodeDto.ErrorCodeResponse> errorCodes = errorCodeService.getAllErrorCodes().stream()
-                .map(ErrorCodeDto.ErrorCodeResponse::fromEntity)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(errorCodes);
+    public ResponseEntity<SerializedErrorCodes> getAllErrorCodes() {
+        return ResponseEntity.ok(SerializedErrorCodes.of(errorCodeService.getAllErrorCodes()));
     }
 
     @GetMapping("/error-codes/{id}")
-    public ResponseEntity<ErrorCodeDto.ErrorCodeResponse> getErrorCode(@PathVariable Long id) {
+    public ResponseEntity<SerializedErrorCodes> getErrorCode(@PathVariable Long id) {
         return errorCodeService.getErrorCodeById(id)
-                .map(errorCode -> ResponseEntity.ok(ErrorCodeDto.ErrorCodeResponse.fromEntity(errorCode)))
+                .map(this::errorCodeDetail)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/error-codes/code/{code}")
-    public ResponseEntity<ErrorCodeDto.ErrorCodeResponse> getErrorCodeByCode(@PathVariable String code) {
+    public ResponseEntity<SerializedErrorCodes> getErrorCodeByCode(@PathVariable String code) {
         return errorCodeService.getErrorCodeByCode(code)
-                .map(errorCode -> ResponseEntity.ok(ErrorCodeDto.ErrorCodeResponse.fromEntity(errorCode)))
+                .map(this::errorCodeDetail)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @PostMapping("/error-codes/batch")
+    public ResponseEntity<ErrorCodeDto.BatchResolveResponse> resolveErrorCodes(
+            @Valid @RequestBody ErrorCodeDto.BatchResolveRequest request) {
+        Set<String> codes = request.getCodes() != null ? new LinkedHashSet<>(request.getCodes()) : Set.of();
+        Set<Long> ids = request.getIds() != null ? new LinkedHashSet<>(request.getIds()) : Set.of();
+
+        Map<String, ErrorCodeDto.ErrorCodeResponse> byCode = new HashMap<>();
+        Map<Long, ErrorCodeDto.ErrorCodeResponse> byId = new HashMap<>();
+        for (ErrorCode errorCode : errorCodeService.resolveErrorCodes(codes, ids)) {
+            ErrorCodeDto.ErrorCodeResponse response = ErrorCodeDto.ErrorCodeResponse.fromEntity(errorCode);
+            byCode.put(response.getCode(), response);
+            byId.put(response.getId(), response);
+        }
+
+        List<ErrorCodeDto.ResolvedErrorCode> results = new ArrayList<>(codes.size() + ids.size());
+        codes.forEach(code -> results.add(ErrorCodeDto.ResolvedErrorCode.builder()
+                .code(code)
+                .found(byCode.containsKey(code))
+                .errorCode(byCode.get(code))
+                .build()));
+        ids.forEach(id -> results.add(ErrorCodeDto.ResolvedErrorCode.builder()
+                .id(id)
+                .found(byId.containsKey(id))
+                .errorCode(byId.get(id))
+                .build()));
+
+        int foundCount = (int) results.stream().filter(ErrorCodeDto.ResolvedErrorCode::isFound).count();
+        return ResponseEntity.ok(ErrorCodeDto.BatchResolveResponse.builder()
+                .foundCount(foundCount)
+                .notFoundCount(results.size() - foundCount)
+                .results(results)
+                .build());
+    }
+
+    @PostMapping("/error-codes/similar")
+    public ResponseEntity<List<ErrorCodeDto.SimilarErrorCode>> findSimilarErrorCodes(
+            @Valid @RequestBody ErrorCodeDto.SimilarErrorCodesRequest request) {
+        return ResponseEntity.ok(errorCodeCatalog.findSimilar(request.getMessage(), request.getDescription(),
+                request.getMinSimilarity() != null ? request.getMinSimilarity() : ErrorCodeCatalog.DEFAULT_MIN_SIMILARITY,
+                request.getLimit() != null ? request.getLimit() : ErrorCodeCatalog.DEFAULT_SIMILAR_LIMIT));
+    }
+
     @PutMapping("/error-codes/{id}")
     public ResponseEntity<ErrorCodeDto.ErrorCodeResponse> updateErrorCode(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody ErrorCodeDto.CreateErrorCodeRequest request) {
-        ErrorCode errorCode = ErrorCode.builder()
-                .message(request.getMessage())
-                .description(request.getDescription())
-                .suggestedAction(request.getSuggestedAction())
-                .severity(request.getSeverity())
-                .httpStatus(request.getHttpStatus())
-                .isRetryable(request.getIsRetryable())
-                .build();
-
-        ErrorCode updatedErrorCode = errorCodeService.updateErrorCode(id, errorCode);
-        return ResponseEntity.ok(ErrorCodeDto.ErrorCodeResponse.fromEntity(updatedErrorCode));
+        Long expectedVersion = parseIfMatch(ifMatch);
+        ErrorCodeDto.ErrorCodeResponse updatedErrorCode = write(id, () -> ErrorCodeDto.ErrorCodeResponse.fromEntity(
+                errorCodeService.updateErrorCode(id, toErrorCode(request), expectedVersion)));
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(updatedErrorCode.getVersion()))
+                .body(updatedErrorCode);
     }
 
     @DeleteMapping("/error-codes/{id}")
@@ -235,61 +309,102 @@ public class ErrorCodeController {
         return ResponseEntity.noContent().build();
     }
 
-    // Search endpoints
-    @PostMapping("/search")
-    public ResponseEntity<List<ErrorCodeDto.ErrorCodeResponse>> searchErrorCodes(
-            @RequestBody ErrorCodeDto.SearchRequest searchRequest) {
+    // Translation and rendering endpoints
+    @GetMapping("/error-codes/{id}/translations")
+    public ResponseEntity<List<ErrorCodeDto.TranslationResponse>> getTranslations(@PathVariable Long id) {
+        return ResponseEntity.ok(errorCodeService.getTranslations(id).stream()
+                .map(ErrorCodeDto.TranslationResponse::fromEntity)
+                .collect(Collectors.toList()));
+    }
 
-        List<ErrorCode> errorCodes;
+    @PutMapping("/error-codes/{id}/translations/{locale}")
+    public ResponseEntity<ErrorCodeDto.TranslationResponse> saveTranslation(
+            @PathVariable Long id,
+            @PathVariable String locale,
+            @Valid @RequestBody ErrorCodeDto.TranslationRequest request) {
+        ErrorCodeTranslation translation = ErrorCodeTranslation.builder()
+                .message(request.getMessage())
+                .suggestedAction(request.getSuggestedAction())
+                .build();
+        return ResponseEntity.ok(ErrorCodeDto.TranslationResponse.fromEntity(
+                errorCodeService.saveTranslation(id, locale, translation)));
+    }
 
-        if (searchRequest.getSearchTerm() != null && !searchRequest.getSearchTerm().isEmpty()) {
-            errorCodes = errorCodeService.searchErrorCodes(searchRequest.getSearchTerm());
-        } else {
-            errorCodes = errorCodeService.getAllErrorCodes();
-        }
+    @DeleteMapping("/error-codes/{id}/translations/{locale}")
+    public ResponseEntity<Void> deleteTranslation(@PathVariable Long id, @PathVariable String locale) {
+        errorCodeService.deleteTranslation(id, locale);
+        return ResponseEntity.noContent().build();
+    }
 
-        // Apply filters
-        if (searchRequest.getSeverity() != null) {
-            errorCodes = errorCodes.stream()
-                    .filter(ec -> ec.getSeverity() == searchRequest.getSeverity())
-                    .collect(Collectors.toList());
-        }
+    @PostMapping("/error-codes/code/{code}/render")
+    public ResponseEntity<ErrorCodeDto.RenderedErrorCode> renderErrorCode(
+            @PathVariable String code,
+            @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, required = false) String acceptLanguage,
+            @Valid @RequestBody(required = false) ErrorCodeDto.RenderRequest request) {
+        String locale = request != null ? request.getLocale() : null;
+        List<Locale> preferred = locale != null && !locale.isBlank()
+                ? List.of(Locale.forLanguageTag(LocaleFallback.canonicalTag(locale)))
+                : LocaleFallback.parseAcceptLanguage(acceptLanguage);
+        return errorCodeTemplateService.render(code, preferred, request != null ? request.getArguments() : null)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
 
-        if (searchRequest.getHttpStatus() != null) {
-            errorCodes = errorCodes.stream()
-                    .filter(ec -> ec.getHttpStatus() == searchRequest.getHttpStatus())
-                    .collect(Collectors.toList());
-        }
+    // Occurrence endpoints
+    @PostMapping("/occurrences")
+    public ResponseEntity<ErrorCodeDto.OccurrenceBatchResponse> reportOccurrences(
+            @Valid @RequestBody ErrorCodeDto.OccurrenceBatchRequest request) {
+        return ResponseEntity.accepted().body(occurrenceIngestor.ingest(request.getOccurrences()));
+    }
 
-        if (searchRequest.getProjectCode() != null) {
-            errorCodes = errorCodes.stream()
-                    .filter(ec -> ec.getModule().getCategory().getProject().getCode().equals(searchRequest.getProjectCode()))
-                    .collect(Collectors.toList());
-        }
+    @GetMapping("/error-codes/code/{code}/occurrences")
+    public ResponseEntity<List<ErrorCodeDto.OccurrenceWindow>> getOccurrences(
+            @PathVariable String code,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
+        LocalDateTime from = since != null ? since : LocalDateTime.now().minusHours(1);
+        return ResponseEntity.ok(occurrenceIngestor.findOccurrences(code, from).stream()
+                .map(ErrorCodeDto.OccurrenceWindow::fromEntity)
+                .collect(Collectors.toList()));
+    }
 
-        if (searchRequest.getCategoryCode() != null) {
-            errorCodes = errorCodes.stream()
-                    .filter(ec -> ec.getModule().getCategory().getCode().equals(searchRequest.getCategoryCode()))
-                    .collect(Collectors.toList());
-        }
+    @GetMapping("/error-codes/code/{code}/occurrences/rollup")
+    public ResponseEntity<ErrorCodeDto.OccurrenceRollup> getOccurrenceRollup(@PathVariable String code) {
+        return ResponseEntity.ok(occurrenceRollups.rollup(code));
+    }
 
-        if (searchRequest.getModuleCode() != null) {
-            errorCodes = errorCodes.stream()
-                    .filter(ec -> ec.getModule().getCode().equals(searchRequest.getModuleCode()))
-                    .collect(Collectors.toList());
-        }
+    @GetMapping("/error-codes/code/{code}/occurrences/callers")
+    public ResponseEntity<ErrorCodeDto.DistinctCallers> getCallerSketch(
+            @PathVariable String code,
+            @RequestParam(defaultValue = "" + OccurrenceRollups.HOURS) int hours) {
+        return ResponseEntity.ok(occurrenceRollups.callerSketch(code, hours));
+    }
 
-        if (searchRequest.getIsRetryable() != null) {
-            errorCodes = errorCodes.stream()
-                    .filter(ec -> ec.getIsRetryable().equals(searchRequest.getIsRetryable()))
-                    .collect(Collectors.toList());
-        }
+    @PostMapping("/occurrences/callers/merge")
+    public ResponseEntity<ErrorCodeDto.DistinctCallers> mergeCallerSketches(
+            @Valid @RequestBody ErrorCodeDto.CallerSketchMergeRequest request) {
+        return ResponseEntity.ok(occurrenceRollups.mergeCallerSketches(request.getSketches()));
+    }
 
-        List<ErrorCodeDto.ErrorCodeResponse> response = errorCodes.stream()
-                .map(ErrorCodeDto.ErrorCodeResponse::fromEntity)
-                .collect(Collectors.toList());
+    @GetMapping("/occurrences/top")
+    public ResponseEntity<ErrorCodeDto.TopOccurrences> getTopOccurrences(
+            @RequestParam(required = false) String project,
+            @RequestParam(required = false) String module,
+            @RequestParam(defaultValue = "" + OccurrenceRollups.DEFAULT_TOP_MINUTES) int minutes,
+            @RequestParam(defaultValue = "" + OccurrenceRollups.DEFAULT_TOP_LIMIT) int limit) {
+        return ResponseEntity.ok(occurrenceRollups.topCodes(project, module, minutes, limit));
+    }
+
+    // Search endpoints
+    @PostMapping("/search")
+    public ResponseEntity<SerializedErrorCodes> searchErrorCodes(
+            @RequestBody ErrorCodeDto.SearchRequest searchRequest) {
+        return ResponseEntity.ok(SerializedErrorCodes.ofResponses(errorCodeSearchService.search(searchRequest)));
+    }
 
-        return ResponseEntity.ok(response);
+    @PostMapping("/search/faceted")
+    public ResponseEntity<ErrorCodeDto.FacetedSearchResponse> searchErrorCodesFaceted(
+            @RequestBody ErrorCodeDto.SearchRequest searchRequest) {
+        return ResponseEntity.ok(errorCodeSearchService.searchFaceted(searchRequest));
     }
 
     // Statistics endpoints
@@ -312,4 +427,84 @@ public class ErrorCodeController {
                 ));
         return ResponseEntity.ok(stats);
     }
-}
\ No newline at end of file
+
+    private List<ErrorCodeDto.ProjectResponse> toTree(CatalogHierarchy hierarchy) {
+        return ErrorCodeDto.ProjectResponse.treeOf(hierarchy.getProjects(), hierarchy.getCategories(),
+                hierarchy.getModules(), hierarchy.getErrorCodes());
+    }
+
+    private static Module toModule(ErrorCodeDto.CreateModuleRequest request) {
+        return Module.builder()
+                .name(request.getName())
+                .description(request.getDescription())
+                .code(request.getCode())
+                .purpose(request.getPurpose())
+                .build();
+    }
+
+    private static ErrorCode toErrorCode(ErrorCodeDto.CreateErrorCodeRequest request) {
+        return ErrorCode.builder()
+                .message(request.getMessage())
+                .description(request.getDescription())
+                .suggestedAction(request.getSuggestedAction())
+                .severity(request.getSeverity())
+                .httpStatus(request.getHttpStatus())
+                .isRetryable(request.getIsRetryable())
+                .build();
+    }
+
+    // Goes through the group-commit pipeline when it is enabled; the response is mapped inside the transaction.
+    // The operation runs again if its batch fails, so it builds its entities itself instead of capturing them.
+    // The pipeline bounds the wait, so a stalled partition answers 503 instead of holding the request thread.
+    private <T> T write(Long partitionKey, Supplier<T> operation) {
+        if (!writePipeline.isEnabled()) {
+            return operation.get();
+        }
+        try {
+            return writePipeline.submit(partitionKey, operation).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof TimeoutException) {
+                throw new WriteTimeoutException("Write did not complete in time, it may still be applied");
+            }
+            throw e;
+        }
+    }
+
+    // The caller estimate changes without the version, so a detail carrying it is tagged "<version>-<estimate>";
+    // a matching If-None-Match would otherwise keep serving a stale estimate
+    private ResponseEntity<SerializedErrorCodes> errorCodeDetail(ErrorCode errorCode) {
+        ErrorCodeDto.DistinctCallers distinctCallers =
+                occurrenceRollups.distinctCallers(errorCode.getCode()).orElse(null);
+        String eTag = distinctCallers != null
+                ? errorCode.getVersion() + "-" + distinctCallers.getEstimate()
+                : String.valueOf(errorCode.getVersion());
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .body(SerializedErrorCodes.of(errorCode, distinctCallers));
+    }
+
+    // Accepts the strong or weak ETag form of a version ("3", W/"3", or "3-17" from a detail with a caller estimate)
+    // as well as the bare number
+    private static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String version = ifMatch.trim();
+        if (version.startsWith("W/")) {
+            version = version.substring(2);
+        }
+        version = version.replace("\"", "");
+        int estimate = version.indexOf('-');
+        if (estimate > 0) {
+            version = version.substring(0, estimate);
+        }
+        try {
+            return Long.valueOf(version);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("If-Match must carry a version number, got: " + ifMatch);
+        }
+    }
+}
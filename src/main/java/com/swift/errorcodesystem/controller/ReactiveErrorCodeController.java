@@ -0,0 +1,84 @@
+package com.swift.errorcodesystem.controller;
+
+import com.swift.errorcodesystem.catalog.ErrorCodeCatalog;
+import com.swift.errorcodesystem.dto.ErrorCodeDto;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.function.Supplier;
+
+/**
+ * Read-only lookup API served from the in-memory {@link ErrorCodeCatalog}.
+ * List endpoints stream newline-delimited JSON so that items are written as the client demands them.
+ */
+@RestController
+@RequestMapping("/api/v1/reactive/error-codes")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveErrorCodeController {
+
+    private final ErrorCodeCatalog errorCodeCatalog;
+
+    @GetMapping("/code/{code}")
+    public Mono<ResponseEntity<ErrorCodeDto.ErrorCodeResponse>> getErrorCodeByCode(@PathVariable String code) {
+        return fromCatalog(() -> errorCodeCatalog.findByCode(code))
+                .map(errorCode -> errorCode
+                        .map(ResponseEntity::ok)
+                        .orElse(ResponseEntity.notFound().build()));
+    }
+
+    @GetMapping("/autocomplete")
+    public Mono<ErrorCodeDto.AutocompleteResponse> autocomplete(@RequestParam String prefix,
+                                                                @RequestParam(defaultValue = "10") int limit) {
+        return fromCatalog(() -> errorCodeCatalog.autocomplete(prefix, limit));
+    }
+
+    @GetMapping(value = "/code-prefix/{prefix}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ErrorCodeDto.ErrorCodeResponse> getErrorCodesByCodePrefix(
+            @PathVariable String prefix, @RequestParam(defaultValue = "" + Integer.MAX_VALUE) int limit) {
+        return fromCatalog(() -> errorCodeCatalog.findByCodePrefix(prefix, limit))
+                .flatMapIterable(errorCodes -> errorCodes);
+    }
+
+    @GetMapping(value = "/filter", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ErrorCodeDto.ErrorCodeResponse> filterErrorCodes(ErrorCodeDto.FilterRequest request) {
+        return fromCatalog(() -> errorCodeCatalog.filter(request))
+                .flatMapIterable(errorCodes -> errorCodes);
+    }
+
+    @GetMapping("/filter/facets")
+    public Mono<ErrorCodeDto.FacetedSearchResponse> countFilteredErrorCodes(ErrorCodeDto.FilterRequest request) {
+        return fromCatalog(() -> errorCodeCatalog.countFacets(request));
+    }
+
+    @GetMapping(value = "/modules", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ErrorCodeDto.ModuleResponse> getModules(@RequestParam(required = false) Long categoryId) {
+        return fromCatalog(() -> errorCodeCatalog.getModules(categoryId))
+                .flatMapIterable(modules -> modules);
+    }
+
+    @GetMapping(value = "/modules/{moduleId}/error-codes", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ErrorCodeDto.ErrorCodeResponse> getModuleErrorCodes(@PathVariable Long moduleId) {
+        return fromCatalog(() -> errorCodeCatalog.getErrorCodesByModuleId(moduleId))
+                .flatMapIterable(errorCodes -> errorCodes);
+    }
+
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ErrorCodeDto.ErrorCodeResponse> searchErrorCodes(@RequestParam String term) {
+        return fromCatalog(() -> errorCodeCatalog.search(term))
+                .flatMapIterable(errorCodes -> errorCodes);
+    }
+
+    // Only the first read after startup or a hierarchy change touches the database, so only that one is offloaded
+    private <T> Mono<T> fromCatalog(Supplier<T> read) {
+        Mono<T> result = Mono.fromSupplier(read);
+        return errorCodeCatalog.isLoaded() ? result : result.subscribeOn(Schedulers.boundedElastic());
+    }
+}
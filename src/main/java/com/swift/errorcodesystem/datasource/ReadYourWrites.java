@@ -0,0 +1,47 @@
+package com.swift.errorcodesystem.datasource;
+
+/**
+ * Per-request read-your-writes state for {@link ReadWriteRoutingDataSource}, opened and closed by
+ * {@link ReadYourWritesFilter}. Once the request has written, or its caller wrote recently, read-only transactions
+ * stay on the primary so they never observe replication lag. Threads outside a request, such as the group-commit
+ * workers and the schedulers, have no state: their writes are not remembered and nothing is left on the thread.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<State> STATE = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    static void begin(boolean stickToPrimary) {
+        State state = new State();
+        state.sticky = stickToPrimary;
+        STATE.set(state);
+    }
+
+    static void end() {
+        STATE.remove();
+    }
+
+    public static void markWrite() {
+        State state = STATE.get();
+        if (state != null) {
+            state.written = true;
+        }
+    }
+
+    public static boolean hasWritten() {
+        State state = STATE.get();
+        return state != null && state.written;
+    }
+
+    public static boolean isPrimaryRequired() {
+        State state = STATE.get();
+        return state != null && (state.sticky || state.written);
+    }
+
+    private static final class State {
+        private boolean sticky;
+        private boolean written;
+    }
+}
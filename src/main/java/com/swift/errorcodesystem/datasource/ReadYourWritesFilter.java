@@ -0,0 +1,51 @@
+package com.swift.errorcodesystem.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Keeps a caller on the primary for a short window after one of its requests wrote, so its next reads see that
+ * write even if the replicas lag behind. Callers are told apart by the {@value #CALLER_HEADER} header, falling back
+ * to the remote address.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String CALLER_HEADER = "X-Caller-Id";
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesFilter(Duration stickiness) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(stickiness)
+                .maximumSize(100_000)
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String caller = callerOf(request);
+        ReadYourWrites.begin(recentWriters.getIfPresent(caller) != null);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (ReadYourWrites.hasWritten()) {
+                recentWriters.put(caller, Boolean.TRUE);
+            }
+            ReadYourWrites.end();
+        }
+    }
+
+    private static String callerOf(HttpServletRequest request) {
+        String caller = request.getHeader(CALLER_HEADER);
+        return caller != null && !caller.isBlank() ? caller : request.getRemoteAddr();
+    }
+}
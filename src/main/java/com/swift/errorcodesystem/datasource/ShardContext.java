@@ -0,0 +1,34 @@
+package com.swift.errorcodesystem.datasource;
+
+/**
+ * Per-thread shard selection for {@link ShardRoutingDataSource}. Unset means the default shard.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Selects {@code shard} for the current thread and returns the previous selection, to be handed to
+     * {@link #restore(String)} once the call is done.
+     */
+    public static String enter(String shard) {
+        String previous = CURRENT.get();
+        CURRENT.set(shard);
+        return previous;
+    }
+
+    public static void restore(String previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.swift.errorcodesystem.dto;
+
+import lombok.Value;
+
+/**
+ * Row counts removed by one set-based delete of a catalog subtree, per level.
+ */
+@Value
+public class CatalogDeletion {
+    int projects;
+    int categories;
+    int modules;
+    int errorCodes;
+}
@@ -2,12 +2,21 @@ package com.swift.errorcodesystem.dto;
 
 import com.swift.errorcodesystem.entity.Category;
 import com.swift.errorcodesystem.entity.ErrorCode;
+import com.swift.errorcodesystem.entity.ErrorCodeTranslation;
+import com.swift.errorcodesystem.entity.ErrorOccurrence;
 import com.swift.errorcodesystem.entity.Project;
 import com.swift.errorcodesystem.entity.Module;
+import com.swift.errorcodesystem.template.MessageTemplate;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
@@ -16,8 +25,15 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 public class ErrorCodeDto {
@@ -65,6 +81,8 @@ public class ErrorCodeDto {
         @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
         private LocalDateTime updatedAt;
 
+        private Long version;
+
         private List<CategoryResponse> categories;
 
         public static ProjectResponse fromEntity(Project project) {
@@ -77,6 +95,7 @@ public class ErrorCodeDto {
                     .status(project.getStatus())
                     .createdAt(project.getCreatedAt())
                     .updatedAt(project.getUpdatedAt())
+                    .version(project.getVersion())
                     .categories(project.getCategories() != null ?
                             project.getCategories().stream()
                                     .map(CategoryResponse::fromEntity)
@@ -84,6 +103,45 @@ public class ErrorCodeDto {
                     .build();
         }
 
+        /**
+         * Assembles project -> category -> module (-> error code) trees from flat lists, grouping each level
+         * by parent id. Modules carry error codes only when {@code errorCodes} is not empty.
+         */
+        public static List<ProjectResponse> treeOf(List<Project> projects, List<Category> categories,
+                                                   List<Module> modules, List<ErrorCode> errorCodes) {
+            Map<Long, List<ErrorCodeResponse>> errorCodesByModule = errorCodes.stream()
+                    .sorted(Comparator.comparing(ErrorCode::getCode))
+                    .collect(Collectors.groupingBy(errorCode -> errorCode.getModule().getId(),
+                            Collectors.mapping(ErrorCodeResponse::fromEntity, Collectors.toList())));
+            Map<Long, List<ModuleResponse>> modulesByCategory = modules.stream()
+                    .sorted(Comparator.comparing(Module::getCode))
+                    .collect(Collectors.groupingBy(module -> module.getCategory().getId(),
+                            Collectors.mapping(module -> {
+                                ModuleResponse response = ModuleResponse.fromEntityWithoutErrorCodes(module);
+                                if (!errorCodes.isEmpty()) {
+                                    response.setErrorCodes(errorCodesByModule.getOrDefault(module.getId(), List.of()));
+                                }
+                                return response;
+                            }, Collectors.toList())));
+            Map<Long, List<CategoryResponse>> categoriesByProject = categories.stream()
+                    .sorted(Comparator.comparing(Category::getCode))
+                    .collect(Collectors.groupingBy(category -> category.getProject().getId(),
+                            Collectors.mapping(category -> {
+                                CategoryResponse response = CategoryResponse.fromEntityWithoutModules(category);
+                                response.setModules(modulesByCategory.getOrDefault(category.getId(), List.of()));
+                                return response;
+                            }, Collectors.toList())));
+
+            return projects.stream()
+                    .sorted(Comparator.comparing(Project::getCode))
+                    .map(project -> {
+                        ProjectResponse response = fromEntityWithoutCategories(project);
+                        response.setCategories(categoriesByProject.getOrDefault(project.getId(), List.of()));
+                        return response;
+                    })
+                    .collect(Collectors.toList());
+        }
+
         public static ProjectResponse fromEntityWithoutCategories(Project project) {
             return ProjectResponse.builder()
                     .id(project.getId())
@@ -94,6 +152,7 @@ public class ErrorCodeDto {
                     .status(project.getStatus())
                     .createdAt(project.getCreatedAt())
                     .updatedAt(project.getUpdatedAt())
+                    .version(project.getVersion())
                     .build();
         }
     }
@@ -135,6 +194,8 @@ public class ErrorCodeDto {
         @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
         private LocalDateTime updatedAt;
 
+        private Long version;
+
         private List<ModuleResponse> modules;
 
         public static CategoryResponse fromEntity(Category category) {
@@ -148,6 +209,7 @@ public class ErrorCodeDto {
                     .projectCode(category.getProject().getCode())
                     .createdAt(category.getCreatedAt())
                     .updatedAt(category.getUpdatedAt())
+                    .version(category.getVersion())
                     .modules(category.getModules() != null ?
                             category.getModules().stream()
                                     .map(ModuleResponse::fromEntity)
@@ -166,6 +228,7 @@ public class ErrorCodeDto {
                     .projectCode(category.getProject().getCode())
                     .createdAt(category.getCreatedAt())
                     .updatedAt(category.getUpdatedAt())
+                    .version(category.getVersion())
                     .build();
         }
     }
@@ -215,6 +278,8 @@ public class ErrorCodeDto {
         @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
         private LocalDateTime updatedAt;
 
+        private Long version;
+
         private List<ErrorCodeResponse> errorCodes;
 
         public static ModuleResponse fromEntity(Module module) {
@@ -232,6 +297,7 @@ public class ErrorCodeDto {
                     .projectCode(module.getCategory().getProject().getCode())
                     .createdAt(module.getCreatedAt())
                     .updatedAt(module.getUpdatedAt())
+                    .version(module.getVersion())
                     .errorCodes(module.getErrorCodes() != null ?
                             module.getErrorCodes().stream()
                                     .map(ErrorCodeResponse::fromEntity)
@@ -254,6 +320,7 @@ public class ErrorCodeDto {
                     .projectCode(module.getCategory().getProject().getCode())
                     .createdAt(module.getCreatedAt())
                     .updatedAt(module.getUpdatedAt())
+                    .version(module.getVersion())
                     .build();
         }
     }
@@ -314,6 +381,15 @@ public class ErrorCodeDto {
         @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
         private LocalDateTime updatedAt;
 
+        private Long version;
+
+        // Only set in the response to creating the error code, and only once the catalog has been loaded
+        private List<SimilarErrorCode> possibleDuplicates;
+
+        // Only set in detail responses of codes whose occurrence reports named callers; their ETag then covers the
+        // estimate as well as the version
+        private DistinctCallers distinctCallers;
+
         public static ErrorCodeResponse fromEntity(ErrorCode errorCode) {
             return ErrorCodeResponse.builder()
                     .id(errorCode.getId())
@@ -336,6 +412,343 @@ public class ErrorCodeDto {
                     .projectCode(errorCode.getModule().getCategory().getProject().getCode())
                     .createdAt(errorCode.getCreatedAt())
                     .updatedAt(errorCode.getUpdatedAt())
+                    .version(errorCode.getVersion())
+                    .build();
+        }
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TranslationRequest {
+        @NotBlank(message = "Message is required")
+        @Size(max = 200, message = "Message must not exceed 200 characters")
+        private String message;
+
+        @Size(max = 500, message = "Suggested action must not exceed 500 characters")
+        private String suggestedAction;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class TranslationResponse {
+        private String locale;
+        private String message;
+        private String suggestedAction;
+        // Template parameters of the message and suggested action
+        private Set<String> parameters;
+
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+        private LocalDateTime createdAt;
+
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+        private LocalDateTime updatedAt;
+
+        private Long version;
+
+        public static TranslationResponse fromEntity(ErrorCodeTranslation translation) {
+            Set<String> parameters = new LinkedHashSet<>(MessageTemplate.compile(translation.getMessage()).getParameters());
+            parameters.addAll(MessageTemplate.compile(translation.getSuggestedAction()).getParameters());
+            return TranslationResponse.builder()
+                    .locale(translation.getLocale())
+                    .message(translation.getMessage())
+                    .suggestedAction(translation.getSuggestedAction())
+                    .parameters(parameters)
+                    .createdAt(translation.getCreatedAt())
+                    .updatedAt(translation.getUpdatedAt())
+                    .version(translation.getVersion())
+                    .build();
+        }
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RenderRequest {
+        // Language tag to render in; the Accept-Language header is used when unset
+        private String locale;
+
+        @Size(max = 50, message = "At most 50 arguments can be given")
+        private Map<String, Object> arguments;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    public static class RenderedErrorCode {
+        private String code;
+        // Locale of the translation used, unset when the error code's own texts were used
+        private String locale;
+        private String message;
+        private String suggestedAction;
+        private Integer httpStatusCode;
+        private Set<String> missingArguments;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OccurrenceReport {
+        @NotBlank(message = "Code is required")
+        private String code;
+
+        @NotBlank(message = "Service is required")
+        @Size(max = 100, message = "Service must not exceed 100 characters")
+        private String service;
+
+        // Time of the occurrence; the time of receipt when unset
+        private Instant occurredAt;
+
+        // Client or tenant the error was returned to, counted towards the code's distinct callers
+        @Size(max = 200, message = "Caller must not exceed 200 characters")
+        private String caller;
+
+        // Occurrences summed up by the reporter, 1 when unset
+        @Min(value = 1, message = "Count must be between 1 and 1000000")
+        @Max(value = 1_000_000, message = "Count must be between 1 and 1000000")
+        private Long count;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OccurrenceBatchRequest {
+        @NotNull(message = "Occurrences are required")
+        @Size(max = 10_000, message = "At most 10000 occurrences can be reported per request")
+        private List<@Valid OccurrenceReport> occurrences;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OccurrenceBatchResponse {
+        // Occurrences counted, summing the counts of the accepted reports
+        private long accepted;
+        // Reports rejected, by reason
+        private long rejected;
+        private Map<String, Long> rejections;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OccurrenceWindow {
+        private String service;
+
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+        private LocalDateTime windowStart;
+
+        private long count;
+
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+        private LocalDateTime lastOccurredAt;
+
+        public static OccurrenceWindow fromEntity(ErrorOccurrence occurrence) {
+            return OccurrenceWindow.builder()
+                    .service(occurrence.getService())
+                    .windowStart(occurrence.getWindowStart())
+                    .count(occurrence.getCount())
+                    .lastOccurredAt(occurrence.getLastOccurredAt())
+                    .build();
+        }
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class TopOccurrences {
+        private String project;
+        private String module;
+        private int minutes;
+        // Most reported first
+        private List<CodeOccurrences> codes;
+        // Upper bound on the count of any code not listed, whether cut by the limit or not monitored by the sketches
+        private long maxUnlistedCount;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CodeOccurrences {
+        private String code;
+        private long count;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OccurrenceRollup {
+        private String code;
+        // Oldest first, ending with the current minute and hour
+        private List<OccurrenceBucket> perMinute;
+        private List<OccurrenceBucket> perHour;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OccurrenceBucket {
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+        private LocalDateTime start;
+
+        private long count;
+    }
+
+    /**
+     * Estimated number of distinct callers, from a HyperLogLog sketch of them.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class DistinctCallers {
+        private long estimate;
+        private double relativeStandardError;
+        // Two standard errors either side of the estimate, holding the true count about 95% of the time
+        private long lowerBound;
+        private long upperBound;
+        // Hours of reports the estimate covers; unset for merged sketches
+        private Integer hours;
+        // The serialized sketch, for merging with the sketches of other instances
+        private byte[] sketch;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CallerSketchMergeRequest {
+        @NotEmpty(message = "Sketches are required")
+        @Size(max = 100, message = "At most 100 sketches can be merged per request")
+        private List<byte[]> sketches;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SimilarErrorCodesRequest {
+        @NotBlank(message = "Message is required")
+        @Size(max = 200, message = "Message must not exceed 200 characters")
+        private String message;
+
+        @Size(max = 1000, message = "Description must not exceed 1000 characters")
+        private String description;
+
+        // Pairs below 0.3 rarely share a band of the similarity index, so lower thresholds would not find them
+        @DecimalMin(value = "0.3", message = "Minimum similarity must be between 0.3 and 1")
+        @DecimalMax(value = "1.0", message = "Minimum similarity must be between 0.3 and 1")
+        private Double minSimilarity;
+
+        @Min(value = 1, message = "Limit must be between 1 and 50")
+        @Max(value = 50, message = "Limit must be between 1 and 50")
+        private Integer limit;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SimilarErrorCode {
+        private double similarity;
+        private ErrorCodeResponse errorCode;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AutocompleteResponse {
+        private String prefix;
+        private List<CodeSuggestion> codes;
+        private List<WordSuggestion> words;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CodeSuggestion {
+        private String code;
+        private String message;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class WordSuggestion {
+        private String word;
+        private int errorCodeCount;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BatchResolveRequest {
+        @Size(max = 500, message = "At most 500 codes can be resolved per request")
+        private List<String> codes;
+
+        @Size(max = 500, message = "At most 500 ids can be resolved per request")
+        private List<Long> ids;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class ResolvedErrorCode {
+        private String code;
+        private Long id;
+        private boolean found;
+        private ErrorCodeResponse errorCode;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BatchResolveResponse {
+        private int foundCount;
+        private int notFoundCount;
+        private List<ResolvedErrorCode> results;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DeleteResponse {
+        private int deletedProjects;
+        private int deletedCategories;
+        private int deletedModules;
+        private int deletedErrorCodes;
+
+        public static DeleteResponse fromDeletion(CatalogDeletion deletion) {
+            return DeleteResponse.builder()
+                    .deletedProjects(deletion.getProjects())
+                    .deletedCategories(deletion.getCategories())
+                    .deletedModules(deletion.getModules())
+                    .deletedErrorCodes(deletion.getErrorCodes())
                     .build();
         }
     }
@@ -353,4 +766,58 @@ public class ErrorCodeDto {
         private String moduleCode;
         private Boolean isRetryable;
     }
-}
\ No newline at end of file
+
+    /**
+     * Query parameters of the bitmap-indexed filter: every given filter has to match, by any of its values.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FilterRequest {
+        private List<ErrorCode.ErrorSeverity> severity;
+        private List<ErrorCode.HttpStatus> httpStatus;
+        private Boolean isRetryable;
+        private List<String> projectCode;
+        private List<String> categoryCode;
+        private List<String> moduleCode;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class FacetedSearchResponse {
+        private int total;
+        private List<ErrorCodeResponse> results;
+        private SearchFacets facets;
+    }
+
+    /**
+     * Number of matched error codes per value of every search filter, keyed the way the filter takes the value.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SearchFacets {
+        private Map<ErrorCode.ErrorSeverity, Long> severity;
+        private Map<ErrorCode.HttpStatus, Long> httpStatus;
+        private Map<Boolean, Long> isRetryable;
+        private Map<String, Long> projectCode;
+        private Map<String, Long> categoryCode;
+        private Map<String, Long> moduleCode;
+
+        public static SearchFacets empty() {
+            return SearchFacets.builder()
+                    .severity(new EnumMap<>(ErrorCode.ErrorSeverity.class))
+                    .httpStatus(new EnumMap<>(ErrorCode.HttpStatus.class))
+                    .isRetryable(new TreeMap<>())
+                    .projectCode(new TreeMap<>())
+                    .categoryCode(new TreeMap<>())
+                    .moduleCode(new TreeMap<>())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.swift.errorcodesystem.entity;
+
+import com.swift.errorcodesystem.event.CatalogChangeEvent;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SourceType;
+
+import java.time.LocalDateTime;
+
+/**
+ * One catalog write as seen by the database-backed invalidation bus. Rows are written in the writing transaction
+ * and read by every other instance; {@code createdAt} comes from the database clock so all instances agree on it.
+ */
+@Entity
+@Table(name = "catalog_invalidations", indexes = {
+        @Index(name = "ix_catalog_invalidations_created_at", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CatalogInvalidation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String nodeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private CatalogChangeEvent.EntityType entityType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private CatalogChangeEvent.ChangeType changeType;
+
+    @Column(nullable = false)
+    private Long entityId;
+
+    private Long projectId;
+
+    private Long categoryId;
+
+    private Long moduleId;
+
+    private Long entityVersion;
+
+    @CreationTimestamp(source = SourceType.DB)
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
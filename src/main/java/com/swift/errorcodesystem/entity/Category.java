@@ -2,6 +2,8 @@ package com.swift.errorcodesystem.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -10,7 +12,11 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "categories")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "categories")
+@Table(name = "categories", indexes = {
+        @Index(name = "ux_categories_project_code", columnList = "project_id, code", unique = true)
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -42,13 +48,17 @@ public class Category {
     @UpdateTimestamp
     private LocalDateTime updatedAt;
 
+    @Version
+    private Long version;
+
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "category-modules")
     @OneToMany(mappedBy = "category", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @Builder.Default
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
     private List<Module> modules = new ArrayList<>();
 
-    // Unique constraint: category code must be unique within a project
+    // Unique constraint: category code must be unique within a project (ux_categories_project_code)
     @PrePersist
     @PreUpdate
     private void validateUniqueCodeWithinProject() {
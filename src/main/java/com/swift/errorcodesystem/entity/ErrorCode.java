@@ -2,13 +2,23 @@ package com.swift.errorcodesystem.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "error_codes")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "error-codes")
+@Table(name = "error_codes", indexes = {
+        @Index(name = "ux_error_codes_code", columnList = "code", unique = true),
+        @Index(name = "ix_error_codes_module_code", columnList = "module_id, code"),
+        @Index(name = "ix_error_codes_module_severity", columnList = "module_id, severity"),
+        @Index(name = "ix_error_codes_severity", columnList = "severity"),
+        @Index(name = "ix_error_codes_http_status", columnList = "http_status")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -57,6 +67,9 @@ public class ErrorCode {
     @UpdateTimestamp
     private LocalDateTime updatedAt;
 
+    @Version
+    private Long version;
+
     @PrePersist
     @PreUpdate
     private void setHttpStatusCode() {
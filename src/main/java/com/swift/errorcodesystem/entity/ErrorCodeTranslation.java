@@ -0,0 +1,51 @@
+package com.swift.errorcodesystem.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Message and suggested action of an error code in one locale, used in place of the error code's own texts for
+ * callers asking for that locale. Both are templates, see {@link com.swift.errorcodesystem.template.MessageTemplate}.
+ */
+@Entity
+@Table(name = "error_code_translations", indexes = {
+        @Index(name = "ux_error_code_translations_error_code_locale", columnList = "error_code_id, locale", unique = true)
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ErrorCodeTranslation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "error_code_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private ErrorCode errorCode;
+
+    @Column(nullable = false, length = 35)
+    private String locale; // BCP 47 language tag (e.g., "de", "de-CH")
+
+    @Column(nullable = false, length = 200)
+    private String message;
+
+    @Column(length = 500)
+    private String suggestedAction;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
+    @Version
+    private Long version;
+}
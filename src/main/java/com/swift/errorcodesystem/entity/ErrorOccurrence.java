@@ -0,0 +1,42 @@
+package com.swift.errorcodesystem.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * How often one error code was reported by one service within one flush window of the occurrence ingestion.
+ * Lives on the shard of its error code's project, like the error code itself.
+ */
+@Entity
+@Table(name = "error_occurrences", indexes = {
+        @Index(name = "ux_error_occurrences_code_service_window", columnList = "code, service, window_start", unique = true),
+        @Index(name = "ix_error_occurrences_window_start", columnList = "window_start")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ErrorOccurrence {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    private String code;
+
+    @Column(nullable = false, length = 100)
+    private String service;
+
+    // Start of the window the occurrences were received in: the previous flush, so every flush writes new rows.
+    // Reports may carry an older occurrence time; they still count towards the window they arrived in
+    @Column(nullable = false)
+    private LocalDateTime windowStart;
+
+    @Column(name = "occurrence_count", nullable = false)
+    private Long count;
+
+    // Latest occurrence time reported within the window
+    private LocalDateTime lastOccurredAt;
+}
@@ -0,0 +1,28 @@
+package com.swift.errorcodesystem.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Directory entry of a project moved to another shard, overriding the configured assignment.
+ * Kept on the default shard only.
+ */
+@Entity
+@Table(name = "project_shards")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProjectShardAssignment {
+    @Id
+    @Column(length = 10)
+    private String projectCode;
+
+    @Column(nullable = false, length = 64)
+    private String shard;
+
+    @Column(nullable = false)
+    private LocalDateTime assignedAt;
+}
@@ -0,0 +1,76 @@
+package com.swift.errorcodesystem.event;
+
+import com.swift.errorcodesystem.entity.Category;
+import com.swift.errorcodesystem.entity.ErrorCode;
+import com.swift.errorcodesystem.entity.Module;
+import com.swift.errorcodesystem.entity.Project;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Published by {@link com.swift.errorcodesystem.service.ErrorCodeService} after every write to the catalog.
+ * Carries the ids of the enclosing project, category and module so listeners can scope their invalidation.
+ * Events relayed from another instance through the invalidation bus are flagged {@code remote}.
+ */
+@Value
+@AllArgsConstructor
+public class CatalogChangeEvent {
+    EntityType entityType;
+    ChangeType changeType;
+    Long entityId;
+    Long projectId;
+    Long categoryId;
+    Long moduleId;
+    // Version after the write, null for deletes
+    Long version;
+    boolean remote;
+
+    public enum EntityType {
+        PROJECT, CATEGORY, MODULE, ERROR_CODE
+    }
+
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static CatalogChangeEvent forProject(Long projectId, ChangeType changeType) {
+        return new CatalogChangeEvent(EntityType.PROJECT, changeType, projectId, projectId, null, null, null, false);
+    }
+
+    public static CatalogChangeEvent forProject(Project project, ChangeType changeType) {
+        return new CatalogChangeEvent(EntityType.PROJECT, changeType, project.getId(), project.getId(), null, null,
+                versionOf(project.getVersion(), changeType), false);
+    }
+
+    public static CatalogChangeEvent forCategory(Category category, ChangeType changeType) {
+        return new CatalogChangeEvent(EntityType.CATEGORY, changeType, category.getId(),
+                category.getProject().getId(), category.getId(), null, versionOf(category.getVersion(), changeType), false);
+    }
+
+    public static CatalogChangeEvent forModule(Module module, ChangeType changeType) {
+        Category category = module.getCategory();
+        return new CatalogChangeEvent(EntityType.MODULE, changeType, module.getId(),
+                category.getProject().getId(), category.getId(), module.getId(),
+                versionOf(module.getVersion(), changeType), false);
+    }
+
+    public static CatalogChangeEvent forErrorCode(ErrorCode errorCode, ChangeType changeType) {
+        Module module = errorCode.getModule();
+        Category category = module.getCategory();
+        return new CatalogChangeEvent(EntityType.ERROR_CODE, changeType, errorCode.getId(),
+                category.getProject().getId(), category.getId(), module.getId(),
+                versionOf(errorCode.getVersion(), changeType), false);
+    }
+
+    public CatalogChangeEvent asRemote() {
+        return new CatalogChangeEvent(entityType, changeType, entityId, projectId, categoryId, moduleId, version, true);
+    }
+
+    public boolean isErrorCodeChange() {
+        return entityType == EntityType.ERROR_CODE;
+    }
+
+    private static Long versionOf(Long version, ChangeType changeType) {
+        return changeType == ChangeType.DELETED ? null : version;
+    }
+}
@@ -0,0 +1,15 @@
+package com.swift.errorcodesystem.exception;
+
+/**
+ * Thrown when a request targets a catalog entity that does not exist.
+ */
+public class ResourceNotFoundException extends RuntimeException {
+
+    public ResourceNotFoundException(String entityName, Long id) {
+        super(entityName + " not found with id: " + id);
+    }
+
+    public ResourceNotFoundException(String message) {
+        super(message);
+    }
+}
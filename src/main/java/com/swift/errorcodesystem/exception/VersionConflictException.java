@@ -0,0 +1,17 @@
+package com.swift.errorcodesystem.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a conditional update finds the row at a different version than the client expected.
+ */
+@Getter
+public class VersionConflictException extends RuntimeException {
+
+    private final Long expectedVersion;
+
+    public VersionConflictException(String entityName, Long id, Long expectedVersion) {
+        super(entityName + " with id " + id + " was modified concurrently, expected version " + expectedVersion);
+        this.expectedVersion = expectedVersion;
+    }
+}
@@ -0,0 +1,12 @@
+package com.swift.errorcodesystem.exception;
+
+/**
+ * Thrown when a queued write did not complete within the time a request waits for it. The write may still be
+ * applied afterwards unless it had not started yet.
+ */
+public class WriteTimeoutException extends RuntimeException {
+
+    public WriteTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.swift.errorcodesystem.invalidation;
+
+import com.swift.errorcodesystem.event.CatalogChangeEvent;
+
+/**
+ * Carries catalog writes between instances so each can evict its in-process caches. {@link #publish} is called for
+ * every local write, inside the writing transaction when there is one. Implementations deliver the writes of other
+ * instances by publishing them locally as {@linkplain CatalogChangeEvent#asRemote() remote} events, which the
+ * existing cache listeners handle like local ones.
+ */
+public interface CatalogInvalidationBus {
+
+    void publish(CatalogChangeEvent event);
+}
@@ -0,0 +1,23 @@
+package com.swift.errorcodesystem.invalidation;
+
+import com.swift.errorcodesystem.event.CatalogChangeEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Hands local catalog writes to the {@link CatalogInvalidationBus} before the writing transaction commits, so a
+ * write and its invalidation are committed, or rolled back, together.
+ */
+@RequiredArgsConstructor
+public class CatalogInvalidationRelay {
+
+    private final CatalogInvalidationBus invalidationBus;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (!event.isRemote()) {
+            invalidationBus.publish(event);
+        }
+    }
+}
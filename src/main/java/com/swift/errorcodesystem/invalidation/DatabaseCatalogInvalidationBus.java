@@ -0,0 +1,128 @@
+package com.swift.errorcodesystem.invalidation;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.swift.errorcodesystem.config.InvalidationBusProperties;
+import com.swift.errorcodesystem.entity.CatalogInvalidation;
+import com.swift.errorcodesystem.event.CatalogChangeEvent;
+import com.swift.errorcodesystem.repository.CatalogInvalidationRepository;
+import com.swift.errorcodesystem.sharding.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Invalidation bus over the shared catalog database: every write adds a {@link CatalogInvalidation} row in the
+ * writing transaction, and every instance polls for rows written by the others. Polls re-read an overlap window
+ * so that rows committed late, out of {@code createdAt} order, are still picked up; rows already relayed are
+ * remembered by id and skipped. With sharding, every shard records its own writes and is polled on its own.
+ */
+@Slf4j
+public class DatabaseCatalogInvalidationBus implements CatalogInvalidationBus {
+
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final CatalogInvalidationRepository invalidationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InvalidationBusProperties properties;
+    private final ShardRouter shardRouter;
+    private final Cache<Long, Boolean> seen;
+    // Per shard, as each one stamps rows with its own database clock
+    private final Map<String, LocalDateTime> newestSeen = new HashMap<>();
+
+    private long nextCleanup;
+
+    public DatabaseCatalogInvalidationBus(CatalogInvalidationRepository invalidationRepository,
+                                          ApplicationEventPublisher eventPublisher,
+                                          InvalidationBusProperties properties,
+                                          ShardRouter shardRouter) {
+        this.invalidationRepository = invalidationRepository;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.shardRouter = shardRouter;
+        // Ids stay remembered as long as their rows keep showing up in the overlap window
+        this.seen = Caffeine.newBuilder()
+                .expireAfterAccess(properties.getOverlap().multipliedBy(3))
+                .build();
+    }
+
+    @Override
+    public void publish(CatalogChangeEvent event) {
+        invalidationRepository.save(CatalogInvalidation.builder()
+                .nodeId(properties.getNodeId())
+                .entityType(event.getEntityType())
+                .changeType(event.getChangeType())
+                .entityId(event.getEntityId())
+                .projectId(event.getProjectId())
+                .categoryId(event.getCategoryId())
+                .moduleId(event.getModuleId())
+                .entityVersion(event.getVersion())
+                .build());
+    }
+
+    /**
+     * Relays the writes of other instances committed since the last poll, returning how many were relayed.
+     * Scheduled every {@code errorcode.invalidation.poll-interval} by {@code InvalidationBusConfig}.
+     */
+    public synchronized int poll() {
+        int relayed = 0;
+        for (String shard : shardRouter.getShards()) {
+            relayed += shardRouter.onShard(shard, () -> pollShard(shard));
+        }
+        if (relayed > 0) {
+            log.debug("Relayed {} catalog invalidations from other instances", relayed);
+        }
+        cleanUp();
+        return relayed;
+    }
+
+    private int pollShard(String shard) {
+        LocalDateTime newest = newestSeen.getOrDefault(shard, BEGINNING);
+        List<CatalogInvalidation> invalidations = invalidationRepository.findByCreatedAtGreaterThanEqualOrderByIdAsc(
+                newest.minus(properties.getOverlap()));
+        int relayed = 0;
+        for (CatalogInvalidation invalidation : invalidations) {
+            // Ids are unique across shards, see ShardRouter
+            if (seen.getIfPresent(invalidation.getId()) != null) {
+                continue;
+            }
+            seen.put(invalidation.getId(), Boolean.TRUE);
+            if (invalidation.getCreatedAt().isAfter(newest)) {
+                newest = invalidation.getCreatedAt();
+            }
+            if (!properties.getNodeId().equals(invalidation.getNodeId())) {
+                eventPublisher.publishEvent(toEvent(invalidation));
+                relayed++;
+            }
+        }
+        newestSeen.put(shard, newest);
+        return relayed;
+    }
+
+    private void cleanUp() {
+        if (System.nanoTime() - nextCleanup < 0) {
+            return;
+        }
+        nextCleanup = System.nanoTime() + properties.getRetention().toNanos() / 10;
+        newestSeen.forEach((shard, newest) -> {
+            if (newest == BEGINNING) {
+                return;
+            }
+            int removed = shardRouter.onShard(shard,
+                    () -> invalidationRepository.deleteOlderThan(newest.minus(properties.getRetention())));
+            if (removed > 0) {
+                log.debug("Removed {} expired catalog invalidations on shard {}", removed, shard);
+            }
+        });
+    }
+
+    private static CatalogChangeEvent toEvent(CatalogInvalidation invalidation) {
+        return new CatalogChangeEvent(invalidation.getEntityType(), invalidation.getChangeType(),
+                invalidation.getEntityId(), invalidation.getProjectId(), invalidation.getCategoryId(),
+                invalidation.getModuleId(), invalidation.getEntityVersion(), true);
+    }
+}
@@ -0,0 +1,110 @@
+package com.swift.errorcodesystem.occurrence;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Occurrence counts of one error code in a fixed number of consecutive time buckets, such as the last 60 minutes.
+ * Each slot holds the bucket's number in its high bits and its count in the low bits, so moving a slot on to a new
+ * bucket and counting into it is a single compare-and-set: no locks, and nothing is allocated after construction.
+ * Occurrences older than the oldest bucket are not counted.
+ */
+final class BucketRing {
+
+    // Leaves 26 bits for the bucket number, enough for minutes since the epoch until 2097
+    private static final int COUNT_BITS = 38;
+    private static final long MAX_COUNT = (1L << COUNT_BITS) - 1;
+
+    private final AtomicLongArray slots;
+    private final long bucketMillis;
+
+    BucketRing(int buckets, long bucketMillis) {
+        this.slots = new AtomicLongArray(buckets);
+        this.bucketMillis = bucketMillis;
+    }
+
+    int size() {
+        return slots.length();
+    }
+
+    long bucketMillis() {
+        return bucketMillis;
+    }
+
+    long bucketOf(long epochMillis) {
+        return epochMillis / bucketMillis;
+    }
+
+    /**
+     * @param now the latest bucket is the one holding {@code now}; callers keep {@code at} from going past it
+     */
+    void add(long at, long count, long now) {
+        long bucket = bucketOf(at);
+        if (bucket <= bucketOf(now) - slots.length()) {
+            return;
+        }
+        int slot = (int) (bucket % slots.length());
+        while (true) {
+            long current = slots.get(slot);
+            long slotBucket = current >>> COUNT_BITS;
+            long next;
+            if (slotBucket == bucket) {
+                // Saturates rather than spilling into the bucket number
+                next = (current & MAX_COUNT) + count >= MAX_COUNT ? bucket << COUNT_BITS | MAX_COUNT : current + count;
+            } else if (slotBucket < bucket) {
+                next = bucket << COUNT_BITS | Math.min(count, MAX_COUNT);
+            } else {
+                // A newer bucket has taken the slot already
+                return;
+            }
+            if (slots.compareAndSet(slot, current, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Sum of the latest {@code buckets} buckets up to the one holding {@code now}.
+     */
+    long sum(long now, int buckets) {
+        long latest = bucketOf(now);
+        long total = 0;
+        for (int slot = 0; slot < slots.length(); slot++) {
+            long current = slots.get(slot);
+            long slotBucket = current >>> COUNT_BITS;
+            if (slotBucket <= latest && slotBucket > latest - buckets) {
+                total += current & MAX_COUNT;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Counts of every bucket, oldest first and ending with the one holding {@code now}.
+     */
+    long[] counts(long now) {
+        long latest = bucketOf(now);
+        long[] counts = new long[slots.length()];
+        for (int slot = 0; slot < slots.length(); slot++) {
+            long current = slots.get(slot);
+            long age = latest - (current >>> COUNT_BITS);
+            if (age >= 0 && age < counts.length) {
+                counts[counts.length - 1 - (int) age] = current & MAX_COUNT;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Whether every bucket holding a count is older than the ring reaches back from {@code now}.
+     */
+    boolean isExpired(long now) {
+        long oldest = bucketOf(now) - slots.length();
+        for (int slot = 0; slot < slots.length(); slot++) {
+            long current = slots.get(slot);
+            if ((current & MAX_COUNT) != 0 && current >>> COUNT_BITS > oldest) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,101 @@
+package com.swift.errorcodesystem.occurrence;
+
+/**
+ * Packs an error code ("01-05-15-0001") into a long, so counters can be keyed without holding on to strings:
+ * 7 bits each for the project, category and module codes and 32 bits for the sequence, 53 bits in all.
+ */
+public final class ErrorCodeKey {
+
+    public static final long INVALID = -1;
+    static final int BITS = 53;
+
+    private static final int SEGMENT_BITS = 7;
+    private static final int SEQUENCE_BITS = 32;
+    private static final int MAX_SEQUENCE_DIGITS = 9;
+
+    private ErrorCodeKey() {
+    }
+
+    /**
+     * The packed code, or {@link #INVALID} when the text is not a well-formed error code.
+     */
+    public static long pack(String code) {
+        if (code == null || code.length() < 13 || code.length() > 9 + MAX_SEQUENCE_DIGITS) {
+            return INVALID;
+        }
+        long project = twoDigits(code, 0);
+        long category = twoDigits(code, 3);
+        long module = twoDigits(code, 6);
+        if (project < 0 || category < 0 || module < 0
+                || code.charAt(2) != '-' || code.charAt(5) != '-' || code.charAt(8) != '-') {
+            return INVALID;
+        }
+        long sequence = 0;
+        for (int i = 9; i < code.length(); i++) {
+            int digit = code.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return INVALID;
+            }
+            sequence = sequence * 10 + digit;
+        }
+        // Sequences are formatted with at least four digits, so "0001" and "1" must not both pack
+        if (code.length() > 13 && code.charAt(9) == '0') {
+            return INVALID;
+        }
+        return project << (2 * SEGMENT_BITS + SEQUENCE_BITS)
+                | category << (SEGMENT_BITS + SEQUENCE_BITS)
+                | module << SEQUENCE_BITS
+                | sequence;
+    }
+
+    public static String unpack(long key) {
+        long segmentMask = (1L << SEGMENT_BITS) - 1;
+        return String.format("%02d-%02d-%02d-%04d",
+                key >>> (2 * SEGMENT_BITS + SEQUENCE_BITS) & segmentMask,
+                key >>> (SEGMENT_BITS + SEQUENCE_BITS) & segmentMask,
+                key >>> SEQUENCE_BITS & segmentMask,
+                key & ((1L << SEQUENCE_BITS) - 1));
+    }
+
+    /**
+     * Code of the project the packed error code belongs to, as used for shard placement.
+     */
+    public static String projectCode(long key) {
+        return String.format("%02d", projectOf(key));
+    }
+
+    /**
+     * The project segment of a packed error code, comparable with {@link #packProject}.
+     */
+    public static long projectOf(long key) {
+        return key >>> (2 * SEGMENT_BITS + SEQUENCE_BITS);
+    }
+
+    /**
+     * The project, category and module segments of a packed error code, comparable with {@link #packModule}.
+     */
+    public static long moduleOf(long key) {
+        return key >>> SEQUENCE_BITS;
+    }
+
+    /**
+     * A project code ("01") packed like the project segment of an error code, or {@link #INVALID}.
+     */
+    public static long packProject(String projectCode) {
+        return projectCode == null || projectCode.length() != 2 ? INVALID : twoDigits(projectCode, 0);
+    }
+
+    /**
+     * A module's code path ("01-05-15") packed like the leading segments of an error code, or {@link #INVALID}.
+     */
+    public static long packModule(String modulePath) {
+        long key = modulePath != null && modulePath.length() == 8 ? pack(modulePath + "-0000") : INVALID;
+        return key == INVALID ? INVALID : moduleOf(key);
+    }
+
+    private static int twoDigits(String code, int start) {
+        int tens = code.charAt(start) - '0';
+        int ones = code.charAt(start + 1) - '0';
+        return tens < 0 || tens > 9 || ones < 0 || ones > 9 ? -1 : tens * 10 + ones;
+    }
+}
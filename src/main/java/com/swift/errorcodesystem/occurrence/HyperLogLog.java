@@ -0,0 +1,250 @@
+package com.swift.errorcodesystem.occurrence;
+
+/**
+ * A HyperLogLog sketch estimating the number of distinct values added to it, with a relative standard error of
+ * {@code 1.04 / sqrt(2^precision)} whatever the number. Sketches of the same precision merge into the sketch of the
+ * union of their values, so per-window or per-node sketches can be combined without the values themselves.
+ * <p>
+ * A sketch starts sparse, holding only the registers that are set, and turns into its dense array of
+ * {@code 2^precision} one-byte registers once that is no larger. Most values leave every register as it is, so
+ * adding one only locks when it raises a register.
+ */
+public final class HyperLogLog {
+
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 16;
+
+    private static final int[] NO_ENTRIES = new int[0];
+    private static final int RANK_BITS = 8;
+    private static final int RANK_MASK = (1 << RANK_BITS) - 1;
+
+    private final int precision;
+    private final int registerCount;
+    // Sorted register index << RANK_BITS | rank of the set registers, replaced whole on every change; null once dense
+    private volatile int[] sparse = NO_ENTRIES;
+    private volatile byte[] dense;
+
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException(
+                    "Precision must be between " + MIN_PRECISION + " and " + MAX_PRECISION);
+        }
+        this.precision = precision;
+        this.registerCount = 1 << precision;
+    }
+
+    /**
+     * Restores a sketch written by {@link #toBytes()}.
+     *
+     * @throws IllegalArgumentException when the bytes are not a sketch
+     */
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            throw new IllegalArgumentException("Sketch is empty");
+        }
+        HyperLogLog sketch = new HyperLogLog(bytes[0]);
+        if (bytes.length != sketch.registerCount + 1) {
+            throw new IllegalArgumentException("Sketch of precision " + bytes[0] + " must have "
+                    + sketch.registerCount + " registers");
+        }
+        for (int index = 0; index < sketch.registerCount; index++) {
+            int rank = bytes[index + 1];
+            if (rank < 0 || rank > 64 - sketch.precision + 1) {
+                throw new IllegalArgumentException("Invalid register value " + rank);
+            }
+            if (rank > 0) {
+                sketch.offer(index, rank);
+            }
+        }
+        return sketch;
+    }
+
+    /**
+     * A well-mixed 64-bit hash of a value's characters, as the sketch expects from {@link #add(long)}.
+     */
+    public static long hash(CharSequence value) {
+        // FNV-1a over the characters, then the MurmurHash3 finalizer to spread the low-entropy high bits
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Relative standard error of the estimate; about 95% of estimates are within twice this of the true count.
+     */
+    public double relativeStandardError() {
+        return 1.04 / Math.sqrt(registerCount);
+    }
+
+    public void add(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // Leading zeros of the remaining bits plus one, with a stop bit so an all-zero rest still ends
+        int rank = Long.numberOfLeadingZeros(hash << precision | 1L << (precision - 1)) + 1;
+        offer(index, rank);
+    }
+
+    /**
+     * Adds every value counted by {@code other}.
+     *
+     * @throws IllegalArgumentException when the sketches' precisions differ
+     */
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge sketches of precision " + other.precision
+                    + " into one of precision " + precision);
+        }
+        byte[] otherDense = other.dense;
+        if (otherDense != null) {
+            for (int index = 0; index < registerCount; index++) {
+                if (otherDense[index] > 0) {
+                    offer(index, otherDense[index]);
+                }
+            }
+            return;
+        }
+        int[] otherSparse = other.sparse;
+        if (otherSparse == null) {
+            // Turned dense since it was first read
+            merge(other);
+            return;
+        }
+        for (int entry : otherSparse) {
+            offer(entry >>> RANK_BITS, entry & RANK_MASK);
+        }
+    }
+
+    public long estimate() {
+        byte[] registers = registers();
+        double sum = 0;
+        int zeros = 0;
+        for (byte rank : registers) {
+            sum += Math.scalb(1.0, -rank);
+            if (rank == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha() * registerCount * registerCount / sum;
+        // Linear counting is more accurate while many registers are still unset
+        if (estimate <= 2.5 * registerCount && zeros > 0) {
+            estimate = registerCount * Math.log((double) registerCount / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public boolean isEmpty() {
+        int[] entries = sparse;
+        return entries != null && entries.length == 0;
+    }
+
+    /**
+     * The precision followed by every register, one byte each.
+     */
+    public byte[] toBytes() {
+        byte[] registers = registers();
+        byte[] bytes = new byte[registerCount + 1];
+        bytes[0] = (byte) precision;
+        System.arraycopy(registers, 0, bytes, 1, registerCount);
+        return bytes;
+    }
+
+    private void offer(int index, int rank) {
+        byte[] registers = dense;
+        if (registers != null) {
+            if (registers[index] >= rank) {
+                return;
+            }
+        } else {
+            int[] entries = sparse;
+            if (entries != null) {
+                int position = find(entries, index);
+                if (position >= 0 && (entries[position] & RANK_MASK) >= rank) {
+                    return;
+                }
+            }
+        }
+        synchronized (this) {
+            if (dense != null) {
+                dense[index] = (byte) Math.max(dense[index], rank);
+                return;
+            }
+            int[] entries = sparse;
+            int position = find(entries, index);
+            int entry = index << RANK_BITS | rank;
+            if (position >= 0) {
+                if ((entries[position] & RANK_MASK) < rank) {
+                    int[] updated = entries.clone();
+                    updated[position] = entry;
+                    sparse = updated;
+                }
+                return;
+            }
+            // An int per set register outgrows the dense array beyond a quarter of the registers
+            if (entries.length + 1 > registerCount / 4) {
+                byte[] filled = new byte[registerCount];
+                for (int existing : entries) {
+                    filled[existing >>> RANK_BITS] = (byte) (existing & RANK_MASK);
+                }
+                filled[index] = (byte) rank;
+                dense = filled;
+                sparse = null;
+                return;
+            }
+            int insertion = -position - 1;
+            int[] updated = new int[entries.length + 1];
+            System.arraycopy(entries, 0, updated, 0, insertion);
+            updated[insertion] = entry;
+            System.arraycopy(entries, insertion, updated, insertion + 1, entries.length - insertion);
+            sparse = updated;
+        }
+    }
+
+    private synchronized byte[] registers() {
+        if (dense != null) {
+            return dense.clone();
+        }
+        byte[] registers = new byte[registerCount];
+        for (int entry : sparse) {
+            registers[entry >>> RANK_BITS] = (byte) (entry & RANK_MASK);
+        }
+        return registers;
+    }
+
+    // Position of the register's entry, or -(insertion point) - 1 when it is not set
+    private static int find(int[] entries, int index) {
+        int low = 0;
+        int high = entries.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int middleIndex = entries[middle] >>> RANK_BITS;
+            if (middleIndex < index) {
+                low = middle + 1;
+            } else if (middleIndex > index) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private double alpha() {
+        return switch (registerCount) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / registerCount);
+        };
+    }
+}
@@ -0,0 +1,365 @@
+package com.swift.errorcodesystem.occurrence;
+
+import com.swift.errorcodesystem.catalog.ErrorCodeCatalog;
+import com.swift.errorcodesystem.config.OccurrenceProperties;
+import com.swift.errorcodesystem.dto.ErrorCodeDto;
+import com.swift.errorcodesystem.entity.ErrorOccurrence;
+import com.swift.errorcodesystem.repository.ErrorOccurrenceRepository;
+import com.swift.errorcodesystem.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts reported error occurrences in memory and writes the counts to {@code error_occurrences} once per flush
+ * interval, so the ingest path never touches the database. Each code and service pair has a striped
+ * {@link LongAdder}, keyed by the packed code and a small service number in one long, so concurrent reports of
+ * the same pair do not contend on one memory location. Accepted reports are also counted into the
+ * {@link OccurrenceRollups} that serve recent counts and top lists.
+ * <p>
+ * A flush takes each counter's sum and resets it in one step per stripe, so a report racing with the flush is
+ * counted in this window or the next, never lost. Counts whose shard cannot be written are put back for the next
+ * flush. Pairs idle for two flushes are dropped, after one more flush for reports still holding on to them.
+ * <p>
+ * Windows are receipt-time windows: a report is counted in the window it arrived in, even when its
+ * {@code occurredAt} lies up to {@code maxAge} further back, and its occurrence time only shows in the row's
+ * {@code lastOccurredAt}. Rows are unique per code, service and window, so late reports cannot be added to a window
+ * already written. The in-memory rollups, by contrast, count every report at its occurrence time.
+ */
+@Component
+@Slf4j
+public class OccurrenceIngestor implements SmartLifecycle {
+
+    static final int SERVICE_BITS = 64 - 1 - ErrorCodeKey.BITS;
+    static final int MAX_SERVICES = 1 << SERVICE_BITS;
+    static final int MAX_SERVICE_LENGTH = 100;
+    static final long MAX_REPORT_COUNT = 1_000_000;
+    // Reports older than this are left out of the top list sketches, which only cover the last two hours
+    private static final long RECENT_MILLIS = 60 * 60_000;
+
+    public enum Outcome {
+        ACCEPTED, INVALID_CODE, UNKNOWN_CODE, INVALID_SERVICE, INVALID_COUNT, OUT_OF_RANGE, TOO_MANY_SERVICES,
+        TOO_MANY_KEYS
+    }
+
+    private final OccurrenceProperties properties;
+    private final ErrorCodeCatalog errorCodeCatalog;
+    private final ErrorOccurrenceRepository occurrenceRepository;
+    private final ShardRouter shardRouter;
+    private final OccurrenceRollups rollups;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter accepted;
+    private final Map<Outcome, Counter> rejected = new EnumMap<>(Outcome.class);
+    private final Counter flushed;
+
+    private final Map<String, Integer> serviceIds = new ConcurrentHashMap<>();
+    private final List<String> serviceNames = new CopyOnWriteArrayList<>();
+    private final Map<Long, Tally> tallies = new ConcurrentHashMap<>();
+    // Tallies dropped by the previous flush, drained once more by the next one
+    private final List<Map.Entry<Long, Tally>> retiring = new ArrayList<>();
+
+    private volatile LocalDateTime windowStart = LocalDateTime.now();
+    private volatile boolean running;
+    private ScheduledExecutorService flusher;
+
+    public OccurrenceIngestor(OccurrenceProperties properties, ErrorCodeCatalog errorCodeCatalog,
+                              ErrorOccurrenceRepository occurrenceRepository, ShardRouter shardRouter,
+                              OccurrenceRollups rollups, PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        if (properties.getMaxServices() > MAX_SERVICES) {
+            throw new IllegalArgumentException("errorcode.occurrences.max-services must not exceed " + MAX_SERVICES);
+        }
+        this.properties = properties;
+        this.errorCodeCatalog = errorCodeCatalog;
+        this.occurrenceRepository = occurrenceRepository;
+        this.shardRouter = shardRouter;
+        this.rollups = rollups;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.accepted = Counter.builder("errorcode.occurrences.accepted")
+                .description("Error occurrences counted")
+                .register(meterRegistry);
+        for (Outcome outcome : Outcome.values()) {
+            if (outcome != Outcome.ACCEPTED) {
+                rejected.put(outcome, Counter.builder("errorcode.occurrences.rejected")
+                        .description("Error occurrence reports rejected")
+                        .tag("reason", outcome.name().toLowerCase())
+                        .register(meterRegistry));
+            }
+        }
+        this.flushed = Counter.builder("errorcode.occurrences.flushed")
+                .description("Occurrence rows written")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled() && running;
+    }
+
+    public ErrorCodeDto.OccurrenceBatchResponse ingest(List<ErrorCodeDto.OccurrenceReport> reports) {
+        if (!isEnabled()) {
+            throw new RejectedExecutionException("Occurrence ingestion is not running");
+        }
+        long now = System.currentTimeMillis();
+        long acceptedCount = 0;
+        Map<Outcome, Long> rejections = new EnumMap<>(Outcome.class);
+        Map<Long, Long> recent = new HashMap<>();
+        for (ErrorCodeDto.OccurrenceReport report : reports) {
+            long count = report.getCount() != null ? report.getCount() : 1;
+            Outcome outcome = record(report.getCode(), report.getService(), report.getCaller(), report.getOccurredAt(),
+                    count, now, recent);
+            if (outcome == Outcome.ACCEPTED) {
+                acceptedCount += count;
+            } else {
+                rejections.merge(outcome, 1L, Long::sum);
+            }
+        }
+        rollups.offer(recent, now);
+        // Meters are updated once per batch rather than per report
+        accepted.increment(acceptedCount);
+        rejections.forEach((outcome, reportCount) -> rejected.get(outcome).increment(reportCount));
+
+        Map<String, Long> reasons = new LinkedHashMap<>();
+        rejections.forEach((outcome, reportCount) -> reasons.put(outcome.name(), reportCount));
+        return ErrorCodeDto.OccurrenceBatchResponse.builder()
+                .accepted(acceptedCount)
+                .rejected(rejections.values().stream().mapToLong(Long::longValue).sum())
+                .rejections(reasons)
+                .build();
+    }
+
+    /**
+     * @param recent accepted occurrences of the batch within the last hour, summed by packed code
+     */
+    Outcome record(String code, String service, String caller, Instant occurredAt, long count, long now,
+                   Map<Long, Long> recent) {
+        long packed = ErrorCodeKey.pack(code);
+        if (packed == ErrorCodeKey.INVALID) {
+            return Outcome.INVALID_CODE;
+        }
+        if (count < 1 || count > MAX_REPORT_COUNT) {
+            return Outcome.INVALID_COUNT;
+        }
+        if (properties.isRequireKnownCode() && errorCodeCatalog.isLoaded()
+                && errorCodeCatalog.findByCode(code).isEmpty()) {
+            return Outcome.UNKNOWN_CODE;
+        }
+        long at = occurredAt != null ? occurredAt.toEpochMilli() : now;
+        if (at > now + properties.getMaxClockSkew().toMillis() || at < now - properties.getMaxAge().toMillis()) {
+            return Outcome.OUT_OF_RANGE;
+        }
+        int serviceId = serviceId(service);
+        if (serviceId < 0) {
+            return serviceId == -1 ? Outcome.INVALID_SERVICE : Outcome.TOO_MANY_SERVICES;
+        }
+        long key = packed << SERVICE_BITS | serviceId;
+        Tally tally = tallies.get(key);
+        if (tally == null) {
+            if (tallies.size() >= properties.getMaxTrackedKeys()) {
+                return Outcome.TOO_MANY_KEYS;
+            }
+            tally = tallies.computeIfAbsent(key, k -> new Tally());
+        }
+        tally.count.add(count);
+        tally.lastOccurredAt.accumulate(at);
+        rollups.record(packed, at, count, now);
+        if (caller != null && !caller.isBlank()) {
+            rollups.recordCaller(packed, at, HyperLogLog.hash(caller), now);
+        }
+        if (at > now - RECENT_MILLIS) {
+            recent.merge(packed, count, Long::sum);
+        }
+        return Outcome.ACCEPTED;
+    }
+
+    /**
+     * Writes the counts gathered since the previous flush, one row per code and service, and returns the number
+     * of rows written.
+     */
+    public synchronized int flush() {
+        LocalDateTime start = windowStart;
+        windowStart = LocalDateTime.now();
+        rollups.evictExpired(System.currentTimeMillis());
+
+        // Keyed, since a dropped tally and its replacement can both hold counts of the same pair
+        Map<Long, Pending> pending = new LinkedHashMap<>();
+        retiring.forEach(entry -> drain(entry.getKey(), entry.getValue(), pending));
+        retiring.clear();
+        for (Map.Entry<Long, Tally> entry : tallies.entrySet()) {
+            Tally tally = entry.getValue();
+            if (drain(entry.getKey(), tally, pending)) {
+                tally.idle = false;
+            } else if (tally.idle) {
+                if (tallies.remove(entry.getKey(), tally)) {
+                    retiring.add(Map.entry(entry.getKey(), tally));
+                }
+            } else {
+                tally.idle = true;
+            }
+        }
+
+        Map<String, List<Pending>> byShard = new LinkedHashMap<>();
+        for (Pending counted : pending.values()) {
+            String projectCode = ErrorCodeKey.projectCode(counted.key() >>> SERVICE_BITS);
+            byShard.computeIfAbsent(shardRouter.shardForProjectCode(projectCode), shard -> new ArrayList<>())
+                    .add(counted);
+        }
+        int written = 0;
+        for (Map.Entry<String, List<Pending>> shard : byShard.entrySet()) {
+            List<ErrorOccurrence> rows = shard.getValue().stream().map(counted -> row(counted, start)).toList();
+            try {
+                shardRouter.onShard(shard.getKey(), () -> transactionTemplate.execute(status ->
+                        occurrenceRepository.saveAll(rows)));
+                written += rows.size();
+            } catch (RuntimeException e) {
+                log.warn("Could not write {} occurrence row(s) to shard {}, keeping them for the next flush",
+                        rows.size(), shard.getKey(), e);
+                shard.getValue().forEach(this::restore);
+            }
+        }
+        flushed.increment(written);
+        return written;
+    }
+
+    public List<ErrorOccurrence> findOccurrences(String code, LocalDateTime since) {
+        return shardRouter.onShard(shardRouter.shardForCode(code), () ->
+                occurrenceRepository.findByCodeAndWindowStartGreaterThanEqualOrderByWindowStartAsc(code, since));
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        windowStart = LocalDateTime.now();
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "occurrence-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getFlushInterval().toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        running = true;
+        log.info("Occurrence ingestion started, flushing every {}", properties.getFlushInterval());
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Whatever was accepted since the last flush
+        flushQuietly();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stops after the web server, whose lifecycle runs in phase DEFAULT_PHASE - 2048, so the final flush has every
+    // report accepted until then
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 3072;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Occurrence flush failed", e);
+        }
+    }
+
+    // -1 for a missing or overlong name, -2 when no more services can be told apart
+    private int serviceId(String service) {
+        Integer id = service != null ? serviceIds.get(service) : null;
+        if (id != null) {
+            return id;
+        }
+        if (service == null || service.isBlank() || service.length() > MAX_SERVICE_LENGTH) {
+            return -1;
+        }
+        synchronized (serviceIds) {
+            id = serviceIds.get(service);
+            if (id == null) {
+                if (serviceNames.size() >= properties.getMaxServices()) {
+                    return -2;
+                }
+                id = serviceNames.size();
+                serviceNames.add(service);
+                serviceIds.put(service, id);
+            }
+            return id;
+        }
+    }
+
+    private static boolean drain(Long key, Tally tally, Map<Long, Pending> pending) {
+        long count = tally.count.sumThenReset();
+        if (count == 0) {
+            return false;
+        }
+        pending.merge(key, new Pending(key, count, tally.lastOccurredAt.getThenReset()), Pending::plus);
+        return true;
+    }
+
+    private void restore(Pending counted) {
+        Tally tally = tallies.computeIfAbsent(counted.key(), k -> new Tally());
+        tally.count.add(counted.count());
+        tally.lastOccurredAt.accumulate(counted.lastOccurredAt());
+    }
+
+    private ErrorOccurrence row(Pending counted, LocalDateTime start) {
+        return ErrorOccurrence.builder()
+                .code(ErrorCodeKey.unpack(counted.key() >>> SERVICE_BITS))
+                .service(serviceNames.get((int) (counted.key() & (MAX_SERVICES - 1))))
+                .windowStart(start)
+                .count(counted.count())
+                .lastOccurredAt(counted.lastOccurredAt() == Long.MIN_VALUE ? null
+                        : LocalDateTime.ofInstant(Instant.ofEpochMilli(counted.lastOccurredAt()), ZoneId.systemDefault()))
+                .build();
+    }
+
+    private static final class Tally {
+        private final LongAdder count = new LongAdder();
+        private final LongAccumulator lastOccurredAt = new LongAccumulator(Math::max, Long.MIN_VALUE);
+        // Written and read by the flushing thread only
+        private boolean idle;
+    }
+
+    private record Pending(long key, long count, long lastOccurredAt) {
+
+        Pending plus(Pending other) {
+            return new Pending(key, count + other.count, Math.max(lastOccurredAt, other.lastOccurredAt));
+        }
+    }
+}
@@ -0,0 +1,378 @@
+package com.swift.errorcodesystem.occurrence;
+
+import com.swift.errorcodesystem.config.OccurrenceProperties;
+import com.swift.errorcodesystem.dto.ErrorCodeDto;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Recent occurrence counts kept in memory next to the ingestion: per error code, a ring of per-minute buckets over
+ * the last hour and one of per-hour buckets over the last day, and per project and per module a
+ * {@link SpaceSavingSketch} of the codes reported most in the current and the previous hour. A top list takes the
+ * sketches' candidates and ranks them by their exact counts from the minute buckets, so it reads a few hundred
+ * counters however many occurrences were reported.
+ * <p>
+ * A code reported more than {@code 1 / top-capacity} of its project's or module's occurrences within the current
+ * or previous hour is guaranteed to be a candidate; rarer codes may be missing from a top list. Each top list
+ * reports how often a code missing from it can have occurred at most, from the sketches' smallest monitored counts.
+ * <p>
+ * Reports naming their caller also add it to a {@link HyperLogLog} of the code's callers within the hour, so the
+ * distinct callers of any of the last 24 hours are estimated by merging those sketches. The serialized sketches
+ * merge the same way across instances. A code's sketches take at most {@code 24 * 2^caller-precision} bytes, and
+ * only {@code max-caller-codes} codes keep them at once; reports of further codes are counted without their caller
+ * until a code holding sketches goes a day without occurrences and is dropped.
+ */
+@Component
+public class OccurrenceRollups {
+
+    public static final int MINUTES = 60;
+    public static final int HOURS = 24;
+    public static final int DEFAULT_TOP_MINUTES = 15;
+    public static final int DEFAULT_TOP_LIMIT = 20;
+
+    private static final long MINUTE_MILLIS = 60_000;
+    private static final long HOUR_MILLIS = 60 * MINUTE_MILLIS;
+
+    private final OccurrenceProperties properties;
+    private final Map<Long, CodeRollup> codes = new ConcurrentHashMap<>();
+    private final Map<Long, Scope> projects = new ConcurrentHashMap<>();
+    private final Map<Long, Scope> modules = new ConcurrentHashMap<>();
+    private final AtomicInteger callerCodes = new AtomicInteger();
+
+    public OccurrenceRollups(OccurrenceProperties properties) {
+        if (properties.getCallerPrecision() < HyperLogLog.MIN_PRECISION
+                || properties.getCallerPrecision() > HyperLogLog.MAX_PRECISION) {
+            throw new IllegalArgumentException("errorcode.occurrences.caller-precision must be between "
+                    + HyperLogLog.MIN_PRECISION + " and " + HyperLogLog.MAX_PRECISION);
+        }
+        this.properties = properties;
+    }
+
+    /**
+     * Counts occurrences of a packed code into its buckets. Occurrences past {@code now} count as happening now.
+     */
+    void record(long code, long at, long count, long now) {
+        CodeRollup rollup = codes.get(code);
+        if (rollup == null) {
+            if (codes.size() >= properties.getMaxTrackedKeys()) {
+                return;
+            }
+            rollup = codes.computeIfAbsent(code, c -> new CodeRollup());
+        }
+        long clamped = Math.min(at, now);
+        rollup.minutes.add(clamped, count, now);
+        rollup.hours.add(clamped, count, now);
+    }
+
+    /**
+     * Adds a caller, hashed with {@link HyperLogLog#hash}, to the callers of a packed code within the hour of
+     * {@code at}. Does nothing for codes without recorded occurrences.
+     */
+    void recordCaller(long code, long at, long callerHash, long now) {
+        CodeRollup rollup = codes.get(code);
+        long hour = Math.min(at, now) / HOUR_MILLIS;
+        if (rollup == null || hour <= now / HOUR_MILLIS - HOURS || !keepsCallers(rollup)) {
+            return;
+        }
+        int slot = (int) (hour % HOURS);
+        while (true) {
+            HourlyCallers current = rollup.callers.get(slot);
+            if (current != null && current.hour() >= hour) {
+                if (current.hour() == hour) {
+                    current.sketch().add(callerHash);
+                }
+                return;
+            }
+            HourlyCallers next = new HourlyCallers(hour, new HyperLogLog(properties.getCallerPrecision()));
+            if (rollup.callers.compareAndSet(slot, current, next)) {
+                next.sketch().add(callerHash);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Estimated distinct callers of a code over the last day, empty when no report of it named a caller.
+     */
+    public Optional<ErrorCodeDto.DistinctCallers> distinctCallers(String code) {
+        return callers(code, HOURS, System.currentTimeMillis())
+                .map(sketch -> estimateOf(sketch, HOURS, false));
+    }
+
+    /**
+     * The merged caller sketch of a code over the last {@code hours} hours, with its estimate, for merging with the
+     * sketches of other instances.
+     *
+     * @throws IllegalArgumentException when the code is not well-formed or the hours are out of range
+     */
+    public ErrorCodeDto.DistinctCallers callerSketch(String code, int hours) {
+        if (hours < 1 || hours > HOURS) {
+            throw new IllegalArgumentException("Hours must be between 1 and " + HOURS);
+        }
+        if (ErrorCodeKey.pack(code) == ErrorCodeKey.INVALID) {
+            throw new IllegalArgumentException("Invalid error code: " + code);
+        }
+        HyperLogLog sketch = callers(code, hours, System.currentTimeMillis())
+                .orElseGet(() -> new HyperLogLog(properties.getCallerPrecision()));
+        return estimateOf(sketch, hours, true);
+    }
+
+    /**
+     * Merges caller sketches, such as those of one code from several instances, and estimates the union.
+     *
+     * @throws IllegalArgumentException when a sketch is malformed or their precisions differ
+     */
+    public ErrorCodeDto.DistinctCallers mergeCallerSketches(List<byte[]> sketches) {
+        if (sketches == null || sketches.isEmpty()) {
+            throw new IllegalArgumentException("At least one sketch is required");
+        }
+        HyperLogLog merged = HyperLogLog.fromBytes(sketches.get(0));
+        for (byte[] sketch : sketches.subList(1, sketches.size())) {
+            merged.merge(HyperLogLog.fromBytes(sketch));
+        }
+        return estimateOf(merged, null, true);
+    }
+
+    Optional<HyperLogLog> callers(String code, int hours, long now) {
+        CodeRollup rollup = codes.get(ErrorCodeKey.pack(code));
+        if (rollup == null) {
+            return Optional.empty();
+        }
+        long latest = now / HOUR_MILLIS;
+        HyperLogLog merged = null;
+        for (int slot = 0; slot < HOURS; slot++) {
+            HourlyCallers hourly = rollup.callers.get(slot);
+            if (hourly != null && hourly.hour() <= latest && hourly.hour() > latest - hours) {
+                if (merged == null) {
+                    merged = new HyperLogLog(hourly.sketch().getPrecision());
+                }
+                merged.merge(hourly.sketch());
+            }
+        }
+        return Optional.ofNullable(merged);
+    }
+
+    /**
+     * Offers a batch's recent occurrences, summed by packed code, to the sketches of their projects and modules.
+     * Taking a batch at a time keeps the sketches' locks off the path of every single report.
+     */
+    void offer(Map<Long, Long> countsByCode, long now) {
+        long hour = now / HOUR_MILLIS;
+        countsByCode.forEach((code, count) -> {
+            if (!codes.containsKey(code)) {
+                return;
+            }
+            projects.computeIfAbsent(ErrorCodeKey.projectOf(code), key -> new Scope()).offer(code, count, hour);
+            modules.computeIfAbsent(ErrorCodeKey.moduleOf(code), key -> new Scope()).offer(code, count, hour);
+        });
+    }
+
+    /**
+     * The codes of a project or a module reported most within the last {@code minutes} minutes.
+     *
+     * @param project a project code ("01"), or null when {@code module} is given
+     * @param module  a module's code path ("01-05-15"), or null when {@code project} is given
+     * @throws IllegalArgumentException when not exactly one scope is given or a bound is out of range
+     */
+    public ErrorCodeDto.TopOccurrences topCodes(String project, String module, int minutes, int limit) {
+        return topCodes(project, module, minutes, limit, System.currentTimeMillis());
+    }
+
+    ErrorCodeDto.TopOccurrences topCodes(String project, String module, int minutes, int limit, long now) {
+        if ((project == null) == (module == null)) {
+            throw new IllegalArgumentException("Either a project or a module is required");
+        }
+        if (minutes < 1 || minutes > MINUTES) {
+            throw new IllegalArgumentException("Minutes must be between 1 and " + MINUTES);
+        }
+        if (limit < 1 || limit > properties.getTopCapacity()) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + properties.getTopCapacity());
+        }
+        long key = project != null ? ErrorCodeKey.packProject(project) : ErrorCodeKey.packModule(module);
+        if (key == ErrorCodeKey.INVALID) {
+            throw new IllegalArgumentException("Invalid " + (project != null ? "project" : "module") + " code: "
+                    + (project != null ? project : module));
+        }
+        Scope scope = (project != null ? projects : modules).get(key);
+
+        List<ErrorCodeDto.CodeOccurrences> ranked = new ArrayList<>();
+        long unmonitoredBound = 0;
+        if (scope != null) {
+            unmonitoredBound = scope.unmonitoredBound(now / HOUR_MILLIS);
+            for (long candidate : scope.candidates(now / HOUR_MILLIS)) {
+                CodeRollup rollup = codes.get(candidate);
+                long count = rollup != null ? rollup.minutes.sum(now, minutes) : 0;
+                if (count > 0) {
+                    ranked.add(ErrorCodeDto.CodeOccurrences.builder()
+                            .code(ErrorCodeKey.unpack(candidate))
+                            .count(count)
+                            .build());
+                }
+            }
+        }
+        ranked.sort(Comparator.comparingLong(ErrorCodeDto.CodeOccurrences::getCount).reversed()
+                .thenComparing(ErrorCodeDto.CodeOccurrences::getCode));
+        // Candidates cut by the limit count no more than the last one listed
+        long cutBound = ranked.size() > limit ? ranked.get(limit).getCount() : 0;
+        return ErrorCodeDto.TopOccurrences.builder()
+                .project(project)
+                .module(module)
+                .minutes(minutes)
+                .codes(ranked.size() > limit ? new ArrayList<>(ranked.subList(0, limit)) : ranked)
+                .maxUnlistedCount(Math.max(unmonitoredBound, cutBound))
+                .build();
+    }
+
+    /**
+     * Per-minute counts of a code over the last hour and per-hour counts over the last day, oldest first; all zero
+     * for a code without recent occurrences.
+     *
+     * @throws IllegalArgumentException when the code is not well-formed
+     */
+    public ErrorCodeDto.OccurrenceRollup rollup(String code) {
+        return rollup(code, System.currentTimeMillis());
+    }
+
+    ErrorCodeDto.OccurrenceRollup rollup(String code, long now) {
+        long key = ErrorCodeKey.pack(code);
+        if (key == ErrorCodeKey.INVALID) {
+            throw new IllegalArgumentException("Invalid error code: " + code);
+        }
+        CodeRollup rollup = codes.get(key);
+        return ErrorCodeDto.OccurrenceRollup.builder()
+                .code(code)
+                .perMinute(buckets(rollup != null ? rollup.minutes.counts(now) : new long[MINUTES], MINUTE_MILLIS, now))
+                .perHour(buckets(rollup != null ? rollup.hours.counts(now) : new long[HOURS], HOUR_MILLIS, now))
+                .build();
+    }
+
+    /**
+     * Drops codes without occurrences in the last day and sketches older than the previous hour.
+     */
+    void evictExpired(long now) {
+        codes.values().removeIf(rollup -> rollup.hours.isExpired(now) && retire(rollup));
+        long hour = now / HOUR_MILLIS;
+        projects.values().removeIf(scope -> scope.isExpired(hour));
+        modules.values().removeIf(scope -> scope.isExpired(hour));
+    }
+
+    // The bounds are two standard errors either side, where about 95% of the true counts fall
+    private static ErrorCodeDto.DistinctCallers estimateOf(HyperLogLog sketch, Integer hours, boolean withSketch) {
+        long estimate = sketch.estimate();
+        double error = sketch.relativeStandardError();
+        return ErrorCodeDto.DistinctCallers.builder()
+                .estimate(estimate)
+                .relativeStandardError(error)
+                .lowerBound(Math.max(0, (long) Math.floor(estimate * (1 - 2 * error))))
+                .upperBound((long) Math.ceil(estimate * (1 + 2 * error)))
+                .hours(hours)
+                .sketch(withSketch ? sketch.toBytes() : null)
+                .build();
+    }
+
+    private static List<ErrorCodeDto.OccurrenceBucket> buckets(long[] counts, long bucketMillis, long now) {
+        long latestStart = now / bucketMillis * bucketMillis;
+        List<ErrorCodeDto.OccurrenceBucket> buckets = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            long start = latestStart - (counts.length - 1 - i) * bucketMillis;
+            buckets.add(ErrorCodeDto.OccurrenceBucket.builder()
+                    .start(LocalDateTime.ofInstant(Instant.ofEpochMilli(start), ZoneId.systemDefault()))
+                    .count(counts[i])
+                    .build());
+        }
+        return buckets;
+    }
+
+    // Whether the code may hold caller sketches, taking one of the max-caller-codes places on its first caller
+    private boolean keepsCallers(CodeRollup rollup) {
+        if (rollup.keepsCallers) {
+            return true;
+        }
+        synchronized (rollup) {
+            if (!rollup.keepsCallers && !rollup.retired) {
+                if (callerCodes.incrementAndGet() > properties.getMaxCallerCodes()) {
+                    callerCodes.decrementAndGet();
+                    return false;
+                }
+                rollup.keepsCallers = true;
+            }
+            return rollup.keepsCallers;
+        }
+    }
+
+    // Gives back the rollup's place among the codes keeping caller sketches, always true for removeIf
+    private boolean retire(CodeRollup rollup) {
+        synchronized (rollup) {
+            rollup.retired = true;
+            if (rollup.keepsCallers) {
+                callerCodes.decrementAndGet();
+            }
+        }
+        return true;
+    }
+
+    private static final class CodeRollup {
+        private final BucketRing minutes = new BucketRing(MINUTES, MINUTE_MILLIS);
+        private final BucketRing hours = new BucketRing(HOURS, HOUR_MILLIS);
+        // Created on the first caller reported within the hour
+        private final AtomicReferenceArray<HourlyCallers> callers = new AtomicReferenceArray<>(HOURS);
+        // Set once, under the rollup's lock; read without it on the path of every caller report
+        private volatile boolean keepsCallers;
+        private boolean retired;
+    }
+
+    private record HourlyCallers(long hour, HyperLogLog sketch) {
+    }
+
+    // The sketches of one project or module, started afresh every hour
+    private final class Scope {
+        private long hour = Long.MIN_VALUE;
+        private SpaceSavingSketch current;
+        private SpaceSavingSketch previous;
+
+        synchronized void offer(long code, long count, long nowHour) {
+            rotate(nowHour);
+            current.offer(code, count);
+        }
+
+        synchronized Set<Long> candidates(long nowHour) {
+            rotate(nowHour);
+            Set<Long> candidates = new HashSet<>(current.candidates());
+            if (previous != null) {
+                candidates.addAll(previous.candidates());
+            }
+            return candidates;
+        }
+
+        // A code in neither sketch had at most the sum of their bounds over the two hours the minute buckets span
+        synchronized long unmonitoredBound(long nowHour) {
+            rotate(nowHour);
+            return current.unmonitoredBound() + (previous != null ? previous.unmonitoredBound() : 0);
+        }
+
+        synchronized boolean isExpired(long nowHour) {
+            return hour < nowHour - 1;
+        }
+
+        private void rotate(long nowHour) {
+            if (nowHour > hour) {
+                previous = nowHour == hour + 1 ? current : null;
+                current = new SpaceSavingSketch(properties.getTopCapacity());
+                hour = nowHour;
+            }
+        }
+    }
+}
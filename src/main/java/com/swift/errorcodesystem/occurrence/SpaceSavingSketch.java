@@ -0,0 +1,70 @@
+package com.swift.errorcodesystem.occurrence;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The Space-Saving heavy hitter sketch over packed error codes: at most {@code capacity} codes are monitored, and a
+ * code that is not yet monitored takes the place of the one with the smallest count, inheriting that count as its
+ * possible overestimate. Every code with more than {@code total / capacity} occurrences is guaranteed to be
+ * monitored, whatever the order the occurrences arrive in. Not thread-safe.
+ */
+final class SpaceSavingSketch {
+
+    private final int capacity;
+    // Code to {count, overestimate}
+    private final Map<Long, long[]> counters;
+
+    SpaceSavingSketch(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    void offer(long code, long count) {
+        long[] counter = counters.get(code);
+        if (counter != null) {
+            counter[0] += count;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(code, new long[]{count, 0});
+            return;
+        }
+        // Linear in the capacity, which is small; only codes entering the sketch pay for it
+        Map.Entry<Long, long[]> smallest = null;
+        for (Map.Entry<Long, long[]> entry : counters.entrySet()) {
+            if (smallest == null || entry.getValue()[0] < smallest.getValue()[0]) {
+                smallest = entry;
+            }
+        }
+        long[] replaced = counters.remove(smallest.getKey());
+        counters.put(code, new long[]{replaced[0] + count, replaced[0]});
+    }
+
+    /**
+     * The monitored codes, in no particular order.
+     */
+    List<Long> candidates() {
+        return new ArrayList<>(counters.keySet());
+    }
+
+    /**
+     * Most occurrences any code that is not monitored can have had: none while the sketch has room, since then every
+     * code offered is monitored, and afterwards the smallest monitored count, which is at most {@code total / capacity}.
+     */
+    long unmonitoredBound() {
+        if (counters.size() < capacity) {
+            return 0;
+        }
+        long smallest = Long.MAX_VALUE;
+        for (long[] counter : counters.values()) {
+            smallest = Math.min(smallest, counter[0]);
+        }
+        return smallest;
+    }
+}
@@ -0,0 +1,21 @@
+package com.swift.errorcodesystem.repository;
+
+import com.swift.errorcodesystem.entity.CatalogInvalidation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CatalogInvalidationRepository extends JpaRepository<CatalogInvalidation, Long> {
+    List<CatalogInvalidation> findByCreatedAtGreaterThanEqualOrderByIdAsc(LocalDateTime since);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM CatalogInvalidation ci WHERE ci.createdAt < :before")
+    int deleteOlderThan(LocalDateTime before);
+}
@@ -2,7 +2,9 @@ package com.swift.errorcodesystem.repository;
 
 
 import com.swift.errorcodesystem.entity.Category;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -11,6 +13,7 @@ import java.util.Optional;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+    @EntityGraph(attributePaths = "project")
     List<Category> findByProjectId(Long projectId);
     Optional<Category> findByProjectIdAndCode(Long projectId, String code);
 
@@ -20,5 +23,13 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     @Query("SELECT c FROM Category c LEFT JOIN FETCH c.modules WHERE c.project.id = :projectId")
     List<Category> findByProjectIdWithModules(Long projectId);
 
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Category c WHERE c.project.id = :projectId")
+    int bulkDeleteByProjectId(Long projectId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Category c WHERE c.id = :id")
+    int bulkDeleteById(Long id);
+
     boolean existsByProjectIdAndCode(Long projectId, String code);
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+package com.swift.errorcodesystem.repository;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * One {@code UPDATE ... SET ..., version = version + 1 WHERE id = ? AND version = ?} on the connection of the
+ * current transaction, without loading the row. A JPQL bulk update would drop the entity's whole second-level cache
+ * region; this evicts only the updated id's entry, right away and again once the transaction completes, so an old
+ * row loaded concurrently cannot stay cached past the commit. Hibernate's query cache does not see the statement
+ * either, so it must only set columns that no cacheable query filters on.
+ */
+final class ConditionalUpdate {
+
+    private final EntityManager entityManager;
+    private final Class<?> entityType;
+    private final String table;
+    private final Map<String, Object> columns = new LinkedHashMap<>();
+
+    ConditionalUpdate(EntityManager entityManager, Class<?> entityType, String table) {
+        this.entityManager = entityManager;
+        this.entityType = entityType;
+        this.table = table;
+    }
+
+    ConditionalUpdate set(String column, Object value) {
+        columns.put(column, value instanceof Enum<?> constant ? constant.name() : value);
+        return this;
+    }
+
+    /**
+     * Applies the update to the row if its version is still {@code expectedVersion}, or whatever its version if that
+     * is null.
+     *
+     * @return the number of rows updated, 0 if the row is gone or its version moved on
+     */
+    int execute(Long id, Long expectedVersion) {
+        set("updated_at", LocalDateTime.now());
+        String sql = "UPDATE " + table + " SET "
+                + columns.keySet().stream().map(column -> column + " = ?").collect(Collectors.joining(", "))
+                + ", version = version + 1 WHERE id = ?" + (expectedVersion != null ? " AND version = ?" : "");
+
+        entityManager.flush();
+        int updated = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                int index = 1;
+                for (Object value : columns.values()) {
+                    statement.setObject(index++, value);
+                }
+                statement.setLong(index++, id);
+                if (expectedVersion != null) {
+                    statement.setLong(index, expectedVersion);
+                }
+                return statement.executeUpdate();
+            }
+        });
+        // The persistence context may still hold the row as it was before
+        entityManager.clear();
+        if (updated > 0) {
+            evict(id);
+        }
+        return updated;
+    }
+
+    private void evict(Long id) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        cache.evict(entityType, id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.evict(entityType, id);
+                }
+            });
+        }
+    }
+}
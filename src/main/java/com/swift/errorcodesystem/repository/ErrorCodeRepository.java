@@ -1,21 +1,30 @@
 package com.swift.errorcodesystem.repository;
 
 import com.swift.errorcodesystem.entity.ErrorCode;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ErrorCodeRepository extends JpaRepository<ErrorCode, Long> {
+public interface ErrorCodeRepository extends JpaRepository<ErrorCode, Long>, ErrorCodeRepositoryCustom {
+    @EntityGraph(attributePaths = {"module", "module.category", "module.category.project"})
     List<ErrorCode> findByModuleId(Long moduleId);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<ErrorCode> findByCode(String code);
     List<ErrorCode> findByHttpStatus(ErrorCode.HttpStatus httpStatus);
     List<ErrorCode> findBySeverity(ErrorCode.ErrorSeverity severity);
 
-    @Query("SELECT ec FROM ErrorCode ec WHERE ec.module.category.project.id = :projectId")
+    @Query("SELECT ec FROM ErrorCode ec JOIN FETCH ec.module m JOIN FETCH m.category c JOIN FETCH c.project p " +
+            "WHERE p.id = :projectId")
     List<ErrorCode> findByProjectId(Long projectId);
 
     @Query("SELECT ec FROM ErrorCode ec WHERE ec.module.category.id = :categoryId")
@@ -24,5 +33,34 @@ public interface ErrorCodeRepository extends JpaRepository<ErrorCode, Long> {
     @Query("SELECT MAX(CAST(SUBSTRING(ec.code, 12, 4) AS int)) FROM ErrorCode ec WHERE ec.module.id = :moduleId")
     Optional<Integer> findMaxSequenceByModuleId(Long moduleId);
 
+    @Query("SELECT ec FROM ErrorCode ec JOIN FETCH ec.module m JOIN FETCH m.category c JOIN FETCH c.project")
+    List<ErrorCode> findAllWithHierarchy();
+
+    @Query("SELECT ec FROM ErrorCode ec JOIN FETCH ec.module m JOIN FETCH m.category c JOIN FETCH c.project WHERE ec.id = :id")
+    Optional<ErrorCode> findByIdWithHierarchy(Long id);
+
+    // Separate lookups by code and by id: an OR across both columns cannot use either index
+    @Query("SELECT ec FROM ErrorCode ec JOIN FETCH ec.module m JOIN FETCH m.category c JOIN FETCH c.project " +
+            "WHERE ec.code IN :codes")
+    List<ErrorCode> findByCodeInWithHierarchy(Collection<String> codes);
+
+    @Query("SELECT ec FROM ErrorCode ec JOIN FETCH ec.module m JOIN FETCH m.category c JOIN FETCH c.project " +
+            "WHERE ec.id IN :ids")
+    List<ErrorCode> findByIdInWithHierarchy(Collection<Long> ids);
+
+    // Bulk deletes used bottom-up by the subtree deletes; they bypass cascades and never load the rows
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ErrorCode ec WHERE ec.module.id IN " +
+            "(SELECT m.id FROM Module m WHERE m.category.id IN (SELECT c.id FROM Category c WHERE c.project.id = :projectId))")
+    int bulkDeleteByProjectId(Long projectId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ErrorCode ec WHERE ec.module.id IN (SELECT m.id FROM Module m WHERE m.category.id = :categoryId)")
+    int bulkDeleteByCategoryId(Long categoryId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ErrorCode ec WHERE ec.module.id = :moduleId")
+    int bulkDeleteByModuleId(Long moduleId);
+
     boolean existsByCode(String code);
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.swift.errorcodesystem.repository;
+
+import com.swift.errorcodesystem.entity.ErrorCode;
+
+public interface ErrorCodeRepositoryCustom {
+
+    // Single-statement update of the editable fields; a null expected version skips the version check but still bumps it
+    int updateIfVersionMatches(Long id, Long expectedVersion, ErrorCode details);
+}
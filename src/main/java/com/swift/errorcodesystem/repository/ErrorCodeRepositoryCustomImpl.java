@@ -0,0 +1,24 @@
+package com.swift.errorcodesystem.repository;
+
+import com.swift.errorcodesystem.entity.ErrorCode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+class ErrorCodeRepositoryCustomImpl implements ErrorCodeRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int updateIfVersionMatches(Long id, Long expectedVersion, ErrorCode details) {
+        return new ConditionalUpdate(entityManager, ErrorCode.class, "error_codes")
+                .set("message", details.getMessage())
+                .set("description", details.getDescription())
+                .set("suggested_action", details.getSuggestedAction())
+                .set("severity", details.getSeverity())
+                .set("http_status", details.getHttpStatus())
+                .set("http_status_code", details.getHttpStatus() != null ? details.getHttpStatus().getCode() : null)
+                .set("is_retryable", details.getIsRetryable())
+                .execute(id, expectedVersion);
+    }
+}
@@ -0,0 +1,44 @@
+package com.swift.errorcodesystem.repository;
+
+import com.swift.errorcodesystem.entity.ErrorCodeTranslation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ErrorCodeTranslationRepository extends JpaRepository<ErrorCodeTranslation, Long> {
+    List<ErrorCodeTranslation> findByErrorCodeIdOrderByLocale(Long errorCodeId);
+
+    Optional<ErrorCodeTranslation> findByErrorCodeIdAndLocale(Long errorCodeId, String locale);
+
+    @Query("SELECT t FROM ErrorCodeTranslation t WHERE t.errorCode.id IN (SELECT ec.id FROM ErrorCode ec WHERE ec.module.id IN " +
+            "(SELECT m.id FROM Module m WHERE m.category.id IN (SELECT c.id FROM Category c WHERE c.project.id = :projectId)))")
+    List<ErrorCodeTranslation> findByProjectId(Long projectId);
+
+    // Bulk deletes run ahead of the error code deletes of the subtree deletes
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ErrorCodeTranslation t WHERE t.errorCode.id IN (SELECT ec.id FROM ErrorCode ec WHERE ec.module.id IN " +
+            "(SELECT m.id FROM Module m WHERE m.category.id IN (SELECT c.id FROM Category c WHERE c.project.id = :projectId)))")
+    int bulkDeleteByProjectId(Long projectId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ErrorCodeTranslation t WHERE t.errorCode.id IN (SELECT ec.id FROM ErrorCode ec WHERE ec.module.id IN " +
+            "(SELECT m.id FROM Module m WHERE m.category.id = :categoryId))")
+    int bulkDeleteByCategoryId(Long categoryId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ErrorCodeTranslation t WHERE t.errorCode.id IN (SELECT ec.id FROM ErrorCode ec WHERE ec.module.id = :moduleId)")
+    int bulkDeleteByModuleId(Long moduleId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ErrorCodeTranslation t WHERE t.errorCode.id = :errorCodeId")
+    int bulkDeleteByErrorCodeId(Long errorCodeId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ErrorCodeTranslation t WHERE t.errorCode.id = :errorCodeId AND t.locale = :locale")
+    int bulkDeleteByErrorCodeIdAndLocale(Long errorCodeId, String locale);
+}
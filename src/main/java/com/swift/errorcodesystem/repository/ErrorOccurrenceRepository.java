@@ -0,0 +1,13 @@
+package com.swift.errorcodesystem.repository;
+
+import com.swift.errorcodesystem.entity.ErrorOccurrence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ErrorOccurrenceRepository extends JpaRepository<ErrorOccurrence, Long> {
+    List<ErrorOccurrence> findByCodeAndWindowStartGreaterThanEqualOrderByWindowStartAsc(String code, LocalDateTime since);
+}
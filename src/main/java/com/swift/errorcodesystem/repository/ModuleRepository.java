@@ -2,7 +2,9 @@ package com.swift.errorcodesystem.repository;
 
 import com.swift.errorcodesystem.entity.Module;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -11,6 +13,7 @@ import java.util.Optional;
 
 @Repository
 public interface ModuleRepository extends JpaRepository<Module, Long> {
+    @EntityGraph(attributePaths = {"category", "category.project"})
     List<Module> findByCategoryId(Long categoryId);
     Optional<Module> findByCategoryIdAndCode(Long categoryId, String code);
 
@@ -20,5 +23,20 @@ public interface ModuleRepository extends JpaRepository<Module, Long> {
     @Query("SELECT m FROM Module m LEFT JOIN FETCH m.errorCodes WHERE m.category.id = :categoryId")
     List<Module> findByCategoryIdWithErrorCodes(Long categoryId);
 
+    @Query("SELECT m FROM Module m JOIN FETCH m.category c JOIN FETCH c.project")
+    List<Module> findAllWithHierarchy();
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Module m WHERE m.category.id IN (SELECT c.id FROM Category c WHERE c.project.id = :projectId)")
+    int bulkDeleteByProjectId(Long projectId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Module m WHERE m.category.id = :categoryId")
+    int bulkDeleteByCategoryId(Long categoryId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Module m WHERE m.id = :id")
+    int bulkDeleteById(Long id);
+
     boolean existsByCategoryIdAndCode(Long categoryId, String code);
 }
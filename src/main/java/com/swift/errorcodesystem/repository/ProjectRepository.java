@@ -3,6 +3,7 @@ package com.swift.errorcodesystem.repository;
 
 import com.swift.errorcodesystem.entity.Project;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -10,7 +11,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProjectRepository extends JpaRepository<Project, Long> {
+public interface ProjectRepository extends JpaRepository<Project, Long>, ProjectRepositoryCustom {
     Optional<Project> findByName(String name);
     Optional<Project> findByCode(String code);
     List<Project> findByStatus(Project.ProjectStatus status);
@@ -18,6 +19,16 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
     @Query("SELECT p FROM Project p LEFT JOIN FETCH p.categories WHERE p.id = :id")
     Optional<Project> findByIdWithCategories(Long id);
 
+    // Reads the row itself rather than its second-level cache entry, for the state a conditional update left
+    @Query("SELECT p FROM Project p WHERE p.id = :id")
+    Optional<Project> findCurrentById(Long id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Project p WHERE p.id = :id")
+    int bulkDeleteById(Long id);
+
     boolean existsByName(String name);
     boolean existsByCode(String code);
+    boolean existsByNameAndIdNot(String name, Long id);
+    boolean existsByCodeAndIdNot(String code, Long id);
 }
\ No newline at end of file
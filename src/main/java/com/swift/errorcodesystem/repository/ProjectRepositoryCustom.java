@@ -0,0 +1,9 @@
+package com.swift.errorcodesystem.repository;
+
+import com.swift.errorcodesystem.entity.Project;
+
+public interface ProjectRepositoryCustom {
+
+    // Single-statement update; a null expected version skips the version check but still bumps it
+    int updateIfVersionMatches(Long id, Long expectedVersion, Project details);
+}
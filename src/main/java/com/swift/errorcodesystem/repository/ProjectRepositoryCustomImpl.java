@@ -0,0 +1,22 @@
+package com.swift.errorcodesystem.repository;
+
+import com.swift.errorcodesystem.entity.Project;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+class ProjectRepositoryCustomImpl implements ProjectRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int updateIfVersionMatches(Long id, Long expectedVersion, Project details) {
+        return new ConditionalUpdate(entityManager, Project.class, "projects")
+                .set("name", details.getName())
+                .set("description", details.getDescription())
+                .set("code", details.getCode())
+                .set("owner", details.getOwner())
+                .set("status", details.getStatus())
+                .execute(id, expectedVersion);
+    }
+}
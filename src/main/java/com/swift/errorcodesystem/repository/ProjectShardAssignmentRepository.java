@@ -0,0 +1,9 @@
+package com.swift.errorcodesystem.repository;
+
+import com.swift.errorcodesystem.entity.ProjectShardAssignment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProjectShardAssignmentRepository extends JpaRepository<ProjectShardAssignment, String> {
+}
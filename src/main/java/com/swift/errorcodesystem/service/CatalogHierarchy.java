@@ -0,0 +1,32 @@
+package com.swift.errorcodesystem.service;
+
+import com.swift.errorcodesystem.entity.Category;
+import com.swift.errorcodesystem.entity.ErrorCode;
+import com.swift.errorcodesystem.entity.Module;
+import com.swift.errorcodesystem.entity.Project;
+import lombok.Value;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Every level of the catalog loaded flat, one query per level, within a single persistence context.
+ * Parent references resolve to the already loaded instances, so the tree can be assembled without further queries.
+ */
+@Value
+public class CatalogHierarchy {
+    List<Project> projects;
+    List<Category> categories;
+    List<Module> modules;
+    List<ErrorCode> errorCodes;
+
+    // Shards hold disjoint subtrees, so their hierarchies combine level by level
+    public CatalogHierarchy merge(CatalogHierarchy other) {
+        return new CatalogHierarchy(concat(projects, other.projects), concat(categories, other.categories),
+                concat(modules, other.modules), concat(errorCodes, other.errorCodes));
+    }
+
+    private static <T> List<T> concat(List<T> first, List<T> second) {
+        return Stream.concat(first.stream(), second.stream()).toList();
+    }
+}
@@ -0,0 +1,134 @@
+package com.swift.errorcodesystem.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.swift.errorcodesystem.cache.GenerationGuard;
+import com.swift.errorcodesystem.catalog.ErrorCodeCatalog;
+import com.swift.errorcodesystem.config.SearchCacheProperties;
+import com.swift.errorcodesystem.dto.ErrorCodeDto;
+import com.swift.errorcodesystem.entity.ErrorCode;
+import com.swift.errorcodesystem.event.CatalogChangeEvent;
+import com.swift.errorcodesystem.repository.ErrorCodeRepository;
+import com.swift.errorcodesystem.sharding.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Runs the filtered searches of the {@code /search} endpoints on the {@link ErrorCodeCatalog} and caches their results
+ * by a canonical form of the request, so equivalent requests share an entry. After a write only the entries the
+ * written row could enter or leave are dropped: those holding a row below the written entity and those whose filters
+ * could match it.
+ */
+@Service
+@Slf4j
+public class ErrorCodeSearchService {
+
+    private final ErrorCodeCatalog errorCodeCatalog;
+    private final ErrorCodeRepository errorCodeRepository;
+    private final ShardRouter shardRouter;
+    private final Cache<SearchKey, List<ErrorCodeDto.ErrorCodeResponse>> results;
+
+    private final GenerationGuard loads = new GenerationGuard();
+
+    public ErrorCodeSearchService(ErrorCodeCatalog errorCodeCatalog, ErrorCodeRepository errorCodeRepository,
+                                  ShardRouter shardRouter, SearchCacheProperties properties) {
+        this.errorCodeCatalog = errorCodeCatalog;
+        this.errorCodeRepository = errorCodeRepository;
+        this.shardRouter = shardRouter;
+        this.results = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaximumWeight())
+                .<SearchKey, List<ErrorCodeDto.ErrorCodeResponse>>weigher((key, value) -> value.size() + 1)
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+    }
+
+    public List<ErrorCodeDto.ErrorCodeResponse> search(ErrorCodeDto.SearchRequest request) {
+        SearchKey key = SearchKey.of(request);
+        List<ErrorCodeDto.ErrorCodeResponse> cached = results.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long loadedGeneration = loads.current();
+        List<ErrorCodeDto.ErrorCodeResponse> loaded = errorCodeCatalog.search(request);
+        loads.publishIfCurrent(loadedGeneration, () -> results.put(key, loaded));
+        return loaded;
+    }
+
+    /**
+     * Same matches as {@link #search}, with their facet counts. Not cached: the catalog's bitmap index yields both
+     * from one evaluation of the filters, so an entry would only save the term match.
+     */
+    public ErrorCodeDto.FacetedSearchResponse searchFaceted(ErrorCodeDto.SearchRequest request) {
+        return errorCodeCatalog.searchFaceted(request);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        ErrorCodeDto.ErrorCodeResponse written = null;
+        if (event.isErrorCodeChange() && event.getChangeType() != CatalogChangeEvent.ChangeType.DELETED
+                && results.estimatedSize() > 0) {
+            written = shardRouter.onShard(shardRouter.shardForId(event.getEntityId()),
+                            () -> errorCodeRepository.findByIdWithHierarchy(event.getEntityId()))
+                    .map(ErrorCodeDto.ErrorCodeResponse::fromEntity)
+                    .orElse(null);
+        }
+        ErrorCodeDto.ErrorCodeResponse writtenErrorCode = written;
+        loads.invalidate(() -> results.asMap().entrySet().removeIf(entry ->
+                isAffected(entry.getKey(), entry.getValue(), event, writtenErrorCode)));
+    }
+
+    private static boolean isAffected(SearchKey key, List<ErrorCodeDto.ErrorCodeResponse> result,
+                                      CatalogChangeEvent event, ErrorCodeDto.ErrorCodeResponse written) {
+        return switch (event.getEntityType()) {
+            case ERROR_CODE -> result.stream().anyMatch(errorCode -> event.getEntityId().equals(errorCode.getId()))
+                    || (written != null && key.matches(written));
+            // New containers are empty; renames and deletes affect the rows below them and the filters on their code
+            case PROJECT -> !isCreation(event) && (key.projectCode() != null || key.term() != null
+                    || result.stream().anyMatch(errorCode -> event.getEntityId().equals(errorCode.getProjectId())));
+            case CATEGORY -> !isCreation(event) && (key.categoryCode() != null || key.term() != null
+                    || result.stream().anyMatch(errorCode -> event.getEntityId().equals(errorCode.getCategoryId())));
+            case MODULE -> !isCreation(event) && (key.moduleCode() != null || key.term() != null
+                    || result.stream().anyMatch(errorCode -> event.getEntityId().equals(errorCode.getModuleId())));
+        };
+    }
+
+    private static boolean isCreation(CatalogChangeEvent event) {
+        return event.getChangeType() == CatalogChangeEvent.ChangeType.CREATED;
+    }
+
+    /**
+     * Canonical form of a {@link ErrorCodeDto.SearchRequest}: the search term is lower-cased, since codes have no
+     * letters and messages are matched ignoring case, and an empty term means none. {@link #matches} accepts the
+     * rows the catalog's search returns for the request.
+     */
+    record SearchKey(String term, ErrorCode.ErrorSeverity severity, ErrorCode.HttpStatus httpStatus,
+                     String projectCode, String categoryCode, String moduleCode, Boolean isRetryable) {
+
+        static SearchKey of(ErrorCodeDto.SearchRequest request) {
+            String term = request.getSearchTerm();
+            return new SearchKey(term == null || term.isEmpty() ? null : term.toLowerCase(Locale.ROOT),
+                    request.getSeverity(), request.getHttpStatus(), request.getProjectCode(),
+                    request.getCategoryCode(), request.getModuleCode(), request.getIsRetryable());
+        }
+
+        boolean matches(ErrorCodeDto.ErrorCodeResponse errorCode) {
+            return (term == null || errorCode.getCode().contains(term)
+                            || containsIgnoreCase(errorCode.getMessage()) || containsIgnoreCase(errorCode.getDescription()))
+                    && (severity == null || severity == errorCode.getSeverity())
+                    && (httpStatus == null || httpStatus == errorCode.getHttpStatus())
+                    && (projectCode == null || projectCode.equals(errorCode.getProjectCode()))
+                    && (categoryCode == null || categoryCode.equals(errorCode.getCategoryCode()))
+                    && (moduleCode == null || moduleCode.equals(errorCode.getModuleCode()))
+                    && (isRetryable == null || isRetryable.equals(errorCode.getIsRetryable()));
+        }
+
+        private boolean containsIgnoreCase(String value) {
+            return value != null && value.toLowerCase(Locale.ROOT).contains(term);
+        }
+    }
+}
@@ -1,94 +1,128 @@
 package com.swift.errorcodesystem.service;
 
 
+import com.swift.errorcodesystem.cache.DetachedCopies;
+import com.swift.errorcodesystem.coalescing.Coalesced;
+import com.swift.errorcodesystem.config.CacheConfig;
+import com.swift.errorcodesystem.dto.CatalogDeletion;
 import com.swift.errorcodesystem.entity.Category;
 import com.swift.errorcodesystem.entity.ErrorCode;
+import com.swift.errorcodesystem.entity.ErrorCodeTranslation;
 import com.swift.errorcodesystem.entity.Project;
 import com.swift.errorcodesystem.entity.Module;
+import com.swift.errorcodesystem.event.CatalogChangeEvent;
+import com.swift.errorcodesystem.event.CatalogChangeEvent.ChangeType;
+import com.swift.errorcodesystem.exception.ResourceNotFoundException;
+import com.swift.errorcodesystem.exception.VersionConflictException;
 import com.swift.errorcodesystem.repository.CategoryRepository;
 import com.swift.errorcodesystem.repository.ErrorCodeRepository;
+import com.swift.errorcodesystem.repository.ErrorCodeTranslationRepository;
 import com.swift.errorcodesystem.repository.ModuleRepository;
 import com.swift.errorcodesystem.repository.ProjectRepository;
+import com.swift.errorcodesystem.sharding.ShardKey;
+import com.swift.errorcodesystem.sharding.ShardRouted;
+import com.swift.errorcodesystem.sharding.ShardRouter;
+import com.swift.errorcodesystem.template.LocaleFallback;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Transactional(readOnly = true)
+@ShardRouted
 public class ErrorCodeService {
 
     private final ProjectRepository projectRepository;
     private final CategoryRepository categoryRepository;
     private final ModuleRepository moduleRepository;
     private final ErrorCodeRepository errorCodeRepository;
+    private final ErrorCodeTranslationRepository translationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ShardRouter shardRouter;
+    private final PlatformTransactionManager transactionManager;
 
     // Project methods
-    @Transactional
-    public Project createProject(Project project) {
-        if (projectRepository.existsByName(project.getName())) {
-            throw new IllegalArgumentException("Project with name '" + project.getName() + "' already exists");
-        }
-        if (projectRepository.existsByCode(project.getCode())) {
-            throw new IllegalArgumentException("Project with code '" + project.getCode() + "' already exists");
-        }
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Project createProject(@ShardKey Project project) {
         validateCodeFormat(project.getCode(), 2, "Project");
-        return projectRepository.save(project);
+        return inUniqueProjectTransaction(project.getName(), project.getCode(), null, () -> {
+            Project savedProject = projectRepository.save(project);
+            eventPublisher.publishEvent(CatalogChangeEvent.forProject(savedProject, ChangeType.CREATED));
+            return savedProject;
+        });
     }
 
+    @Cacheable(cacheNames = CacheConfig.PROJECTS, key = "'" + CacheConfig.ALL_PROJECTS_KEY + "'")
+    @Coalesced
     public List<Project> getAllProjects() {
-        return projectRepository.findAll();
+        return DetachedCopies.ofProjects(projectRepository.findAll());
     }
 
-    public Optional<Project> getProjectById(Long id) {
+    public CatalogHierarchy getCatalogHierarchy(boolean includeErrorCodes) {
+        return new CatalogHierarchy(
+                projectRepository.findAll(),
+                categoryRepository.findAll(),
+                moduleRepository.findAll(),
+                includeErrorCodes ? errorCodeRepository.findAll() : List.of());
+    }
+
+    public Optional<Project> getProjectById(@ShardKey Long id) {
         return projectRepository.findById(id);
     }
 
-    public Optional<Project> getProjectByIdWithCategories(Long id) {
+    public Optional<Project> getProjectByIdWithCategories(@ShardKey Long id) {
         return projectRepository.findByIdWithCategories(id);
     }
 
-    @Transactional
-    public Project updateProject(Long id, Project projectDetails) {
-        Project project = projectRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Project not found with id: " + id));
-
-        if (!project.getName().equals(projectDetails.getName()) &&
-                projectRepository.existsByName(projectDetails.getName())) {
-            throw new IllegalArgumentException("Project with name '" + projectDetails.getName() + "' already exists");
-        }
-
-        if (!project.getCode().equals(projectDetails.getCode()) &&
-                projectRepository.existsByCode(projectDetails.getCode())) {
-            throw new IllegalArgumentException("Project with code '" + projectDetails.getCode() + "' already exists");
-        }
-
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Project updateProject(@ShardKey Long id, Project projectDetails, Long expectedVersion) {
         validateCodeFormat(projectDetails.getCode(), 2, "Project");
-
-        project.setName(projectDetails.getName());
-        project.setDescription(projectDetails.getDescription());
-        project.setCode(projectDetails.getCode());
-        project.setOwner(projectDetails.getOwner());
-        project.setStatus(projectDetails.getStatus());
-
-        return projectRepository.save(project);
+        return inUniqueProjectTransaction(projectDetails.getName(), projectDetails.getCode(), id, () -> {
+            if (projectRepository.updateIfVersionMatches(id, expectedVersion, projectDetails) == 0) {
+                throw notUpdated(projectRepository.existsById(id), "Project", id, expectedVersion);
+            }
+
+            Project savedProject = projectRepository.findCurrentById(id).orElseThrow();
+            eventPublisher.publishEvent(CatalogChangeEvent.forProject(savedProject, ChangeType.UPDATED));
+            return savedProject;
+        });
     }
 
     @Transactional
-    public void deleteProject(Long id) {
+    public CatalogDeletion deleteProject(@ShardKey Long id) {
         if (!projectRepository.existsById(id)) {
-            throw new IllegalArgumentException("Project not found with id: " + id);
+            throw new ResourceNotFoundException("Project", id);
         }
-        projectRepository.deleteById(id);
+        // Bottom-up set-based deletes instead of loading the subtree through the cascades
+        translationRepository.bulkDeleteByProjectId(id);
+        int errorCodes = errorCodeRepository.bulkDeleteByProjectId(id);
+        int modules = moduleRepository.bulkDeleteByProjectId(id);
+        int categories = categoryRepository.bulkDeleteByProjectId(id);
+        int projects = projectRepository.bulkDeleteById(id);
+        eventPublisher.publishEvent(CatalogChangeEvent.forProject(id, ChangeType.DELETED));
+        return new CatalogDeletion(projects, categories, modules, errorCodes);
     }
 
     // Category methods
     @Transactional
-    public Category createCategory(Long projectId, Category category) {
+    public Category createCategory(@ShardKey Long projectId, Category category) {
         Project project = projectRepository.findById(projectId)
                 .orElseThrow(() -> new IllegalArgumentException("Project not found with id: " + projectId));
 
@@ -99,24 +133,43 @@ public class ErrorCodeService {
         validateCodeFormat(category.getCode(), 2, "Category");
 
         category.setProject(project);
-        return categoryRepository.save(category);
+        Category savedCategory = categoryRepository.save(category);
+        eventPublisher.publishEvent(CatalogChangeEvent.forCategory(savedCategory, ChangeType.CREATED));
+        return savedCategory;
     }
 
-    public List<Category> getCategoriesByProjectId(Long projectId) {
-        return categoryRepository.findByProjectId(projectId);
+    @Cacheable(cacheNames = CacheConfig.CATEGORIES_BY_PROJECT, key = "#projectId")
+    @Coalesced
+    public List<Category> getCategoriesByProjectId(@ShardKey Long projectId) {
+        return DetachedCopies.ofCategories(categoryRepository.findByProjectId(projectId));
     }
 
-    public Optional<Category> getCategoryById(Long id) {
+    public Optional<Category> getCategoryById(@ShardKey Long id) {
         return categoryRepository.findById(id);
     }
 
-    public Optional<Category> getCategoryByIdWithModules(Long id) {
+    public Optional<Category> getCategoryByIdWithModules(@ShardKey Long id) {
         return categoryRepository.findByIdWithModules(id);
     }
 
+    @Transactional
+    public CatalogDeletion deleteCategory(@ShardKey Long id) {
+        Category category = categoryRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Category", id));
+        // Captured up front, the bulk deletes clear the persistence context
+        CatalogChangeEvent event = CatalogChangeEvent.forCategory(category, ChangeType.DELETED);
+
+        translationRepository.bulkDeleteByCategoryId(id);
+        int errorCodes = errorCodeRepository.bulkDeleteByCategoryId(id);
+        int modules = moduleRepository.bulkDeleteByCategoryId(id);
+        int categories = categoryRepository.bulkDeleteById(id);
+        eventPublisher.publishEvent(event);
+        return new CatalogDeletion(0, categories, modules, errorCodes);
+    }
+
     // Module methods
     @Transactional
-    public Module createModule(Long categoryId, Module module) {
+    public Module createModule(@ShardKey Long categoryId, Module module) {
         Category category = categoryRepository.findById(categoryId)
                 .orElseThrow(() -> new IllegalArgumentException("Category not found with id: " + categoryId));
 
@@ -127,24 +180,41 @@ public class ErrorCodeService {
         validateCodeFormat(module.getCode(), 2, "Module");
 
         module.setCategory(category);
-        return moduleRepository.save(module);
+        Module savedModule = moduleRepository.save(module);
+        eventPublisher.publishEvent(CatalogChangeEvent.forModule(savedModule, ChangeType.CREATED));
+        return savedModule;
     }
 
-    public List<Module> getModulesByCategoryId(Long categoryId) {
-        return moduleRepository.findByCategoryId(categoryId);
+    @Cacheable(cacheNames = CacheConfig.MODULES_BY_CATEGORY, key = "#categoryId")
+    @Coalesced
+    public List<Module> getModulesByCategoryId(@ShardKey Long categoryId) {
+        return DetachedCopies.ofModules(moduleRepository.findByCategoryId(categoryId));
     }
 
-    public Optional<Module> getModuleById(Long id) {
+    public Optional<Module> getModuleById(@ShardKey Long id) {
         return moduleRepository.findById(id);
     }
 
-    public Optional<Module> getModuleByIdWithErrorCodes(Long id) {
+    public Optional<Module> getModuleByIdWithErrorCodes(@ShardKey Long id) {
         return moduleRepository.findByIdWithErrorCodes(id);
     }
 
+    @Transactional
+    public CatalogDeletion deleteModule(@ShardKey Long id) {
+        Module module = moduleRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Module", id));
+        CatalogChangeEvent event = CatalogChangeEvent.forModule(module, ChangeType.DELETED);
+
+        translationRepository.bulkDeleteByModuleId(id);
+        int errorCodes = errorCodeRepository.bulkDeleteByModuleId(id);
+        int modules = moduleRepository.bulkDeleteById(id);
+        eventPublisher.publishEvent(event);
+        return new CatalogDeletion(0, 0, modules, errorCodes);
+    }
+
     // Error Code methods
     @Transactional
-    public ErrorCode createErrorCode(Long moduleId, ErrorCode errorCode) {
+    public ErrorCode createErrorCode(@ShardKey Long moduleId, ErrorCode errorCode) {
         Module module = moduleRepository.findById(moduleId)
                 .orElseThrow(() -> new IllegalArgumentException("Module not found with id: " + moduleId));
 
@@ -156,7 +226,9 @@ public class ErrorCodeService {
 
         errorCode.setCode(generatedCode);
         errorCode.setModule(module);
-        return errorCodeRepository.save(errorCode);
+        ErrorCode savedErrorCode = errorCodeRepository.save(errorCode);
+        eventPublisher.publishEvent(CatalogChangeEvent.forErrorCode(savedErrorCode, ChangeType.CREATED));
+        return savedErrorCode;
     }
 
     private String generateErrorCode(Module module) {
@@ -172,52 +244,152 @@ public class ErrorCodeService {
         return String.format("%s-%s-%s-%04d", projectCode, categoryCode, moduleCode, nextSequence);
     }
 
-    public List<ErrorCode> getErrorCodesByModuleId(Long moduleId) {
-        return errorCodeRepository.findByModuleId(moduleId);
+    @Cacheable(cacheNames = CacheConfig.ERROR_CODES_BY_MODULE, key = "#moduleId")
+    @Coalesced
+    public List<ErrorCode> getErrorCodesByModuleId(@ShardKey Long moduleId) {
+        return DetachedCopies.ofErrorCodes(errorCodeRepository.findByModuleId(moduleId));
     }
 
-    public List<ErrorCode> getErrorCodesByProjectId(Long projectId) {
-        return errorCodeRepository.findByProjectId(projectId);
+    @Cacheable(cacheNames = CacheConfig.ERROR_CODES_BY_PROJECT, key = "#projectId")
+    @Coalesced
+    public List<ErrorCode> getErrorCodesByProjectId(@ShardKey Long projectId) {
+        return DetachedCopies.ofErrorCodes(errorCodeRepository.findByProjectId(projectId));
     }
 
-    public List<ErrorCode> getErrorCodesByCategoryId(Long categoryId) {
+    public List<ErrorCode> getErrorCodesByCategoryId(@ShardKey Long categoryId) {
         return errorCodeRepository.findByCategoryId(categoryId);
     }
 
-    public Optional<ErrorCode> getErrorCodeById(Long id) {
+    @Coalesced
+    public Optional<ErrorCode> getErrorCodeById(@ShardKey Long id) {
         return errorCodeRepository.findById(id);
     }
 
-    public Optional<ErrorCode> getErrorCodeByCode(String code) {
+    @Coalesced
+    public Optional<ErrorCode> getErrorCodeByCode(@ShardKey String code) {
         return errorCodeRepository.findByCode(code);
     }
 
+    public List<ErrorCode> resolveErrorCodes(Collection<String> codes, Collection<Long> ids) {
+        Map<Long, ErrorCode> resolved = new LinkedHashMap<>();
+        if (!codes.isEmpty()) {
+            errorCodeRepository.findByCodeInWithHierarchy(codes).forEach(ec -> resolved.put(ec.getId(), ec));
+        }
+        if (!ids.isEmpty()) {
+            errorCodeRepository.findByIdInWithHierarchy(ids).forEach(ec -> resolved.putIfAbsent(ec.getId(), ec));
+        }
+        return new ArrayList<>(resolved.values());
+    }
+
     public List<ErrorCode> getAllErrorCodes() {
         return errorCodeRepository.findAll();
     }
 
     @Transactional
-    public ErrorCode updateErrorCode(Long id, ErrorCode errorCodeDetails) {
-        ErrorCode errorCode = errorCodeRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Error code not found with id: " + id));
-
+    public ErrorCode updateErrorCode(@ShardKey Long id, ErrorCode errorCodeDetails, Long expectedVersion) {
         // Don't allow updating the code field as it's generated
-        errorCode.setMessage(errorCodeDetails.getMessage());
-        errorCode.setDescription(errorCodeDetails.getDescription());
-        errorCode.setSuggestedAction(errorCodeDetails.getSuggestedAction());
-        errorCode.setSeverity(errorCodeDetails.getSeverity());
-        errorCode.setHttpStatus(errorCodeDetails.getHttpStatus());
-        errorCode.setIsRetryable(errorCodeDetails.getIsRetryable());
+        if (errorCodeRepository.updateIfVersionMatches(id, expectedVersion, errorCodeDetails) == 0) {
+            throw notUpdated(errorCodeRepository.existsById(id), "Error code", id, expectedVersion);
+        }
+
+        ErrorCode savedErrorCode = errorCodeRepository.findByIdWithHierarchy(id).orElseThrow();
+        eventPublisher.publishEvent(CatalogChangeEvent.forErrorCode(savedErrorCode, ChangeType.UPDATED));
+        return savedErrorCode;
+    }
+
+    @Transactional
+    public void deleteErrorCode(@ShardKey Long id) {
+        ErrorCode errorCode = errorCodeRepository.findByIdWithHierarchy(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Error code", id));
+        // Captured up front, the bulk delete clears the persistence context
+        CatalogChangeEvent event = CatalogChangeEvent.forErrorCode(errorCode, ChangeType.DELETED);
+        translationRepository.bulkDeleteByErrorCodeId(id);
+        errorCodeRepository.delete(errorCode);
+        eventPublisher.publishEvent(event);
+    }
 
-        return errorCodeRepository.save(errorCode);
+    // Translation methods
+    public List<ErrorCodeTranslation> getTranslations(@ShardKey Long errorCodeId) {
+        if (!errorCodeRepository.existsById(errorCodeId)) {
+            throw new IllegalArgumentException("Error code not found with id: " + errorCodeId);
+        }
+        return translationRepository.findByErrorCodeIdOrderByLocale(errorCodeId);
+    }
+
+    /**
+     * Creates or replaces the error code's texts for one locale. Counts as an update of the error code, so
+     * everything cached for it is refreshed.
+     */
+    @Transactional
+    public ErrorCodeTranslation saveTranslation(@ShardKey Long errorCodeId, String locale, ErrorCodeTranslation details) {
+        ErrorCode errorCode = errorCodeRepository.findByIdWithHierarchy(errorCodeId)
+                .orElseThrow(() -> new IllegalArgumentException("Error code not found with id: " + errorCodeId));
+        String languageTag = LocaleFallback.canonicalTag(locale);
+
+        ErrorCodeTranslation translation = translationRepository.findByErrorCodeIdAndLocale(errorCodeId, languageTag)
+                .orElseGet(() -> ErrorCodeTranslation.builder().errorCode(errorCode).locale(languageTag).build());
+        translation.setMessage(details.getMessage());
+        translation.setSuggestedAction(details.getSuggestedAction());
+        ErrorCodeTranslation savedTranslation = translationRepository.saveAndFlush(translation);
+        eventPublisher.publishEvent(CatalogChangeEvent.forErrorCode(errorCode, ChangeType.UPDATED));
+        return savedTranslation;
     }
 
     @Transactional
-    public void deleteErrorCode(Long id) {
-        if (!errorCodeRepository.existsById(id)) {
-            throw new IllegalArgumentException("Error code not found with id: " + id);
+    public void deleteTranslation(@ShardKey Long errorCodeId, String locale) {
+        ErrorCode errorCode = errorCodeRepository.findByIdWithHierarchy(errorCodeId)
+                .orElseThrow(() -> new ResourceNotFoundException("Error code", errorCodeId));
+        CatalogChangeEvent event = CatalogChangeEvent.forErrorCode(errorCode, ChangeType.UPDATED);
+        String languageTag = LocaleFallback.canonicalTag(locale);
+        if (translationRepository.bulkDeleteByErrorCodeIdAndLocale(errorCodeId, languageTag) == 0) {
+            throw new ResourceNotFoundException("Translation '" + languageTag + "' not found for error code id: "
+                    + errorCodeId);
+        }
+        eventPublisher.publishEvent(event);
+    }
+
+    // With sharding a transaction only ever sees its own shard, so project names and codes are checked on every shard
+    // before the write's transaction starts; two writes racing on different shards can still both pass. Without it the
+    // check runs inside the write's transaction on the primary, where a lagging replica cannot hide a recent duplicate.
+    private <T> T inUniqueProjectTransaction(String name, String code, Long id, Supplier<T> write) {
+        if (shardRouter.isEnabled()) {
+            requireUniqueProject(name, code, id, this::existsOnAnyShard);
+            return inTransaction(write);
+        }
+        return inTransaction(() -> {
+            requireUniqueProject(name, code, id, Supplier::get);
+            return write.get();
+        });
+    }
+
+    private void requireUniqueProject(String name, String code, Long id, Predicate<Supplier<Boolean>> exists) {
+        if (exists.test(() -> id == null
+                ? projectRepository.existsByName(name) : projectRepository.existsByNameAndIdNot(name, id))) {
+            throw new IllegalArgumentException("Project with name '" + name + "' already exists");
+        }
+        if (exists.test(() -> id == null
+                ? projectRepository.existsByCode(code) : projectRepository.existsByCodeAndIdNot(code, id))) {
+            throw new IllegalArgumentException("Project with code '" + code + "' already exists");
+        }
+    }
+
+    // Each shard is asked in a transaction of its own, which gets a connection to that shard
+    private boolean existsOnAnyShard(Supplier<Boolean> query) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return shardRouter.anyShard(() -> readOnly.execute(status -> query.get()));
+    }
+
+    private <T> T inTransaction(Supplier<T> write) {
+        return new TransactionTemplate(transactionManager).execute(status -> write.get());
+    }
+
+    // A conditional update touched no row: either the entity is gone or its version moved on
+    private RuntimeException notUpdated(boolean exists, String entityName, Long id, Long expectedVersion) {
+        if (!exists) {
+            return new ResourceNotFoundException(entityName, id);
         }
-        errorCodeRepository.deleteById(id);
+        return new VersionConflictException(entityName, id, expectedVersion);
     }
 
     // Utility method for code validation
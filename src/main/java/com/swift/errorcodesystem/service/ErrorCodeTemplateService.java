@@ -0,0 +1,101 @@
+package com.swift.errorcodesystem.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.swift.errorcodesystem.cache.GenerationGuard;
+import com.swift.errorcodesystem.dto.ErrorCodeDto;
+import com.swift.errorcodesystem.entity.ErrorCode;
+import com.swift.errorcodesystem.event.CatalogChangeEvent;
+import com.swift.errorcodesystem.template.ErrorCodeTemplates;
+import com.swift.errorcodesystem.template.MessageTemplate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Renders error code texts with caller arguments in the caller's locale. The texts of an error code and of all its
+ * translations are compiled on first use and cached by code, so a render is a few map lookups along the locale
+ * fallback chain plus one pass over the compiled segments. Entries are dropped when their error code, or the
+ * subtree holding it, is written.
+ */
+@Service
+@Slf4j
+public class ErrorCodeTemplateService {
+
+    private static final long MAX_CACHED_ERROR_CODES = 10_000;
+
+    private final ErrorCodeService errorCodeService;
+    private final Cache<String, ErrorCodeTemplates> templates = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_ERROR_CODES)
+            .build();
+
+    private final GenerationGuard loads = new GenerationGuard();
+
+    public ErrorCodeTemplateService(ErrorCodeService errorCodeService) {
+        this.errorCodeService = errorCodeService;
+    }
+
+    /**
+     * @param preferred locales in order of preference, tried before the error code's own texts
+     */
+    public Optional<ErrorCodeDto.RenderedErrorCode> render(String code, List<Locale> preferred,
+                                                           Map<String, ?> arguments) {
+        return getTemplates(code).map(compiled -> {
+            ErrorCodeTemplates.Variant variant = compiled.resolve(preferred);
+            MessageTemplate suggestedAction = variant.suggestedAction();
+            Set<String> missing = new LinkedHashSet<>(variant.message().missingArguments(arguments));
+            if (suggestedAction != null) {
+                missing.addAll(suggestedAction.missingArguments(arguments));
+            }
+            return ErrorCodeDto.RenderedErrorCode.builder()
+                    .code(code)
+                    .locale(variant.locale())
+                    .message(variant.message().render(arguments))
+                    .suggestedAction(suggestedAction != null ? suggestedAction.render(arguments) : null)
+                    .httpStatusCode(compiled.getHttpStatusCode())
+                    .missingArguments(missing)
+                    .build();
+        });
+    }
+
+    public Optional<ErrorCodeTemplates> getTemplates(String code) {
+        ErrorCodeTemplates cached = templates.getIfPresent(code);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long loadedGeneration = loads.current();
+        Optional<ErrorCodeTemplates> loaded = load(code);
+        loaded.ifPresent(compiled -> loads.publishIfCurrent(loadedGeneration, () -> templates.put(code, compiled)));
+        return loaded;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        loads.invalidate(() -> templates.asMap().values().removeIf(compiled -> isAffected(compiled, event)));
+    }
+
+    private Optional<ErrorCodeTemplates> load(String code) {
+        Optional<ErrorCode> errorCode = errorCodeService.getErrorCodeByCode(code);
+        return errorCode.map(found -> ErrorCodeTemplates.compile(found, errorCodeService.getTranslations(found.getId())));
+    }
+
+    // Texts only change with their error code; containers above it only matter when deleted with it
+    private static boolean isAffected(ErrorCodeTemplates compiled, CatalogChangeEvent event) {
+        return switch (event.getEntityType()) {
+            case ERROR_CODE -> event.getEntityId().equals(compiled.getErrorCodeId());
+            case MODULE -> isDeletion(event) && event.getEntityId().equals(compiled.getModuleId());
+            case CATEGORY, PROJECT -> isDeletion(event);
+        };
+    }
+
+    private static boolean isDeletion(CatalogChangeEvent event) {
+        return event.getChangeType() == CatalogChangeEvent.ChangeType.DELETED;
+    }
+}
@@ -0,0 +1,180 @@
+package com.swift.errorcodesystem.service;
+
+import com.swift.errorcodesystem.config.WritePipelineProperties;
+import com.swift.errorcodesystem.datasource.ReadYourWrites;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Opt-in group-commit mode for catalog writes. Submitted operations are queued per partition and executed in
+ * batches, one transaction per batch, bounded by {@code maxBatchSize} and {@code maxWait}. Operations with the same
+ * partition key (the module for error code creation) run in submission order on one worker, which keeps sequence
+ * generation gap-free. If a batch fails, its operations are retried one transaction each so that every caller's
+ * future completes with its own result or failure. A future not completed within {@code responseTimeout} fails
+ * with a {@link java.util.concurrent.TimeoutException}, and a write whose future has failed that way before its
+ * batch starts is dropped.
+ * <p>
+ * An operation may therefore run twice. Its first run can leave ids, versions and generated codes on the entities
+ * it wrote although that transaction rolled back, so an operation must build the entities it writes on every run
+ * rather than capture instances created before it was submitted.
+ */
+@Component
+@Slf4j
+public class GroupCommitWritePipeline implements SmartLifecycle {
+
+    private final WritePipelineProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final List<BlockingQueue<PendingWrite<?>>> queues = new ArrayList<>();
+    private final List<Thread> workers = new ArrayList<>();
+
+    private volatile boolean running;
+
+    public GroupCommitWritePipeline(WritePipelineProperties properties, PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled() && running;
+    }
+
+    public <T> CompletableFuture<T> submit(Object partitionKey, Supplier<T> operation) {
+        if (!isEnabled()) {
+            throw new IllegalStateException("Group-commit write pipeline is not running");
+        }
+        PendingWrite<T> write = new PendingWrite<>(operation, new CompletableFuture<T>()
+                .orTimeout(properties.getResponseTimeout().toNanos(), TimeUnit.NANOSECONDS));
+        int partition = Math.floorMod(partitionKey.hashCode(), queues.size());
+        if (!queues.get(partition).offer(write)) {
+            throw new RejectedExecutionException("Write queue is full, retry later");
+        }
+        // The write runs on a worker thread, so the caller's thread is marked here for read-your-writes routing
+        ReadYourWrites.markWrite();
+        return write.future;
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        running = true;
+        for (int partition = 0; partition < properties.getPartitions(); partition++) {
+            BlockingQueue<PendingWrite<?>> queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+            Thread worker = new Thread(() -> drain(queue), "group-commit-" + partition);
+            worker.setDaemon(true);
+            queues.add(queue);
+            workers.add(worker);
+            worker.start();
+        }
+        log.info("Group-commit write pipeline started with {} partition(s), batches of up to {} within {}",
+                properties.getPartitions(), properties.getMaxBatchSize(), properties.getMaxWait());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        for (Thread worker : workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        workers.clear();
+        queues.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void drain(BlockingQueue<PendingWrite<?>> queue) {
+        List<PendingWrite<?>> batch = new ArrayList<>(properties.getMaxBatchSize());
+        // Keeps going after stop() until everything already accepted has been written
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + properties.getMaxWait().toNanos();
+                while (batch.size() < properties.getMaxBatchSize()) {
+                    queue.drainTo(batch, properties.getMaxBatchSize() - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= properties.getMaxBatchSize() || remaining <= 0) {
+                        break;
+                    }
+                    PendingWrite<?> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                execute(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void execute(List<PendingWrite<?>> batch) {
+        // Their callers have already been answered
+        batch.removeIf(write -> write.future.isDone());
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Object> results;
+        try {
+            results = transactionTemplate.execute(status -> {
+                List<Object> batchResults = new ArrayList<>(batch.size());
+                for (PendingWrite<?> write : batch) {
+                    batchResults.add(write.operation.get());
+                }
+                return batchResults;
+            });
+        } catch (RuntimeException e) {
+            if (batch.size() > 1) {
+                log.debug("Batch of {} writes failed, retrying individually: {}", batch.size(), e.getMessage());
+            }
+            batch.forEach(this::executeAlone);
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).complete(results.get(i));
+        }
+    }
+
+    private <T> void executeAlone(PendingWrite<T> write) {
+        try {
+            write.future.complete(transactionTemplate.execute(status -> write.operation.get()));
+        } catch (RuntimeException e) {
+            write.future.completeExceptionally(e);
+        }
+    }
+
+    private record PendingWrite<T>(Supplier<T> operation, CompletableFuture<T> future) {
+
+        @SuppressWarnings("unchecked")
+        private void complete(Object result) {
+            future.complete((T) result);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.swift.errorcodesystem.sharding;
+
+import com.swift.errorcodesystem.entity.Category;
+import com.swift.errorcodesystem.entity.ErrorCode;
+import com.swift.errorcodesystem.entity.ErrorCodeTranslation;
+import com.swift.errorcodesystem.entity.Module;
+import com.swift.errorcodesystem.entity.Project;
+import com.swift.errorcodesystem.event.CatalogChangeEvent;
+import com.swift.errorcodesystem.repository.CategoryRepository;
+import com.swift.errorcodesystem.repository.ErrorCodeRepository;
+import com.swift.errorcodesystem.repository.ErrorCodeTranslationRepository;
+import com.swift.errorcodesystem.repository.ProjectRepository;
+import com.swift.errorcodesystem.service.ErrorCodeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves a project with its whole subtree, translations included, to another shard: copies it, repoints the
+ * directory, then deletes the original. The copy gets ids from the target shard's range while all codes stay the same, so clients holding
+ * codes are unaffected and clients holding ids have to look them up again. Writes to the project have to be
+ * paused while it moves; a failure before the directory switch leaves the original in place, one after it leaves
+ * an orphaned original that can be deleted by id.
+ */
+@Component
+@Slf4j
+public class ProjectShardMover {
+
+    private final ShardRouter shardRouter;
+    private final ErrorCodeService errorCodeService;
+    private final ProjectRepository projectRepository;
+    private final CategoryRepository categoryRepository;
+    private final ErrorCodeRepository errorCodeRepository;
+    private final ErrorCodeTranslationRepository translationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    public ProjectShardMover(ShardRouter shardRouter, ErrorCodeService errorCodeService,
+                             ProjectRepository projectRepository, CategoryRepository categoryRepository,
+                             ErrorCodeRepository errorCodeRepository,
+                             ErrorCodeTranslationRepository translationRepository,
+                             ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager) {
+        this.shardRouter = shardRouter;
+        this.errorCodeService = errorCodeService;
+        this.projectRepository = projectRepository;
+        this.categoryRepository = categoryRepository;
+        this.errorCodeRepository = errorCodeRepository;
+        this.translationRepository = translationRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public Project moveProject(Long projectId, String targetShard) {
+        if (!shardRouter.isEnabled()) {
+            throw new IllegalArgumentException("Project sharding is not enabled");
+        }
+        shardRouter.requireShard(targetShard);
+        String sourceShard = shardRouter.shardForId(projectId);
+        if (sourceShard.equals(targetShard)) {
+            throw new IllegalArgumentException("Project " + projectId + " is already on shard " + targetShard);
+        }
+
+        SubtreeCopy copy = shardRouter.onShard(sourceShard,
+                () -> transactionTemplate.execute(status -> copyOf(projectId)));
+        Project moved = shardRouter.onShard(targetShard, () -> transactionTemplate.execute(status -> {
+            Project project = copy.project();
+            if (projectRepository.existsByName(project.getName()) || projectRepository.existsByCode(project.getCode())) {
+                throw new IllegalArgumentException("Shard " + targetShard + " already has a project named '"
+                        + project.getName() + "' or with code '" + project.getCode() + "'");
+            }
+            // Cascades down to every category, module and error code of the copy; the translations point at the
+            // persisted error code copies afterwards
+            Project saved = projectRepository.save(project);
+            translationRepository.saveAll(copy.translations());
+            eventPublisher.publishEvent(CatalogChangeEvent.forProject(saved, CatalogChangeEvent.ChangeType.CREATED));
+            return saved;
+        }));
+        shardRouter.assign(moved.getCode(), targetShard);
+        errorCodeService.deleteProject(projectId);
+
+        log.info("Moved project {} from shard {} to shard {} as project {}",
+                moved.getCode(), sourceShard, targetShard, moved.getId());
+        return moved;
+    }
+
+    // Transient copy of the subtree, linked both ways so that saving the project cascades through it
+    private SubtreeCopy copyOf(Long projectId) {
+        Project project = projectRepository.findById(projectId)
+                .orElseThrow(() -> new IllegalArgumentException("Project not found with id: " + projectId));
+        Project projectCopy = Project.builder()
+                .name(project.getName())
+                .description(project.getDescription())
+                .code(project.getCode())
+                .owner(project.getOwner())
+                .status(project.getStatus())
+                .build();
+
+        Map<Long, Module> moduleCopies = new HashMap<>();
+        for (Category category : categoryRepository.findByProjectIdWithModules(projectId)) {
+            Category categoryCopy = Category.builder()
+                    .name(category.getName())
+                    .description(category.getDescription())
+                    .code(category.getCode())
+                    .project(projectCopy)
+                    .build();
+            projectCopy.getCategories().add(categoryCopy);
+            for (Module module : category.getModules()) {
+                Module moduleCopy = Module.builder()
+                        .name(module.getName())
+                        .description(module.getDescription())
+                        .code(module.getCode())
+                        .purpose(module.getPurpose())
+                        .category(categoryCopy)
+                        .build();
+                categoryCopy.getModules().add(moduleCopy);
+                moduleCopies.put(module.getId(), moduleCopy);
+            }
+        }
+        Map<Long, ErrorCode> errorCodeCopies = new HashMap<>();
+        for (ErrorCode errorCode : errorCodeRepository.findByProjectId(projectId)) {
+            Module moduleCopy = moduleCopies.get(errorCode.getModule().getId());
+            ErrorCode errorCodeCopy = ErrorCode.builder()
+                    .code(errorCode.getCode())
+                    .message(errorCode.getMessage())
+                    .description(errorCode.getDescription())
+                    .suggestedAction(errorCode.getSuggestedAction())
+                    .severity(errorCode.getSeverity())
+                    .httpStatus(errorCode.getHttpStatus())
+                    .isRetryable(errorCode.getIsRetryable())
+                    .module(moduleCopy)
+                    .build();
+            moduleCopy.getErrorCodes().add(errorCodeCopy);
+            errorCodeCopies.put(errorCode.getId(), errorCodeCopy);
+        }
+        List<ErrorCodeTranslation> translationCopies = new ArrayList<>();
+        for (ErrorCodeTranslation translation : translationRepository.findByProjectId(projectId)) {
+            translationCopies.add(ErrorCodeTranslation.builder()
+                    .errorCode(errorCodeCopies.get(translation.getErrorCode().getId()))
+                    .locale(translation.getLocale())
+                    .message(translation.getMessage())
+                    .suggestedAction(translation.getSuggestedAction())
+                    .build());
+        }
+        return new SubtreeCopy(projectCopy, translationCopies);
+    }
+
+    // Translations have no collection on their error code to cascade through, so they are saved on their own
+    private record SubtreeCopy(Project project, List<ErrorCodeTranslation> translations) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.swift.errorcodesystem.sharding;
+
+import com.swift.errorcodesystem.config.ShardingProperties;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.IdentityGenerator;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Prepares the extra shards once the persistence unit is up and before any data is written: creates their tables
+ * if configured to, moves their identity columns to the shard's id range, then loads the project directory.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class ShardInitializer implements SmartInitializingSingleton {
+
+    private final ShardRouter shardRouter;
+    private final ShardingProperties properties;
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        List<AbstractEntityPersister> identityTables = new ArrayList<>();
+        sessionFactory.getMappingMetamodel().forEachEntityDescriptor(descriptor -> {
+            if (descriptor instanceof AbstractEntityPersister persister
+                    && persister.getGenerator() instanceof IdentityGenerator) {
+                identityTables.add(persister);
+            }
+        });
+
+        for (String shard : shardRouter.getShards()) {
+            if (ShardingProperties.DEFAULT_SHARD.equals(shard)) {
+                continue;
+            }
+            shardRouter.onShard(shard, () -> {
+                if (properties.isInitializeSchema()) {
+                    sessionFactory.getSchemaManager().exportMappedObjects(true);
+                }
+                identityTables.forEach(persister -> moveIdentityToRange(shard, persister.getTableName(),
+                        persister.getIdentifierColumnNames()[0]));
+                return null;
+            });
+        }
+        shardRouter.loadDirectory();
+    }
+
+    private void moveIdentityToRange(String shard, String table, String idColumn) {
+        long rangeStart = shardRouter.idRangeStart(shard);
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(" + idColumn + ") FROM " + table, Long.class);
+        if (maxId == null || maxId < rangeStart) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN " + idColumn + " RESTART WITH " + rangeStart);
+            log.debug("Identity of {} on shard {} starts at {}", table, shard, rangeStart);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.swift.errorcodesystem.sharding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the parameter of a {@link ShardRouted} method that decides its shard: an entity id, a project or error code,
+ * or a {@link com.swift.errorcodesystem.entity.Project} placed by its code.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ShardKey {
+}
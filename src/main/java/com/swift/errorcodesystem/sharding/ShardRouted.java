@@ -0,0 +1,16 @@
+package com.swift.errorcodesystem.sharding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Routes the public methods of a bean to shards when sharding is enabled. A method with a {@link ShardKey}
+ * parameter runs on that key's shard; a method without one that returns a list, or a
+ * {@link com.swift.errorcodesystem.service.CatalogHierarchy}, runs on every shard and gets the results merged.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ShardRouted {
+}
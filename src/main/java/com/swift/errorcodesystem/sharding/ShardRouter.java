@@ -0,0 +1,238 @@
+package com.swift.errorcodesystem.sharding;
+
+import com.swift.errorcodesystem.config.ShardingProperties;
+import com.swift.errorcodesystem.datasource.ShardContext;
+import com.swift.errorcodesystem.entity.ProjectShardAssignment;
+import com.swift.errorcodesystem.repository.ProjectShardAssignmentRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Decides which shard owns a project, id or code. Projects are placed by {@code Project.code}; every row below a
+ * project lives on the same shard, and each shard allocates ids from its own range, so any entity id tells its
+ * shard without a lookup. With sharding disabled there is one shard and every call runs in place.
+ * <p>
+ * A web request's open session holds on to the first connection it uses, so it is kept for the default shard and
+ * every other shard gets a session of its own for the rest of the request. Entities keep lazy-loading through the
+ * session, and so from the shard, they were read from.
+ */
+@Component
+@Slf4j
+public class ShardRouter {
+
+    // Transaction resource holding the shard a surrounding transaction is pinned to
+    private static final Object BOUND_SHARD = new Object();
+    private static final String REQUEST_SESSION = ShardRouter.class.getName() + ".session.";
+
+    private final ShardingProperties properties;
+    private final ProjectShardAssignmentRepository assignmentRepository;
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+    private final List<String> shards = new ArrayList<>();
+    private final Map<String, String> assignments = new ConcurrentHashMap<>();
+
+    public ShardRouter(ShardingProperties properties, ProjectShardAssignmentRepository assignmentRepository,
+                       ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        this.properties = properties;
+        this.assignmentRepository = assignmentRepository;
+        this.entityManagerFactory = entityManagerFactory;
+        shards.add(ShardingProperties.DEFAULT_SHARD);
+        if (properties.isEnabled()) {
+            shards.addAll(properties.getShards().keySet());
+            properties.getAssignments().forEach((projectCode, shard) -> assignments.put(projectCode, requireShard(shard)));
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public List<String> getShards() {
+        return List.copyOf(shards);
+    }
+
+    public String shardForId(Long id) {
+        if (!isEnabled() || id == null || id < 1) {
+            return ShardingProperties.DEFAULT_SHARD;
+        }
+        long index = (id - 1) / properties.getIdRangeSize();
+        return index < shards.size() ? shards.get((int) index) : ShardingProperties.DEFAULT_SHARD;
+    }
+
+    public String shardForProjectCode(String projectCode) {
+        return assignments.getOrDefault(projectCode, ShardingProperties.DEFAULT_SHARD);
+    }
+
+    /**
+     * Shard of a project code ("01") or of an error code, whose first segment is its project's code ("01-02-03-0001").
+     */
+    public String shardForCode(String code) {
+        int separator = code.indexOf('-');
+        return shardForProjectCode(separator < 0 ? code : code.substring(0, separator));
+    }
+
+    public long idRangeStart(String shard) {
+        return requireIndex(shard) * properties.getIdRangeSize() + 1;
+    }
+
+    public String requireShard(String shard) {
+        requireIndex(shard);
+        return shard;
+    }
+
+    public <T> T onShard(String shard, Supplier<T> call) {
+        if (!isEnabled()) {
+            return call.get();
+        }
+        try (Scope scope = enter(shard)) {
+            return call.get();
+        }
+    }
+
+    /**
+     * Runs the query on every shard, one after the other, and concatenates the results in shard order.
+     */
+    public <T> List<T> fanOut(Supplier<? extends List<T>> query) {
+        if (!isEnabled()) {
+            return query.get();
+        }
+        List<T> merged = new ArrayList<>();
+        for (String shard : shards) {
+            merged.addAll(onShard(shard, query));
+        }
+        return merged;
+    }
+
+    /**
+     * Whether the check holds on any shard, asking them one after the other until one does.
+     */
+    public boolean anyShard(Supplier<Boolean> check) {
+        if (!isEnabled()) {
+            return check.get();
+        }
+        for (String shard : shards) {
+            if (onShard(shard, check)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Points the current thread at {@code shard} until the returned scope is closed.
+     */
+    public Scope enter(String shard) {
+        pinTransaction(shard);
+        String previous = ShardContext.enter(shard);
+        EntityManagerHolder openSession = swapRequestSession(shard);
+        return new Scope(previous, openSession);
+    }
+
+    /**
+     * Points the project at another shard, recorded in the directory on the default shard.
+     */
+    public void assign(String projectCode, String shard) {
+        requireShard(shard);
+        onShard(ShardingProperties.DEFAULT_SHARD, () -> assignmentRepository.save(ProjectShardAssignment.builder()
+                .projectCode(projectCode)
+                .shard(shard)
+                .assignedAt(LocalDateTime.now())
+                .build()));
+        assignments.put(projectCode, shard);
+        log.info("Project {} assigned to shard {}", projectCode, shard);
+    }
+
+    /**
+     * Applies the moves recorded in the directory on top of the configured assignments.
+     */
+    void loadDirectory() {
+        List<ProjectShardAssignment> moved = onShard(ShardingProperties.DEFAULT_SHARD, assignmentRepository::findAll);
+        moved.forEach(assignment -> assignments.put(assignment.getProjectCode(), requireShard(assignment.getShard())));
+        log.info("Sharding across {} with {} project assignment(s)", shards, assignments.size());
+    }
+
+    // A transaction holds one connection, so every routed call within it has to target the same shard
+    private static void pinTransaction(String shard) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+        Object pinned = TransactionSynchronizationManager.getResource(BOUND_SHARD);
+        if (pinned == null) {
+            TransactionSynchronizationManager.bindResource(BOUND_SHARD, shard);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(BOUND_SHARD);
+                }
+            });
+        } else if (!pinned.equals(shard)) {
+            throw new IllegalStateException("Transaction is bound to shard '" + pinned
+                    + "' and cannot also use shard '" + shard + "'");
+        }
+    }
+
+    // Binds the request's session for a non-default shard in place of the open one, returning the open one
+    private EntityManagerHolder swapRequestSession(String shard) {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request == null || ShardingProperties.DEFAULT_SHARD.equals(shard)
+                || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return null;
+        }
+        EntityManagerFactory factory = entityManagerFactory.getObject();
+        if (!(TransactionSynchronizationManager.getResource(factory) instanceof EntityManagerHolder openSession)) {
+            return null;
+        }
+        String attribute = REQUEST_SESSION + shard;
+        EntityManagerHolder shardSession = (EntityManagerHolder) request.getAttribute(attribute, RequestAttributes.SCOPE_REQUEST);
+        if (shardSession == null) {
+            shardSession = new EntityManagerHolder(factory.createEntityManager());
+            request.setAttribute(attribute, shardSession, RequestAttributes.SCOPE_REQUEST);
+            request.registerDestructionCallback(attribute, shardSession.getEntityManager()::close,
+                    RequestAttributes.SCOPE_REQUEST);
+        }
+        TransactionSynchronizationManager.unbindResource(factory);
+        TransactionSynchronizationManager.bindResource(factory, shardSession);
+        return openSession;
+    }
+
+    private long requireIndex(String shard) {
+        int index = shards.indexOf(shard);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown shard: " + shard);
+        }
+        return index;
+    }
+
+    public final class Scope implements AutoCloseable {
+        private final String previousShard;
+        private final EntityManagerHolder openSession;
+
+        private Scope(String previousShard, EntityManagerHolder openSession) {
+            this.previousShard = previousShard;
+            this.openSession = openSession;
+        }
+
+        @Override
+        public void close() {
+            if (openSession != null) {
+                EntityManagerFactory factory = entityManagerFactory.getObject();
+                TransactionSynchronizationManager.unbindResource(factory);
+                TransactionSynchronizationManager.bindResource(factory, openSession);
+            }
+            ShardContext.restore(previousShard);
+        }
+    }
+}
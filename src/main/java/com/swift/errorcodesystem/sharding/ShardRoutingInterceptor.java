@@ -0,0 +1,97 @@
+package com.swift.errorcodesystem.sharding;
+
+import com.swift.errorcodesystem.entity.Project;
+import com.swift.errorcodesystem.service.CatalogHierarchy;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Advice behind {@link ShardRouted}. Sits inside the cache advice, so merged fan-out results are cached once, and
+ * outside the transaction advice, so every shard call gets its own transaction on its own connection.
+ */
+public class ShardRoutingInterceptor implements MethodInterceptor {
+
+    private static final int NO_KEY = -1;
+
+    private final ObjectProvider<ShardRouter> shardRouterProvider;
+    private final Map<Method, Integer> keyIndexes = new ConcurrentHashMap<>();
+
+    public ShardRoutingInterceptor(ObjectProvider<ShardRouter> shardRouterProvider) {
+        this.shardRouterProvider = shardRouterProvider;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        ShardRouter shardRouter = shardRouterProvider.getObject();
+        int keyIndex = keyIndexes.computeIfAbsent(invocation.getMethod(), ShardRoutingInterceptor::keyIndex);
+        if (keyIndex != NO_KEY) {
+            return proceedOn(shardRouter, shardFor(shardRouter, invocation.getArguments()[keyIndex]), invocation);
+        }
+        if (!isMergeable(invocation.getMethod().getReturnType())) {
+            return invocation.proceed();
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Cannot fan out " + invocation.getMethod().getName()
+                    + " across shards inside a transaction");
+        }
+        List<Object> results = new ArrayList<>();
+        for (String shard : shardRouter.getShards()) {
+            results.add(proceedOn(shardRouter, shard, ((ProxyMethodInvocation) invocation).invocableClone()));
+        }
+        return merge(results);
+    }
+
+    private static Object proceedOn(ShardRouter shardRouter, String shard, MethodInvocation invocation)
+            throws Throwable {
+        try (ShardRouter.Scope scope = shardRouter.enter(shard)) {
+            return invocation.proceed();
+        }
+    }
+
+    private static String shardFor(ShardRouter shardRouter, Object key) {
+        if (key instanceof Long id) {
+            return shardRouter.shardForId(id);
+        }
+        if (key instanceof String code) {
+            return shardRouter.shardForCode(code);
+        }
+        if (key instanceof Project project) {
+            return shardRouter.shardForProjectCode(project.getCode());
+        }
+        throw new IllegalArgumentException("Unsupported shard key: " + key);
+    }
+
+    private static int keyIndex(Method method) {
+        Parameter[] parameters = method.getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i].isAnnotationPresent(ShardKey.class)) {
+                return i;
+            }
+        }
+        return NO_KEY;
+    }
+
+    private static boolean isMergeable(Class<?> type) {
+        return List.class.isAssignableFrom(type) || CatalogHierarchy.class.equals(type);
+    }
+
+    private static Object merge(List<Object> results) {
+        if (results.get(0) instanceof CatalogHierarchy) {
+            return results.stream().map(CatalogHierarchy.class::cast).reduce(CatalogHierarchy::merge).orElseThrow();
+        }
+        List<Object> merged = new ArrayList<>();
+        results.forEach(result -> merged.addAll((Collection<?>) result));
+        return merged;
+    }
+}
@@ -0,0 +1,82 @@
+package com.swift.errorcodesystem.template;
+
+import com.swift.errorcodesystem.entity.ErrorCode;
+import com.swift.errorcodesystem.entity.ErrorCodeTranslation;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The compiled texts of one error code: its own message and suggested action plus those of every translation,
+ * compiled once when loaded and looked up by language tag when rendering.
+ */
+public final class ErrorCodeTemplates {
+
+    private final Long errorCodeId;
+    private final Long moduleId;
+    private final Integer httpStatusCode;
+    private final Variant base;
+    private final Map<String, Variant> translations;
+
+    private ErrorCodeTemplates(Long errorCodeId, Long moduleId, Integer httpStatusCode, Variant base,
+                               Map<String, Variant> translations) {
+        this.errorCodeId = errorCodeId;
+        this.moduleId = moduleId;
+        this.httpStatusCode = httpStatusCode;
+        this.base = base;
+        this.translations = translations;
+    }
+
+    public static ErrorCodeTemplates compile(ErrorCode errorCode, List<ErrorCodeTranslation> translations) {
+        Map<String, Variant> variants = new HashMap<>(translations.size() * 2);
+        translations.forEach(translation -> variants.put(translation.getLocale(),
+                Variant.compile(translation.getLocale(), translation.getMessage(), translation.getSuggestedAction())));
+        // The module is only read for its id, which its proxy has without being loaded
+        return new ErrorCodeTemplates(errorCode.getId(), errorCode.getModule().getId(), errorCode.getHttpStatusCode(),
+                Variant.compile(null, errorCode.getMessage(), errorCode.getSuggestedAction()), variants);
+    }
+
+    public Long getErrorCodeId() {
+        return errorCodeId;
+    }
+
+    public Long getModuleId() {
+        return moduleId;
+    }
+
+    public Integer getHttpStatusCode() {
+        return httpStatusCode;
+    }
+
+    /**
+     * The first translation along the fallback chains of the preferred locales, in order, or the error code's own
+     * texts when none has one.
+     */
+    public Variant resolve(List<Locale> preferred) {
+        if (!translations.isEmpty()) {
+            for (Locale locale : preferred) {
+                for (String tag : LocaleFallback.chain(locale)) {
+                    Variant variant = translations.get(tag);
+                    if (variant != null) {
+                        return variant;
+                    }
+                }
+            }
+        }
+        return base;
+    }
+
+    /**
+     * @param locale          language tag of the translation, null for the error code's own texts
+     * @param suggestedAction null when the texts have no suggested action
+     */
+    public record Variant(String locale, MessageTemplate message, MessageTemplate suggestedAction) {
+
+        static Variant compile(String locale, String message, String suggestedAction) {
+            return new Variant(locale, MessageTemplate.compile(message),
+                    suggestedAction != null ? MessageTemplate.compile(suggestedAction) : null);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.swift.errorcodesystem.template;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.ArrayList;
+import java.util.IllformedLocaleException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Language tags of translations and the order they are tried in for a requested locale. Clients send few distinct
+ * headers and locales, so parsed headers and fallback chains are memoized, in caches bounded against clients that
+ * send a new header with every request.
+ */
+public final class LocaleFallback {
+
+    // Further Accept-Language entries are ignored
+    private static final int MAX_PREFERRED_LOCALES = 8;
+    private static final long MAX_MEMOIZED = 1_000;
+
+    private static final Cache<String, List<Locale>> ACCEPT_LANGUAGES = Caffeine.newBuilder()
+            .maximumSize(MAX_MEMOIZED)
+            .build();
+    private static final Cache<Locale, List<String>> CHAINS = Caffeine.newBuilder()
+            .maximumSize(MAX_MEMOIZED)
+            .build();
+
+    private LocaleFallback() {
+    }
+
+    /**
+     * Canonical BCP 47 form of a tag ("de-ch" becomes "de-CH").
+     *
+     * @throws IllegalArgumentException when the tag is not well-formed or names no language
+     */
+    public static String canonicalTag(String tag) {
+        if (tag == null || tag.isBlank()) {
+            throw new IllegalArgumentException("Locale is required");
+        }
+        try {
+            Locale locale = new Locale.Builder().setLanguageTag(tag.replace('_', '-')).build();
+            if (locale.getLanguage().isEmpty()) {
+                throw new IllegalArgumentException("Locale must name a language: " + tag);
+            }
+            return locale.toLanguageTag();
+        } catch (IllformedLocaleException e) {
+            throw new IllegalArgumentException("Invalid locale: " + tag);
+        }
+    }
+
+    /**
+     * Locales of an Accept-Language header by descending weight, leaving out the wildcard; none for a missing header.
+     *
+     * @throws IllegalArgumentException when the header cannot be parsed
+     */
+    public static List<Locale> parseAcceptLanguage(String acceptLanguage) {
+        if (acceptLanguage == null || acceptLanguage.isBlank()) {
+            return List.of();
+        }
+        // A header that fails to parse is not cached and fails again on every request
+        return ACCEPT_LANGUAGES.get(acceptLanguage, LocaleFallback::parse);
+    }
+
+    private static List<Locale> parse(String acceptLanguage) {
+        return Locale.LanguageRange.parse(acceptLanguage).stream()
+                .map(Locale.LanguageRange::getRange)
+                .filter(range -> !range.equals("*"))
+                .limit(MAX_PREFERRED_LOCALES)
+                .map(Locale::forLanguageTag)
+                .toList();
+    }
+
+    /**
+     * Tags to try for {@code locale}, most specific first, dropping extensions, variant, region and script in turn:
+     * "zh-Hant-TW" gives "zh-Hant-TW", "zh-Hant", "zh". The error code's own texts come after the last of them.
+     */
+    public static List<String> chain(Locale locale) {
+        if (locale == null || locale.getLanguage().isEmpty()) {
+            return List.of();
+        }
+        return CHAINS.get(locale, LocaleFallback::buildChain);
+    }
+
+    private static List<String> buildChain(Locale locale) {
+        List<String> chain = new ArrayList<>(4);
+        try {
+            Locale.Builder builder = new Locale.Builder().setLocale(locale).clearExtensions();
+            add(chain, builder.build());
+            add(chain, builder.setVariant("").build());
+            add(chain, builder.setRegion("").build());
+            add(chain, builder.setScript("").build());
+        } catch (IllformedLocaleException e) {
+            // Legacy locales such as ja_JP_JP have no well-formed tag; their language still does
+            add(chain, new Locale(locale.getLanguage()));
+        }
+        return List.copyOf(chain);
+    }
+
+    private static void add(List<String> chain, Locale locale) {
+        String tag = locale.toLanguageTag();
+        if (chain.isEmpty() || !chain.get(chain.size() - 1).equals(tag)) {
+            chain.add(tag);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.swift.errorcodesystem.template;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An error code message or suggested action compiled into its literal text and named parameters, so rendering is a
+ * single pass appending segments into one right-sized buffer. A parameter is written {@code {name}}, with a name of
+ * letters, digits, {@code _}, {@code .} or {@code -}; {@code {{} and {@code }}} stand for literal braces. Braces that
+ * do not form a parameter stay as they are, so plain texts compile to a single literal and render to themselves.
+ * Texts written before templates existed are read the same way: a doubled brace in them renders as a single one, and
+ * a {@code {name}} is filled in when an argument of that name is given.
+ */
+public final class MessageTemplate {
+
+    private static final MessageTemplate EMPTY = new MessageTemplate("", new String[]{""}, new String[0]);
+    // Room reserved per argument when sizing the render buffer
+    private static final int ARGUMENT_LENGTH_HINT = 16;
+
+    private final String source;
+    // One more literal than parameters: literal, parameter, literal, ..., literal
+    private final String[] literals;
+    private final String[] parameters;
+    private final int literalLength;
+
+    private MessageTemplate(String source, String[] literals, String[] parameters) {
+        this.source = source;
+        this.literals = literals;
+        this.parameters = parameters;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    public static MessageTemplate compile(String source) {
+        if (source == null || source.isEmpty()) {
+            return EMPTY;
+        }
+        List<String> literals = new ArrayList<>();
+        List<String> parameters = new ArrayList<>();
+        StringBuilder literal = new StringBuilder(source.length());
+        int i = 0;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if ((c == '{' || c == '}') && i + 1 < source.length() && source.charAt(i + 1) == c) {
+                literal.append(c);
+                i += 2;
+                continue;
+            }
+            int end = c == '{' ? parameterEnd(source, i + 1) : -1;
+            if (end < 0) {
+                literal.append(c);
+                i++;
+                continue;
+            }
+            literals.add(literal.toString());
+            literal.setLength(0);
+            parameters.add(source.substring(i + 1, end));
+            i = end + 1;
+        }
+        // Plain texts keep the source itself as their only literal, so rendering them allocates nothing
+        literals.add(parameters.isEmpty() && literal.length() == source.length() ? source : literal.toString());
+        return new MessageTemplate(source, literals.toArray(String[]::new), parameters.toArray(String[]::new));
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Parameter names in order of first appearance.
+     */
+    public Set<String> getParameters() {
+        return new LinkedHashSet<>(Arrays.asList(parameters));
+    }
+
+    public boolean hasParameters() {
+        return parameters.length > 0;
+    }
+
+    /**
+     * Fills in the parameters from {@code arguments}. A parameter without an argument is left as written.
+     */
+    public String render(Map<String, ?> arguments) {
+        if (parameters.length == 0) {
+            return literals[0];
+        }
+        StringBuilder rendered = new StringBuilder(literalLength + parameters.length * ARGUMENT_LENGTH_HINT);
+        renderTo(rendered, arguments);
+        return rendered.toString();
+    }
+
+    public void renderTo(StringBuilder target, Map<String, ?> arguments) {
+        target.append(literals[0]);
+        for (int i = 0; i < parameters.length; i++) {
+            Object argument = arguments != null ? arguments.get(parameters[i]) : null;
+            if (argument != null) {
+                target.append(argument);
+            } else {
+                target.append('{').append(parameters[i]).append('}');
+            }
+            target.append(literals[i + 1]);
+        }
+    }
+
+    /**
+     * Parameters of this template that {@code arguments} has no value for.
+     */
+    public Set<String> missingArguments(Map<String, ?> arguments) {
+        if (parameters.length == 0) {
+            return Set.of();
+        }
+        Set<String> missing = new LinkedHashSet<>();
+        for (String parameter : parameters) {
+            if (arguments == null || arguments.get(parameter) == null) {
+                missing.add(parameter);
+            }
+        }
+        return missing;
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    // Index of the '}' closing a parameter name starting at start, or -1 when there is none
+    private static int parameterEnd(String source, int start) {
+        int i = start;
+        while (i < source.length() && isNameChar(source.charAt(i))) {
+            i++;
+        }
+        return i > start && i < source.length() && source.charAt(i) == '}' ? i : -1;
+    }
+
+    private static boolean isNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '.' || c == '-';
+    }
+}
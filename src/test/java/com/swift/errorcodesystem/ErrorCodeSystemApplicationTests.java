@@ -2,8 +2,10 @@ package com.swift.errorcodesystem;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
 
 @SpringBootTest
+@DirtiesContext
 class ErrorCodeSystemApplicationTests {
 
     @Test
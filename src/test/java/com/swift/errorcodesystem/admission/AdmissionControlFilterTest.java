@@ -0,0 +1,144 @@
+package com.swift.errorcodesystem.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.swift.errorcodesystem.catalog.ErrorCodeCatalog;
+import com.swift.errorcodesystem.config.AdmissionControlProperties;
+import com.swift.errorcodesystem.dto.ErrorCodeDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdmissionControlFilterTest {
+
+    @Mock
+    private ErrorCodeCatalog errorCodeCatalog;
+
+    private AdmissionControlProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private AdmissionControlFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AdmissionControlProperties();
+        properties.getHeavy().setInitialLimit(1);
+        properties.getHeavy().setMaxQueue(0);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new AdmissionControlFilter(properties, errorCodeCatalog,
+                new ObjectMapper().registerModule(new JavaTimeModule()), meterRegistry);
+    }
+
+    @Test
+    void classify_SeparatesLookupsHeavyReadsAndWrites() {
+        assertEquals(EndpointClass.LOOKUP, filter.classify(request("GET", "/api/v1/error-codes/error-codes/code/01-01-01-0001")));
+        assertEquals(EndpointClass.LOOKUP, filter.classify(request("POST", "/api/v1/error-codes/error-codes/batch")));
+        assertEquals(EndpointClass.HEAVY, filter.classify(request("POST", "/api/v1/error-codes/search")));
+        assertEquals(EndpointClass.HEAVY, filter.classify(request("GET", "/api/v1/error-codes/statistics/count-by-project")));
+        assertEquals(EndpointClass.WRITE, filter.classify(request("PUT", "/api/v1/error-codes/error-codes/1")));
+    }
+
+    @Test
+    void classify_ProjectsWithCategoriesIsHeavy() {
+        MockHttpServletRequest withCategories = request("GET", "/api/v1/error-codes/projects");
+        withCategories.setParameter("withCategories", "true");
+
+        assertEquals(EndpointClass.HEAVY, filter.classify(withCategories));
+        assertEquals(EndpointClass.LOOKUP, filter.classify(request("GET", "/api/v1/error-codes/projects")));
+    }
+
+    @Test
+    void doFilter_HeavyLimitReached_ShedsWithCatalogMessageButAdmitsLookups() throws Exception {
+        properties.setTooManyRequestsCode("01-01-01-0009");
+        when(errorCodeCatalog.isLoaded()).thenReturn(true);
+        when(errorCodeCatalog.findByCode("01-01-01-0009")).thenReturn(Optional.of(ErrorCodeDto.ErrorCodeResponse.builder()
+                .code("01-01-01-0009").message("Rate limit exceeded").build()));
+        MockHttpServletResponse shed = new MockHttpServletResponse();
+        MockHttpServletResponse lookup = new MockHttpServletResponse();
+
+        // The second heavy request and the lookup arrive while the first heavy request holds the only slot
+        filter.doFilter(request("POST", "/api/v1/error-codes/search"), new MockHttpServletResponse(),
+                new MockFilterChain() {
+                    @Override
+                    public void doFilter(ServletRequest request, ServletResponse response)
+                            throws IOException, ServletException {
+                        filter.doFilter(request("POST", "/api/v1/error-codes/search"), shed, new MockFilterChain());
+                        filter.doFilter(request("GET", "/api/v1/error-codes/error-codes/1"), lookup, new MockFilterChain());
+                    }
+                });
+
+        assertEquals(429, shed.getStatus());
+        assertEquals("1", shed.getHeader("Retry-After"));
+        assertTrue(shed.getContentAsString().contains("Rate limit exceeded"));
+        assertTrue(shed.getContentAsString().contains("\"endpointClass\":\"heavy\""));
+        assertEquals(200, lookup.getStatus());
+        assertEquals(1.0, meterRegistry.get("errorcode.admission.shed")
+                .tag("class", "heavy").tag("reason", "queue-full").counter().count());
+    }
+
+    @Test
+    void limiter_ShrinksOnSlowRequestsAndGrowsWhenSaturated() {
+        AdmissionControlProperties.Limit settings = new AdmissionControlProperties.Limit();
+        settings.setInitialLimit(10);
+        settings.setMinLimit(2);
+        settings.setMaxLimit(20);
+        settings.setMaxQueue(1);
+        settings.setMaxWait(Duration.ZERO);
+        settings.setLatencyTarget(Duration.ofMillis(100));
+        AdaptiveLimiter limiter = new AdaptiveLimiter(settings);
+
+        assertTrue(limiter.acquire().isAdmitted());
+        limiter.release(Duration.ofSeconds(1).toNanos(), false);
+        assertEquals(9.0, limiter.getLimit(), 1e-9);
+
+        for (int i = 0; i < 9; i++) {
+            assertTrue(limiter.acquire().isAdmitted());
+        }
+        assertEquals(AdaptiveLimiter.Outcome.TIMED_OUT, limiter.acquire());
+        limiter.release(Duration.ofMillis(1).toNanos(), false);
+        assertTrue(limiter.getLimit() > 9.0);
+    }
+
+    @Test
+    void limiter_ShrinksOncePerMeasurementWindow() {
+        AdmissionControlProperties.Limit settings = new AdmissionControlProperties.Limit();
+        settings.setInitialLimit(10);
+        settings.setMinLimit(2);
+        settings.setMaxLimit(20);
+        settings.setMaxQueue(1);
+        settings.setMaxWait(Duration.ZERO);
+        settings.setLatencyTarget(Duration.ofMillis(100));
+        settings.setMeasurementWindow(Duration.ofHours(1));
+        AdaptiveLimiter limiter = new AdaptiveLimiter(settings);
+
+        // Requests that were in flight together all see the same slowdown
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.acquire().isAdmitted());
+        }
+        for (int i = 0; i < 5; i++) {
+            limiter.release(Duration.ofSeconds(1).toNanos(), false);
+        }
+
+        assertEquals(9.0, limiter.getLimit(), 1e-9);
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        return new MockHttpServletRequest(method, path);
+    }
+}
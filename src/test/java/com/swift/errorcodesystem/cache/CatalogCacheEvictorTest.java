@@ -0,0 +1,105 @@
+package com.swift.errorcodesystem.cache;
+
+import com.swift.errorcodesystem.config.CacheConfig;
+import com.swift.errorcodesystem.entity.Category;
+import com.swift.errorcodesystem.entity.ErrorCode;
+import com.swift.errorcodesystem.entity.Module;
+import com.swift.errorcodesystem.entity.Project;
+import com.swift.errorcodesystem.event.CatalogChangeEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogCacheEvictorTest {
+
+    private CaffeineCacheManager cacheManager;
+    private CatalogCacheEvictor catalogCacheEvictor;
+
+    private Project project;
+    private Project otherProject;
+    private ErrorCode errorCode;
+    private ErrorCode otherErrorCode;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new CaffeineCacheManager(CacheConfig.PROJECTS, CacheConfig.CATEGORIES_BY_PROJECT,
+                CacheConfig.MODULES_BY_CATEGORY, CacheConfig.ERROR_CODES_BY_MODULE, CacheConfig.ERROR_CODES_BY_PROJECT);
+        catalogCacheEvictor = new CatalogCacheEvictor(cacheManager);
+
+        project = Project.builder().id(1L).code("01").build();
+        otherProject = Project.builder().id(2L).code("02").build();
+        errorCode = errorCode(1L, module(1L, category(1L, project)));
+        otherErrorCode = errorCode(2L, module(2L, category(2L, otherProject)));
+
+        cache(CacheConfig.PROJECTS).put(CacheConfig.ALL_PROJECTS_KEY, List.of(project, otherProject));
+        cache(CacheConfig.ERROR_CODES_BY_MODULE).put(1L, List.of(errorCode));
+        cache(CacheConfig.ERROR_CODES_BY_MODULE).put(2L, List.of(otherErrorCode));
+        cache(CacheConfig.ERROR_CODES_BY_PROJECT).put(1L, List.of(errorCode));
+        cache(CacheConfig.ERROR_CODES_BY_PROJECT).put(2L, List.of(otherErrorCode));
+    }
+
+    @Test
+    void onCatalogChange_ErrorCodeCreated_EvictsOnlyItsModuleAndProject() {
+        catalogCacheEvictor.onCatalogChange(CatalogChangeEvent.forErrorCode(errorCode, CatalogChangeEvent.ChangeType.CREATED));
+
+        assertNull(cache(CacheConfig.ERROR_CODES_BY_MODULE).get(1L));
+        assertNull(cache(CacheConfig.ERROR_CODES_BY_PROJECT).get(1L));
+        assertNotNull(cache(CacheConfig.ERROR_CODES_BY_MODULE).get(2L));
+        assertNotNull(cache(CacheConfig.ERROR_CODES_BY_PROJECT).get(2L));
+        assertNotNull(cache(CacheConfig.PROJECTS).get(CacheConfig.ALL_PROJECTS_KEY));
+    }
+
+    @Test
+    void onCatalogChange_ProjectUpdated_EvictsModuleEntriesOfThatProject() {
+        catalogCacheEvictor.onCatalogChange(CatalogChangeEvent.forProject(1L, CatalogChangeEvent.ChangeType.UPDATED));
+
+        assertNull(cache(CacheConfig.PROJECTS).get(CacheConfig.ALL_PROJECTS_KEY));
+        assertNull(cache(CacheConfig.ERROR_CODES_BY_MODULE).get(1L));
+        assertNull(cache(CacheConfig.ERROR_CODES_BY_PROJECT).get(1L));
+        assertNotNull(cache(CacheConfig.ERROR_CODES_BY_MODULE).get(2L));
+        assertNotNull(cache(CacheConfig.ERROR_CODES_BY_PROJECT).get(2L));
+    }
+
+    @Test
+    void onCatalogChange_CategoryUpdated_EvictsEmptyModuleLists() {
+        // Cached before the first error code of module 3 existed, so nothing tells which subtree it belongs to
+        cache(CacheConfig.ERROR_CODES_BY_MODULE).put(3L, List.of());
+
+        catalogCacheEvictor.onCatalogChange(CatalogChangeEvent.forCategory(
+                errorCode.getModule().getCategory(), CatalogChangeEvent.ChangeType.UPDATED));
+
+        assertNull(cache(CacheConfig.ERROR_CODES_BY_MODULE).get(3L));
+        assertNull(cache(CacheConfig.ERROR_CODES_BY_MODULE).get(1L));
+        assertNotNull(cache(CacheConfig.ERROR_CODES_BY_MODULE).get(2L));
+    }
+
+    @Test
+    void onCatalogChange_ProjectCreated_EvictsOnlyProjectList() {
+        catalogCacheEvictor.onCatalogChange(CatalogChangeEvent.forProject(3L, CatalogChangeEvent.ChangeType.CREATED));
+
+        assertNull(cache(CacheConfig.PROJECTS).get(CacheConfig.ALL_PROJECTS_KEY));
+        assertNotNull(cache(CacheConfig.ERROR_CODES_BY_MODULE).get(1L));
+        assertNotNull(cache(CacheConfig.ERROR_CODES_BY_MODULE).get(2L));
+    }
+
+    private Cache cache(String name) {
+        return cacheManager.getCache(name);
+    }
+
+    private Category category(Long id, Project project) {
+        return Category.builder().id(id).code("01").project(project).build();
+    }
+
+    private Module module(Long id, Category category) {
+        return Module.builder().id(id).code("01").category(category).build();
+    }
+
+    private ErrorCode errorCode(Long id, Module module) {
+        return ErrorCode.builder().id(id).code(module.getCategory().getProject().getCode() + "-01-01-0001").module(module).build();
+    }
+}
@@ -0,0 +1,123 @@
+package com.swift.errorcodesystem.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.swift.errorcodesystem.dto.ErrorCodeDto;
+import com.swift.errorcodesystem.entity.Category;
+import com.swift.errorcodesystem.entity.ErrorCode;
+import com.swift.errorcodesystem.entity.Module;
+import com.swift.errorcodesystem.entity.Project;
+import com.swift.errorcodesystem.event.CatalogChangeEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+class ErrorCodeJsonCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private ErrorCodeJsonCache errorCodeJsonCache;
+    private Project project;
+    private ErrorCode errorCode;
+
+    @BeforeEach
+    void setUp() {
+        errorCodeJsonCache = new ErrorCodeJsonCache(objectMapper);
+        project = Project.builder().id(1L).name("Test Project").code("01").build();
+        Category category = Category.builder().id(1L).name("Test Category").code("01").project(project).build();
+        Module module = Module.builder().id(1L).name("Test Module").code("01").category(category).build();
+        errorCode = ErrorCode.builder()
+                .id(1L)
+                .code("01-01-01-0001")
+                .message("Test error message")
+                .severity(ErrorCode.ErrorSeverity.MEDIUM)
+                .httpStatus(ErrorCode.HttpStatus.BAD_REQUEST)
+                .isRetryable(false)
+                .module(module)
+                .version(1L)
+                .build();
+    }
+
+    @Test
+    void toJson_SameVersion_ReturnsCachedBytes() {
+        byte[] first = errorCodeJsonCache.toJson(errorCode);
+        errorCode.setMessage("Changed without a new version");
+
+        assertSame(first, errorCodeJsonCache.toJson(errorCode));
+    }
+
+    @Test
+    void toJson_NewVersion_Reserializes() throws Exception {
+        errorCodeJsonCache.toJson(errorCode);
+        errorCode.setMessage("Updated message");
+        errorCode.setVersion(2L);
+
+        JsonNode json = objectMapper.readTree(errorCodeJsonCache.toJson(errorCode));
+
+        assertEquals("Updated message", json.get("message").asText());
+        assertEquals(2L, json.get("version").asLong());
+    }
+
+    @Test
+    void onCatalogChange_ProjectRenamed_DropsEntriesBelowIt() throws Exception {
+        errorCodeJsonCache.toJson(errorCode);
+        project.setName("Renamed Project");
+
+        errorCodeJsonCache.onCatalogChange(CatalogChangeEvent.forProject(1L, CatalogChangeEvent.ChangeType.UPDATED));
+
+        JsonNode json = objectMapper.readTree(errorCodeJsonCache.toJson(errorCode));
+        assertEquals("Renamed Project", json.get("projectName").asText());
+    }
+
+    @Test
+    void toJson_RenameDuringMiss_DoesNotCacheOldName() throws Exception {
+        // The miss maps an entity read before the rename, which commits while it is being mapped
+        Category category = errorCode.getModule().getCategory();
+        Project readBeforeRename = spy(project);
+        doAnswer(invocation -> {
+            errorCodeJsonCache.onCatalogChange(CatalogChangeEvent.forProject(1L, CatalogChangeEvent.ChangeType.UPDATED));
+            return "Test Project";
+        }).when(readBeforeRename).getName();
+        category.setProject(readBeforeRename);
+
+        assertEquals("Test Project", objectMapper.readTree(errorCodeJsonCache.toJson(errorCode)).get("projectName").asText());
+
+        project.setName("Renamed Project");
+        category.setProject(project);
+        JsonNode json = objectMapper.readTree(errorCodeJsonCache.toJson(errorCode));
+        assertEquals("Renamed Project", json.get("projectName").asText());
+    }
+
+    @Test
+    void writeWithField_AppendsFieldWithoutCachingIt() throws Exception {
+        byte[] cached = errorCodeJsonCache.toJson(errorCode);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        errorCodeJsonCache.writeWithField(errorCode, "distinctCallers",
+                ErrorCodeDto.DistinctCallers.builder().estimate(42).hours(24).build(), outputStream);
+
+        JsonNode json = objectMapper.readTree(outputStream.toByteArray());
+        assertEquals("01-01-01-0001", json.get("code").asText());
+        assertEquals(42, json.get("distinctCallers").get("estimate").asLong());
+        assertSame(cached, errorCodeJsonCache.toJson(errorCode));
+        assertNull(objectMapper.readTree(cached).get("distinctCallers"));
+    }
+
+    @Test
+    void writeArray_JoinsFragmentsIntoJsonArray() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        errorCodeJsonCache.writeArray(List.of(errorCode, errorCode), outputStream);
+
+        JsonNode json = objectMapper.readTree(outputStream.toByteArray());
+        assertEquals(2, json.size());
+        assertEquals("01-01-01-0001", json.get(1).get("code").asText());
+    }
+}
@@ -0,0 +1,273 @@
+package com.swift.errorcodesystem.catalog;
+
+import com.swift.errorcodesystem.dto.ErrorCodeDto;
+import com.swift.errorcodesystem.config.ShardingProperties;
+import com.swift.errorcodesystem.entity.Category;
+import com.swift.errorcodesystem.entity.ErrorCode;
+import com.swift.errorcodesystem.entity.Module;
+import com.swift.errorcodesystem.entity.Project;
+import com.swift.errorcodesystem.event.CatalogChangeEvent;
+import com.swift.errorcodesystem.repository.ErrorCodeRepository;
+import com.swift.errorcodesystem.repository.ModuleRepository;
+import com.swift.errorcodesystem.sharding.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ErrorCodeCatalogTest {
+
+    @Mock
+    private ErrorCodeRepository errorCodeRepository;
+
+    @Mock
+    private ModuleRepository moduleRepository;
+
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(new ShardingProperties(), null, null);
+
+    @InjectMocks
+    private ErrorCodeCatalog errorCodeCatalog;
+
+    private Module testModule;
+    private ErrorCode testErrorCode;
+
+    @BeforeEach
+    void setUp() {
+        Project project = Project.builder().id(1L).name("Test Project").code("01").build();
+        Category category = Category.builder().id(1L).name("Test Category").code("02").project(project).build();
+        testModule = Module.builder().id(1L).name("Test Module").code("03").category(category).build();
+        testErrorCode = errorCode(1L, "01-02-03-0001", "Payment gateway timeout");
+    }
+
+    @Test
+    void findByCode_LoadsCatalogOnce() {
+        when(moduleRepository.findAllWithHierarchy()).thenReturn(List.of(testModule));
+        when(errorCodeRepository.findAllWithHierarchy()).thenReturn(List.of(testErrorCode));
+
+        assertTrue(errorCodeCatalog.findByCode("01-02-03-0001").isPresent());
+        assertFalse(errorCodeCatalog.findByCode("01-02-03-0002").isPresent());
+
+        verify(errorCodeRepository, times(1)).findAllWithHierarchy();
+    }
+
+    @Test
+    void getErrorCodesByModuleId_ReturnsCodesInOrder() {
+        when(moduleRepository.findAllWithHierarchy()).thenReturn(List.of(testModule));
+        when(errorCodeRepository.findAllWithHierarchy()).thenReturn(List.of(
+                errorCode(2L, "01-02-03-0002", "Second"), testErrorCode));
+
+        List<String> codes = errorCodeCatalog.getErrorCodesByModuleId(1L).stream()
+                .map(ErrorCodeDto.ErrorCodeResponse::getCode)
+                .toList();
+
+        assertEquals(List.of("01-02-03-0001", "01-02-03-0002"), codes);
+    }
+
+    @Test
+    void onCatalogChange_ErrorCodeUpdate_PatchesLoadedCatalog() {
+        when(moduleRepository.findAllWithHierarchy()).thenReturn(List.of(testModule));
+        when(errorCodeRepository.findAllWithHierarchy()).thenReturn(List.of(testErrorCode));
+        errorCodeCatalog.findByCode("01-02-03-0001");
+
+        ErrorCode updated = errorCode(1L, "01-02-03-0001", "Updated message");
+        when(errorCodeRepository.findByIdWithHierarchy(1L)).thenReturn(Optional.of(updated));
+        errorCodeCatalog.onCatalogChange(CatalogChangeEvent.forErrorCode(updated, CatalogChangeEvent.ChangeType.UPDATED));
+
+        assertEquals("Updated message", errorCodeCatalog.findByCode("01-02-03-0001").orElseThrow().getMessage());
+        verify(errorCodeRepository, times(1)).findAllWithHierarchy();
+    }
+
+    @Test
+    void onCatalogChange_HierarchyChange_ReloadsOnNextRead() {
+        when(moduleRepository.findAllWithHierarchy()).thenReturn(List.of(testModule));
+        when(errorCodeRepository.findAllWithHierarchy()).thenReturn(List.of(testErrorCode));
+        errorCodeCatalog.findByCode("01-02-03-0001");
+
+        errorCodeCatalog.onCatalogChange(CatalogChangeEvent.forProject(1L, CatalogChangeEvent.ChangeType.UPDATED));
+        errorCodeCatalog.findByCode("01-02-03-0001");
+
+        verify(errorCodeRepository, times(2)).findAllWithHierarchy();
+    }
+
+    @Test
+    void search_MatchesMessageIgnoringCase() {
+        when(moduleRepository.findAllWithHierarchy()).thenReturn(List.of(testModule));
+        when(errorCodeRepository.findAllWithHierarchy()).thenReturn(List.of(testErrorCode));
+
+        assertEquals(1, errorCodeCatalog.search("GATEWAY").size());
+        assertTrue(errorCodeCatalog.search("nonexistent").isEmpty());
+    }
+
+    @Test
+    void findByCodePrefix_ReturnsRangeInOrderUpToLimit() {
+        when(moduleRepository.findAllWithHierarchy()).thenReturn(List.of(testModule));
+        when(errorCodeRepository.findAllWithHierarchy()).thenReturn(List.of(
+                errorCode(3L, "01-02-03-0003", "Third"), testErrorCode, errorCode(2L, "01-02-03-0002", "Second"),
+                errorCode(4L, "01-02-04-0001", "Other module")));
+
+        List<String> codes = errorCodeCatalog.findByCodePrefix("01-02-03", 2).stream()
+                .map(ErrorCodeDto.ErrorCodeResponse::getCode)
+                .toList();
+
+        assertEquals(List.of("01-02-03-0001", "01-02-03-0002"), codes);
+        assertEquals(4, errorCodeCatalog.findByCodePrefix("01-02", 10).size());
+    }
+
+    @Test
+    void autocomplete_SuggestsCodesAndMessageWords() {
+        when(moduleRepository.findAllWithHierarchy()).thenReturn(List.of(testModule));
+        when(errorCodeRepository.findAllWithHierarchy()).thenReturn(List.of(testErrorCode,
+                errorCode(2L, "01-02-03-0002", "Payment declined"),
+                errorCode(3L, "01-02-03-0003", "Pay period closed")));
+
+        ErrorCodeDto.AutocompleteResponse codes = errorCodeCatalog.autocomplete("01-02-03-000", 2);
+        ErrorCodeDto.AutocompleteResponse words = errorCodeCatalog.autocomplete("Pay", 10);
+
+        assertEquals(List.of("01-02-03-0001", "01-02-03-0002"), codes.getCodes().stream()
+                .map(ErrorCodeDto.CodeSuggestion::getCode)
+                .toList());
+        assertTrue(words.getCodes().isEmpty());
+        assertEquals(List.of("pay", "payment"), words.getWords().stream()
+                .map(ErrorCodeDto.WordSuggestion::getWord)
+                .toList());
+        assertEquals(2, words.getWords().get(1).getErrorCodeCount());
+    }
+
+    @Test
+    void autocomplete_DropsWordsOfDeletedErrorCodes() {
+        when(moduleRepository.findAllWithHierarchy()).thenReturn(List.of(testModule));
+        when(errorCodeRepository.findAllWithHierarchy()).thenReturn(List.of(testErrorCode));
+        errorCodeCatalog.findByCode("01-02-03-0001");
+
+        errorCodeCatalog.onCatalogChange(CatalogChangeEvent.forErrorCode(testErrorCode, CatalogChangeEvent.ChangeType.DELETED));
+
+        assertTrue(errorCodeCatalog.autocomplete("gate", 10).getWords().isEmpty());
+    }
+
+    @Test
+    void filter_AndsAttributesAndOrsValues() {
+        when(moduleRepository.findAllWithHierarchy()).thenReturn(List.of(testModule));
+        when(errorCodeRepository.findAllWithHierarchy()).thenReturn(List.of(testErrorCode,
+                errorCode(2L, "01-02-03-0002", "Declined", ErrorCode.ErrorSeverity.HIGH, false),
+                errorCode(3L, "01-02-03-0003", "Expired", ErrorCode.ErrorSeverity.LOW, true)));
+
+        List<String> codes = errorCodeCatalog.filter(ErrorCodeDto.FilterRequest.builder()
+                        .severity(List.of(ErrorCode.ErrorSeverity.MEDIUM, ErrorCode.ErrorSeverity.LOW))
+                        .isRetryable(true)
+                        .projectCode(List.of("01"))
+                        .build()).stream()
+                .map(ErrorCodeDto.ErrorCodeResponse::getCode)
+                .toList();
+
+        assertEquals(List.of("01-02-03-0001", "01-02-03-0003"), codes);
+        assertTrue(errorCodeCatalog.filter(ErrorCodeDto.FilterRequest.builder()
+                .moduleCode(List.of("99")).build()).isEmpty());
+    }
+
+    @Test
+    void countFacets_CountsMatchesPerValueAndFollowsDeletes() {
+        when(moduleRepository.findAllWithHierarchy()).thenReturn(List.of(testModule));
+        when(errorCodeRepository.findAllWithHierarchy()).thenReturn(List.of(testErrorCode,
+                errorCode(2L, "01-02-03-0002", "Declined", ErrorCode.ErrorSeverity.HIGH, false),
+                errorCode(3L, "01-02-03-0003", "Expired", ErrorCode.ErrorSeverity.LOW, true)));
+        errorCodeCatalog.findByCode("01-02-03-0001");
+        errorCodeCatalog.onCatalogChange(CatalogChangeEvent.forErrorCode(testErrorCode, CatalogChangeEvent.ChangeType.DELETED));
+
+        ErrorCodeDto.FacetedSearchResponse counts = errorCodeCatalog.countFacets(ErrorCodeDto.FilterRequest.builder()
+                .isRetryable(true)
+                .build());
+        ErrorCodeDto.FacetedSearchResponse all = errorCodeCatalog.countFacets(new ErrorCodeDto.FilterRequest());
+
+        assertEquals(1, counts.getTotal());
+        assertEquals(Map.of(ErrorCode.ErrorSeverity.LOW, 1L), counts.getFacets().getSeverity());
+        assertEquals(2, all.getTotal());
+        assertEquals(Map.of(true, 1L, false, 1L), all.getFacets().getIsRetryable());
+        assertEquals(Map.of("03", 2L), all.getFacets().getModuleCode());
+    }
+
+    @Test
+    void searchFaceted_FiltersOnBitmapsAndCountsFacetsOverTermMatches() {
+        when(moduleRepository.findAllWithHierarchy()).thenReturn(List.of(testModule));
+        when(errorCodeRepository.findAllWithHierarchy()).thenReturn(List.of(testErrorCode,
+                errorCode(2L, "01-02-03-0002", "Gateway declined", ErrorCode.ErrorSeverity.HIGH, false),
+                errorCode(3L, "01-02-03-0003", "Gateway expired", ErrorCode.ErrorSeverity.LOW, true),
+                errorCode(4L, "01-02-03-0004", "Card expired", ErrorCode.ErrorSeverity.LOW, true)));
+
+        ErrorCodeDto.FacetedSearchResponse response = errorCodeCatalog.searchFaceted(ErrorCodeDto.SearchRequest.builder()
+                .searchTerm("GATEWAY")
+                .isRetryable(true)
+                .build());
+
+        assertEquals(2, response.getTotal());
+        assertEquals(List.of("01-02-03-0001", "01-02-03-0003"), response.getResults().stream()
+                .map(ErrorCodeDto.ErrorCodeResponse::getCode)
+                .toList());
+        assertEquals(Map.of(ErrorCode.ErrorSeverity.MEDIUM, 1L, ErrorCode.ErrorSeverity.LOW, 1L),
+                response.getFacets().getSeverity());
+        assertEquals(Map.of(true, 2L), response.getFacets().getIsRetryable());
+        assertEquals(Map.of("03", 2L), response.getFacets().getModuleCode());
+    }
+
+    @Test
+    void findSimilar_RanksNearDuplicatesAndSkipsUnrelatedCodes() {
+        when(moduleRepository.findAllWithHierarchy()).thenReturn(List.of(testModule));
+        when(errorCodeRepository.findAllWithHierarchy()).thenReturn(List.of(testErrorCode,
+                errorCode(2L, "01-02-03-0002", "Payment gateway timed out"),
+                errorCode(3L, "01-02-03-0003", "Invalid shipping address")));
+
+        List<ErrorCodeDto.SimilarErrorCode> similar = errorCodeCatalog.findSimilar(
+                "Payment gateway timeout", null, ErrorCodeCatalog.DEFAULT_MIN_SIMILARITY, 5);
+
+        assertEquals(List.of("01-02-03-0001", "01-02-03-0002"), similar.stream()
+                .map(match -> match.getErrorCode().getCode())
+                .toList());
+        assertEquals(1.0, similar.get(0).getSimilarity());
+        assertTrue(similar.get(1).getSimilarity() < 1.0);
+    }
+
+    @Test
+    void onCatalogChange_ErrorCodeUpdate_ReindexesText() {
+        when(moduleRepository.findAllWithHierarchy()).thenReturn(List.of(testModule));
+        when(errorCodeRepository.findAllWithHierarchy()).thenReturn(List.of(testErrorCode));
+        errorCodeCatalog.findByCode("01-02-03-0001");
+
+        ErrorCode updated = errorCode(1L, "01-02-03-0001", "Inventory reservation expired");
+        when(errorCodeRepository.findByIdWithHierarchy(1L)).thenReturn(Optional.of(updated));
+        errorCodeCatalog.onCatalogChange(CatalogChangeEvent.forErrorCode(updated, CatalogChangeEvent.ChangeType.UPDATED));
+
+        assertTrue(errorCodeCatalog.findSimilar("Payment gateway timeout", null, 0.5, 5).isEmpty());
+        assertEquals(1, errorCodeCatalog.findSimilar("Inventory reservation expired", null, 0.5, 5).size());
+    }
+
+    private ErrorCode errorCode(Long id, String code, String message, ErrorCode.ErrorSeverity severity,
+                                boolean retryable) {
+        ErrorCode errorCode = errorCode(id, code, message);
+        errorCode.setSeverity(severity);
+        errorCode.setIsRetryable(retryable);
+        return errorCode;
+    }
+
+    private ErrorCode errorCode(Long id, String code, String message) {
+        return ErrorCode.builder()
+                .id(id)
+                .code(code)
+                .message(message)
+                .severity(ErrorCode.ErrorSeverity.MEDIUM)
+                .httpStatus(ErrorCode.HttpStatus.SERVICE_UNAVAILABLE)
+                .isRetryable(true)
+                .module(testModule)
+                .build();
+    }
+}
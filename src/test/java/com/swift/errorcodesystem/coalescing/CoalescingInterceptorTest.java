@@ -0,0 +1,176 @@
+package com.swift.errorcodesystem.coalescing;
+
+import com.swift.errorcodesystem.sharding.ShardRouter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoalescingInterceptorTest {
+
+    private static final int CALLERS = 8;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+    private final SlowLookup target = new SlowLookup();
+    private Lookup lookup;
+
+    @BeforeEach
+    void setUp() {
+        lookup = proxy(Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        target.release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentIdenticalCalls_ShareOneLoad() throws Exception {
+        List<Future<List<String>>> results = callConcurrently("01-01-01-0001");
+
+        target.release.countDown();
+
+        List<String> first = results.get(0).get(5, TimeUnit.SECONDS);
+        for (Future<List<String>> result : results) {
+            assertSame(first, result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, target.loads.get());
+        assertEquals(1, meterRegistry.get("errorcode.coalescing.loads").counter().count());
+        assertEquals(CALLERS - 1, meterRegistry.get("errorcode.coalescing.saved").counter().count());
+    }
+
+    @Test
+    void failedLoad_PropagatesToEveryWaitingCaller() throws Exception {
+        List<Future<List<String>>> results = callConcurrently("missing");
+
+        target.release.countDown();
+
+        for (Future<List<String>> result : results) {
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalArgumentException.class, failure.getCause());
+        }
+        assertEquals(1, target.loads.get());
+        // The failure is not remembered: the next call loads again
+        assertEquals(List.of("01-01-01-0001"), lookup.find("01-01-01-0001"));
+        assertEquals(2, target.loads.get());
+    }
+
+    @Test
+    void differentArguments_LoadSeparately() {
+        target.release.countDown();
+
+        lookup.find("01-01-01-0001");
+        lookup.find("01-01-01-0002");
+        lookup.find("01-01-01-0001");
+
+        assertEquals(3, target.loads.get());
+        assertEquals(0, meterRegistry.get("errorcode.coalescing.saved").counter().count());
+    }
+
+    @Test
+    void waitExceedingTimeout_LoadsSeparately() throws Exception {
+        lookup = proxy(Duration.ofMillis(50));
+        Future<List<String>> leader = executor.submit(() -> lookup.find("01-01-01-0001"));
+        target.started.await(5, TimeUnit.SECONDS);
+
+        // The leader is still blocked, so the second caller gives up on it and runs the load itself
+        target.blockOnlyFirst = true;
+        assertEquals(List.of("01-01-01-0001"), lookup.find("01-01-01-0001"));
+
+        target.release.countDown();
+        assertEquals(List.of("01-01-01-0001"), leader.get(5, TimeUnit.SECONDS));
+        assertEquals(2, target.loads.get());
+        assertEquals(1, meterRegistry.get("errorcode.coalescing.timeouts").counter().count());
+    }
+
+    // Starts a leader, blocks it inside the load and waits until every other caller is parked on its flight
+    private List<Future<List<String>>> callConcurrently(String code) throws InterruptedException {
+        List<Future<List<String>>> results = new ArrayList<>();
+        List<Thread> followers = new ArrayList<>();
+        CountDownLatch registered = new CountDownLatch(CALLERS - 1);
+        results.add(executor.submit(() -> lookup.find(code)));
+        assertTrue(target.started.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i < CALLERS; i++) {
+            results.add(executor.submit(() -> {
+                synchronized (followers) {
+                    followers.add(Thread.currentThread());
+                }
+                registered.countDown();
+                return lookup.find(code);
+            }));
+        }
+        assertTrue(registered.await(5, TimeUnit.SECONDS));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        synchronized (followers) {
+            while (!followers.stream().allMatch(thread -> thread.getState() == Thread.State.TIMED_WAITING)
+                    && System.nanoTime() < deadline) {
+                followers.wait(10);
+            }
+        }
+        return results;
+    }
+
+    private Lookup proxy(Duration timeout) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("meterRegistry", meterRegistry));
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addAdvisor(new DefaultPointcutAdvisor(
+                AnnotationMatchingPointcut.forMethodAnnotation(Coalesced.class),
+                new CoalescingInterceptor(beans.getBeanProvider(EntityManagerFactory.class),
+                        beans.getBeanProvider(ShardRouter.class), beans.getBeanProvider(MeterRegistry.class),
+                        timeout)));
+        return (Lookup) proxyFactory.getProxy();
+    }
+
+    interface Lookup {
+        List<String> find(String code);
+    }
+
+    static class SlowLookup implements Lookup {
+        private final AtomicInteger loads = new AtomicInteger();
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private volatile boolean blockOnlyFirst;
+
+        @Override
+        @Coalesced
+        public List<String> find(String code) {
+            loads.incrementAndGet();
+            // Read before signalling the start, so a caller switching it after the start cannot unblock this load
+            boolean block = !blockOnlyFirst;
+            started.countDown();
+            if (block) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (code.equals("missing")) {
+                throw new IllegalArgumentException("Error code not found: " + code);
+            }
+            return new ArrayList<>(List.of(code));
+        }
+    }
+}
@@ -1,31 +1,64 @@
 package com.swift.errorcodesystem.controller;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.swift.errorcodesystem.cache.ErrorCodeJsonCache;
+import com.swift.errorcodesystem.catalog.ErrorCodeCatalog;
 import com.swift.errorcodesystem.dto.ErrorCodeDto;
+import com.swift.errorcodesystem.entity.Category;
 import com.swift.errorcodesystem.entity.ErrorCode;
 import com.swift.errorcodesystem.entity.Project;
+import com.swift.errorcodesystem.occurrence.OccurrenceIngestor;
+import com.swift.errorcodesystem.occurrence.OccurrenceRollups;
+import com.swift.errorcodesystem.service.ErrorCodeSearchService;
 import com.swift.errorcodesystem.service.ErrorCodeService;
+import com.swift.errorcodesystem.service.ErrorCodeTemplateService;
+import com.swift.errorcodesystem.service.GroupCommitWritePipeline;
+import com.swift.errorcodesystem.sharding.ProjectShardMover;
 import com.swift.errorcodesystem.entity.Module;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ErrorCodeController.class)
+@Import(ErrorCodeJsonCache.class)
 class ErrorCodeControllerTest {
 
+    private static final TypeReference<List<ErrorCodeDto.ErrorCodeResponse>> LIST_TYPE = new TypeReference<>() {
+    };
+    // Negotiated binary encodings and the mappers to decode them
+    private static final Map<String, ObjectMapper> BINARY_FORMATS = Map.of(
+            "application/cbor", new CBORMapper().registerModule(new JavaTimeModule()),
+            "application/x-jackson-smile", new SmileMapper().registerModule(new JavaTimeModule()));
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -35,6 +68,27 @@ class ErrorCodeControllerTest {
     @MockBean
     private ErrorCodeService errorCodeService;
 
+    @MockBean
+    private ErrorCodeSearchService errorCodeSearchService;
+
+    @MockBean
+    private GroupCommitWritePipeline writePipeline;
+
+    @MockBean
+    private ProjectShardMover projectShardMover;
+
+    @MockBean
+    private ErrorCodeCatalog errorCodeCatalog;
+
+    @MockBean
+    private ErrorCodeTemplateService errorCodeTemplateService;
+
+    @MockBean
+    private OccurrenceIngestor occurrenceIngestor;
+
+    @MockBean
+    private OccurrenceRollups occurrenceRollups;
+
     @Test
     void createProject_Success() throws Exception {
         Project project = Project.builder()
@@ -97,6 +151,40 @@ class ErrorCodeControllerTest {
                 .andExpect(jsonPath("$[0].code").value("01"));
     }
 
+    @Test
+    void getAllProjects_WithCborAccept_ReturnsCbor() throws Exception {
+        Project project = Project.builder()
+                .id(1L)
+                .name("Test Project")
+                .code("01")
+                .owner("Test Team")
+                .status(Project.ProjectStatus.ACTIVE)
+                .build();
+
+        when(errorCodeService.getAllProjects()).thenReturn(List.of(project));
+
+        mockMvc.perform(get("/api/v1/error-codes/projects").accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"));
+    }
+
+    @Test
+    void getModuleErrorCodes_WithBinaryAccept_ReturnsThatEncoding() throws Exception {
+        when(errorCodeService.getErrorCodesByModuleId(3L)).thenReturn(List.of(errorCodeWithHierarchy()));
+
+        for (Map.Entry<String, ObjectMapper> format : BINARY_FORMATS.entrySet()) {
+            byte[] body = mockMvc.perform(get("/api/v1/error-codes/modules/3/error-codes").accept(format.getKey()))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(format.getKey()))
+                    .andReturn().getResponse().getContentAsByteArray();
+
+            List<ErrorCodeDto.ErrorCodeResponse> decoded = format.getValue().readValue(body, LIST_TYPE);
+            assertEquals(1, decoded.size(), format.getKey());
+            assertEquals("01-02-03-0001", decoded.get(0).getCode(), format.getKey());
+            assertEquals("Test Module", decoded.get(0).getModuleName(), format.getKey());
+        }
+    }
+
     @Test
     void getProject_NotFound() throws Exception {
         when(errorCodeService.getProjectByIdWithCategories(anyLong())).thenReturn(Optional.empty());
@@ -139,6 +227,43 @@ class ErrorCodeControllerTest {
                 .andExpect(jsonPath("$.severity").value("MEDIUM"));
     }
 
+    @Test
+    void createErrorCode_CatalogNotLoaded_SkipsSuggestions() throws Exception {
+        when(errorCodeService.createErrorCode(anyLong(), any(ErrorCode.class))).thenReturn(errorCodeWithHierarchy());
+        ErrorCodeDto.CreateErrorCodeRequest request = ErrorCodeDto.CreateErrorCodeRequest.builder()
+                .message("Test error message")
+                .severity(ErrorCode.ErrorSeverity.MEDIUM)
+                .httpStatus(ErrorCode.HttpStatus.BAD_REQUEST)
+                .isRetryable(false)
+                .build();
+
+        mockMvc.perform(post("/api/v1/error-codes/modules/1/error-codes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.possibleDuplicates").doesNotExist());
+        verify(errorCodeCatalog, never()).findSimilar(any(), any(), anyDouble(), anyInt());
+    }
+
+    @Test
+    void createErrorCode_WriteTimedOut_ReturnsServiceUnavailable() throws Exception {
+        when(writePipeline.isEnabled()).thenReturn(true);
+        when(writePipeline.submit(any(), any())).thenReturn(CompletableFuture.failedFuture(new TimeoutException()));
+        ErrorCodeDto.CreateErrorCodeRequest request = ErrorCodeDto.CreateErrorCodeRequest.builder()
+                .message("Test error message")
+                .severity(ErrorCode.ErrorSeverity.MEDIUM)
+                .httpStatus(ErrorCode.HttpStatus.BAD_REQUEST)
+                .isRetryable(false)
+                .build();
+
+        mockMvc.perform(post("/api/v1/error-codes/modules/1/error-codes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+        verifyNoInteractions(errorCodeCatalog);
+    }
+
     @Test
     void getErrorCodeByCode_Success() throws Exception {
         Module module = Module.builder()
@@ -166,27 +291,19 @@ class ErrorCodeControllerTest {
 
     @Test
     void searchErrorCodes_Success() throws Exception {
-        Module module = Module.builder()
-                .id(1L)
-                .name("Test Module")
-                .build();
-
-        ErrorCode errorCode = ErrorCode.builder()
+        ErrorCodeDto.ErrorCodeResponse errorCode = ErrorCodeDto.ErrorCodeResponse.builder()
                 .id(1L)
                 .code("01-01-01-0001")
                 .message("Test error message")
                 .severity(ErrorCode.ErrorSeverity.MEDIUM)
-                .httpStatus(ErrorCode.HttpStatus.BAD_REQUEST)
-                .isRetryable(false)
-                .module(module)
                 .build();
 
-        when(errorCodeService.getAllErrorCodes()).thenReturn(List.of(errorCode));
-
         ErrorCodeDto.SearchRequest request = ErrorCodeDto.SearchRequest.builder()
                 .severity(ErrorCode.ErrorSeverity.MEDIUM)
                 .build();
 
+        when(errorCodeSearchService.search(request)).thenReturn(List.of(errorCode));
+
         mockMvc.perform(post("/api/v1/error-codes/search")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
@@ -194,4 +311,177 @@ class ErrorCodeControllerTest {
                 .andExpect(jsonPath("$.length()").value(1))
                 .andExpect(jsonPath("$[0].code").value("01-01-01-0001"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void searchErrorCodes_WithBinaryAccept_ReturnsThatEncoding() throws Exception {
+        ErrorCodeDto.SearchRequest request = ErrorCodeDto.SearchRequest.builder()
+                .severity(ErrorCode.ErrorSeverity.HIGH)
+                .build();
+        when(errorCodeSearchService.search(request)).thenReturn(
+                List.of(ErrorCodeDto.ErrorCodeResponse.fromEntity(errorCodeWithHierarchy())));
+
+        for (Map.Entry<String, ObjectMapper> format : BINARY_FORMATS.entrySet()) {
+            byte[] body = mockMvc.perform(post("/api/v1/error-codes/search")
+                            .accept(format.getKey())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(format.getKey()))
+                    .andReturn().getResponse().getContentAsByteArray();
+
+            List<ErrorCodeDto.ErrorCodeResponse> decoded = format.getValue().readValue(body, LIST_TYPE);
+            assertEquals(1, decoded.size(), format.getKey());
+            assertEquals("01-02-03-0001", decoded.get(0).getCode(), format.getKey());
+            assertEquals(ErrorCode.ErrorSeverity.HIGH, decoded.get(0).getSeverity(), format.getKey());
+        }
+    }
+
+    @Test
+    void findSimilarErrorCodes_UsesDefaults() throws Exception {
+        ErrorCodeDto.SimilarErrorCode similar = ErrorCodeDto.SimilarErrorCode.builder()
+                .similarity(0.75)
+                .errorCode(ErrorCodeDto.ErrorCodeResponse.builder().id(1L).code("01-01-01-0001").build())
+                .build();
+        when(errorCodeCatalog.findSimilar("Payment gateway timeout", null,
+                ErrorCodeCatalog.DEFAULT_MIN_SIMILARITY, ErrorCodeCatalog.DEFAULT_SIMILAR_LIMIT))
+                .thenReturn(List.of(similar));
+
+        ErrorCodeDto.SimilarErrorCodesRequest request = ErrorCodeDto.SimilarErrorCodesRequest.builder()
+                .message("Payment gateway timeout")
+                .build();
+
+        mockMvc.perform(post("/api/v1/error-codes/error-codes/similar")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].similarity").value(0.75))
+                .andExpect(jsonPath("$[0].errorCode.code").value("01-01-01-0001"));
+    }
+
+    @Test
+    void findSimilarErrorCodes_BelowIndexFloor_ReturnsBadRequest() throws Exception {
+        ErrorCodeDto.SimilarErrorCodesRequest request = ErrorCodeDto.SimilarErrorCodesRequest.builder()
+                .message("Payment gateway timeout")
+                .minSimilarity(0.1)
+                .build();
+
+        mockMvc.perform(post("/api/v1/error-codes/error-codes/similar")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(errorCodeCatalog);
+    }
+
+    @Test
+    void renderErrorCode_UsesAcceptLanguageWhenNoLocaleGiven() throws Exception {
+        Map<String, Object> arguments = Map.of("orderId", "A-17");
+        when(errorCodeTemplateService.render("01-01-01-0001",
+                List.of(Locale.forLanguageTag("de-CH"), Locale.forLanguageTag("en")), arguments))
+                .thenReturn(Optional.of(ErrorCodeDto.RenderedErrorCode.builder()
+                        .code("01-01-01-0001")
+                        .locale("de")
+                        .message("Bestellung A-17 wurde abgelehnt")
+                        .build()));
+
+        mockMvc.perform(post("/api/v1/error-codes/error-codes/code/01-01-01-0001/render")
+                        .header(HttpHeaders.ACCEPT_LANGUAGE, "de-CH, en;q=0.5")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                ErrorCodeDto.RenderRequest.builder().arguments(arguments).build())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.locale").value("de"))
+                .andExpect(jsonPath("$.message").value("Bestellung A-17 wurde abgelehnt"))
+                .andExpect(jsonPath("$.missingArguments").doesNotExist());
+    }
+
+    @Test
+    void reportOccurrences_AcceptsBatch() throws Exception {
+        ErrorCodeDto.OccurrenceBatchRequest request = ErrorCodeDto.OccurrenceBatchRequest.builder()
+                .occurrences(List.of(
+                        ErrorCodeDto.OccurrenceReport.builder().code("01-01-01-0001").service("checkout").build(),
+                        ErrorCodeDto.OccurrenceReport.builder().code("bogus").service("checkout").build()))
+                .build();
+        when(occurrenceIngestor.ingest(request.getOccurrences())).thenReturn(
+                ErrorCodeDto.OccurrenceBatchResponse.builder()
+                        .accepted(1)
+                        .rejected(1)
+                        .rejections(Map.of("INVALID_CODE", 1L))
+                        .build());
+
+        mockMvc.perform(post("/api/v1/error-codes/occurrences")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.accepted").value(1))
+                .andExpect(jsonPath("$.rejections.INVALID_CODE").value(1));
+    }
+
+    @Test
+    void reportOccurrences_RejectsInvalidCount() throws Exception {
+        ErrorCodeDto.OccurrenceBatchRequest request = ErrorCodeDto.OccurrenceBatchRequest.builder()
+                .occurrences(List.of(ErrorCodeDto.OccurrenceReport.builder()
+                        .code("01-01-01-0001")
+                        .service("checkout")
+                        .count(0L)
+                        .build()))
+                .build();
+
+        mockMvc.perform(post("/api/v1/error-codes/occurrences")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getTopOccurrences_DefaultsToFifteenMinutesAndTwenty() throws Exception {
+        when(occurrenceRollups.topCodes("01", null, 15, 20)).thenReturn(ErrorCodeDto.TopOccurrences.builder()
+                .project("01")
+                .minutes(15)
+                .codes(List.of(ErrorCodeDto.CodeOccurrences.builder().code("01-01-01-0001").count(42).build()))
+                .build());
+
+        mockMvc.perform(get("/api/v1/error-codes/occurrences/top").param("project", "01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.module").doesNotExist())
+                .andExpect(jsonPath("$.codes[0].code").value("01-01-01-0001"))
+                .andExpect(jsonPath("$.codes[0].count").value(42));
+    }
+
+    @Test
+    void searchErrorCodesFaceted_ReturnsResultsWithFacets() throws Exception {
+        ErrorCodeDto.SearchFacets facets = ErrorCodeDto.SearchFacets.empty();
+        facets.getSeverity().put(ErrorCode.ErrorSeverity.HIGH, 2L);
+        ErrorCodeDto.SearchRequest request = ErrorCodeDto.SearchRequest.builder()
+                .severity(ErrorCode.ErrorSeverity.HIGH)
+                .build();
+
+        when(errorCodeSearchService.searchFaceted(request)).thenReturn(ErrorCodeDto.FacetedSearchResponse.builder()
+                .total(2)
+                .results(List.of())
+                .facets(facets)
+                .build());
+
+        mockMvc.perform(post("/api/v1/error-codes/search/faceted")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.facets.severity.HIGH").value(2));
+    }
+
+    private static ErrorCode errorCodeWithHierarchy() {
+        Project project = Project.builder().id(1L).name("Test Project").code("01").build();
+        Category category = Category.builder().id(2L).name("Test Category").code("02").project(project).build();
+        Module module = Module.builder().id(3L).name("Test Module").code("03").category(category).build();
+        return ErrorCode.builder()
+                .id(1L)
+                .code("01-02-03-0001")
+                .message("Gateway timeout")
+                .severity(ErrorCode.ErrorSeverity.HIGH)
+                .httpStatus(ErrorCode.HttpStatus.SERVICE_UNAVAILABLE)
+                .isRetryable(true)
+                .module(module)
+                .version(0L)
+                .build();
+    }
+}
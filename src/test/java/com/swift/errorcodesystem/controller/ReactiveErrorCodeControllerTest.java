@@ -0,0 +1,151 @@
+package com.swift.errorcodesystem.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swift.errorcodesystem.cache.ErrorCodeJsonCache;
+import com.swift.errorcodesystem.catalog.ErrorCodeCatalog;
+import com.swift.errorcodesystem.dto.ErrorCodeDto;
+import com.swift.errorcodesystem.entity.ErrorCode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ReactiveErrorCodeController.class)
+@Import(ErrorCodeJsonCache.class)
+class ReactiveErrorCodeControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private ErrorCodeCatalog errorCodeCatalog;
+
+    @Test
+    void searchErrorCodes_StreamsOneLinePerMatch() throws Exception {
+        when(errorCodeCatalog.isLoaded()).thenReturn(true);
+        when(errorCodeCatalog.search("timeout")).thenReturn(List.of(
+                errorCode(1L, "01-02-03-0001"), errorCode(2L, "01-02-03-0002")));
+
+        List<ErrorCodeDto.ErrorCodeResponse> streamed = streamed(get("/api/v1/reactive/error-codes/search")
+                .param("term", "timeout"));
+
+        assertEquals(List.of("01-02-03-0001", "01-02-03-0002"),
+                streamed.stream().map(ErrorCodeDto.ErrorCodeResponse::getCode).toList());
+    }
+
+    @Test
+    void searchErrorCodes_ColdCatalog_StreamsFromOffloadedLoad() throws Exception {
+        when(errorCodeCatalog.isLoaded()).thenReturn(false);
+        when(errorCodeCatalog.search("timeout")).thenReturn(List.of(errorCode(1L, "01-02-03-0001")));
+
+        List<ErrorCodeDto.ErrorCodeResponse> streamed = streamed(get("/api/v1/reactive/error-codes/search")
+                .param("term", "timeout"));
+
+        assertEquals(1, streamed.size());
+    }
+
+    @Test
+    void filterErrorCodes_BindsFiltersFromQueryParameters() throws Exception {
+        ErrorCodeDto.FilterRequest request = ErrorCodeDto.FilterRequest.builder()
+                .severity(List.of(ErrorCode.ErrorSeverity.HIGH, ErrorCode.ErrorSeverity.CRITICAL))
+                .isRetryable(true)
+                .build();
+        when(errorCodeCatalog.isLoaded()).thenReturn(true);
+        when(errorCodeCatalog.filter(request)).thenReturn(List.of(errorCode(1L, "01-02-03-0001")));
+
+        List<ErrorCodeDto.ErrorCodeResponse> streamed = streamed(get("/api/v1/reactive/error-codes/filter")
+                .param("severity", "HIGH", "CRITICAL")
+                .param("isRetryable", "true"));
+
+        assertEquals(1, streamed.size());
+        assertEquals("01-02-03-0001", streamed.get(0).getCode());
+    }
+
+    @Test
+    void filterErrorCodes_NoMatches_StreamsNothing() throws Exception {
+        when(errorCodeCatalog.isLoaded()).thenReturn(true);
+        when(errorCodeCatalog.filter(new ErrorCodeDto.FilterRequest())).thenReturn(List.of());
+
+        assertEquals(List.of(), streamed(get("/api/v1/reactive/error-codes/filter")));
+    }
+
+    @Test
+    void getErrorCodesByCodePrefix_PassesLimit() throws Exception {
+        when(errorCodeCatalog.isLoaded()).thenReturn(true);
+        when(errorCodeCatalog.findByCodePrefix("01-02", 2)).thenReturn(List.of(
+                errorCode(1L, "01-02-03-0001"), errorCode(2L, "01-02-03-0002")));
+
+        List<ErrorCodeDto.ErrorCodeResponse> streamed = streamed(get("/api/v1/reactive/error-codes/code-prefix/01-02")
+                .param("limit", "2"));
+
+        assertEquals(2, streamed.size());
+    }
+
+    @Test
+    void getErrorCodesByCodePrefix_UnknownPrefix_StreamsNothing() throws Exception {
+        when(errorCodeCatalog.isLoaded()).thenReturn(true);
+        when(errorCodeCatalog.findByCodePrefix("99", Integer.MAX_VALUE)).thenReturn(List.of());
+
+        assertEquals(List.of(), streamed(get("/api/v1/reactive/error-codes/code-prefix/99")));
+    }
+
+    @Test
+    void getErrorCodeByCode_Missing_ReturnsNotFound() throws Exception {
+        when(errorCodeCatalog.isLoaded()).thenReturn(true);
+        when(errorCodeCatalog.findByCode("99-99-99-9999")).thenReturn(Optional.empty());
+
+        MvcResult result = mockMvc.perform(get("/api/v1/reactive/error-codes/code/99-99-99-9999"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound());
+    }
+
+    // Waits for the stream to complete and reads back one error code per NDJSON line
+    private List<ErrorCodeDto.ErrorCodeResponse> streamed(RequestBuilder requestBuilder) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult();
+
+        assertEquals(200, result.getResponse().getStatus());
+        assertEquals(MediaType.APPLICATION_NDJSON_VALUE, result.getResponse().getContentType());
+        String body = result.getResponse().getContentAsString();
+        List<ErrorCodeDto.ErrorCodeResponse> errorCodes = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            if (!line.isBlank()) {
+                errorCodes.add(objectMapper.readValue(line, ErrorCodeDto.ErrorCodeResponse.class));
+            }
+        }
+        return errorCodes;
+    }
+
+    private static ErrorCodeDto.ErrorCodeResponse errorCode(Long id, String code) {
+        return ErrorCodeDto.ErrorCodeResponse.builder()
+                .id(id)
+                .code(code)
+                .message("Gateway timeout")
+                .severity(ErrorCode.ErrorSeverity.HIGH)
+                .isRetryable(true)
+                .build();
+    }
+}
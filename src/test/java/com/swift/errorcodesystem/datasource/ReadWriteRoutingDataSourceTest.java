@@ -0,0 +1,125 @@
+package com.swift.errorcodesystem.datasource;
+
+import jakarta.servlet.http.HttpServlet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(
+                node("primary"), List.of(node("replica-a"), node("replica-b")));
+        routingDataSource.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.end();
+    }
+
+    @Test
+    void readOnlyTransactions_AlternateBetweenReplicas() {
+        List<String> nodes = List.of(readOnlyNode(), readOnlyNode(), readOnlyNode(), readOnlyNode());
+
+        assertEquals(List.of("replica-a", "replica-b", "replica-a", "replica-b"), nodes);
+    }
+
+    @Test
+    void writeTransaction_UsesPrimaryAndKeepsRequestOnIt() {
+        ReadYourWrites.begin(false);
+
+        String writer = readWrite.execute(status -> currentNode());
+
+        assertEquals("primary", writer);
+        assertTrue(ReadYourWrites.hasWritten());
+        assertEquals("primary", readOnlyNode());
+    }
+
+    @Test
+    void writeOutsideRequest_LeavesNoState() {
+        assertEquals("primary", readWrite.execute(status -> currentNode()));
+
+        assertFalse(ReadYourWrites.hasWritten());
+        assertTrue(readOnlyNode().startsWith("replica"));
+    }
+
+    @Test
+    void nonTransactionalAccess_UsesPrimary() {
+        assertEquals("primary", currentNode());
+        assertFalse(ReadYourWrites.hasWritten());
+    }
+
+    @Test
+    void filter_KeepsCallerOnPrimaryAfterWrite() throws Exception {
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofMinutes(1));
+        String[] observed = new String[2];
+
+        filter.doFilter(request("client-1"), new MockHttpServletResponse(),
+                inChain(() -> readWrite.execute(status -> currentNode())));
+        filter.doFilter(request("client-1"), new MockHttpServletResponse(),
+                inChain(() -> observed[0] = readOnlyNode()));
+        filter.doFilter(request("client-2"), new MockHttpServletResponse(),
+                inChain(() -> observed[1] = readOnlyNode()));
+
+        assertEquals("primary", observed[0]);
+        assertTrue(observed[1].startsWith("replica"));
+        assertFalse(ReadYourWrites.isPrimaryRequired());
+    }
+
+    private static MockFilterChain inChain(Runnable body) {
+        return new MockFilterChain(new HttpServlet() {
+        }, (request, response, chain) -> body.run());
+    }
+
+    private String readOnlyNode() {
+        return readOnly.execute(status -> currentNode());
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static MockHttpServletRequest request(String caller) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/error-codes/projects");
+        request.addHeader(ReadYourWritesFilter.CALLER_HEADER, caller);
+        return request;
+    }
+
+    // Each node is its own in-memory H2 database that only knows its own name
+    private static DataSource node(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+        jdbcTemplate.update("DELETE FROM node");
+        jdbcTemplate.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,110 @@
+package com.swift.errorcodesystem.dto;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.swift.errorcodesystem.entity.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares payload size and encode/decode cost of the negotiated formats for a bulk error code listing.
+ * Timings are logged at debug level for reference only; the assertions cover size and round-trip fidelity.
+ */
+@Slf4j
+class ErrorCodeDtoEncodingBenchmarkTest {
+
+    private static final int ERROR_CODES = 2_000;
+    private static final int ITERATIONS = 20;
+    private static final TypeReference<List<ErrorCodeDto.ErrorCodeResponse>> LIST_TYPE = new TypeReference<>() {
+    };
+
+    @Test
+    void binaryFormats_AreSmallerThanJsonAndRoundTrip() throws IOException {
+        List<ErrorCodeDto.ErrorCodeResponse> errorCodes = errorCodes();
+        Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put("json", new ObjectMapper());
+        mappers.put("cbor", new CBORMapper());
+        mappers.put("smile", new SmileMapper());
+
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        for (Map.Entry<String, ObjectMapper> format : mappers.entrySet()) {
+            ObjectMapper mapper = format.getValue().registerModule(new JavaTimeModule());
+            byte[] encoded = mapper.writeValueAsBytes(errorCodes);
+            List<ErrorCodeDto.ErrorCodeResponse> decoded = mapper.readValue(encoded, LIST_TYPE);
+            assertEquals(errorCodes, decoded);
+
+            long encodeNanos = 0;
+            long decodeNanos = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+                long start = System.nanoTime();
+                mapper.writeValueAsBytes(errorCodes);
+                encodeNanos += System.nanoTime() - start;
+                start = System.nanoTime();
+                mapper.readValue(encoded, LIST_TYPE);
+                decodeNanos += System.nanoTime() - start;
+            }
+
+            sizes.put(format.getKey(), encoded.length);
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("%-6s %8d bytes (%7d gzipped), encode %6.2f ms, decode %6.2f ms",
+                        format.getKey(), encoded.length, gzip(encoded).length,
+                        encodeNanos / 1e6 / ITERATIONS, decodeNanos / 1e6 / ITERATIONS));
+            }
+        }
+
+        assertTrue(sizes.get("cbor") < sizes.get("json"));
+        assertTrue(sizes.get("smile") < sizes.get("json"));
+    }
+
+    private static List<ErrorCodeDto.ErrorCodeResponse> errorCodes() {
+        List<ErrorCodeDto.ErrorCodeResponse> errorCodes = new ArrayList<>(ERROR_CODES);
+        LocalDateTime timestamp = LocalDateTime.of(2024, 1, 1, 12, 0);
+        for (int i = 1; i <= ERROR_CODES; i++) {
+            errorCodes.add(ErrorCodeDto.ErrorCodeResponse.builder()
+                    .id((long) i)
+                    .code(String.format("01-%02d-%02d-%04d", i % 10, i % 20, i))
+                    .message("Payment gateway timeout " + i)
+                    .description("Payment gateway did not respond in time")
+                    .suggestedAction("Retry the payment operation")
+                    .severity(ErrorCode.ErrorSeverity.values()[i % 4])
+                    .httpStatus(ErrorCode.HttpStatus.SERVICE_UNAVAILABLE)
+                    .httpStatusCode(503)
+                    .isRetryable(i % 2 == 0)
+                    .moduleId((long) i % 20)
+                    .moduleName("Payment Gateway")
+                    .moduleCode(String.format("%02d", i % 20))
+                    .categoryId((long) i % 10)
+                    .categoryName("Payment Processing")
+                    .categoryCode(String.format("%02d", i % 10))
+                    .projectId(1L)
+                    .projectName("E-Commerce Platform")
+                    .projectCode("01")
+                    .createdAt(timestamp)
+                    .updatedAt(timestamp)
+                    .build());
+        }
+        return errorCodes;
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(bytes);
+        }
+        return compressed.toByteArray();
+    }
+}
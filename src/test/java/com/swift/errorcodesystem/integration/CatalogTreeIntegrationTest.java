@@ -0,0 +1,68 @@
+package com.swift.errorcodesystem.integration;
+
+import com.swift.errorcodesystem.controller.ErrorCodeController;
+import com.swift.errorcodesystem.dto.ErrorCodeDto;
+import com.swift.errorcodesystem.entity.Category;
+import com.swift.errorcodesystem.entity.Module;
+import com.swift.errorcodesystem.entity.Project;
+import com.swift.errorcodesystem.service.ErrorCodeService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@DirtiesContext
+class CatalogTreeIntegrationTest {
+
+    @Autowired
+    private ErrorCodeController errorCodeController;
+
+    @Autowired
+    private ErrorCodeService errorCodeService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void getCatalogTree_QueryCountIndependentOfTreeSize() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        List<ErrorCodeDto.ProjectResponse> smallTree = errorCodeController.getCatalogTree(true).getBody();
+        long smallTreeStatements = statistics.getPrepareStatementCount();
+
+        Project project = errorCodeService.createProject(Project.builder()
+                .name("Tree Test Project").code("77").owner("Tree Team").status(Project.ProjectStatus.ACTIVE).build());
+        for (int c = 1; c <= 3; c++) {
+            Category category = errorCodeService.createCategory(project.getId(),
+                    Category.builder().name("Category " + c).code("0" + c).build());
+            for (int m = 1; m <= 3; m++) {
+                errorCodeService.createModule(category.getId(),
+                        Module.builder().name("Module " + m).code("0" + m).purpose("Tree test").build());
+            }
+        }
+
+        statistics.clear();
+        List<ErrorCodeDto.ProjectResponse> largeTree = errorCodeController.getCatalogTree(true).getBody();
+
+        assertEquals(smallTreeStatements, statistics.getPrepareStatementCount());
+        assertTrue(smallTreeStatements <= 4);
+        assertNotNull(smallTree);
+        assertNotNull(largeTree);
+        assertEquals(smallTree.size() + 1, largeTree.size());
+        ErrorCodeDto.ProjectResponse added = largeTree.stream()
+                .filter(p -> p.getCode().equals("77"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(3, added.getCategories().size());
+        assertEquals(3, added.getCategories().get(0).getModules().size());
+    }
+}
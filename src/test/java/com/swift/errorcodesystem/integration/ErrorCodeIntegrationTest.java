@@ -1,24 +1,41 @@
 package com.swift.errorcodesystem.integration;
 
+import com.swift.errorcodesystem.catalog.ErrorCodeCatalog;
 import com.swift.errorcodesystem.dto.ErrorCodeDto;
+import com.swift.errorcodesystem.entity.ErrorCode;
 import com.swift.errorcodesystem.entity.Project;
+import com.swift.errorcodesystem.occurrence.OccurrenceIngestor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.annotation.DirtiesContext;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "errorcode.occurrences.enabled=true")
 @DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
 class ErrorCodeIntegrationTest {
 
     @Autowired
     private TestRestTemplate restTemplate;
 
+    @Autowired
+    private OccurrenceIngestor occurrenceIngestor;
+
+    @Autowired
+    private ErrorCodeCatalog errorCodeCatalog;
+
     @Test
     void contextLoads() {
         // Basic context loading test
@@ -75,4 +92,292 @@ class ErrorCodeIntegrationTest {
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
     }
+
+    @Test
+    void searchErrorCodesFaceted_CountsFacetsOverMatches() {
+        // Of the mock data, only the order processing and payment gateway timeouts are retryable and mention it
+        ErrorCodeDto.SearchRequest request = ErrorCodeDto.SearchRequest.builder()
+                .searchTerm("Timeout")
+                .isRetryable(true)
+                .build();
+
+        ResponseEntity<ErrorCodeDto.FacetedSearchResponse> faceted = restTemplate.postForEntity(
+                "/api/v1/error-codes/search/faceted", request, ErrorCodeDto.FacetedSearchResponse.class);
+        ResponseEntity<ErrorCodeDto.ErrorCodeResponse[]> plain = restTemplate.postForEntity(
+                "/api/v1/error-codes/search", request, ErrorCodeDto.ErrorCodeResponse[].class);
+
+        assertEquals(HttpStatus.OK, faceted.getStatusCode());
+        assertEquals(2, faceted.getBody().getTotal());
+        assertEquals(List.of("01-02-01-0004", "01-03-01-0001"), faceted.getBody().getResults().stream()
+                .map(ErrorCodeDto.ErrorCodeResponse::getCode)
+                .toList());
+        assertEquals(Map.of(ErrorCode.ErrorSeverity.MEDIUM, 2L), faceted.getBody().getFacets().getSeverity());
+        assertEquals(Map.of(true, 2L), faceted.getBody().getFacets().getIsRetryable());
+        assertEquals(Map.of("02", 1L, "03", 1L), faceted.getBody().getFacets().getCategoryCode());
+        assertEquals(Map.of("01", 2L), faceted.getBody().getFacets().getProjectCode());
+        assertEquals(HttpStatus.OK, plain.getStatusCode());
+        assertEquals(List.of("01-02-01-0004", "01-03-01-0001"), Arrays.stream(plain.getBody())
+                .map(ErrorCodeDto.ErrorCodeResponse::getCode)
+                .toList());
+    }
+
+    @Test
+    void resolveErrorCodes_MarksMissingCodes() {
+        ErrorCodeDto.BatchResolveRequest request = ErrorCodeDto.BatchResolveRequest.builder()
+                .codes(List.of("01-01-01-0001", "99-99-99-9999"))
+                .build();
+
+        ResponseEntity<ErrorCodeDto.BatchResolveResponse> response = restTemplate.postForEntity(
+                "/api/v1/error-codes/error-codes/batch",
+                request,
+                ErrorCodeDto.BatchResolveResponse.class
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(1, response.getBody().getFoundCount());
+        assertEquals(1, response.getBody().getNotFoundCount());
+        assertTrue(response.getBody().getResults().get(0).isFound());
+        assertEquals("Authentication", response.getBody().getResults().get(0).getErrorCode().getModuleName());
+        assertFalse(response.getBody().getResults().get(1).isFound());
+    }
+
+    @Test
+    void resolveErrorCodes_ByIdOnly() {
+        ErrorCodeDto.BatchResolveRequest request = ErrorCodeDto.BatchResolveRequest.builder()
+                .ids(List.of(1L))
+                .build();
+
+        ResponseEntity<ErrorCodeDto.BatchResolveResponse> response = restTemplate.postForEntity(
+                "/api/v1/error-codes/error-codes/batch",
+                request,
+                ErrorCodeDto.BatchResolveResponse.class
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(1, response.getBody().getFoundCount());
+    }
+
+    @Test
+    void updateErrorCode_StaleIfMatch_ReturnsConflict() {
+        ResponseEntity<ErrorCodeDto.ErrorCodeResponse> current = restTemplate.getForEntity(
+                "/api/v1/error-codes/error-codes/1", ErrorCodeDto.ErrorCodeResponse.class);
+        assertNotNull(current.getBody());
+        Long version = current.getBody().getVersion();
+        assertEquals("\"" + version + "\"", current.getHeaders().getETag());
+
+        ErrorCodeDto.CreateErrorCodeRequest request = ErrorCodeDto.CreateErrorCodeRequest.builder()
+                .message("Updated once")
+                .severity(ErrorCode.ErrorSeverity.HIGH)
+                .httpStatus(ErrorCode.HttpStatus.UNAUTHORIZED)
+                .isRetryable(false)
+                .build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfMatch("\"" + version + "\"");
+
+        ResponseEntity<ErrorCodeDto.ErrorCodeResponse> first = restTemplate.exchange(
+                "/api/v1/error-codes/error-codes/1", HttpMethod.PUT, new HttpEntity<>(request, headers),
+                ErrorCodeDto.ErrorCodeResponse.class);
+        ResponseEntity<String> second = restTemplate.exchange(
+                "/api/v1/error-codes/error-codes/1", HttpMethod.PUT, new HttpEntity<>(request, headers), String.class);
+
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertNotNull(first.getBody());
+        assertEquals(version + 1, first.getBody().getVersion());
+        assertEquals("Updated once", first.getBody().getMessage());
+        assertEquals(HttpStatus.CONFLICT, second.getStatusCode());
+    }
+
+    @Test
+    void createErrorCode_ListsPossibleDuplicates() {
+        // Suggestions come from the loaded catalog only
+        errorCodeCatalog.findByCode("01-01-01-0001");
+        ErrorCodeDto.CreateErrorCodeRequest request = ErrorCodeDto.CreateErrorCodeRequest.builder()
+                .message("Invalid credentials provided")
+                .description("Authentication failed due to an invalid username or password")
+                .severity(ErrorCode.ErrorSeverity.MEDIUM)
+                .httpStatus(ErrorCode.HttpStatus.UNAUTHORIZED)
+                .isRetryable(false)
+                .build();
+
+        ResponseEntity<ErrorCodeDto.ErrorCodeResponse> response = restTemplate.postForEntity(
+                "/api/v1/error-codes/modules/2/error-codes", request, ErrorCodeDto.ErrorCodeResponse.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        ErrorCodeDto.ErrorCodeResponse created = response.getBody();
+        assertNotNull(created);
+        assertFalse(created.getPossibleDuplicates().isEmpty());
+        ErrorCodeDto.SimilarErrorCode closest = created.getPossibleDuplicates().get(0);
+        assertEquals("Invalid credentials provided", closest.getErrorCode().getMessage());
+        assertNotEquals(created.getId(), closest.getErrorCode().getId());
+        assertTrue(closest.getSimilarity() >= ErrorCodeCatalog.DEFAULT_MIN_SIMILARITY);
+    }
+
+    @Test
+    void updateErrorCode_Missing_ReturnsNotFound() {
+        ErrorCodeDto.CreateErrorCodeRequest request = ErrorCodeDto.CreateErrorCodeRequest.builder()
+                .message("Nothing to update")
+                .severity(ErrorCode.ErrorSeverity.LOW)
+                .httpStatus(ErrorCode.HttpStatus.BAD_REQUEST)
+                .isRetryable(false)
+                .build();
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                "/api/v1/error-codes/error-codes/999999", HttpMethod.PUT, new HttpEntity<>(request), String.class);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    void deleteMissing_ReturnsNotFound() {
+        for (String path : List.of("projects", "categories", "modules", "error-codes")) {
+            assertEquals(HttpStatus.NOT_FOUND, restTemplate.exchange("/api/v1/error-codes/" + path + "/999999",
+                    HttpMethod.DELETE, null, String.class).getStatusCode(), path);
+        }
+    }
+
+    @Test
+    void deleteProject_RemovesSubtreeAndReportsCounts() {
+        // Warm the caches that must not serve the deleted rows afterwards
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity(
+                "/api/v1/error-codes/error-codes/code/01-01-01-0001", String.class).getStatusCode());
+        restTemplate.getForEntity("/api/v1/error-codes/projects/1/error-codes", String.class);
+
+        ResponseEntity<ErrorCodeDto.DeleteResponse> response = restTemplate.exchange(
+                "/api/v1/error-codes/projects/1", HttpMethod.DELETE, null, ErrorCodeDto.DeleteResponse.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(1, response.getBody().getDeletedProjects());
+        assertTrue(response.getBody().getDeletedCategories() > 0);
+        assertTrue(response.getBody().getDeletedModules() > 0);
+        assertTrue(response.getBody().getDeletedErrorCodes() > 0);
+        assertEquals(HttpStatus.NOT_FOUND, restTemplate.getForEntity(
+                "/api/v1/error-codes/error-codes/code/01-01-01-0001", String.class).getStatusCode());
+        assertEquals("[]", restTemplate.getForEntity(
+                "/api/v1/error-codes/projects/1/error-codes", String.class).getBody());
+    }
+
+    @Test
+    void deleteModule_RemovesItsErrorCodes() {
+        ResponseEntity<ErrorCodeDto.DeleteResponse> response = restTemplate.exchange(
+                "/api/v1/error-codes/modules/1", HttpMethod.DELETE, null, ErrorCodeDto.DeleteResponse.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(1, response.getBody().getDeletedModules());
+        assertEquals(0, response.getBody().getDeletedCategories());
+        assertEquals(HttpStatus.NOT_FOUND, restTemplate.getForEntity(
+                "/api/v1/error-codes/modules/1", String.class).getStatusCode());
+    }
+
+    @Test
+    void translationRendersInRequestedLocaleAndGoesWithItsModule() {
+        ErrorCodeDto.TranslationRequest translation = ErrorCodeDto.TranslationRequest.builder()
+                .message("Fehler bei Bestellung {orderId}")
+                .build();
+        ResponseEntity<ErrorCodeDto.TranslationResponse> saved = restTemplate.exchange(
+                "/api/v1/error-codes/error-codes/1/translations/de", HttpMethod.PUT, new HttpEntity<>(translation),
+                ErrorCodeDto.TranslationResponse.class);
+        assertEquals(HttpStatus.OK, saved.getStatusCode());
+        assertNotNull(saved.getBody());
+        assertEquals(List.of("orderId"), List.copyOf(saved.getBody().getParameters()));
+
+        String code = restTemplate.getForObject("/api/v1/error-codes/error-codes/1",
+                ErrorCodeDto.ErrorCodeResponse.class).getCode();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT_LANGUAGE, "de-AT");
+        ErrorCodeDto.RenderRequest render = ErrorCodeDto.RenderRequest.builder()
+                .arguments(Map.of("orderId", "A-17"))
+                .build();
+        ResponseEntity<ErrorCodeDto.RenderedErrorCode> rendered = restTemplate.postForEntity(
+                "/api/v1/error-codes/error-codes/code/" + code + "/render", new HttpEntity<>(render, headers),
+                ErrorCodeDto.RenderedErrorCode.class);
+        assertEquals(HttpStatus.OK, rendered.getStatusCode());
+        assertNotNull(rendered.getBody());
+        assertEquals("de", rendered.getBody().getLocale());
+        assertEquals("Fehler bei Bestellung A-17", rendered.getBody().getMessage());
+
+        // The module's bulk delete takes the translation along
+        assertEquals(HttpStatus.OK, restTemplate.exchange(
+                "/api/v1/error-codes/modules/1", HttpMethod.DELETE, null, String.class).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, restTemplate.postForEntity(
+                "/api/v1/error-codes/error-codes/code/" + code + "/render", new HttpEntity<>(render, headers),
+                String.class).getStatusCode());
+    }
+
+    @Test
+    void reportedOccurrencesAreWrittenOnFlush() {
+        ErrorCodeDto.OccurrenceBatchRequest request = ErrorCodeDto.OccurrenceBatchRequest.builder()
+                .occurrences(List.of(
+                        ErrorCodeDto.OccurrenceReport.builder().code("01-01-01-0001").service("checkout").count(3L).build(),
+                        ErrorCodeDto.OccurrenceReport.builder().code("01-01-01-0001").service("checkout").build(),
+                        ErrorCodeDto.OccurrenceReport.builder().code("not-a-code").service("checkout").build()))
+                .build();
+
+        ResponseEntity<ErrorCodeDto.OccurrenceBatchResponse> response = restTemplate.postForEntity(
+                "/api/v1/error-codes/occurrences", request, ErrorCodeDto.OccurrenceBatchResponse.class);
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals(4, response.getBody().getAccepted());
+        assertEquals(Map.of("INVALID_CODE", 1L), response.getBody().getRejections());
+
+        assertEquals(1, occurrenceIngestor.flush());
+        ResponseEntity<ErrorCodeDto.OccurrenceWindow[]> windows = restTemplate.getForEntity(
+                "/api/v1/error-codes/error-codes/code/01-01-01-0001/occurrences", ErrorCodeDto.OccurrenceWindow[].class);
+        assertEquals(HttpStatus.OK, windows.getStatusCode());
+        assertEquals(1, windows.getBody().length);
+        assertEquals("checkout", windows.getBody()[0].getService());
+        assertEquals(4, windows.getBody()[0].getCount());
+    }
+
+    @Test
+    void errorCodeDetailEstimatesDistinctCallers() {
+        reportCallers("tenant-a", "tenant-b", "tenant-a", "tenant-c");
+
+        ResponseEntity<ErrorCodeDto.ErrorCodeResponse> detail = restTemplate.getForEntity(
+                "/api/v1/error-codes/error-codes/code/01-01-01-0001", ErrorCodeDto.ErrorCodeResponse.class);
+
+        assertEquals(HttpStatus.OK, detail.getStatusCode());
+        ErrorCodeDto.DistinctCallers callers = detail.getBody().getDistinctCallers();
+        assertNotNull(callers);
+        assertEquals(3, callers.getEstimate());
+        assertEquals(24, callers.getHours());
+        assertNull(callers.getSketch());
+        String eTag = detail.getHeaders().getETag();
+        assertEquals("\"" + detail.getBody().getVersion() + "-3\"", eTag);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(eTag);
+        assertEquals(HttpStatus.NOT_MODIFIED, restTemplate.exchange("/api/v1/error-codes/error-codes/code/01-01-01-0001",
+                HttpMethod.GET, new HttpEntity<>(headers), String.class).getStatusCode());
+
+        // A new caller changes the ETag without changing the version, so the cached detail is not revalidated
+        reportCallers("tenant-d");
+        ResponseEntity<ErrorCodeDto.ErrorCodeResponse> refreshed = restTemplate.exchange(
+                "/api/v1/error-codes/error-codes/code/01-01-01-0001", HttpMethod.GET, new HttpEntity<>(headers),
+                ErrorCodeDto.ErrorCodeResponse.class);
+        assertEquals(HttpStatus.OK, refreshed.getStatusCode());
+        assertEquals(4, refreshed.getBody().getDistinctCallers().getEstimate());
+
+        // A code without reported callers has no estimate
+        ResponseEntity<ErrorCodeDto.ErrorCodeResponse> other = restTemplate.getForEntity(
+                "/api/v1/error-codes/error-codes/code/01-01-01-0002", ErrorCodeDto.ErrorCodeResponse.class);
+        assertNull(other.getBody().getDistinctCallers());
+    }
+
+    private void reportCallers(String... callers) {
+        ErrorCodeDto.OccurrenceBatchRequest request = ErrorCodeDto.OccurrenceBatchRequest.builder()
+                .occurrences(Arrays.stream(callers)
+                        .map(caller -> ErrorCodeDto.OccurrenceReport.builder()
+                                .code("01-01-01-0001")
+                                .service("checkout")
+                                .caller(caller)
+                                .build())
+                        .toList())
+                .build();
+        assertEquals(HttpStatus.ACCEPTED, restTemplate.postForEntity(
+                "/api/v1/error-codes/occurrences", request, ErrorCodeDto.OccurrenceBatchResponse.class).getStatusCode());
+    }
 }
@@ -0,0 +1,70 @@
+package com.swift.errorcodesystem.integration;
+
+import com.swift.errorcodesystem.dto.ErrorCodeDto;
+import com.swift.errorcodesystem.entity.ErrorCode;
+import com.swift.errorcodesystem.service.ErrorCodeService;
+import com.swift.errorcodesystem.service.GroupCommitWritePipeline;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Group-commit mode against the real persistence stack. A batch only runs once it holds three writes, so the
+ * writes submitted below always share one and run in submission order.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:group-commit;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "errorcode.write-pipeline.enabled=true",
+        "errorcode.write-pipeline.max-batch-size=3",
+        "errorcode.write-pipeline.max-wait=30s"
+})
+@DirtiesContext
+class GroupCommitIntegrationTest {
+
+    // User Profile, which has no error codes yet
+    private static final long MODULE_ID = 2L;
+
+    @Autowired
+    private GroupCommitWritePipeline writePipeline;
+
+    @Autowired
+    private ErrorCodeService errorCodeService;
+
+    @Test
+    void failedBatch_RetriesCreatesWithFreshEntities() {
+        // Both creates are persisted in the shared batch before the unknown module fails and rolls it back
+        CompletableFuture<ErrorCodeDto.ErrorCodeResponse> first = create(MODULE_ID);
+        CompletableFuture<ErrorCodeDto.ErrorCodeResponse> second = create(MODULE_ID);
+        CompletableFuture<ErrorCodeDto.ErrorCodeResponse> failing = create(999_999L);
+
+        ErrorCodeDto.ErrorCodeResponse firstCreated = first.orTimeout(60, TimeUnit.SECONDS).join();
+        ErrorCodeDto.ErrorCodeResponse secondCreated = second.orTimeout(60, TimeUnit.SECONDS).join();
+        CompletionException e = assertThrows(CompletionException.class, failing::join);
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+
+        assertEquals("01-01-02-0001", firstCreated.getCode());
+        assertEquals("01-01-02-0002", secondCreated.getCode());
+        assertEquals(0L, firstCreated.getVersion());
+        assertEquals(List.of("01-01-02-0001", "01-01-02-0002"),
+                errorCodeService.getErrorCodesByModuleId(MODULE_ID).stream().map(ErrorCode::getCode).sorted().toList());
+    }
+
+    // Builds the entity on every run, as the controller does
+    private CompletableFuture<ErrorCodeDto.ErrorCodeResponse> create(long moduleId) {
+        return writePipeline.submit(moduleId, () -> ErrorCodeDto.ErrorCodeResponse.fromEntity(
+                errorCodeService.createErrorCode(moduleId, ErrorCode.builder()
+                        .message("Profile update rejected")
+                        .severity(ErrorCode.ErrorSeverity.MEDIUM)
+                        .httpStatus(ErrorCode.HttpStatus.BAD_REQUEST)
+                        .isRetryable(false)
+                        .build())));
+    }
+}
@@ -0,0 +1,95 @@
+package com.swift.errorcodesystem.integration;
+
+import com.swift.errorcodesystem.config.CacheConfig;
+import com.swift.errorcodesystem.entity.CatalogInvalidation;
+import com.swift.errorcodesystem.entity.ErrorCode;
+import com.swift.errorcodesystem.event.CatalogChangeEvent;
+import com.swift.errorcodesystem.invalidation.DatabaseCatalogInvalidationBus;
+import com.swift.errorcodesystem.repository.CatalogInvalidationRepository;
+import com.swift.errorcodesystem.service.ErrorCodeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Plays the role of instance "node-a"; writes of a second instance are simulated by changing rows directly and
+ * recording an invalidation from "node-b", as that instance would.
+ */
+@SpringBootTest(properties = {
+        "errorcode.invalidation.enabled=true",
+        "errorcode.invalidation.node-id=node-a",
+        "errorcode.invalidation.poll-interval=1h"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class InvalidationBusIntegrationTest {
+
+    @Autowired
+    private DatabaseCatalogInvalidationBus invalidationBus;
+
+    @Autowired
+    private CatalogInvalidationRepository invalidationRepository;
+
+    @Autowired
+    private ErrorCodeService errorCodeService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Catch up on the mock data written during startup
+        invalidationBus.poll();
+    }
+
+    @Test
+    void localWrite_IsRecordedButNotRelayedBack() {
+        ErrorCode errorCode = errorCodeService.getErrorCodeById(1L).orElseThrow();
+        errorCode.setMessage("Changed on node-a");
+        errorCodeService.updateErrorCode(1L, errorCode, null);
+
+        List<CatalogInvalidation> invalidations = invalidationRepository.findAll();
+        CatalogInvalidation latest = invalidations.get(invalidations.size() - 1);
+        assertEquals("node-a", latest.getNodeId());
+        assertEquals(CatalogChangeEvent.EntityType.ERROR_CODE, latest.getEntityType());
+        assertEquals(1L, latest.getEntityId());
+        assertNotNull(latest.getEntityVersion());
+        assertEquals(0, invalidationBus.poll());
+    }
+
+    @Test
+    void remoteWrite_EvictsLocalCaches() {
+        ErrorCode errorCode = errorCodeService.resolveErrorCodes(List.of(), List.of(1L)).get(0);
+        errorCodeService.getErrorCodeById(1L);
+        Long moduleId = errorCode.getModule().getId();
+        errorCodeService.getErrorCodesByModuleId(moduleId);
+        assertNotNull(cacheManager.getCache(CacheConfig.ERROR_CODES_BY_MODULE).get(moduleId));
+
+        jdbcTemplate.update("UPDATE error_codes SET message = 'Changed on node-b', version = version + 1 WHERE id = 1");
+        invalidationRepository.save(CatalogInvalidation.builder()
+                .nodeId("node-b")
+                .entityType(CatalogChangeEvent.EntityType.ERROR_CODE)
+                .changeType(CatalogChangeEvent.ChangeType.UPDATED)
+                .entityId(1L)
+                .projectId(errorCode.getModule().getCategory().getProject().getId())
+                .categoryId(errorCode.getModule().getCategory().getId())
+                .moduleId(moduleId)
+                .entityVersion(errorCode.getVersion() + 1)
+                .build());
+
+        assertEquals(1, invalidationBus.poll());
+        assertNull(cacheManager.getCache(CacheConfig.ERROR_CODES_BY_MODULE).get(moduleId));
+        assertEquals("Changed on node-b", errorCodeService.getErrorCodeById(1L).orElseThrow().getMessage());
+        assertEquals(0, invalidationBus.poll());
+    }
+}
@@ -0,0 +1,219 @@
+package com.swift.errorcodesystem.integration;
+
+import com.swift.errorcodesystem.entity.ErrorCode;
+import com.swift.errorcodesystem.entity.Project;
+import com.swift.errorcodesystem.repository.CatalogInvalidationRepository;
+import com.swift.errorcodesystem.repository.CategoryRepository;
+import com.swift.errorcodesystem.repository.ErrorCodeRepository;
+import com.swift.errorcodesystem.repository.ErrorCodeTranslationRepository;
+import com.swift.errorcodesystem.repository.ErrorOccurrenceRepository;
+import com.swift.errorcodesystem.repository.ModuleRepository;
+import com.swift.errorcodesystem.repository.ProjectRepository;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs every custom repository query, asks H2 to EXPLAIN the SQL Hibernate generated for it and fails when a
+ * filtered query reads a table with a full scan instead of an index.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.swift.errorcodesystem.integration.RecordingStatementInspector")
+@DirtiesContext
+class QueryPlanIntegrationTest {
+
+    private static final Pattern TABLE_SCAN = Pattern.compile("/\\* PUBLIC\\.(\\w+)\\.tableScan");
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ModuleRepository moduleRepository;
+
+    @Autowired
+    private ErrorCodeRepository errorCodeRepository;
+
+    @Autowired
+    private ErrorCodeTranslationRepository errorCodeTranslationRepository;
+
+    @Autowired
+    private ErrorOccurrenceRepository errorOccurrenceRepository;
+
+    @Autowired
+    private CatalogInvalidationRepository catalogInvalidationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @TestFactory
+    Stream<DynamicTest> repositoryQueries_UseIndexes() {
+        return queries().entrySet().stream()
+                .map(query -> DynamicTest.dynamicTest(query.getKey(), () -> assertIndexed(query.getValue())));
+    }
+
+    @Test
+    void everyRepositoryQuery_HasPlanCheck() {
+        Set<String> declared = Stream.of(ProjectRepository.class, CategoryRepository.class,
+                        ModuleRepository.class, ErrorCodeRepository.class, ErrorCodeTranslationRepository.class,
+                        ErrorOccurrenceRepository.class, CatalogInvalidationRepository.class)
+                .flatMap(repository -> Arrays.stream(repository.getDeclaredMethods())
+                        .map(method -> repository.getSimpleName() + "." + method.getName()))
+                .collect(Collectors.toCollection(TreeSet::new));
+        declared.removeAll(queries().keySet());
+
+        assertEquals(Set.of(), declared, "Repository queries without a plan check");
+    }
+
+    private Map<String, QueryCheck> queries() {
+        Map<String, QueryCheck> queries = new LinkedHashMap<>();
+        queries.put("ProjectRepository.findByName", indexed(() -> projectRepository.findByName("Banking System")));
+        queries.put("ProjectRepository.findByCode", indexed(() -> projectRepository.findByCode("01")));
+        queries.put("ProjectRepository.findByStatus",
+                indexed(() -> projectRepository.findByStatus(Project.ProjectStatus.ACTIVE)));
+        queries.put("ProjectRepository.findByIdWithCategories", indexed(() -> projectRepository.findByIdWithCategories(1L)));
+        queries.put("ProjectRepository.findCurrentById", indexed(() -> projectRepository.findCurrentById(1L)));
+        queries.put("ProjectRepository.existsByName", indexed(() -> projectRepository.existsByName("Banking System")));
+        queries.put("ProjectRepository.existsByCode", indexed(() -> projectRepository.existsByCode("01")));
+        queries.put("ProjectRepository.existsByNameAndIdNot",
+                indexed(() -> projectRepository.existsByNameAndIdNot("Banking System", 1L)));
+        queries.put("ProjectRepository.existsByCodeAndIdNot", indexed(() -> projectRepository.existsByCodeAndIdNot("01", 1L)));
+        queries.put("ProjectRepository.bulkDeleteById", indexed(() -> projectRepository.bulkDeleteById(-1L)));
+
+        queries.put("CategoryRepository.findByProjectId", indexed(() -> categoryRepository.findByProjectId(1L)));
+        queries.put("CategoryRepository.findByProjectIdAndCode",
+                indexed(() -> categoryRepository.findByProjectIdAndCode(1L, "01")));
+        queries.put("CategoryRepository.findByIdWithModules", indexed(() -> categoryRepository.findByIdWithModules(1L)));
+        queries.put("CategoryRepository.findByProjectIdWithModules",
+                indexed(() -> categoryRepository.findByProjectIdWithModules(1L)));
+        queries.put("CategoryRepository.existsByProjectIdAndCode",
+                indexed(() -> categoryRepository.existsByProjectIdAndCode(1L, "01")));
+        queries.put("CategoryRepository.bulkDeleteByProjectId", indexed(() -> categoryRepository.bulkDeleteByProjectId(-1L)));
+        queries.put("CategoryRepository.bulkDeleteById", indexed(() -> categoryRepository.bulkDeleteById(-1L)));
+
+        queries.put("ModuleRepository.findByCategoryId", indexed(() -> moduleRepository.findByCategoryId(1L)));
+        queries.put("ModuleRepository.findByCategoryIdAndCode",
+                indexed(() -> moduleRepository.findByCategoryIdAndCode(1L, "01")));
+        queries.put("ModuleRepository.findByIdWithErrorCodes", indexed(() -> moduleRepository.findByIdWithErrorCodes(1L)));
+        queries.put("ModuleRepository.findByCategoryIdWithErrorCodes",
+                indexed(() -> moduleRepository.findByCategoryIdWithErrorCodes(1L)));
+        queries.put("ModuleRepository.findAllWithHierarchy",
+                fullScanOf(Set.of("MODULES"), () -> moduleRepository.findAllWithHierarchy()));
+        queries.put("ModuleRepository.existsByCategoryIdAndCode",
+                indexed(() -> moduleRepository.existsByCategoryIdAndCode(1L, "01")));
+        queries.put("ModuleRepository.bulkDeleteByProjectId", indexed(() -> moduleRepository.bulkDeleteByProjectId(-1L)));
+        queries.put("ModuleRepository.bulkDeleteByCategoryId", indexed(() -> moduleRepository.bulkDeleteByCategoryId(-1L)));
+        queries.put("ModuleRepository.bulkDeleteById", indexed(() -> moduleRepository.bulkDeleteById(-1L)));
+
+        queries.put("ErrorCodeRepository.findByModuleId", indexed(() -> errorCodeRepository.findByModuleId(1L)));
+        queries.put("ErrorCodeRepository.findByCode", indexed(() -> errorCodeRepository.findByCode("01-01-01-0001")));
+        queries.put("ErrorCodeRepository.findByHttpStatus",
+                indexed(() -> errorCodeRepository.findByHttpStatus(ErrorCode.HttpStatus.CONFLICT)));
+        queries.put("ErrorCodeRepository.findBySeverity",
+                indexed(() -> errorCodeRepository.findBySeverity(ErrorCode.ErrorSeverity.CRITICAL)));
+        queries.put("ErrorCodeRepository.findByProjectId", indexed(() -> errorCodeRepository.findByProjectId(1L)));
+        queries.put("ErrorCodeRepository.findByCategoryId", indexed(() -> errorCodeRepository.findByCategoryId(1L)));
+        queries.put("ErrorCodeRepository.findMaxSequenceByModuleId",
+                indexed(() -> errorCodeRepository.findMaxSequenceByModuleId(1L)));
+        queries.put("ErrorCodeRepository.findAllWithHierarchy",
+                fullScanOf(Set.of("ERROR_CODES"), () -> errorCodeRepository.findAllWithHierarchy()));
+        queries.put("ErrorCodeRepository.findByIdWithHierarchy", indexed(() -> errorCodeRepository.findByIdWithHierarchy(1L)));
+        queries.put("ErrorCodeRepository.findByCodeInWithHierarchy",
+                indexed(() -> errorCodeRepository.findByCodeInWithHierarchy(List.of("01-01-01-0001", "02-01-01-0001"))));
+        queries.put("ErrorCodeRepository.findByIdInWithHierarchy",
+                indexed(() -> errorCodeRepository.findByIdInWithHierarchy(List.of(1L, 2L))));
+        queries.put("ErrorCodeRepository.existsByCode", indexed(() -> errorCodeRepository.existsByCode("01-01-01-0001")));
+        queries.put("ErrorCodeRepository.bulkDeleteByProjectId", indexed(() -> errorCodeRepository.bulkDeleteByProjectId(-1L)));
+        queries.put("ErrorCodeRepository.bulkDeleteByCategoryId",
+                indexed(() -> errorCodeRepository.bulkDeleteByCategoryId(-1L)));
+        queries.put("ErrorCodeRepository.bulkDeleteByModuleId", indexed(() -> errorCodeRepository.bulkDeleteByModuleId(-1L)));
+
+        queries.put("ErrorCodeTranslationRepository.findByErrorCodeIdOrderByLocale",
+                indexed(() -> errorCodeTranslationRepository.findByErrorCodeIdOrderByLocale(1L)));
+        queries.put("ErrorCodeTranslationRepository.findByErrorCodeIdAndLocale",
+                indexed(() -> errorCodeTranslationRepository.findByErrorCodeIdAndLocale(1L, "de")));
+        queries.put("ErrorCodeTranslationRepository.findByProjectId",
+                indexed(() -> errorCodeTranslationRepository.findByProjectId(1L)));
+        queries.put("ErrorCodeTranslationRepository.bulkDeleteByProjectId",
+                indexed(() -> errorCodeTranslationRepository.bulkDeleteByProjectId(-1L)));
+        queries.put("ErrorCodeTranslationRepository.bulkDeleteByCategoryId",
+                indexed(() -> errorCodeTranslationRepository.bulkDeleteByCategoryId(-1L)));
+        queries.put("ErrorCodeTranslationRepository.bulkDeleteByModuleId",
+                indexed(() -> errorCodeTranslationRepository.bulkDeleteByModuleId(-1L)));
+        queries.put("ErrorCodeTranslationRepository.bulkDeleteByErrorCodeId",
+                indexed(() -> errorCodeTranslationRepository.bulkDeleteByErrorCodeId(-1L)));
+        queries.put("ErrorCodeTranslationRepository.bulkDeleteByErrorCodeIdAndLocale",
+                indexed(() -> errorCodeTranslationRepository.bulkDeleteByErrorCodeIdAndLocale(-1L, "de")));
+
+        queries.put("ErrorOccurrenceRepository.findByCodeAndWindowStartGreaterThanEqualOrderByWindowStartAsc",
+                indexed(() -> errorOccurrenceRepository.findByCodeAndWindowStartGreaterThanEqualOrderByWindowStartAsc(
+                        "01-01-01-0001", LocalDateTime.now().minusHours(1))));
+
+        queries.put("CatalogInvalidationRepository.findByCreatedAtGreaterThanEqualOrderByIdAsc", indexed(() ->
+                catalogInvalidationRepository.findByCreatedAtGreaterThanEqualOrderByIdAsc(LocalDateTime.now())));
+        queries.put("CatalogInvalidationRepository.deleteOlderThan",
+                indexed(() -> catalogInvalidationRepository.deleteOlderThan(LocalDateTime.now().minusDays(1))));
+        return queries;
+    }
+
+    private void assertIndexed(QueryCheck check) {
+        List<String> statements = captureStatements(check.query());
+        assertFalse(statements.isEmpty(), "No SQL was executed");
+        for (String sql : statements) {
+            String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+            assertNotNull(plan);
+            Set<String> scanned = new TreeSet<>();
+            Matcher matcher = TABLE_SCAN.matcher(plan);
+            while (matcher.find()) {
+                scanned.add(matcher.group(1));
+            }
+            scanned.removeAll(check.scansAllowed());
+            assertEquals(Set.of(), scanned, "Full table scan in plan:\n" + plan);
+        }
+    }
+
+    // Runs the query in a transaction that is rolled back, so modifying queries leave the data untouched
+    private List<String> captureStatements(Runnable query) {
+        return transactionTemplate.execute(status -> {
+            RecordingStatementInspector.clear();
+            query.run();
+            status.setRollbackOnly();
+            return RecordingStatementInspector.statements();
+        });
+    }
+
+    private static QueryCheck indexed(Runnable query) {
+        return new QueryCheck(query, Set.of());
+    }
+
+    private static QueryCheck fullScanOf(Set<String> tables, Runnable query) {
+        return new QueryCheck(query, tables);
+    }
+
+    private record QueryCheck(Runnable query, Set<String> scansAllowed) {
+    }
+}
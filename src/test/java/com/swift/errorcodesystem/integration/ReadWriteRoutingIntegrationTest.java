@@ -0,0 +1,97 @@
+package com.swift.errorcodesystem.integration;
+
+import com.swift.errorcodesystem.datasource.ReadYourWritesFilter;
+import com.swift.errorcodesystem.entity.ErrorCode;
+import com.swift.errorcodesystem.service.ErrorCodeService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import jakarta.servlet.http.HttpServlet;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The replica is the primary's own in-memory database, reached as a user that may only read, so any write routed
+ * to it fails.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:read-write-routing;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;"
+                + "INIT=CREATE USER IF NOT EXISTS REPLICA PASSWORD 'replica'\\\\;GRANT SELECT ON SCHEMA PUBLIC TO REPLICA",
+        "errorcode.datasource.routing.enabled=true",
+        "errorcode.datasource.routing.replicas[0].url=jdbc:h2:mem:read-write-routing",
+        "errorcode.datasource.routing.replicas[0].username=replica",
+        "errorcode.datasource.routing.replicas[0].password=replica"
+})
+@DirtiesContext
+class ReadWriteRoutingIntegrationTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ErrorCodeService errorCodeService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void readThenWriteInOneRequest_WritesOnPrimary() throws Exception {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        ErrorCode details = ErrorCode.builder()
+                .message("Written on the primary")
+                .severity(ErrorCode.ErrorSeverity.LOW)
+                .httpStatus(ErrorCode.HttpStatus.BAD_REQUEST)
+                .isRetryable(false)
+                .build();
+        List<String> readers = new ArrayList<>();
+        List<ErrorCode> updated = new ArrayList<>();
+
+        inRequest(() -> {
+            readers.add(readOnly.execute(status -> currentUser()));
+            updated.add(errorCodeService.updateErrorCode(1L, details, null));
+            readers.add(readOnly.execute(status -> currentUser()));
+        });
+
+        assertEquals(List.of("REPLICA", "SA"), readers);
+        assertEquals("Written on the primary", updated.get(0).getMessage());
+    }
+
+    // Opens the request's read-your-writes state and one session for the whole request, as open-in-view does
+    private void inRequest(Runnable body) throws Exception {
+        EntityManagerHolder session = new EntityManagerHolder(entityManagerFactory.createEntityManager());
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, session);
+        try {
+            new ReadYourWritesFilter(Duration.ofSeconds(5)).doFilter(
+                    new MockHttpServletRequest("PUT", "/api/v1/error-codes/error-codes/1"), new MockHttpServletResponse(),
+                    new MockFilterChain(new HttpServlet() {
+                    }, (request, response, chain) -> body.run()));
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            EntityManagerFactoryUtils.closeEntityManager(session.getEntityManager());
+        }
+    }
+
+    private String currentUser() {
+        return (String) entityManager.createNativeQuery("SELECT CURRENT_USER").getSingleResult();
+    }
+}
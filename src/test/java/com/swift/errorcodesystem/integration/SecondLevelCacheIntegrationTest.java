@@ -0,0 +1,83 @@
+package com.swift.errorcodesystem.integration;
+
+import com.swift.errorcodesystem.entity.ErrorCode;
+import com.swift.errorcodesystem.repository.ErrorCodeRepository;
+import com.swift.errorcodesystem.repository.ModuleRepository;
+import com.swift.errorcodesystem.service.ErrorCodeService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@DirtiesContext
+class SecondLevelCacheIntegrationTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ModuleRepository moduleRepository;
+
+    @Autowired
+    private ErrorCodeRepository errorCodeRepository;
+
+    @Autowired
+    private ErrorCodeService errorCodeService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findById_SecondLookupHitsCache() {
+        moduleRepository.findById(1L);
+        long missesAfterFirstLoad = statistics.getSecondLevelCacheMissCount();
+
+        moduleRepository.findById(1L);
+
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+        assertEquals(missesAfterFirstLoad, statistics.getSecondLevelCacheMissCount());
+    }
+
+    @Test
+    void findByCode_SecondLookupHitsQueryCache() {
+        errorCodeRepository.findByCode("01-01-01-0001");
+        errorCodeRepository.findByCode("01-01-01-0001");
+
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(1, statistics.getQueryCacheMissCount());
+    }
+
+    @Test
+    void updateErrorCode_EvictsOnlyItsOwnEntry() {
+        errorCodeRepository.findById(1L);
+        errorCodeRepository.findById(2L);
+        ErrorCode details = ErrorCode.builder()
+                .message("Updated in place")
+                .severity(ErrorCode.ErrorSeverity.LOW)
+                .httpStatus(ErrorCode.HttpStatus.BAD_REQUEST)
+                .isRetryable(false)
+                .build();
+
+        errorCodeService.updateErrorCode(1L, details, null);
+        statistics.clear();
+        errorCodeRepository.findById(2L);
+
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+        assertEquals(0, statistics.getSecondLevelCacheMissCount());
+
+        assertEquals("Updated in place", errorCodeRepository.findById(1L).orElseThrow().getMessage());
+        assertEquals(1, statistics.getSecondLevelCacheMissCount());
+    }
+}
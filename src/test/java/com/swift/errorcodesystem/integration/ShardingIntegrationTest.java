@@ -0,0 +1,172 @@
+package com.swift.errorcodesystem.integration;
+
+import com.swift.errorcodesystem.dto.ErrorCodeDto;
+import com.swift.errorcodesystem.entity.Category;
+import com.swift.errorcodesystem.entity.ErrorCode;
+import com.swift.errorcodesystem.entity.ErrorCodeTranslation;
+import com.swift.errorcodesystem.entity.Module;
+import com.swift.errorcodesystem.entity.Project;
+import com.swift.errorcodesystem.service.ErrorCodeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against two shards: the default one, and "heavy" holding the Banking System project (code 02).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:sharding-default;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "errorcode.sharding.enabled=true",
+        "errorcode.sharding.id-range-size=1000000",
+        "errorcode.sharding.shards.heavy.url=" + ShardingIntegrationTest.HEAVY_URL,
+        "errorcode.sharding.shards.heavy.username=sa",
+        "errorcode.sharding.assignments.02=heavy"
+})
+@DirtiesContext
+class ShardingIntegrationTest {
+
+    static final String HEAVY_URL = "jdbc:h2:mem:sharding-heavy;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+    private static final long HEAVY_RANGE_START = 1_000_001L;
+
+    @Autowired
+    private ErrorCodeService errorCodeService;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JdbcTemplate defaultShard;
+
+    private final JdbcTemplate heavyShard = new JdbcTemplate(new DriverManagerDataSource(HEAVY_URL, "sa", ""));
+
+    @Test
+    void projects_ArePlacedByCode() {
+        assertEquals(0, countProjects(defaultShard, "02"));
+        assertEquals(1, countProjects(heavyShard, "02"));
+        assertEquals(1, countProjects(defaultShard, "01"));
+        assertEquals(0, countProjects(heavyShard, "01"));
+
+        Long bankingId = heavyShard.queryForObject("SELECT id FROM projects WHERE code = '02'", Long.class);
+        assertTrue(bankingId >= HEAVY_RANGE_START);
+        assertEquals("Banking System", errorCodeService.getProjectById(bankingId).orElseThrow().getName());
+        assertEquals(3, errorCodeService.getCategoriesByProjectId(bankingId).size());
+    }
+
+    @Test
+    void keyedWrites_StayOnTheProjectsShard() {
+        Category account = errorCodeService.getCategoriesByProjectId(
+                heavyShard.queryForObject("SELECT id FROM projects WHERE code = '02'", Long.class)).get(0);
+        Module module = errorCodeService.createModule(account.getId(), Module.builder()
+                .code("07").name("Statements").description("Account statements").purpose("Statement retrieval").build());
+        ErrorCode created = errorCodeService.createErrorCode(module.getId(), ErrorCode.builder()
+                .message("Statement not available").description("The statement period is not closed yet")
+                .severity(ErrorCode.ErrorSeverity.LOW).httpStatus(ErrorCode.HttpStatus.NOT_FOUND)
+                .isRetryable(true).build());
+
+        assertTrue(module.getId() >= HEAVY_RANGE_START);
+        assertTrue(created.getId() >= HEAVY_RANGE_START);
+        assertEquals(1, heavyShard.queryForObject(
+                "SELECT COUNT(*) FROM error_codes WHERE code = ?", Integer.class, created.getCode()));
+        assertEquals(created.getId(), errorCodeService.getErrorCodeByCode(created.getCode()).orElseThrow().getId());
+        assertTrue(errorCodeService.getErrorCodeById(created.getId()).isPresent());
+    }
+
+    @Test
+    void lists_FanOutAcrossShards() {
+        List<String> projectCodes = errorCodeService.getAllProjects().stream().map(Project::getCode).toList();
+        assertTrue(projectCodes.containsAll(List.of("01", "02", "03")));
+        assertEquals(projectCodes.size(), errorCodeService.getCatalogHierarchy(false).getProjects().size());
+
+        ResponseEntity<Map> stats = restTemplate.getForEntity(
+                "/api/v1/error-codes/statistics/count-by-project", Map.class);
+        assertEquals(HttpStatus.OK, stats.getStatusCode());
+        assertTrue(stats.getBody().containsKey("Banking System"));
+        assertTrue(stats.getBody().containsKey("E-Commerce Platform"));
+    }
+
+    @Test
+    void createProject_RejectsNameTakenOnAnotherShard() {
+        // Code 55 belongs on the default shard, the Banking System project lives on "heavy"
+        Project duplicate = Project.builder()
+                .code("55").name("Banking System").owner("Copy Team").status(Project.ProjectStatus.ACTIVE).build();
+
+        assertThrows(IllegalArgumentException.class, () -> errorCodeService.createProject(duplicate));
+        assertEquals(0, countProjects(defaultShard, "55"));
+    }
+
+    @Test
+    void moveProject_CopiesSubtreeAndKeepsCodes() {
+        Project project = errorCodeService.createProject(Project.builder()
+                .code("44").name("Movable Project").owner("Move Team").status(Project.ProjectStatus.ACTIVE).build());
+        Category category = errorCodeService.createCategory(project.getId(), Category.builder()
+                .code("01").name("Movable Category").build());
+        Module module = errorCodeService.createModule(category.getId(), Module.builder()
+                .code("01").name("Movable Module").purpose("Moves between shards").build());
+        ErrorCode errorCode = errorCodeService.createErrorCode(module.getId(), ErrorCode.builder()
+                .message("Moved along").description("Travels with its project")
+                .severity(ErrorCode.ErrorSeverity.MEDIUM).httpStatus(ErrorCode.HttpStatus.CONFLICT)
+                .isRetryable(false).build());
+        errorCodeService.saveTranslation(errorCode.getId(), "de", ErrorCodeTranslation.builder()
+                .message("Mitgezogen nach {shard}").build());
+        assertEquals("Mitgezogen nach heavy", renderInGerman(errorCode.getCode()).getMessage());
+        assertTrue(project.getId() < HEAVY_RANGE_START);
+
+        ResponseEntity<ErrorCodeDto.ProjectResponse> response = restTemplate.postForEntity(
+                "/api/v1/error-codes/projects/" + project.getId() + "/move?shard=heavy", null,
+                ErrorCodeDto.ProjectResponse.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        Long movedId = response.getBody().getId();
+        assertTrue(movedId >= HEAVY_RANGE_START);
+        assertEquals("44", response.getBody().getCode());
+        assertTrue(errorCodeService.getProjectById(project.getId()).isEmpty());
+        assertEquals(0, countProjects(defaultShard, "44"));
+        assertEquals(1, countProjects(heavyShard, "44"));
+
+        ErrorCode moved = errorCodeService.getErrorCodeByCode(errorCode.getCode()).orElseThrow();
+        assertEquals("Moved along", moved.getMessage());
+        assertTrue(moved.getId() >= HEAVY_RANGE_START);
+        assertEquals(1, errorCodeService.getErrorCodesByProjectId(movedId).size());
+
+        // Translations move with their error codes, and the templates compiled from them still render
+        assertEquals(List.of("de"), errorCodeService.getTranslations(moved.getId()).stream()
+                .map(ErrorCodeTranslation::getLocale).toList());
+        assertEquals(0, defaultShard.queryForObject(
+                "SELECT COUNT(*) FROM error_code_translations WHERE error_code_id = ?", Integer.class, errorCode.getId()));
+        ErrorCodeDto.RenderedErrorCode rendered = renderInGerman(errorCode.getCode());
+        assertEquals("de", rendered.getLocale());
+        assertEquals("Mitgezogen nach heavy", rendered.getMessage());
+    }
+
+    @Test
+    void moveProject_ToItsOwnShard_IsRejected() {
+        ResponseEntity<String> response = restTemplate.postForEntity(
+                "/api/v1/error-codes/projects/1/move?shard=default", null, String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    private ErrorCodeDto.RenderedErrorCode renderInGerman(String code) {
+        ErrorCodeDto.RenderRequest request = ErrorCodeDto.RenderRequest.builder()
+                .locale("de").arguments(Map.of("shard", "heavy")).build();
+        ResponseEntity<ErrorCodeDto.RenderedErrorCode> response = restTemplate.postForEntity(
+                "/api/v1/error-codes/error-codes/code/" + code + "/render", request, ErrorCodeDto.RenderedErrorCode.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return response.getBody();
+    }
+
+    private static int countProjects(JdbcTemplate shard, String code) {
+        return shard.queryForObject("SELECT COUNT(*) FROM projects WHERE code = ?", Integer.class, code);
+    }
+}
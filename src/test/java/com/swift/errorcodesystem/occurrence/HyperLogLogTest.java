@@ -0,0 +1,90 @@
+package com.swift.errorcodesystem.occurrence;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HyperLogLogTest {
+
+    @Test
+    void estimate_SmallCountsAreNearlyExact() {
+        HyperLogLog sketch = new HyperLogLog(12);
+        assertTrue(sketch.isEmpty());
+        assertEquals(0, sketch.estimate());
+
+        for (int repeat = 0; repeat < 3; repeat++) {
+            for (int i = 0; i < 50; i++) {
+                sketch.add(HyperLogLog.hash("tenant-" + i));
+            }
+        }
+
+        assertFalse(sketch.isEmpty());
+        assertEquals(50, sketch.estimate(), 1);
+    }
+
+    @Test
+    void estimate_LargeCountsAreWithinErrorBound() {
+        HyperLogLog sketch = new HyperLogLog(12);
+        int distinct = 200_000;
+        for (int i = 0; i < distinct; i++) {
+            sketch.add(HyperLogLog.hash("caller-" + i));
+        }
+
+        // Three standard errors, which a fixed input stays within
+        double bound = 3 * sketch.relativeStandardError() * distinct;
+        assertEquals(distinct, sketch.estimate(), bound);
+        assertEquals(0.01625, sketch.relativeStandardError(), 1e-6);
+    }
+
+    @Test
+    void merge_EqualsSketchOfUnion() {
+        HyperLogLog first = new HyperLogLog(10);
+        HyperLogLog second = new HyperLogLog(10);
+        HyperLogLog union = new HyperLogLog(10);
+        for (int i = 0; i < 5_000; i++) {
+            long hash = HyperLogLog.hash("caller-" + i);
+            // Overlapping halves: the first takes 0..2999, the second 2000..4999
+            if (i < 3_000) {
+                first.add(hash);
+            }
+            if (i >= 2_000) {
+                second.add(hash);
+            }
+            union.add(hash);
+        }
+
+        first.merge(second);
+
+        assertArrayEquals(union.toBytes(), first.toBytes());
+        assertEquals(5_000, first.estimate(), 3 * first.relativeStandardError() * 5_000);
+    }
+
+    @Test
+    void toBytes_RoundTripsSparseAndDense() {
+        HyperLogLog sparse = new HyperLogLog(8);
+        sparse.add(HyperLogLog.hash("only"));
+        HyperLogLog dense = new HyperLogLog(8);
+        for (int i = 0; i < 1_000; i++) {
+            dense.add(HyperLogLog.hash("caller-" + i));
+        }
+
+        for (HyperLogLog sketch : new HyperLogLog[]{sparse, dense}) {
+            byte[] bytes = sketch.toBytes();
+            assertEquals(257, bytes.length);
+            HyperLogLog restored = HyperLogLog.fromBytes(bytes);
+            assertArrayEquals(bytes, restored.toBytes());
+            assertEquals(sketch.estimate(), restored.estimate());
+        }
+    }
+
+    @Test
+    void invalidSketches_AreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(3));
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(10).merge(new HyperLogLog(11)));
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[0]));
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[]{4, 0, 0}));
+        byte[] outOfRange = new HyperLogLog(4).toBytes();
+        outOfRange[1] = 62;
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(outOfRange));
+    }
+}
@@ -0,0 +1,221 @@
+package com.swift.errorcodesystem.occurrence;
+
+import com.swift.errorcodesystem.catalog.ErrorCodeCatalog;
+import com.swift.errorcodesystem.config.OccurrenceProperties;
+import com.swift.errorcodesystem.config.ShardingProperties;
+import com.swift.errorcodesystem.dto.ErrorCodeDto;
+import com.swift.errorcodesystem.entity.ErrorOccurrence;
+import com.swift.errorcodesystem.repository.ErrorOccurrenceRepository;
+import com.swift.errorcodesystem.sharding.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class OccurrenceIngestorTest {
+
+    private OccurrenceProperties properties;
+    private ErrorCodeCatalog errorCodeCatalog;
+    private ErrorOccurrenceRepository occurrenceRepository;
+    private OccurrenceIngestor ingestor;
+    private final List<ErrorOccurrence> written = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        properties = new OccurrenceProperties();
+        properties.setEnabled(true);
+        // Flushed by the tests themselves
+        properties.setFlushInterval(Duration.ofHours(1));
+        errorCodeCatalog = mock(ErrorCodeCatalog.class);
+        when(errorCodeCatalog.isLoaded()).thenReturn(true);
+        when(errorCodeCatalog.findByCode(anyString()))
+                .thenReturn(Optional.of(ErrorCodeDto.ErrorCodeResponse.builder().build()));
+        occurrenceRepository = mock(ErrorOccurrenceRepository.class);
+        when(occurrenceRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<ErrorOccurrence> rows = invocation.getArgument(0);
+            written.addAll(rows);
+            return rows;
+        });
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        ingestor = new OccurrenceIngestor(properties, errorCodeCatalog, occurrenceRepository,
+                new ShardRouter(new ShardingProperties(), null, null), new OccurrenceRollups(properties),
+                transactionManager, new SimpleMeterRegistry());
+        ingestor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ingestor.stop();
+    }
+
+    @Test
+    void errorCodeKey_RoundTrips() {
+        for (String code : List.of("01-01-01-0001", "99-99-99-9999", "07-12-03-123456789")) {
+            long key = ErrorCodeKey.pack(code);
+            assertNotEquals(ErrorCodeKey.INVALID, key);
+            assertTrue(key < 1L << ErrorCodeKey.BITS);
+            assertEquals(code, ErrorCodeKey.unpack(key));
+        }
+        assertEquals("07", ErrorCodeKey.projectCode(ErrorCodeKey.pack("07-12-03-0001")));
+        for (String code : List.of("", "01-01-01", "01-01-01-00a1", "1-01-01-0001", "01-01-01-00001", "01_01_01_0001")) {
+            assertEquals(ErrorCodeKey.INVALID, ErrorCodeKey.pack(code), code);
+        }
+    }
+
+    @Test
+    void ingest_ConcurrentReports_AreAllCounted() throws Exception {
+        int threads = 8;
+        int batches = 200;
+        List<ErrorCodeDto.OccurrenceReport> batch = List.of(
+                report("01-01-01-0001", "checkout"),
+                report("01-01-01-0001", "billing"),
+                report("02-01-01-0001", "checkout"));
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < batches; i++) {
+                        ingestor.ingest(batch);
+                        // Flushing mid-stream must not lose reports racing with it
+                        if (i % 50 == 0) {
+                            ingestor.flush();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        ingestor.flush();
+
+        Map<String, Long> totals = written.stream().collect(Collectors.groupingBy(
+                row -> row.getCode() + "/" + row.getService(), Collectors.summingLong(ErrorOccurrence::getCount)));
+        long expected = (long) threads * batches;
+        assertEquals(Map.of("01-01-01-0001/checkout", expected, "01-01-01-0001/billing", expected,
+                "02-01-01-0001/checkout", expected), totals);
+    }
+
+    @Test
+    void ingest_InvalidReports_AreRejectedByReason() {
+        when(errorCodeCatalog.findByCode("01-01-01-0404")).thenReturn(Optional.empty());
+        Instant now = Instant.now();
+
+        ErrorCodeDto.OccurrenceBatchResponse response = ingestor.ingest(List.of(
+                ErrorCodeDto.OccurrenceReport.builder().code("01-01-01-0001").service("checkout").count(5L).build(),
+                report("not-a-code", "checkout"),
+                report("01-01-01-0404", "checkout"),
+                report("01-01-01-0001", " "),
+                ErrorCodeDto.OccurrenceReport.builder().code("01-01-01-0001").service("checkout")
+                        .occurredAt(now.plus(Duration.ofHours(1))).build(),
+                ErrorCodeDto.OccurrenceReport.builder().code("01-01-01-0001").service("checkout")
+                        .occurredAt(now.minus(Duration.ofDays(2))).build()));
+
+        assertEquals(5, response.getAccepted());
+        assertEquals(5, response.getRejected());
+        assertEquals(Map.of("INVALID_CODE", 1L, "UNKNOWN_CODE", 1L, "INVALID_SERVICE", 1L, "OUT_OF_RANGE", 2L),
+                response.getRejections());
+    }
+
+    @Test
+    void ingest_BeyondTrackedKeys_IsRejected() {
+        properties.setMaxTrackedKeys(2);
+
+        ErrorCodeDto.OccurrenceBatchResponse response = ingestor.ingest(List.of(
+                report("01-01-01-0001", "checkout"),
+                report("01-01-01-0002", "checkout"),
+                report("01-01-01-0003", "checkout"),
+                report("01-01-01-0001", "checkout")));
+
+        assertEquals(3, response.getAccepted());
+        assertEquals(Map.of("TOO_MANY_KEYS", 1L), response.getRejections());
+    }
+
+    @Test
+    void flush_WritesOneRowPerPairAndWindow() {
+        ingestor.ingest(List.of(report("01-01-01-0001", "checkout"), report("01-01-01-0001", "checkout")));
+        assertEquals(1, ingestor.flush());
+        // Nothing was reported since
+        assertEquals(0, ingestor.flush());
+        ingestor.ingest(List.of(report("01-01-01-0001", "checkout")));
+        assertEquals(1, ingestor.flush());
+
+        assertEquals(List.of(2L, 1L), written.stream().map(ErrorOccurrence::getCount).toList());
+        assertTrue(written.get(0).getWindowStart().isBefore(written.get(1).getWindowStart()));
+        assertEquals("checkout", written.get(0).getService());
+        assertNotNull(written.get(0).getLastOccurredAt());
+    }
+
+    @Test
+    void flush_FailedWrite_KeepsCountsForNextFlush() {
+        when(occurrenceRepository.saveAll(anyList()))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenAnswer(invocation -> {
+                    List<ErrorOccurrence> rows = invocation.getArgument(0);
+                    written.addAll(rows);
+                    return rows;
+                });
+        ingestor.ingest(List.of(report("01-01-01-0001", "checkout")));
+
+        assertEquals(0, ingestor.flush());
+        ingestor.ingest(List.of(report("01-01-01-0001", "checkout")));
+        assertEquals(1, ingestor.flush());
+
+        assertEquals(2L, written.get(0).getCount());
+    }
+
+    @Test
+    void flush_IdlePairs_AreDroppedAndCountedAgainWhenReported() {
+        ingestor.ingest(List.of(report("01-01-01-0001", "checkout")));
+        for (int i = 0; i < 4; i++) {
+            ingestor.flush();
+        }
+        ingestor.ingest(List.of(report("01-01-01-0001", "checkout")));
+        ingestor.flush();
+
+        assertEquals(List.of(1L, 1L), written.stream().map(ErrorOccurrence::getCount).toList());
+        Map<String, ErrorOccurrence> byWindow = written.stream().collect(Collectors.toMap(
+                row -> row.getWindowStart().toString(), Function.identity()));
+        assertEquals(2, byWindow.size());
+    }
+
+    @Test
+    void ingest_WhenStopped_IsRejected() {
+        ingestor.ingest(List.of(report("01-01-01-0001", "checkout")));
+        ingestor.stop();
+
+        assertEquals(1, written.size());
+        assertThrows(RejectedExecutionException.class,
+                () -> ingestor.ingest(List.of(report("01-01-01-0001", "checkout"))));
+    }
+
+    private static ErrorCodeDto.OccurrenceReport report(String code, String service) {
+        return ErrorCodeDto.OccurrenceReport.builder().code(code).service(service).build();
+    }
+}
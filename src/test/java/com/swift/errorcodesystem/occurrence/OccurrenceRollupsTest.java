@@ -0,0 +1,233 @@
+package com.swift.errorcodesystem.occurrence;
+
+import com.swift.errorcodesystem.config.OccurrenceProperties;
+import com.swift.errorcodesystem.dto.ErrorCodeDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OccurrenceRollupsTest {
+
+    private static final long MINUTE = 60_000;
+    private static final long HOUR = 60 * MINUTE;
+    // Start of an hour, so minute offsets stay within it
+    private static final long NOW = 480_000 * HOUR;
+
+    private OccurrenceProperties properties;
+    private OccurrenceRollups rollups;
+
+    @BeforeEach
+    void setUp() {
+        properties = new OccurrenceProperties();
+        properties.setTopCapacity(4);
+        rollups = new OccurrenceRollups(properties);
+    }
+
+    @Test
+    void topCodes_RanksByCountWithinWindow() {
+        report("01-01-01-0001", NOW + 40 * MINUTE, 5, NOW + 40 * MINUTE);
+        report("01-01-01-0002", NOW + 50 * MINUTE, 3, NOW + 50 * MINUTE);
+        report("01-02-01-0001", NOW + 55 * MINUTE, 4, NOW + 55 * MINUTE);
+        long now = NOW + 56 * MINUTE;
+
+        assertEquals(List.of(code("01-01-01-0001", 5), code("01-02-01-0001", 4), code("01-01-01-0002", 3)),
+                rollups.topCodes("01", null, 30, 4, now).getCodes());
+        // The older spike is out of a 15 minute window
+        assertEquals(List.of(code("01-02-01-0001", 4), code("01-01-01-0002", 3)),
+                rollups.topCodes("01", null, 15, 4, now).getCodes());
+        assertEquals(List.of(code("01-02-01-0001", 4)), rollups.topCodes("01", null, 15, 1, now).getCodes());
+        assertEquals(3, rollups.topCodes("01", null, 15, 1, now).getMaxUnlistedCount());
+        assertEquals(0, rollups.topCodes("01", null, 30, 4, now).getMaxUnlistedCount());
+        assertEquals(List.of(code("01-01-01-0001", 5), code("01-01-01-0002", 3)),
+                rollups.topCodes(null, "01-01-01", 30, 4, now).getCodes());
+        assertEquals(List.of(), rollups.topCodes("02", null, 30, 4, now).getCodes());
+    }
+
+    @Test
+    void topCodes_HeavyHitterSurvivesManyRareCodes() {
+        for (int i = 1; i <= 50; i++) {
+            report(String.format("01-01-01-%04d", i), NOW + MINUTE, 1, NOW + MINUTE);
+            // More than a quarter of all occurrences, so a sketch of four must keep it
+            report("01-01-02-0001", NOW + MINUTE, 1, NOW + MINUTE);
+        }
+
+        ErrorCodeDto.TopOccurrences top = rollups.topCodes("01", null, 5, 1, NOW + 2 * MINUTE);
+
+        assertEquals(List.of(code("01-01-02-0001", 50)), top.getCodes());
+        // Each rare code occurred once; the bound must cover that without reaching the heavy hitter
+        assertTrue(top.getMaxUnlistedCount() >= 1 && top.getMaxUnlistedCount() < 50);
+    }
+
+    @Test
+    void topCodes_CoversPreviousHour() {
+        report("01-01-01-0001", NOW + 59 * MINUTE, 2, NOW + 59 * MINUTE);
+
+        assertEquals(List.of(code("01-01-01-0001", 2)),
+                rollups.topCodes("01", null, 15, 4, NOW + HOUR + 5 * MINUTE).getCodes());
+        assertEquals(List.of(), rollups.topCodes("01", null, 15, 4, NOW + 2 * HOUR + 5 * MINUTE).getCodes());
+    }
+
+    @Test
+    void topCodes_InvalidArguments_AreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> rollups.topCodes(null, null, 15, 10, NOW));
+        assertThrows(IllegalArgumentException.class, () -> rollups.topCodes("01", "01-01-01", 15, 10, NOW));
+        assertThrows(IllegalArgumentException.class, () -> rollups.topCodes("01", null, 61, 10, NOW));
+        assertThrows(IllegalArgumentException.class, () -> rollups.topCodes("01", null, 15, 5, NOW));
+        assertThrows(IllegalArgumentException.class, () -> rollups.topCodes("1", null, 15, 1, NOW));
+        assertThrows(IllegalArgumentException.class, () -> rollups.topCodes(null, "01-01", 15, 1, NOW));
+    }
+
+    @Test
+    void rollup_ReturnsMinuteAndHourSeriesOldestFirst() {
+        long now = NOW + 30 * MINUTE;
+        report("01-01-01-0001", now, 1, now);
+        report("01-01-01-0001", now - MINUTE, 2, now);
+        report("01-01-01-0001", now - 3 * HOUR, 4, now);
+        // Out of the minute ring, still within the hour ring
+        report("01-01-01-0001", now - 2 * HOUR, 8, now);
+        // Past the clock, counted now
+        report("01-01-01-0001", now + 2 * MINUTE, 16, now);
+
+        ErrorCodeDto.OccurrenceRollup rollup = rollups.rollup("01-01-01-0001", now);
+
+        List<ErrorCodeDto.OccurrenceBucket> minutes = rollup.getPerMinute();
+        assertEquals(OccurrenceRollups.MINUTES, minutes.size());
+        assertEquals(17, minutes.get(59).getCount());
+        assertEquals(2, minutes.get(58).getCount());
+        assertEquals(19, minutes.stream().mapToLong(ErrorCodeDto.OccurrenceBucket::getCount).sum());
+        assertTrue(minutes.get(58).getStart().isBefore(minutes.get(59).getStart()));
+
+        List<ErrorCodeDto.OccurrenceBucket> hours = rollup.getPerHour();
+        assertEquals(OccurrenceRollups.HOURS, hours.size());
+        assertEquals(19, hours.get(23).getCount());
+        assertEquals(8, hours.get(21).getCount());
+        assertEquals(4, hours.get(20).getCount());
+    }
+
+    @Test
+    void evictExpired_DropsCodesIdleForADay() {
+        properties.setMaxTrackedKeys(1);
+        report("01-01-01-0001", NOW, 1, NOW);
+        long dayLater = NOW + 25 * HOUR;
+
+        rollups.evictExpired(NOW + HOUR);
+        assertEquals(1, rollups.rollup("01-01-01-0001", NOW + HOUR).getPerHour().get(22).getCount());
+
+        rollups.evictExpired(dayLater);
+        report("01-01-01-0002", dayLater, 1, dayLater);
+        assertEquals(List.of(code("01-01-01-0002", 1)), rollups.topCodes("01", null, 5, 4, dayLater).getCodes());
+    }
+
+    @Test
+    void callers_MergeAcrossHoursWithinWindow() {
+        long now = NOW + 30 * MINUTE;
+        report("01-01-01-0001", now, 1, now);
+        for (int i = 0; i < 40; i++) {
+            // Callers 0..29 three hours ago, 10..39 now: 40 distinct over the day, 30 within the hour
+            if (i < 30) {
+                caller("01-01-01-0001", now - 3 * HOUR, "tenant-" + i, now);
+            }
+            if (i >= 10) {
+                caller("01-01-01-0001", now, "tenant-" + i, now);
+            }
+        }
+        // Older than a day
+        caller("01-01-01-0001", now - 25 * HOUR, "tenant-old", now);
+
+        assertEquals(40, rollups.callers("01-01-01-0001", OccurrenceRollups.HOURS, now).orElseThrow().estimate(), 1);
+        assertEquals(30, rollups.callers("01-01-01-0001", 1, now).orElseThrow().estimate(), 1);
+        assertTrue(rollups.callers("01-01-01-0001", 24, now + 24 * HOUR).isEmpty());
+        assertTrue(rollups.callers("01-01-01-0002", 24, now).isEmpty());
+    }
+
+    @Test
+    void callers_KeptForAtMostMaxCallerCodes() {
+        properties.setMaxCallerCodes(1);
+        rollups = new OccurrenceRollups(properties);
+        long now = NOW + 30 * MINUTE;
+        report("01-01-01-0001", now, 1, now);
+        report("01-01-01-0002", now, 1, now);
+        caller("01-01-01-0001", now, "tenant-a", now);
+        caller("01-01-01-0002", now, "tenant-a", now);
+
+        assertEquals(1, rollups.callers("01-01-01-0001", 24, now).orElseThrow().estimate(), 1);
+        assertTrue(rollups.callers("01-01-01-0002", 24, now).isEmpty());
+
+        // The first code's place frees up once it goes a day without occurrences
+        long dayLater = now + 24 * HOUR;
+        rollups.evictExpired(dayLater);
+        report("01-01-01-0002", dayLater, 1, dayLater);
+        caller("01-01-01-0002", dayLater, "tenant-a", dayLater);
+        assertEquals(1, rollups.callers("01-01-01-0002", 24, dayLater).orElseThrow().estimate(), 1);
+    }
+
+    @Test
+    void mergeCallerSketches_EstimatesUnion() {
+        HyperLogLog first = new HyperLogLog(properties.getCallerPrecision());
+        HyperLogLog second = new HyperLogLog(properties.getCallerPrecision());
+        for (int i = 0; i < 20; i++) {
+            first.add(HyperLogLog.hash("tenant-" + i));
+            second.add(HyperLogLog.hash("tenant-" + (i + 10)));
+        }
+
+        ErrorCodeDto.DistinctCallers merged = rollups.mergeCallerSketches(List.of(first.toBytes(), second.toBytes()));
+
+        assertEquals(30, merged.getEstimate(), 1);
+        assertTrue(merged.getLowerBound() <= merged.getEstimate() && merged.getEstimate() <= merged.getUpperBound());
+        assertNull(merged.getHours());
+        assertThrows(IllegalArgumentException.class,
+                () -> rollups.mergeCallerSketches(List.of(first.toBytes(), new HyperLogLog(4).toBytes())));
+    }
+
+    @Test
+    void bucketRing_KeepsCountsPerBucketAndDropsStaleOnes() {
+        BucketRing ring = new BucketRing(3, MINUTE);
+        ring.add(NOW, 1, NOW);
+        ring.add(NOW + MINUTE, 2, NOW + MINUTE);
+        ring.add(NOW + 3 * MINUTE, 4, NOW + 3 * MINUTE);
+        // Older than the ring reaches back
+        ring.add(NOW, 8, NOW + 3 * MINUTE);
+
+        assertArrayEquals(new long[]{2, 0, 4}, ring.counts(NOW + 3 * MINUTE));
+        assertEquals(6, ring.sum(NOW + 3 * MINUTE, 3));
+        assertEquals(4, ring.sum(NOW + 3 * MINUTE, 1));
+        assertFalse(ring.isExpired(NOW + 3 * MINUTE));
+        assertTrue(ring.isExpired(NOW + 6 * MINUTE));
+    }
+
+    @Test
+    void spaceSavingSketch_BoundsUnmonitoredCodesBySmallestCount() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(2);
+        sketch.offer(1, 5);
+        assertEquals(0, sketch.unmonitoredBound());
+        sketch.offer(2, 1);
+
+        // Code 3 replaces code 2 and inherits its count of 1
+        sketch.offer(3, 2);
+
+        assertEquals(Set.of(1L, 3L), Set.copyOf(sketch.candidates()));
+        assertEquals(3, sketch.unmonitoredBound());
+        assertTrue(sketch.unmonitoredBound() <= 8 / 2);
+    }
+
+    private void report(String code, long at, long count, long now) {
+        long key = ErrorCodeKey.pack(code);
+        rollups.record(key, at, count, now);
+        if (at > now - HOUR) {
+            rollups.offer(Map.of(key, count), now);
+        }
+    }
+
+    private void caller(String code, long at, String caller, long now) {
+        rollups.recordCaller(ErrorCodeKey.pack(code), at, HyperLogLog.hash(caller), now);
+    }
+
+    private static ErrorCodeDto.CodeOccurrences code(String code, long count) {
+        return ErrorCodeDto.CodeOccurrences.builder().code(code).count(count).build();
+    }
+}
@@ -0,0 +1,123 @@
+package com.swift.errorcodesystem.service;
+
+import com.swift.errorcodesystem.catalog.ErrorCodeCatalog;
+import com.swift.errorcodesystem.config.SearchCacheProperties;
+import com.swift.errorcodesystem.config.ShardingProperties;
+import com.swift.errorcodesystem.dto.ErrorCodeDto;
+import com.swift.errorcodesystem.entity.Category;
+import com.swift.errorcodesystem.entity.ErrorCode;
+import com.swift.errorcodesystem.entity.Module;
+import com.swift.errorcodesystem.entity.Project;
+import com.swift.errorcodesystem.event.CatalogChangeEvent;
+import com.swift.errorcodesystem.repository.ErrorCodeRepository;
+import com.swift.errorcodesystem.sharding.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ErrorCodeSearchServiceTest {
+
+    @Mock
+    private ErrorCodeCatalog errorCodeCatalog;
+
+    @Mock
+    private ErrorCodeRepository errorCodeRepository;
+
+    private ErrorCodeSearchService searchService;
+
+    private Module paymentModule;
+    private Module bankingModule;
+    private ErrorCode timeout;
+
+    @BeforeEach
+    void setUp() {
+        searchService = new ErrorCodeSearchService(errorCodeCatalog, errorCodeRepository,
+                new ShardRouter(new ShardingProperties(), null, null), new SearchCacheProperties());
+
+        paymentModule = module(1L, "01");
+        bankingModule = module(2L, "02");
+        timeout = errorCode(1L, "01-01-01-0001", "Gateway timeout", ErrorCode.ErrorSeverity.CRITICAL, paymentModule);
+    }
+
+    @Test
+    void search_SharesEntryBetweenEquivalentRequests() {
+        when(errorCodeCatalog.search(any(ErrorCodeDto.SearchRequest.class))).thenReturn(List.of(response(timeout)));
+
+        searchService.search(ErrorCodeDto.SearchRequest.builder().searchTerm("TimeOut").build());
+        List<ErrorCodeDto.ErrorCodeResponse> results = searchService.search(
+                ErrorCodeDto.SearchRequest.builder().searchTerm("timeout").build());
+
+        assertEquals(List.of("01-01-01-0001"), results.stream().map(ErrorCodeDto.ErrorCodeResponse::getCode).toList());
+        verify(errorCodeCatalog, times(1)).search(any(ErrorCodeDto.SearchRequest.class));
+    }
+
+    @Test
+    void onCatalogChange_UnrelatedErrorCodeWrite_KeepsEntry() {
+        ErrorCodeDto.SearchRequest critical = ErrorCodeDto.SearchRequest.builder()
+                .severity(ErrorCode.ErrorSeverity.CRITICAL)
+                .projectCode("01")
+                .build();
+        when(errorCodeCatalog.search(critical)).thenReturn(List.of(response(timeout)));
+        searchService.search(critical);
+
+        ErrorCode otherProject = errorCode(3L, "02-01-02-0001", "Ledger closed", ErrorCode.ErrorSeverity.CRITICAL,
+                bankingModule);
+        when(errorCodeRepository.findByIdWithHierarchy(3L)).thenReturn(Optional.of(otherProject));
+        searchService.onCatalogChange(CatalogChangeEvent.forErrorCode(otherProject, CatalogChangeEvent.ChangeType.CREATED));
+        searchService.onCatalogChange(CatalogChangeEvent.forModule(bankingModule, CatalogChangeEvent.ChangeType.UPDATED));
+        searchService.search(critical);
+
+        verify(errorCodeCatalog, times(1)).search(critical);
+    }
+
+    @Test
+    void onCatalogChange_MatchingErrorCodeWrite_DropsEntry() {
+        ErrorCodeDto.SearchRequest critical = ErrorCodeDto.SearchRequest.builder()
+                .severity(ErrorCode.ErrorSeverity.CRITICAL)
+                .build();
+        when(errorCodeCatalog.search(critical)).thenReturn(List.of(response(timeout)));
+        searchService.search(critical);
+
+        ErrorCode escalated = errorCode(2L, "01-01-01-0002", "Card declined", ErrorCode.ErrorSeverity.CRITICAL,
+                paymentModule);
+        when(errorCodeRepository.findByIdWithHierarchy(2L)).thenReturn(Optional.of(escalated));
+        searchService.onCatalogChange(CatalogChangeEvent.forErrorCode(escalated, CatalogChangeEvent.ChangeType.UPDATED));
+        when(errorCodeCatalog.search(critical)).thenReturn(List.of(response(timeout), response(escalated)));
+
+        assertEquals(2, searchService.search(critical).size());
+        verify(errorCodeCatalog, times(2)).search(critical);
+    }
+
+    private static Module module(Long id, String projectCode) {
+        Project project = Project.builder().id(id).name("Project " + projectCode).code(projectCode).build();
+        Category category = Category.builder().id(id).name("Category").code("01").project(project).build();
+        return Module.builder().id(id).name("Module").code(projectCode).category(category).build();
+    }
+
+    private static ErrorCodeDto.ErrorCodeResponse response(ErrorCode errorCode) {
+        return ErrorCodeDto.ErrorCodeResponse.fromEntity(errorCode);
+    }
+
+    private static ErrorCode errorCode(Long id, String code, String message, ErrorCode.ErrorSeverity severity,
+                                       Module module) {
+        return ErrorCode.builder()
+                .id(id)
+                .code(code)
+                .message(message)
+                .description(message)
+                .severity(severity)
+                .httpStatus(ErrorCode.HttpStatus.SERVICE_UNAVAILABLE)
+                .isRetryable(true)
+                .module(module)
+                .build();
+    }
+}
@@ -1,21 +1,32 @@
 package com.swift.errorcodesystem.service;
 
 
+import com.swift.errorcodesystem.config.ShardingProperties;
 import com.swift.errorcodesystem.entity.Category;
 import com.swift.errorcodesystem.entity.ErrorCode;
 import com.swift.errorcodesystem.entity.Project;
 import com.swift.errorcodesystem.entity.Module;
+import com.swift.errorcodesystem.event.CatalogChangeEvent;
+import com.swift.errorcodesystem.exception.ResourceNotFoundException;
+import com.swift.errorcodesystem.exception.VersionConflictException;
 import com.swift.errorcodesystem.repository.CategoryRepository;
 import com.swift.errorcodesystem.repository.ErrorCodeRepository;
 import com.swift.errorcodesystem.repository.ModuleRepository;
 import com.swift.errorcodesystem.repository.ProjectRepository;
+import com.swift.errorcodesystem.sharding.ShardRouter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,6 +49,15 @@ class ErrorCodeServiceTest {
     @Mock
     private ErrorCodeRepository errorCodeRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(new ShardingProperties(), null, null);
+
     @InjectMocks
     private ErrorCodeService errorCodeService;
 
@@ -79,6 +99,7 @@ class ErrorCodeServiceTest {
                 .httpStatus(ErrorCode.HttpStatus.BAD_REQUEST)
                 .isRetryable(false)
                 .module(testModule)
+                .version(0L)
                 .build();
     }
 
@@ -107,6 +128,20 @@ class ErrorCodeServiceTest {
         verify(projectRepository, never()).save(any(Project.class));
     }
 
+    @Test
+    void createProject_WithoutSharding_ChecksUniquenessInTheWriteTransaction() {
+        when(projectRepository.save(any(Project.class))).thenReturn(testProject);
+
+        errorCodeService.createProject(testProject);
+
+        // One read-write transaction for the check and the insert, none read-only that could go to a replica
+        ArgumentCaptor<TransactionDefinition> transactions = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(transactions.capture());
+        assertFalse(transactions.getValue().isReadOnly());
+        verify(projectRepository).existsByName(testProject.getName());
+        verify(projectRepository).existsByCode(testProject.getCode());
+    }
+
     @Test
     void createProject_WithInvalidCode_ThrowsException() {
         testProject.setCode("1"); // Invalid code - should be 2 digits
@@ -203,13 +238,13 @@ class ErrorCodeServiceTest {
         assertFalse(result.isEmpty());
         assertEquals(1, result.size());
         assertEquals(testErrorCode.getCode(), result.get(0).getCode());
+        // Cached for later requests, so not the instance of this one's persistence context
+        assertNotSame(testErrorCode, result.get(0));
+        assertEquals(testErrorCode.getModule().getId(), result.get(0).getModule().getId());
     }
 
     @Test
     void updateErrorCode_Success() {
-        when(errorCodeRepository.findById(1L)).thenReturn(Optional.of(testErrorCode));
-        when(errorCodeRepository.save(any(ErrorCode.class))).thenReturn(testErrorCode);
-
         ErrorCode updatedErrorCode = ErrorCode.builder()
                 .message("Updated message")
                 .description("Updated description")
@@ -218,13 +253,48 @@ class ErrorCodeServiceTest {
                 .httpStatus(ErrorCode.HttpStatus.INTERNAL_SERVER_ERROR)
                 .isRetryable(true)
                 .build();
+        testErrorCode.setMessage("Updated message");
+        testErrorCode.setSeverity(ErrorCode.ErrorSeverity.HIGH);
+        when(errorCodeRepository.updateIfVersionMatches(1L, 0L, updatedErrorCode)).thenReturn(1);
+        when(errorCodeRepository.findByIdWithHierarchy(1L)).thenReturn(Optional.of(testErrorCode));
 
-        ErrorCode result = errorCodeService.updateErrorCode(1L, updatedErrorCode);
+        ErrorCode result = errorCodeService.updateErrorCode(1L, updatedErrorCode, 0L);
 
         assertNotNull(result);
         assertEquals("Updated message", result.getMessage());
         assertEquals(ErrorCode.ErrorSeverity.HIGH, result.getSeverity());
-        verify(errorCodeRepository, times(1)).save(any(ErrorCode.class));
+        assertEquals("01-01-01-0001", result.getCode());
+        verify(errorCodeRepository, never()).findById(anyLong());
+        verify(errorCodeRepository, never()).existsById(anyLong());
+        verify(eventPublisher).publishEvent(any(CatalogChangeEvent.class));
+    }
+
+    @Test
+    void updateErrorCode_StaleVersion_ThrowsConflict() {
+        when(errorCodeRepository.updateIfVersionMatches(eq(1L), eq(3L), any(ErrorCode.class))).thenReturn(0);
+        when(errorCodeRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(VersionConflictException.class,
+                () -> errorCodeService.updateErrorCode(1L, new ErrorCode(), 3L));
+        verify(errorCodeRepository, never()).findByIdWithHierarchy(anyLong());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void updateErrorCode_Missing_ThrowsNotFound() {
+        when(errorCodeRepository.updateIfVersionMatches(eq(99L), isNull(), any(ErrorCode.class))).thenReturn(0);
+        when(errorCodeRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> errorCodeService.updateErrorCode(99L, new ErrorCode(), null));
+    }
+
+    @Test
+    void deleteModule_Missing_ThrowsNotFound() {
+        when(moduleRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> errorCodeService.deleteModule(99L));
+        verify(moduleRepository, never()).bulkDeleteById(anyLong());
     }
 
     @Test
@@ -0,0 +1,93 @@
+package com.swift.errorcodesystem.service;
+
+import com.swift.errorcodesystem.dto.ErrorCodeDto;
+import com.swift.errorcodesystem.entity.Category;
+import com.swift.errorcodesystem.entity.ErrorCode;
+import com.swift.errorcodesystem.entity.ErrorCodeTranslation;
+import com.swift.errorcodesystem.entity.Module;
+import com.swift.errorcodesystem.entity.Project;
+import com.swift.errorcodesystem.event.CatalogChangeEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ErrorCodeTemplateServiceTest {
+
+    @Mock
+    private ErrorCodeService errorCodeService;
+
+    private ErrorCodeTemplateService templateService;
+    private ErrorCode declined;
+
+    @BeforeEach
+    void setUp() {
+        templateService = new ErrorCodeTemplateService(errorCodeService);
+        Project project = Project.builder().id(1L).code("01").build();
+        Category category = Category.builder().id(1L).code("01").project(project).build();
+        Module module = Module.builder().id(1L).code("01").category(category).build();
+        declined = ErrorCode.builder()
+                .id(1L)
+                .code("01-01-01-0001")
+                .message("Order {orderId} was declined")
+                .suggestedAction("Use another card for order {orderId}")
+                .httpStatus(ErrorCode.HttpStatus.UNPROCESSABLE_ENTITY)
+                .httpStatusCode(422)
+                .module(module)
+                .version(0L)
+                .build();
+        lenient().when(errorCodeService.getErrorCodeByCode("01-01-01-0001")).thenReturn(Optional.of(declined));
+        lenient().when(errorCodeService.getTranslations(1L)).thenReturn(List.of(ErrorCodeTranslation.builder()
+                .locale("de")
+                .message("Bestellung {orderId} wurde abgelehnt")
+                .build()));
+    }
+
+    @Test
+    void render_FallsBackFromRegionToLanguage() {
+        ErrorCodeDto.RenderedErrorCode rendered = templateService.render("01-01-01-0001",
+                List.of(Locale.forLanguageTag("de-CH")), Map.of("orderId", "A-17")).orElseThrow();
+
+        assertEquals("de", rendered.getLocale());
+        assertEquals("Bestellung A-17 wurde abgelehnt", rendered.getMessage());
+        assertNull(rendered.getSuggestedAction());
+        assertEquals(422, rendered.getHttpStatusCode());
+    }
+
+    @Test
+    void render_WithoutMatchingTranslation_UsesOwnTextsAndReportsMissingArguments() {
+        ErrorCodeDto.RenderedErrorCode rendered = templateService.render("01-01-01-0001",
+                List.of(Locale.forLanguageTag("fr-FR")), Map.of()).orElseThrow();
+
+        assertNull(rendered.getLocale());
+        assertEquals("Order {orderId} was declined", rendered.getMessage());
+        assertEquals(Set.of("orderId"), rendered.getMissingArguments());
+    }
+
+    @Test
+    void render_CompilesOnceUntilTheErrorCodeIsWritten() {
+        templateService.render("01-01-01-0001", List.of(), Map.of());
+        templateService.render("01-01-01-0001", List.of(), Map.of());
+        verify(errorCodeService, times(1)).getErrorCodeByCode("01-01-01-0001");
+
+        templateService.onCatalogChange(CatalogChangeEvent.forErrorCode(declined, CatalogChangeEvent.ChangeType.UPDATED));
+        templateService.render("01-01-01-0001", List.of(), Map.of());
+        verify(errorCodeService, times(2)).getErrorCodeByCode("01-01-01-0001");
+    }
+
+    @Test
+    void render_UnknownCode_ReturnsEmpty() {
+        assertTrue(templateService.render("99-99-99-9999", List.of(), Map.of()).isEmpty());
+    }
+}
@@ -0,0 +1,159 @@
+package com.swift.errorcodesystem.service;
+
+import com.swift.errorcodesystem.config.WritePipelineProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class GroupCommitWritePipelineTest {
+
+    private PlatformTransactionManager transactionManager;
+    private WritePipelineProperties properties;
+    private GroupCommitWritePipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        properties = new WritePipelineProperties();
+        properties.setEnabled(true);
+        properties.setMaxBatchSize(10);
+        properties.setMaxWait(Duration.ofMillis(200));
+        pipeline = new GroupCommitWritePipeline(properties, transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.stop();
+    }
+
+    @Test
+    void submit_WritesWithinWindow_CommitOnce() {
+        pipeline.start();
+
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            int value = i;
+            futures.add(pipeline.submit(1L, () -> value));
+        }
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, futures.get(i).join());
+        }
+        verify(transactionManager, times(1)).commit(any(TransactionStatus.class));
+    }
+
+    @Test
+    void submit_SamePartition_RunsInSubmissionOrder() {
+        properties.setMaxBatchSize(3);
+        pipeline.start();
+
+        List<Integer> executed = new ArrayList<>();
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            int value = i;
+            futures.add(pipeline.submit(7L, () -> executed.add(value)));
+        }
+        futures.forEach(CompletableFuture::join);
+
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), executed);
+    }
+
+    @Test
+    void submit_FailingWrite_OnlyThatCallerFails() {
+        pipeline.start();
+
+        CompletableFuture<String> first = pipeline.submit(1L, () -> "first");
+        CompletableFuture<String> failing = pipeline.submit(1L, () -> {
+            throw new IllegalArgumentException("Module not found");
+        });
+        CompletableFuture<String> last = pipeline.submit(1L, () -> "last");
+
+        assertEquals("first", first.join());
+        assertEquals("last", last.join());
+        CompletionException e = assertThrows(CompletionException.class, failing::join);
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+        verify(transactionManager, atLeastOnce()).rollback(any(TransactionStatus.class));
+    }
+
+    @Test
+    void submit_QueueFull_Rejects() throws Exception {
+        properties.setQueueCapacity(1);
+        properties.setMaxBatchSize(1);
+        pipeline.start();
+
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> blocking = pipeline.submit(1L, () -> {
+            running.countDown();
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        pipeline.submit(1L, () -> true);
+
+        assertThrows(RejectedExecutionException.class, () -> pipeline.submit(1L, () -> true));
+        release.countDown();
+        assertTrue(blocking.join());
+    }
+
+    @Test
+    void submit_Disabled_Throws() {
+        properties.setEnabled(false);
+        pipeline.start();
+
+        assertFalse(pipeline.isEnabled());
+        assertThrows(IllegalStateException.class, () -> pipeline.submit(1L, () -> true));
+    }
+
+    @Test
+    void submit_StalledPartition_TimesOutAndSkipsQueuedWrite() throws Exception {
+        properties.setMaxBatchSize(1);
+        properties.setResponseTimeout(Duration.ofMillis(100));
+        pipeline.start();
+
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> executed = new ArrayList<>();
+        CompletableFuture<Boolean> stalled = pipeline.submit(1L, () -> {
+            running.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return executed.add(1);
+        });
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = pipeline.submit(1L, () -> executed.add(2));
+
+        CompletionException e = assertThrows(CompletionException.class, queued::join);
+        assertInstanceOf(TimeoutException.class, e.getCause());
+        assertThrows(CompletionException.class, stalled::join);
+        release.countDown();
+        pipeline.stop();
+
+        // The running write still completes; the one that never started is dropped
+        assertEquals(List.of(1), executed);
+    }
+}
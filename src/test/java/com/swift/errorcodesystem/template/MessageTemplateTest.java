@@ -0,0 +1,71 @@
+package com.swift.errorcodesystem.template;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageTemplateTest {
+
+    @Test
+    void render_FillsInNamedParameters() {
+        MessageTemplate template = MessageTemplate.compile("Order {orderId} failed: {reason}, order {orderId} kept");
+
+        assertEquals(Set.of("orderId", "reason"), template.getParameters());
+        assertEquals("Order 42 failed: card declined, order 42 kept",
+                template.render(Map.of("orderId", 42, "reason", "card declined")));
+    }
+
+    @Test
+    void render_MissingArgumentsStayAsWritten() {
+        MessageTemplate template = MessageTemplate.compile("Retry order {orderId} after {seconds.wait}s");
+
+        assertEquals("Retry order 7 after {seconds.wait}s", template.render(Map.of("orderId", 7)));
+        assertEquals(Set.of("seconds.wait"), template.missingArguments(Map.of("orderId", 7)));
+        assertEquals("Retry order {orderId} after {seconds.wait}s", template.render(null));
+    }
+
+    @Test
+    void compile_EscapedAndUnmatchedBracesAreLiteral() {
+        MessageTemplate template = MessageTemplate.compile("Use {{id}} or {not a parameter} or { or {id");
+
+        assertFalse(template.hasParameters());
+        assertEquals("Use {id} or {not a parameter} or { or {id", template.render(Map.of("id", 1)));
+    }
+
+    @Test
+    void render_PlainTextReturnsItself() {
+        String message = "Payment gateway timeout";
+
+        assertSame(message, MessageTemplate.compile(message).render(Map.of()));
+        assertEquals("", MessageTemplate.compile(null).render(Map.of()));
+    }
+
+    @Test
+    void chain_DropsVariantRegionAndScriptInTurn() {
+        assertEquals(List.of("zh-Hant-TW", "zh-Hant", "zh"), LocaleFallback.chain(Locale.forLanguageTag("zh-Hant-TW")));
+        assertEquals(List.of("de-CH", "de"), LocaleFallback.chain(Locale.forLanguageTag("de-CH")));
+        assertEquals(List.of(), LocaleFallback.chain(Locale.ROOT));
+    }
+
+    @Test
+    void chainAndAcceptLanguage_AreMemoized() {
+        Locale swissGerman = Locale.forLanguageTag("de-CH");
+        String acceptLanguage = "de-CH, fr;q=0.8, *;q=0.1";
+
+        assertSame(LocaleFallback.chain(swissGerman), LocaleFallback.chain(Locale.forLanguageTag("de-CH")));
+        assertEquals(List.of(swissGerman, Locale.FRENCH), LocaleFallback.parseAcceptLanguage(acceptLanguage));
+        assertSame(LocaleFallback.parseAcceptLanguage(acceptLanguage), LocaleFallback.parseAcceptLanguage(acceptLanguage));
+    }
+
+    @Test
+    void canonicalTag_NormalizesCaseAndRejectsMalformedTags() {
+        assertEquals("de-CH", LocaleFallback.canonicalTag("de_ch"));
+        assertThrows(IllegalArgumentException.class, () -> LocaleFallback.canonicalTag("not a locale"));
+        assertThrows(IllegalArgumentException.class, () -> LocaleFallback.canonicalTag(" "));
+    }
+}